@@ -0,0 +1,80 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RangeSource} backed by an {@link AsynchronousFileChannel}, see {@link RangeSource#openAsync(Path)}.
+ *
+ * <p>Reads are issued to the OS without blocking the calling thread, which lets the {@link ChunkDecoder} overlap reading
+ * chunks with decoding them.
+ */
+record AsyncFileRangeSource(AsynchronousFileChannel channel) implements RangeSource {
+
+    AsyncFileRangeSource {
+        requireNonNull(channel);
+    }
+
+    static AsyncFileRangeSource open(Path path) throws IOException {
+        return new AsyncFileRangeSource(AsynchronousFileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    @Override
+    public ByteBuffer read(long offset, int length) throws IOException {
+        try {
+            return readAsync(offset, length).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted reading " + length + " bytes at " + offset);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ByteBuffer> readAsync(long offset, int length) {
+        checkArgument(offset >= 0 && length >= 0, "Invalid range, offset %s and length %s", offset, length);
+
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+
+        channel.read(bytes, offset, future, new CompletionHandler<>() {
+            @Override
+            public void completed(Integer read, CompletableFuture<ByteBuffer> future) {
+                // zero-padded past the end of the file consistent with positional reads of local files
+                if (read < 0 || !bytes.hasRemaining()) {
+                    future.complete(bytes.position(0));
+                } else {
+                    channel.read(bytes, offset + bytes.position(), future, this);
+                }
+            }
+
+            @Override
+            public void failed(Throwable exc, CompletableFuture<ByteBuffer> future) {
+                future.completeExceptionally(exc);
+            }
+        });
+
+        return future;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
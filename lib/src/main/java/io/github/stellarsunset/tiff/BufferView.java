@@ -1,6 +1,12 @@
 package io.github.stellarsunset.tiff;
 
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -94,13 +100,25 @@ public sealed interface BufferView {
         }
 
         public byte[] readBytes(int index, int count) {
-            int max = index + count;
             byte[] bytes = new byte[count];
-            for (int i = index; i < max; i++) {
-                bytes[i - index] = getByte(i);
-            }
+            readBytes(index, bytes, 0, count);
             return bytes;
         }
+
+        /**
+         * Bulk copy {@code count} bytes starting at the index into the destination array.
+         */
+        public void readBytes(int index, byte[] dst, int dstOffset, int count) {
+            delegate.get(absolute(index), dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} bytes from the source array into the buffer starting at the index.
+         */
+        public Byte writeBytes(int index, byte[] src, int srcOffset, int count) {
+            delegate.put(absolute(index), src, srcOffset, count);
+            return this;
+        }
     }
 
     record Char(ByteBuffer delegate, int startByte, int lengthBytes) implements BufferView {
@@ -128,13 +146,31 @@ public sealed interface BufferView {
         }
 
         public char[] readChars(int index, int count) {
-            int max = index + count;
             char[] chars = new char[count];
-            for (int i = index; i < max; i++) {
-                chars[i - index] = getChar(i);
-            }
+            readChars(index, chars, 0, count);
             return chars;
         }
+
+        /**
+         * Bulk copy {@code count} values starting at the index into the destination array, converting the whole range from
+         * the byte order of the delegate in a single pass rather than a value at a time.
+         */
+        public void readChars(int index, char[] dst, int dstOffset, int count) {
+            view(index, count).get(dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} values from the source array into the buffer starting at the index, the inverse of
+         * {@link #readChars(int, char[], int, int)}.
+         */
+        public Char writeChars(int index, char[] src, int srcOffset, int count) {
+            view(index, count).put(src, srcOffset, count);
+            return this;
+        }
+
+        private CharBuffer view(int index, int count) {
+            return delegate.slice(absolute(index), count * Character.BYTES).order(delegate.order()).asCharBuffer();
+        }
     }
 
     record Short(ByteBuffer delegate, int startByte, int lengthBytes) implements BufferView {
@@ -162,13 +198,31 @@ public sealed interface BufferView {
         }
 
         public short[] readShorts(int index, int count) {
-            int max = index + count;
             short[] shorts = new short[count];
-            for (int i = index; i < max; i++) {
-                shorts[i - index] = getShort(i);
-            }
+            readShorts(index, shorts, 0, count);
             return shorts;
         }
+
+        /**
+         * Bulk copy {@code count} values starting at the index into the destination array, converting the whole range from
+         * the byte order of the delegate in a single pass rather than a value at a time.
+         */
+        public void readShorts(int index, short[] dst, int dstOffset, int count) {
+            view(index, count).get(dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} values from the source array into the buffer starting at the index, the inverse of
+         * {@link #readShorts(int, short[], int, int)}.
+         */
+        public Short writeShorts(int index, short[] src, int srcOffset, int count) {
+            view(index, count).put(src, srcOffset, count);
+            return this;
+        }
+
+        private ShortBuffer view(int index, int count) {
+            return delegate.slice(absolute(index), count * java.lang.Short.BYTES).order(delegate.order()).asShortBuffer();
+        }
     }
 
     record Int(ByteBuffer delegate, int startByte, int lengthBytes) implements BufferView {
@@ -196,13 +250,31 @@ public sealed interface BufferView {
         }
 
         public int[] readInts(int index, int count) {
-            int max = index + count;
             int[] ints = new int[count];
-            for (int i = index; i < max; i++) {
-                ints[i - index] = getInt(i);
-            }
+            readInts(index, ints, 0, count);
             return ints;
         }
+
+        /**
+         * Bulk copy {@code count} values starting at the index into the destination array, converting the whole range from
+         * the byte order of the delegate in a single pass rather than a value at a time.
+         */
+        public void readInts(int index, int[] dst, int dstOffset, int count) {
+            view(index, count).get(dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} values from the source array into the buffer starting at the index, the inverse of
+         * {@link #readInts(int, int[], int, int)}.
+         */
+        public Int writeInts(int index, int[] src, int srcOffset, int count) {
+            view(index, count).put(src, srcOffset, count);
+            return this;
+        }
+
+        private IntBuffer view(int index, int count) {
+            return delegate.slice(absolute(index), count * Integer.BYTES).order(delegate.order()).asIntBuffer();
+        }
     }
 
     record Float(ByteBuffer delegate, int startByte, int lengthBytes) implements BufferView {
@@ -230,13 +302,31 @@ public sealed interface BufferView {
         }
 
         public float[] readFloats(int index, int count) {
-            int max = index + count;
             float[] floats = new float[count];
-            for (int i = index; i < max; i++) {
-                floats[i - index] = getFloat(i);
-            }
+            readFloats(index, floats, 0, count);
             return floats;
         }
+
+        /**
+         * Bulk copy {@code count} values starting at the index into the destination array, converting the whole range from
+         * the byte order of the delegate in a single pass rather than a value at a time.
+         */
+        public void readFloats(int index, float[] dst, int dstOffset, int count) {
+            view(index, count).get(dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} values from the source array into the buffer starting at the index, the inverse of
+         * {@link #readFloats(int, float[], int, int)}.
+         */
+        public Float writeFloats(int index, float[] src, int srcOffset, int count) {
+            view(index, count).put(src, srcOffset, count);
+            return this;
+        }
+
+        private FloatBuffer view(int index, int count) {
+            return delegate.slice(absolute(index), count * java.lang.Float.BYTES).order(delegate.order()).asFloatBuffer();
+        }
     }
 
     record Long(ByteBuffer delegate, int startByte, int lengthBytes) implements BufferView {
@@ -264,13 +354,31 @@ public sealed interface BufferView {
         }
 
         public long[] readLongs(int index, int count) {
-            int max = index + count;
             long[] longs = new long[count];
-            for (int i = index; i < max; i++) {
-                longs[i - index] = getLong(i);
-            }
+            readLongs(index, longs, 0, count);
             return longs;
         }
+
+        /**
+         * Bulk copy {@code count} values starting at the index into the destination array, converting the whole range from
+         * the byte order of the delegate in a single pass rather than a value at a time.
+         */
+        public void readLongs(int index, long[] dst, int dstOffset, int count) {
+            view(index, count).get(dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} values from the source array into the buffer starting at the index, the inverse of
+         * {@link #readLongs(int, long[], int, int)}.
+         */
+        public Long writeLongs(int index, long[] src, int srcOffset, int count) {
+            view(index, count).put(src, srcOffset, count);
+            return this;
+        }
+
+        private LongBuffer view(int index, int count) {
+            return delegate.slice(absolute(index), count * java.lang.Long.BYTES).order(delegate.order()).asLongBuffer();
+        }
     }
 
     record Double(ByteBuffer delegate, int startByte, int lengthBytes) implements BufferView {
@@ -298,12 +406,30 @@ public sealed interface BufferView {
         }
 
         public double[] readDoubles(int index, int count) {
-            int max = index + count;
             double[] doubles = new double[count];
-            for (int i = index; i < max; i++) {
-                doubles[i - index] = getDouble(i);
-            }
+            readDoubles(index, doubles, 0, count);
             return doubles;
         }
+
+        /**
+         * Bulk copy {@code count} values starting at the index into the destination array, converting the whole range from
+         * the byte order of the delegate in a single pass rather than a value at a time.
+         */
+        public void readDoubles(int index, double[] dst, int dstOffset, int count) {
+            view(index, count).get(dst, dstOffset, count);
+        }
+
+        /**
+         * Bulk copy {@code count} values from the source array into the buffer starting at the index, the inverse of
+         * {@link #readDoubles(int, double[], int, int)}.
+         */
+        public Double writeDoubles(int index, double[] src, int srcOffset, int count) {
+            view(index, count).put(src, srcOffset, count);
+            return this;
+        }
+
+        private DoubleBuffer view(int index, int count) {
+            return delegate.slice(absolute(index), count * java.lang.Double.BYTES).order(delegate.order()).asDoubleBuffer();
+        }
     }
 }
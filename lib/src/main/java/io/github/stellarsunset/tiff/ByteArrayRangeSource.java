@@ -0,0 +1,32 @@
+package io.github.stellarsunset.tiff;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RangeSource} backed by the in-memory contents of a file, see {@link RangeSource#of(byte[])}.
+ */
+record ByteArrayRangeSource(byte[] bytes) implements RangeSource {
+
+    ByteArrayRangeSource {
+        requireNonNull(bytes);
+    }
+
+    @Override
+    public ByteBuffer read(long offset, int length) {
+        checkArgument(offset >= 0 && offset + length <= bytes.length,
+                "Requested range [%s, %s) outside of file of size %s.", offset, offset + length, bytes.length);
+        return ByteBuffer.wrap(bytes, (int) offset, length).slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public long size() {
+        return bytes.length;
+    }
+
+    @Override
+    public void close() {
+    }
+}
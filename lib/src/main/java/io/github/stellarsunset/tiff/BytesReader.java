@@ -2,19 +2,63 @@ package io.github.stellarsunset.tiff;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 
+/**
+ * Reads ranges of bytes out of the channel pointing to the underlying TIFF file.
+ *
+ * <p>Reads are positional and safe to issue concurrently from multiple threads against the same channel, this allows a
+ * single open {@link TiffFile} (and the {@link Image.Lazy} handles that hold its channel) to be shared across threads:
+ * <ol>
+ *     <li>{@link MappedByteChannel}s hand out read-only views of the mapping, never touching the channel position</li>
+ *     <li>{@link PrefetchedByteChannel}s hand out read-only views of their in-memory window (under a lock)</li>
+ *     <li>{@link RangeSource} channels (see {@link RangeSource#asChannel()}) read directly from the source</li>
+ *     <li>{@link FileChannel}s use {@link FileChannel#read(ByteBuffer, long)} which doesn't touch the channel position</li>
+ *     <li>All other {@link SeekableByteChannel}s fall back to a seek and read while holding the channel's lock</li>
+ * </ol>
+ *
+ * <p>When the channel is a {@link MappedByteChannel} (or {@link PrefetchedByteChannel}) the returned buffers may be
+ * read-only views directly over the mapped file rather than copies, callers should therefore never write into the
+ * returned buffers.
+ */
 public record BytesReader(SeekableByteChannel channel) {
 
     public ByteBuffer readBytes(long position, int bytesToRead) {
         try {
-            channel.position(position);
-            ByteBuffer bytes = ByteBuffer.allocate(bytesToRead);
-            channel.read(bytes);
-            return bytes.position(0); // move back to offset 0
-        } catch (IOException e) {
+            return switch (channel) {
+                case MappedByteChannel mapped -> mapped.slice(position, bytesToRead);
+                case PrefetchedByteChannel prefetched -> prefetched.readBytes(position, bytesToRead);
+                case RangeSourceChannel source -> source.source().read(position, bytesToRead);
+                case FileChannel file -> readPositional(file, position, bytesToRead);
+                default -> readLocked(channel, position, bytesToRead);
+            };
+        } catch (IOException | IllegalArgumentException e) {
             String message = String.format("Unable to read %d bytes at position %d in file.", bytesToRead, position);
             throw new IllegalArgumentException(message, e);
         }
     }
+
+    static ByteBuffer readPositional(FileChannel file, long position, int bytesToRead) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(bytesToRead);
+        while (bytes.hasRemaining()) {
+            if (file.read(bytes, position + bytes.position()) < 0) {
+                break;
+            }
+        }
+        return bytes.position(0); // move back to offset 0
+    }
+
+    private static ByteBuffer readLocked(SeekableByteChannel channel, long position, int bytesToRead) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(bytesToRead);
+        synchronized (channel) {
+            channel.position(position);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) {
+                    break;
+                }
+            }
+        }
+        return bytes.position(0); // move back to offset 0
+    }
 }
@@ -0,0 +1,135 @@
+package io.github.stellarsunset.tiff;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RangeSource} serving reads from a bounded cache of fixed-size blocks of an underlying source, see
+ * {@link RangeSource#cached(RangeSource, int, long)}.
+ *
+ * <p>Missing blocks covered by a read are fetched from the underlying source in as few contiguous reads as possible and
+ * the least-recently-used blocks are evicted once the cache exceeds its budget. Reads larger than a quarter of the cache
+ * are passed straight through so that bulk image data doesn't evict the (frequently re-read) metadata blocks.
+ */
+final class CachingRangeSource implements RangeSource {
+
+    private final RangeSource source;
+
+    private final int blockBytes;
+
+    private final long bypassBytes;
+
+    private final Cache<Long, byte[]> blocks;
+
+    private volatile long size = -1;
+
+    CachingRangeSource(RangeSource source, int blockBytes, long maximumBytes) {
+        checkArgument(blockBytes > 0, "Block size should be positive, was %s", blockBytes);
+        checkArgument(maximumBytes >= blockBytes, "Cache size (%s) should hold at least one block (%s)", maximumBytes, blockBytes);
+        this.source = requireNonNull(source);
+        this.blockBytes = blockBytes;
+        this.bypassBytes = maximumBytes / 4;
+        this.blocks = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Long _, byte[] block) -> block.length)
+                .build();
+    }
+
+    @Override
+    public ByteBuffer read(long offset, int length) throws IOException {
+        checkArgument(offset >= 0 && length >= 0, "Invalid range, offset %s and length %s", offset, length);
+
+        long end = Math.min(offset + length, size());
+        if (length > bypassBytes || end <= offset) {
+            return source.read(offset, length);
+        }
+
+        long firstBlock = offset / blockBytes;
+        long lastBlock = (end - 1) / blockBytes;
+
+        byte[][] covering = new byte[(int) (lastBlock - firstBlock + 1)][];
+        for (long block = firstBlock; block <= lastBlock; block++) {
+            covering[(int) (block - firstBlock)] = blocks.getIfPresent(block);
+        }
+
+        // fetch each run of consecutive missing blocks with a single read
+        for (int i = 0; i < covering.length; i++) {
+            if (covering[i] == null) {
+                int run = i;
+                while (run < covering.length && covering[run] == null) {
+                    run++;
+                }
+                fetch(firstBlock + i, run - i, covering, i);
+                i = run;
+            }
+        }
+
+        // zero-padded past the end of the file consistent with reads of local files
+        byte[] result = new byte[length];
+        for (long position = offset; position < end; ) {
+            long block = position / blockBytes;
+            int within = (int) (position - block * blockBytes);
+
+            byte[] contents = covering[(int) (block - firstBlock)];
+            int n = (int) Math.min(contents.length - within, end - position);
+
+            System.arraycopy(contents, within, result, (int) (position - offset), n);
+            position += n;
+        }
+
+        return ByteBuffer.wrap(result);
+    }
+
+    /**
+     * Reads which bypass the cache are issued asynchronously against the underlying source, other reads are served from
+     * (or loaded into) the cache synchronously.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> readAsync(long offset, int length) {
+        return length > bypassBytes ? source.readAsync(offset, length) : RangeSource.super.readAsync(offset, length);
+    }
+
+    /**
+     * Fetch {@code count} consecutive blocks starting at {@code firstBlock} from the source, adding them to the cache and
+     * to the covering array starting at {@code index}.
+     */
+    private void fetch(long firstBlock, int count, byte[][] covering, int index) throws IOException {
+
+        long start = firstBlock * blockBytes;
+        long end = Math.min((firstBlock + count) * blockBytes, size());
+
+        ByteBuffer bytes = source.read(start, (int) (end - start));
+
+        for (int i = 0; i < count; i++) {
+            long blockStart = start + (long) i * blockBytes;
+
+            byte[] block = new byte[(int) (Math.min(blockStart + blockBytes, end) - blockStart)];
+            bytes.get(bytes.position() + (int) (blockStart - start), block);
+
+            blocks.put(firstBlock + i, block);
+            covering[index + i] = block;
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        long known = size;
+        if (known < 0) {
+            size = known = source.size();
+        }
+        return known;
+    }
+
+    @Override
+    public void close() throws IOException {
+        blocks.invalidateAll();
+        source.close();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.stellarsunset.tiff;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded cache of decoded image chunks (strips or tiles, see {@link ChunkLayout}) which can be shared across images
+ * and files.
+ *
+ * <p>Entries are keyed by the file, the offset of the image's {@link Ifd} within the file and the index of the chunk
+ * within the image and are weighed by their decoded size in bytes. Once the total decoded size of the cached chunks exceeds the budget
+ * the least-recently-used chunks are evicted.
+ *
+ * <p>This sits between never caching image contents (re-decoding the whole image on each access) and the
+ * {@link Image.Lazy} handles which hold onto the fully materialized image forever, see {@link Image.Chunked}.
+ *
+ * <p>Caches are safe to share between threads.
+ */
+public final class ChunkCache {
+
+    private final Cache<Key, Chunk> cache;
+
+    private ChunkCache(Cache<Key, Chunk> cache) {
+        this.cache = requireNonNull(cache);
+    }
+
+    /**
+     * Create a new cache which holds at most (approximately) the provided number of bytes of decoded chunk data.
+     *
+     * <p>The budget is split between the internal segments of the cache so it should be sized to hold many chunks, a
+     * chunk larger than a fraction of the budget may be evicted as soon as it's loaded.
+     */
+    public static ChunkCache create(long maximumBytes) {
+        checkArgument(maximumBytes >= 0, "Maximum bytes should be non-negative, was %s", maximumBytes);
+        return new ChunkCache(
+                CacheBuilder.newBuilder()
+                        .maximumWeight(maximumBytes)
+                        .weigher((Key _, Chunk chunk) -> chunk.bytes())
+                        .recordStats()
+                        .build()
+        );
+    }
+
+    /**
+     * Returns the cached chunk for the key, decoding it with the provided loader on a miss.
+     *
+     * <p>Concurrent requests for the same missing chunk wait on a single load rather than decoding it multiple times.
+     *
+     * @param key    the key of the chunk
+     * @param bytes  the decoded size of the chunk in bytes, used to weigh the entry
+     * @param loader decodes the chunk on a cache miss
+     */
+    <T> T get(Key key, int bytes, Supplier<T> loader) {
+        try {
+            @SuppressWarnings("unchecked")
+            T value = (T) cache.get(key, () -> new Chunk(loader.get(), bytes)).value();
+            return value;
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The total number of decoded chunks currently held by the cache.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    /**
+     * Discard the cached chunks of a single file, e.g. after closing it.
+     *
+     * @param file the identity of the file, see {@link Key#file()}
+     */
+    public void invalidate(Object file) {
+        requireNonNull(file);
+        cache.asMap().keySet().removeIf(key -> key.file().equals(file));
+    }
+
+    /**
+     * Discard all cached chunks, e.g. after closing the files they were read from.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Identifies a single chunk of an image in a file.
+     *
+     * @param file  the identity of the file, the open channel to the file for {@link Image.Chunked} handles (see
+     *              {@link TiffFile#channel()})
+     * @param image the offset of the image's {@link Ifd} within the file, see {@link Ifd#offset()}
+     * @param chunk the index of the chunk within the image
+     */
+    public record Key(Object file, long image, int chunk) {
+    }
+
+    /**
+     * Snapshot of the cumulative cache statistics.
+     *
+     * @param hitCount      the number of lookups which found a cached chunk
+     * @param missCount     the number of lookups which had to decode the chunk
+     * @param evictionCount the number of chunks evicted to stay within the budget
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount) {
+    }
+
+    private record Chunk(Object value, int bytes) {
+    }
+}
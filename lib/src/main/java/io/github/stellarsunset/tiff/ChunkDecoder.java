@@ -0,0 +1,640 @@
+package io.github.stellarsunset.tiff;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.github.stellarsunset.tiff.baseline.ImageDimensions;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
+import io.github.stellarsunset.tiff.baseline.tag.Compression;
+import io.github.stellarsunset.tiff.compress.Compressor;
+import io.github.stellarsunset.tiff.compress.Compressors;
+import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
+import io.github.stellarsunset.tiff.extension.tag.PlanarConfiguration;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Shared implementation behind the {@link Raster.Reader}s, decodes the individual chunks (strips or tiles) described by
+ * a {@link ChunkLayout} into primitive arrays and assembles them into a full raster.
+ *
+ * <p>Each chunk is fetched, decompressed, un-predicted and copied into a region of the raster disjoint from all other
+ * chunks, so chunks can be decoded concurrently on a caller-provided {@link Executor}. Chunks which are adjacent in the
+ * file are fetched together in a single read, see {@link RangePlanner}.
+ *
+ * <p>When reading from a {@link RangeSource} the reads are pipelined, a bounded number are issued asynchronously and each
+ * chunk is decoded on the executor as soon as its bytes arrive, see {@link RangeSource#readAsync(long, int)}.
+ *
+ * <p>Decoders can select a subset of the bands (components) of each pixel, decoded chunks then only contain the selected
+ * bands in the selected order. For planar images ({@link PlanarConfiguration}=2) each band of a chunk is stored as its own
+ * chunk in the file and only the chunks of the selected bands are read and decompressed, the bands of chunky images are
+ * picked out of each decoded chunk.
+ *
+ * <p>Sub-byte samples (e.g. the 1-bit pixels of bi-level images) are decoded into one byte per sample, rows of packed
+ * samples are padded to a whole number of bytes in the file, see {@link PackedRows}.
+ *
+ * <p>Keep package private to keep off client classpath.
+ */
+final class ChunkDecoder<A> {
+
+    /**
+     * Largest scratch buffer kept per-thread, enough for a 512x512 tile of 16-bit samples with 8 components per pixel,
+     * larger chunks (e.g. single-strip images) are decompressed into buffers allocated for the call.
+     */
+    private static final int MAX_RETAINED_SCRATCH = 4 * 1024 * 1024;
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[0]);
+
+    private final Samples<A> samples;
+
+    private final BytesReader reader;
+
+    private final ByteOrder order;
+
+    private final BytesAdapter adapter;
+
+    private final Compressor compressor;
+
+    private final DifferencingPredictor predictor;
+
+    private final ChunkLayout layout;
+
+    /**
+     * The number of components per pixel of the decoded chunks, i.e. the number of selected bands.
+     */
+    private final int componentsPerPixel;
+
+    /**
+     * The number of components per pixel stored in the file.
+     */
+    private final int storedComponents;
+
+    /**
+     * The selected bands, in the order they appear in the decoded chunks.
+     */
+    private final int[] bands;
+
+    private final boolean planar;
+
+    /**
+     * The number of bits in each stored sample if less than a byte (1, 2 or 4), otherwise zero.
+     */
+    private final int packedBits;
+
+    private final RangePlanner planner;
+
+    ChunkDecoder(Samples<A> samples, SeekableByteChannel channel, ByteOrder order, Ifd ifd, ChunkLayout layout,
+                 int componentsPerPixel) {
+        this(samples, channel, order, ifd, layout, componentsPerPixel, RangePlanner.DEFAULT);
+    }
+
+    ChunkDecoder(Samples<A> samples, SeekableByteChannel channel, ByteOrder order, Ifd ifd, ChunkLayout layout,
+                 int componentsPerPixel, RangePlanner planner) {
+        this(samples, channel, order, ifd, layout, componentsPerPixel, IntStream.range(0, componentsPerPixel).toArray(), planner);
+    }
+
+    ChunkDecoder(Samples<A> samples, SeekableByteChannel channel, ByteOrder order, Ifd ifd, ChunkLayout layout,
+                 int componentsPerPixel, int[] bands) {
+        this(samples, channel, order, ifd, layout, componentsPerPixel, bands, RangePlanner.DEFAULT);
+    }
+
+    /**
+     * @param componentsPerPixel the number of components per pixel stored in the file
+     * @param bands              the (distinct) bands to decode, in the order they should appear in the decoded chunks
+     */
+    ChunkDecoder(Samples<A> samples, SeekableByteChannel channel, ByteOrder order, Ifd ifd, ChunkLayout layout,
+                 int componentsPerPixel, int[] bands, RangePlanner planner) {
+        checkArgument(bands.length > 0, "Should select at least one band.");
+        checkArgument(IntStream.of(bands).allMatch(b -> b >= 0 && b < componentsPerPixel),
+                "Bands %s should be within [0, %s)", Arrays.toString(bands), componentsPerPixel);
+        checkArgument(IntStream.of(bands).distinct().count() == bands.length,
+                "Bands %s should be distinct", Arrays.toString(bands));
+
+        this.samples = requireNonNull(samples);
+        this.reader = new BytesReader(channel);
+        this.order = requireNonNull(order);
+        this.adapter = BytesAdapter.of(order);
+        this.compressor = Compressors.getInstance().compressorFor(Compression.get(ifd));
+        this.predictor = DifferencingPredictor.get(ifd);
+        this.layout = requireNonNull(layout);
+        this.componentsPerPixel = bands.length;
+        this.storedComponents = componentsPerPixel;
+        this.bands = bands.clone();
+        this.planar = componentsPerPixel > 1 && PlanarConfiguration.getIfPresent(ifd).orElse(1) == 2;
+        this.packedBits = packedBits(samples, ifd);
+        this.planner = requireNonNull(planner);
+
+        checkArgument(packedBits == 0 || predictor instanceof DifferencingPredictor.Noop,
+                "Differencing predictors aren't supported for (%s) bit samples.", packedBits);
+        checkArgument(!planar || layout.offsets().length >= layout.numberOfChunks() * componentsPerPixel,
+                "Planar image should have (%s) chunks for each of (%s) bands, had (%s) in total",
+                layout.numberOfChunks(), componentsPerPixel, layout.offsets().length);
+    }
+
+    private static int packedBits(Samples<?> samples, Ifd ifd) {
+        int bitsPerSample = BitsPerSample.getIfPresent(ifd).map(bits -> bits[0]).orElse(Byte.SIZE);
+        if (bitsPerSample >= Byte.SIZE) {
+            return 0;
+        }
+        checkArgument(bitsPerSample == 1 || bitsPerSample == 2 || bitsPerSample == 4,
+                "Unable to read (%s) bit samples, sub-byte samples should be 1, 2 or 4 bits.", bitsPerSample);
+        checkArgument(samples == Samples.BYTES,
+                "Sub-byte samples of (%s) bits can only be read as bytes.", bitsPerSample);
+        return bitsPerSample;
+    }
+
+    /**
+     * Run the action for each of the provided chunks, concurrently if the executor is anything but a direct executor.
+     *
+     * <p>Any exception thrown by the action is re-thrown on the calling thread after all submitted actions complete.
+     */
+    static void forEachChunk(int[] chunks, Executor executor, IntConsumer action) {
+        if (executor == MoreExecutors.directExecutor()) {
+            for (int chunk : chunks) {
+                action.accept(chunk);
+            }
+            return;
+        }
+
+        CompletableFuture<?>[] futures = IntStream.of(chunks)
+                .mapToObj(chunk -> CompletableFuture.runAsync(() -> action.accept(chunk), executor))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    ChunkLayout layout() {
+        return layout;
+    }
+
+    /**
+     * The number of samples in each row of a decoded chunk.
+     */
+    int chunkRowSamples() {
+        return layout.chunkWidth() * componentsPerPixel;
+    }
+
+    /**
+     * Decode the chunk into an array containing its {@link ChunkLayout#rows(int)} rows of {@link #chunkRowSamples()}
+     * samples, any padding rows stored past the end of the image are dropped.
+     */
+    A decode(int chunk) {
+        AtomicReference<A> decoded = new AtomicReference<>();
+        decodeEach(new int[]{chunk}, MoreExecutors.directExecutor(), (_, d) -> decoded.set(d));
+        return decoded.get();
+    }
+
+    /**
+     * Decode a chunk stored in the file from its already-fetched compressed bytes, for planar images stored chunks are
+     * numbered {@code band * numberOfChunks + chunk} and contain a single band.
+     */
+    private A decodeStored(int stored, ByteBuffer compressed) {
+
+        int chunk = stored % layout.numberOfChunks();
+
+        int rows = layout.rows(chunk);
+        int rowSamples = layout.chunkWidth() * (planar ? 1 : storedComponents);
+        int rowBytes = packedBits == 0 ? rowSamples * samples.bytes() : PackedRows.rowBytes(rowSamples, packedBits);
+
+        ByteBuffer decompressed = scratch(rows * rowBytes);
+
+        int length = compressor.decompress(compressed, decompressed, adapter);
+
+        checkArgument(length == rows * rowBytes,
+                "Incorrect number of uncompressed bytes (%s) in chunk# (%s), expected (%s) rows of (%s) bytes.",
+                length, stored, rows, rowBytes);
+
+        if (packedBits != 0) {
+            A decoded = samples.allocate(rows * rowSamples);
+            for (int row = 0; row < rows; row++) {
+                PackedRows.unpack(decompressed.array(), decompressed.arrayOffset() + row * rowBytes, packedBits,
+                        (byte[]) decoded, row * rowSamples, rowSamples);
+            }
+            return decoded;
+        }
+
+        // horizontal differencing of integer samples is undone on the converted samples with the primitive kernels
+        DifferencingPredictor.Planar1Horizontal horizontal =
+                predictor instanceof DifferencingPredictor.Planar1Horizontal h ? h : null;
+        Samples.Differencer<A> differencer = horizontal == null ? null : samples.differencer().orElse(null);
+
+        if (differencer == null) {
+            for (int row = 0; row < rows; row++) {
+                predictor.unpack(samples.predictorView(decompressed.slice(row * rowBytes, rowBytes).order(order)));
+            }
+        }
+
+        // rows are contiguous in both the buffer and the decoded chunk, so convert them all in a single bulk copy
+        A decoded = samples.allocate(rows * rowSamples);
+        samples.read(decompressed.slice(0, rows * rowBytes).order(order), decoded, 0, rows * rowSamples);
+
+        if (differencer != null) {
+            for (int row = 0; row < rows; row++) {
+                differencer.unpack(horizontal, decoded, row * rowSamples, rowSamples);
+            }
+        }
+
+        return decoded;
+    }
+
+    /**
+     * Returns a per-thread scratch buffer with the requested number of bytes remaining to decompress chunks into, the
+     * decompressed bytes are copied out into primitive arrays before the next chunk is decoded on the thread.
+     *
+     * <p>Requests larger than {@link #MAX_RETAINED_SCRATCH} get a fresh buffer so threads (e.g. of a long-lived common
+     * pool) don't pin the largest chunk they've ever decoded.
+     */
+    private static ByteBuffer scratch(int bytes) {
+        if (bytes > MAX_RETAINED_SCRATCH) {
+            return ByteBuffer.wrap(new byte[bytes]);
+        }
+        byte[] buffer = SCRATCH.get();
+        if (buffer.length < bytes) {
+            SCRATCH.set(buffer = new byte[bytes]);
+        }
+        return ByteBuffer.wrap(buffer, 0, bytes).slice();
+    }
+
+    /**
+     * Decode all the chunks in the image into a full {@code [length][width * componentsPerPixel]} raster.
+     *
+     * @param executor the executor to decode chunks on, see {@link #forEachChunk(int[], Executor, IntConsumer)}
+     */
+    A[] readRaster(Executor executor) {
+        return readWindow(Raster.Window.full(layout.dimensions()), executor);
+    }
+
+    /**
+     * Decode only the chunks intersecting the window into a {@code [length][width * componentsPerPixel]} raster sized to
+     * the window.
+     *
+     * @param window   the region of the image to decode, must lie entirely within the image
+     * @param executor the executor to decode chunks on, see {@link #forEachChunk(int[], Executor, IntConsumer)}
+     */
+    A[] readWindow(Raster.Window window, Executor executor) {
+
+        A[] raster = samples.allocate(window.length(), window.width() * componentsPerPixel);
+        return readWindowInto(window, raster, executor);
+    }
+
+    /**
+     * Decode only the chunks intersecting the window into a single flat array of {@code window.length()} rows of
+     * {@code window.width() * componentsPerPixel} samples, see {@link Raster.FlatFloats}.
+     *
+     * @param window   the region of the image to decode, must lie entirely within the image
+     * @param executor the executor to decode chunks on, see {@link #forEachChunk(int[], Executor, IntConsumer)}
+     */
+    A readFlat(Raster.Window window, Executor executor) {
+
+        int stride = window.width() * componentsPerPixel;
+        A flat = samples.allocate(Math.multiplyExact(window.length(), stride));
+
+        readWindowInto(window, RasterStorage.flat(samples, flat, window.length(), stride, componentsPerPixel), executor);
+        return flat;
+    }
+
+    /**
+     * Decode only the chunks intersecting the window into a segment from the allocator, laid out as in
+     * {@link #readFlat(Raster.Window, Executor)} with the native byte order {@link Samples#layout()}.
+     *
+     * <p>The segment is written from the executor's threads, so must be accessible from them (e.g. allocated from a shared
+     * or automatic {@link java.lang.foreign.Arena}) when decoding concurrently.
+     *
+     * @param window    the region of the image to decode, must lie entirely within the image
+     * @param allocator the allocator to allocate the segment from
+     * @param executor  the executor to decode chunks on, see {@link #forEachChunk(int[], Executor, IntConsumer)}
+     */
+    MemorySegment readSegment(Raster.Window window, SegmentAllocator allocator, Executor executor) {
+
+        long stride = (long) window.width() * componentsPerPixel;
+        ValueLayout layout = samples.layout();
+
+        MemorySegment segment = allocator.allocate(window.length() * stride * layout.byteSize(), layout.byteAlignment());
+
+        readWindowInto(window, RasterStorage.segment(samples, segment, layout, window.length(), stride, componentsPerPixel), executor);
+        return segment;
+    }
+
+    /**
+     * Decode only the chunks intersecting the window into the provided raster, the first {@code window.length()} rows of
+     * the raster are overwritten with the contents of the window.
+     *
+     * <p>This allows callers to re-use the same raster buffer for multiple reads, see {@link RowCursor}.
+     *
+     * @param window   the region of the image to decode, must lie entirely within the image
+     * @param raster   the raster to decode into, with at least {@code window.length()} rows of at least
+     *                 {@code window.width() * componentsPerPixel} samples
+     * @param executor the executor to decode chunks on, see {@link #forEachChunk(int[], Executor, IntConsumer)}
+     */
+    A[] readWindowInto(Raster.Window window, A[] raster, Executor executor) {
+        readWindowInto(window, RasterStorage.jagged(samples, raster, componentsPerPixel), executor);
+        return raster;
+    }
+
+    /**
+     * Decode only the chunks intersecting the window into the provided storage, see
+     * {@link #readWindowInto(Raster.Window, Object[], Executor)}.
+     */
+    void readWindowInto(Raster.Window window, RasterStorage<A> storage, Executor executor) {
+
+        window.checkWithin(layout.dimensions());
+
+        int[] chunks = layout.chunksIntersecting(window);
+        decodeEach(chunks, executor, (chunk, decoded) -> copyInto(chunk, decoded, window, storage));
+    }
+
+    /**
+     * Sample the pixel at each of the provided (row, col) points into the output, the {@code componentsPerPixel} samples
+     * of the ith point are written starting at {@code out[i * componentsPerPixel]}.
+     *
+     * <p>Points are grouped by the chunk they fall in and each chunk containing at least one point is fetched and decoded
+     * exactly once regardless of the order of the points, chunks containing no points are never read.
+     *
+     * @param rows     the row of each point
+     * @param cols     the column of each point, the same length as the rows
+     * @param out      the array to write samples into, with at least {@code rows.length * componentsPerPixel} samples
+     * @param executor the executor to decode chunks on, see {@link #forEachChunk(int[], Executor, IntConsumer)}
+     */
+    void sampleInto(int[] rows, int[] cols, A out, Executor executor) {
+
+        checkArgument(rows.length == cols.length,
+                "Should be a column for every row, got (%s) rows and (%s) columns", rows.length, cols.length);
+        checkArgument(Array.getLength(out) >= rows.length * componentsPerPixel,
+                "Output should hold (%s) samples for (%s) points, was (%s)", rows.length * componentsPerPixel, rows.length, Array.getLength(out));
+
+        ImageDimensions.Int dimensions = layout.dimensions();
+
+        // bucket the points by chunk, start[chunk] is the index of the chunk's first point in the sorted points array
+        int[] start = new int[layout.numberOfChunks() + 1];
+        int[] chunkOf = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            checkArgument(rows[i] >= 0 && rows[i] < dimensions.length() && cols[i] >= 0 && cols[i] < dimensions.width(),
+                    "Point (%s, %s) lies outside of image with dimensions %s", rows[i], cols[i], dimensions);
+            chunkOf[i] = layout.chunkAt(rows[i], cols[i]);
+            start[chunkOf[i] + 1]++;
+        }
+        for (int chunk = 0; chunk < layout.numberOfChunks(); chunk++) {
+            start[chunk + 1] += start[chunk];
+        }
+
+        int[] next = start.clone();
+        int[] points = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            points[next[chunkOf[i]]++] = i;
+        }
+
+        int[] chunks = IntStream.range(0, layout.numberOfChunks())
+                .filter(chunk -> start[chunk + 1] > start[chunk])
+                .toArray();
+
+        int rowSamples = chunkRowSamples();
+
+        decodeEach(chunks, executor, (chunk, decoded) -> {
+            int chunkRow = layout.row(chunk);
+            int chunkCol = layout.col(chunk);
+            for (int p = start[chunk]; p < start[chunk + 1]; p++) {
+                int i = points[p];
+                int src = (rows[i] - chunkRow) * rowSamples + (cols[i] - chunkCol) * componentsPerPixel;
+                System.arraycopy(decoded, src, out, i * componentsPerPixel, componentsPerPixel);
+            }
+        });
+    }
+
+    /**
+     * Fetch and decode each of the provided chunks, handing the decoded contents of each chunk to the action.
+     *
+     * <p>Actions for different chunks may run concurrently on the executor, so should only write to disjoint regions of
+     * any shared output.
+     */
+    private void decodeEach(int[] chunks, Executor executor, BiConsumer<Integer, A> action) {
+
+        int[] stored = planar ? storedChunks(chunks) : chunks;
+
+        BiConsumer<Integer, ByteBuffer> decode = planar
+                ? interleaving(chunks, action)
+                : (chunk, bytes) -> action.accept(chunk, select(chunk, decodeStored(chunk, bytes)));
+
+        if (reader.channel() instanceof RangeSourceChannel source && executor != MoreExecutors.directExecutor()) {
+            pipeline(source, stored, executor, decode);
+            return;
+        }
+
+        ByteBuffer[] compressed = fetch(stored, executor);
+
+        forEachChunk(IntStream.range(0, stored.length).toArray(), executor, i -> {
+            ByteBuffer bytes = compressed[i];
+            compressed[i] = null; // release the compressed bytes as soon as the chunk is decoded
+            decode.accept(stored[i], bytes);
+        });
+    }
+
+    /**
+     * Returns the stored chunks holding the selected bands of each of the chunks of a planar image.
+     */
+    private int[] storedChunks(int[] chunks) {
+        int[] stored = new int[chunks.length * bands.length];
+        for (int b = 0; b < bands.length; b++) {
+            for (int i = 0; i < chunks.length; i++) {
+                stored[b * chunks.length + i] = bands[b] * layout.numberOfChunks() + chunks[i];
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Returns a consumer of the compressed bytes of the stored chunks of a planar image which decodes each of them and
+     * hands each chunk to the action once all of its selected bands have been decoded, interleaved by pixel.
+     *
+     * <p>Bands of the same chunk may be decoded concurrently, whichever thread decodes the final band of a chunk does the
+     * interleaving.
+     */
+    private BiConsumer<Integer, ByteBuffer> interleaving(int[] chunks, BiConsumer<Integer, A> action) {
+
+        int numberOfChunks = layout.numberOfChunks();
+
+        if (bands.length == 1) {
+            return (stored, bytes) -> action.accept(stored % numberOfChunks, decodeStored(stored, bytes));
+        }
+
+        int[] indexOfChunk = new int[numberOfChunks];
+        for (int i = 0; i < chunks.length; i++) {
+            indexOfChunk[chunks[i]] = i;
+        }
+
+        int[] indexOfBand = new int[storedComponents];
+        for (int b = 0; b < bands.length; b++) {
+            indexOfBand[bands[b]] = b;
+        }
+
+        AtomicReferenceArray<A> decoded = new AtomicReferenceArray<>(chunks.length * bands.length);
+        AtomicIntegerArray remaining = new AtomicIntegerArray(chunks.length);
+        for (int i = 0; i < chunks.length; i++) {
+            remaining.set(i, bands.length);
+        }
+
+        return (stored, bytes) -> {
+            int chunk = stored % numberOfChunks;
+            int i = indexOfChunk[chunk];
+
+            decoded.set(i * bands.length + indexOfBand[stored / numberOfChunks], decodeStored(stored, bytes));
+
+            if (remaining.decrementAndGet(i) == 0) {
+                int pixels = layout.rows(chunk) * layout.chunkWidth();
+                A interleaved = samples.allocate(pixels * bands.length);
+                for (int b = 0; b < bands.length; b++) {
+                    samples.copyStrided(decoded.getAndSet(i * bands.length + b, null), 0, 1, interleaved, b, bands.length, pixels);
+                }
+                action.accept(chunk, interleaved);
+            }
+        };
+    }
+
+    /**
+     * Pick the selected bands out of a decoded chunk of a chunky image, returning the chunk itself if all bands are
+     * selected in their stored order.
+     */
+    private A select(int chunk, A decoded) {
+        if (bands.length == storedComponents && IntStream.range(0, bands.length).allMatch(b -> bands[b] == b)) {
+            return decoded;
+        }
+        int pixels = layout.rows(chunk) * layout.chunkWidth();
+        A selected = samples.allocate(pixels * bands.length);
+        for (int b = 0; b < bands.length; b++) {
+            samples.copyStrided(decoded, bands[b], storedComponents, selected, b, bands.length, pixels);
+        }
+        return selected;
+    }
+
+    /**
+     * Fetch the compressed bytes of each of the provided chunks, coalescing reads of chunks which are adjacent in the
+     * file, the returned buffers are in the same order as the provided chunks.
+     *
+     * @param chunks   the chunks to fetch
+     * @param executor the executor to issue the (coalesced) reads on
+     */
+    ByteBuffer[] fetch(int[] chunks, Executor executor) {
+
+        List<RangePlanner.Range> ranges = planner.plan(layout.offsets(), layout.byteCounts(), chunks);
+        ByteBuffer[] fetched = new ByteBuffer[chunks.length];
+
+        forEachChunk(IntStream.range(0, ranges.size()).toArray(), executor, r -> {
+            RangePlanner.Range range = ranges.get(r);
+            ByteBuffer bytes = reader.readBytes(range.offset(), range.length());
+
+            for (int i : range.indices()) {
+                fetched[i] = slice(bytes, range, chunks[i]);
+            }
+        });
+
+        return fetched;
+    }
+
+    /**
+     * Asynchronously read the provided chunks from the source, handing each chunk to the action on the executor as soon
+     * as the (coalesced) read containing it completes.
+     *
+     * <p>At most {@link RangeSourceChannel#inFlightReads()} reads are outstanding at once, a permit is only returned once
+     * all the chunks of a read have been handled so the number of compressed chunks held in memory is also bounded. Any
+     * exception thrown by a read or the action is re-thrown on the calling thread after all submitted reads complete.
+     *
+     * <p>The calling thread blocks on permits which are returned by actions running on the executor, so this mustn't be
+     * called from a thread of a bounded executor the chunks are decoded on, e.g. from a task on the same fixed-size pool,
+     * all of whose threads could end up waiting on permits with no thread left to run the actions returning them.
+     *
+     * @param source   the channel to the source to read from
+     * @param chunks   the chunks to read
+     * @param executor the executor to run the action on
+     * @param action   the action to take with the index and compressed bytes of each chunk
+     */
+    private void pipeline(RangeSourceChannel source, int[] chunks, Executor executor, BiConsumer<Integer, ByteBuffer> action) {
+
+        List<RangePlanner.Range> ranges = planner.plan(layout.offsets(), layout.byteCounts(), chunks);
+        Semaphore inFlight = new Semaphore(source.inFlightReads());
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ranges.size()];
+        for (int r = 0; r < ranges.size(); r++) {
+            RangePlanner.Range range = ranges.get(r);
+
+            inFlight.acquireUninterruptibly();
+            try {
+                futures[r] = source.source().readAsync(range.offset(), range.length())
+                        .thenCompose(bytes -> CompletableFuture.allOf(
+                                IntStream.of(range.indices())
+                                        .mapToObj(i -> CompletableFuture.runAsync(() -> action.accept(chunks[i], slice(bytes, range, chunks[i])), executor))
+                                        .toArray(CompletableFuture<?>[]::new)
+                        ))
+                        .whenComplete((_, _) -> inFlight.release());
+            } catch (RuntimeException | Error e) {
+                // the read was never issued so return its permit, and let the reads already issued finish so none of
+                // their actions run after the exception reaches the caller
+                inFlight.release();
+                CompletableFuture.allOf(Arrays.copyOf(futures, r)).handle((_, _) -> null).join();
+                throw e;
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalArgumentException("Unable to read chunks from the source.", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the compressed bytes of the chunk from the bytes of the (coalesced) range containing it.
+     */
+    private ByteBuffer slice(ByteBuffer bytes, RangePlanner.Range range, int chunk) {
+        int start = bytes.position() + (int) (layout.offsets()[chunk] - range.offset());
+        return bytes.slice(start, layout.byteCounts()[chunk]);
+    }
+
+    /**
+     * Copy the portion of the decoded chunk which overlaps the window into the (window-sized) raster storage.
+     */
+    private void copyInto(int chunk, A decoded, Raster.Window window, RasterStorage<A> storage) {
+
+        int rowSamples = chunkRowSamples();
+
+        int chunkRow = layout.row(chunk);
+        int chunkCol = layout.col(chunk);
+
+        int firstRow = Math.max(window.row(), chunkRow);
+        int lastRow = Math.min(window.row() + window.length(), chunkRow + layout.rows(chunk));
+
+        int firstCol = Math.max(window.col(), chunkCol);
+        int lastCol = Math.min(window.col() + window.width(), chunkCol + layout.cols(chunk));
+
+        int srcCol = (firstCol - chunkCol) * componentsPerPixel;
+        long dstCol = (long) (firstCol - window.col()) * componentsPerPixel;
+        int length = (lastCol - firstCol) * componentsPerPixel;
+
+        for (int row = firstRow; row < lastRow; row++) {
+            storage.put(row - window.row(), dstCol, decoded, (row - chunkRow) * rowSamples + srcCol, length);
+        }
+    }
+}
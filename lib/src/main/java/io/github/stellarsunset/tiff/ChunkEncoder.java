@@ -0,0 +1,123 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.compress.Compressor;
+import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counterpart to the {@link ChunkDecoder} used by the {@link TiffFileWriter}, encodes the individual chunks (strips or
+ * tiles) described by a {@link ChunkLayout} out of a full raster.
+ *
+ * <p>Each chunk is copied out of the raster, predicted and compressed independently of all other chunks, so chunks can
+ * be encoded concurrently.
+ *
+ * <p>Sub-byte samples ({@link RasterStorage#bitsPerSample()} less than 8) are packed into bytes row by row, see
+ * {@link PackedRows}.
+ *
+ * <p>Keep package private to keep off client classpath.
+ */
+final class ChunkEncoder<A> {
+
+    private final Samples<A> samples;
+
+    private final RasterStorage<A> raster;
+
+    private final ByteOrder order;
+
+    private final BytesAdapter adapter;
+
+    private final Compressor.Encoder compressor;
+
+    private final DifferencingPredictor predictor;
+
+    private final ChunkLayout layout;
+
+    private final int componentsPerPixel;
+
+    private final boolean padded;
+
+    /**
+     * @param padded whether chunks on the edges of the image are padded out to the full chunk size, true for tiles
+     */
+    ChunkEncoder(Samples<A> samples, RasterStorage<A> raster, ByteOrder order, Compressor.Encoder compressor, DifferencingPredictor predictor,
+                 ChunkLayout layout, int componentsPerPixel, boolean padded) {
+        this.samples = requireNonNull(samples);
+        this.raster = requireNonNull(raster);
+        this.order = requireNonNull(order);
+        this.adapter = BytesAdapter.of(order);
+        this.compressor = requireNonNull(compressor);
+        this.predictor = requireNonNull(predictor);
+        this.layout = requireNonNull(layout);
+        this.componentsPerPixel = componentsPerPixel;
+        this.padded = padded;
+    }
+
+    /**
+     * Encode the chunk into its compressed bytes, rows and columns of padded chunks outside the image are written as
+     * zeros.
+     */
+    byte[] encode(int chunk) {
+
+        int rows = padded ? layout.chunkLength() : layout.rows(chunk);
+        int rowSamples = layout.chunkWidth() * componentsPerPixel;
+        int bitsPerSample = raster.bitsPerSample();
+        int rowBytes = bitsPerSample < Byte.SIZE ? PackedRows.rowBytes(rowSamples, bitsPerSample) : rowSamples * samples.bytes();
+
+        byte[] bytes = new byte[rows * rowBytes];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+
+        int chunkRow = layout.row(chunk);
+        int srcCol = layout.col(chunk) * componentsPerPixel;
+        int length = layout.cols(chunk) * componentsPerPixel;
+
+        // sub-byte samples are packed a row at a time, padding columns and rows are left as zeros
+        if (bitsPerSample < Byte.SIZE) {
+
+            A rowValues = samples.allocate(length);
+
+            for (int row = 0; row < layout.rows(chunk); row++) {
+                raster.get(chunkRow + row, srcCol, rowValues, 0, length);
+                PackedRows.pack((byte[]) rowValues, 0, length, bitsPerSample, bytes, row * rowBytes);
+            }
+            return compressor.compress(bytes, adapter);
+        }
+
+        // horizontal differencing of integer samples is applied to the samples with the primitive kernels before they're
+        // written, padding columns are differenced too so the scratch row is zeroed past the end of the image each row
+        Optional<Samples.Differencer<A>> differencer = samples.differencer();
+        if (predictor instanceof DifferencingPredictor.Planar1Horizontal horizontal && differencer.isPresent()) {
+
+            A rowValues = samples.allocate(rowSamples);
+            A zeros = samples.allocate(rowSamples);
+
+            for (int row = 0; row < layout.rows(chunk); row++) {
+                raster.get(chunkRow + row, srcCol, rowValues, 0, length);
+                System.arraycopy(zeros, length, rowValues, length, rowSamples - length);
+
+                differencer.get().pack(horizontal, rowValues, 0, rowSamples);
+                samples.write(rowValues, 0, buffer.slice(row * rowBytes, rowBytes).order(order), rowSamples);
+            }
+            return compressor.compress(bytes, adapter);
+        }
+
+        A rowValues = samples.allocate(length);
+
+        for (int row = 0; row < rows; row++) {
+
+            ByteBuffer rowBuffer = buffer.slice(row * rowBytes, rowBytes).order(order);
+            if (row < layout.rows(chunk)) {
+                raster.get(chunkRow + row, srcCol, rowValues, 0, length);
+                samples.write(rowValues, 0, rowBuffer, length);
+            }
+
+            predictor.pack(samples.predictorView(rowBuffer));
+        }
+
+        return compressor.compress(bytes, adapter);
+    }
+}
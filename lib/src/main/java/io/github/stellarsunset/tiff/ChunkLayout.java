@@ -0,0 +1,170 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.baseline.ImageDimensions;
+import io.github.stellarsunset.tiff.baseline.StripInfo;
+import io.github.stellarsunset.tiff.extension.TileInfo;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Unified view over how the raster data of an image is broken up into independently compressed "chunks" in the file,
+ * either strips ({@link StripInfo}) or tiles ({@link TileInfo}).
+ *
+ * <p>A strip is treated as a tile spanning the full width of the image, which lets the {@link Raster.Reader}s handle
+ * both layouts identically:
+ * <ol>
+ *     <li>Chunks are ordered left-to-right and top-to-bottom</li>
+ *     <li>Each chunk is stored as rows of {@link #chunkWidth()} pixels</li>
+ *     <li>Only the top-left {@link #rows(int)} x {@link #cols(int)} pixels of a chunk lie within the image, tiles on the
+ *     right and bottom edges of the image are padded out to the full tile size in the file while the final strip may
+ *     contain only the rows remaining in the image</li>
+ * </ol>
+ *
+ * @param dimensions  the dimensions of the overall image
+ * @param chunkLength the number of rows in each chunk, for strips this is the (clamped) {@code RowsPerStrip}
+ * @param chunkWidth  the number of columns in each chunk, for strips this is the image width
+ * @param offsets     the offset in the file of each chunk
+ * @param byteCounts  the number of (compressed) bytes in the file for each chunk
+ */
+public record ChunkLayout(ImageDimensions.Int dimensions, int chunkLength, int chunkWidth, long[] offsets,
+                          int[] byteCounts) {
+
+    public ChunkLayout {
+        checkArgument(chunkLength > 0 && chunkWidth > 0,
+                "Chunk dimensions should be positive, were l (%s) and w (%s)", chunkLength, chunkWidth);
+        checkArgument(offsets.length == byteCounts.length,
+                "Should be as many chunk offsets (%s) as byte counts (%s)", offsets.length, byteCounts.length);
+        checkArgument(offsets.length >= chunksAcross(dimensions.width(), chunkWidth) * chunksDown(dimensions.length(), chunkLength),
+                "Too few chunks (%s) to cover the image", offsets.length);
+    }
+
+    /**
+     * Returns the layout of the image described by the provided {@link Ifd}, preferring strips over tiles if both are
+     * (incorrectly) present.
+     */
+    public static ChunkLayout get(Ifd ifd) {
+        return getIfPresent(ifd)
+                .orElseThrow(() -> new IllegalArgumentException("Neither strip or tile layout was found."));
+    }
+
+    public static Optional<ChunkLayout> getIfPresent(Ifd ifd) {
+        return StripInfo.getOptional(ifd)
+                .map(s -> strips(ImageDimensions.get(ifd).asIntInfo(), s))
+                .or(() -> TileInfo.getOptional(ifd).map(t -> tiles(ImageDimensions.get(ifd).asIntInfo(), t)));
+    }
+
+    public static ChunkLayout getRequiredStrips(Ifd ifd) {
+        return strips(ImageDimensions.get(ifd).asIntInfo(), StripInfo.getRequired(ifd));
+    }
+
+    public static ChunkLayout getRequiredTiles(Ifd ifd) {
+        return tiles(ImageDimensions.get(ifd).asIntInfo(), TileInfo.getRequired(ifd));
+    }
+
+    /**
+     * The default {@code RowsPerStrip} is {@code 2**32 - 1} (i.e. one strip for the whole image) so clamp it to the image
+     * length before down-converting to an integer.
+     */
+    static ChunkLayout strips(ImageDimensions.Int dimensions, StripInfo stripInfo) {
+
+        long rowsPerStrip = Math.max(1, Math.min(stripInfo.rowsPerStrip(), dimensions.length()));
+
+        StripInfo.Int info = new StripInfo(rowsPerStrip, stripInfo.stripOffsets(), stripInfo.stripByteCounts())
+                .asIntInfo();
+
+        return new ChunkLayout(dimensions, info.rowsPerStrip(), dimensions.width(), info.stripOffsets(), info.stripByteCounts());
+    }
+
+    static ChunkLayout tiles(ImageDimensions.Int dimensions, TileInfo tileInfo) {
+        TileInfo.Int info = tileInfo.asIntInfo();
+        return new ChunkLayout(dimensions, info.length(), info.width(), info.offsets(), info.byteCounts());
+    }
+
+    /**
+     * The number of chunks spanning the width of the image, always 1 for strips.
+     */
+    public int chunksAcross() {
+        return chunksAcross(dimensions.width(), chunkWidth);
+    }
+
+    /**
+     * The number of chunks spanning the length of the image.
+     */
+    public int chunksDown() {
+        return chunksDown(dimensions.length(), chunkLength);
+    }
+
+    /**
+     * The total number of chunks required to cover the image.
+     */
+    public int numberOfChunks() {
+        return chunksAcross() * chunksDown();
+    }
+
+    /**
+     * The index of the chunk containing the pixel at the provided row/column of the image.
+     */
+    public int chunkAt(int row, int col) {
+        return (row / chunkLength) * chunksAcross() + (col / chunkWidth);
+    }
+
+    /**
+     * The image row of the top-left pixel of the chunk.
+     */
+    public int row(int chunk) {
+        return (chunk / chunksAcross()) * chunkLength;
+    }
+
+    /**
+     * The image column of the top-left pixel of the chunk.
+     */
+    public int col(int chunk) {
+        return (chunk % chunksAcross()) * chunkWidth;
+    }
+
+    /**
+     * The number of rows of the chunk which lie within the image.
+     */
+    public int rows(int chunk) {
+        return Math.min(chunkLength, dimensions.length() - row(chunk));
+    }
+
+    /**
+     * The number of columns of the chunk which lie within the image.
+     */
+    public int cols(int chunk) {
+        return Math.min(chunkWidth, dimensions.width() - col(chunk));
+    }
+
+    /**
+     * Returns the indices of all the chunks which intersect the provided window, in the usual chunk order.
+     */
+    public int[] chunksIntersecting(Raster.Window window) {
+
+        int firstRow = window.row() / chunkLength;
+        int lastRow = (window.row() + window.length() - 1) / chunkLength;
+
+        int firstCol = window.col() / chunkWidth;
+        int lastCol = (window.col() + window.width() - 1) / chunkWidth;
+
+        int across = lastCol - firstCol + 1;
+        int[] chunks = new int[(lastRow - firstRow + 1) * across];
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                chunks[(row - firstRow) * across + (col - firstCol)] = row * chunksAcross() + col;
+            }
+        }
+        return chunks;
+    }
+
+    private static int chunksAcross(int imageWidth, int chunkWidth) {
+        return (imageWidth + chunkWidth - 1) / chunkWidth;
+    }
+
+    private static int chunksDown(int imageLength, int chunkLength) {
+        return (imageLength + chunkLength - 1) / chunkLength;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RangeSource} backed by a local {@link FileChannel}, see {@link RangeSource#of(FileChannel)}.
+ */
+record FileRangeSource(FileChannel channel) implements RangeSource {
+
+    FileRangeSource {
+        requireNonNull(channel);
+    }
+
+    @Override
+    public ByteBuffer read(long offset, int length) throws IOException {
+        return BytesReader.readPositional(channel, offset, length);
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RangeSource} reading from an HTTP(S) server via {@code Range} requests, see {@link RangeSource#http(URI)}.
+ *
+ * <p>Each read is a single request for exactly the requested bytes, wrap the source with a cache (and/or read files via
+ * a {@link TiffFileReader#withPrefetch(int)} reader) to reduce the number of round-trips when reading metadata.
+ *
+ * <p>Servers which ignore the {@code Range} header and return the full file are tolerated but (obviously) slow.
+ */
+final class HttpRangeSource implements RangeSource {
+
+    private final HttpClient client;
+
+    private final URI uri;
+
+    private final boolean ownsClient;
+
+    private volatile long size = -1;
+
+    HttpRangeSource(HttpClient client, URI uri, boolean ownsClient) {
+        this.client = requireNonNull(client);
+        this.uri = requireNonNull(uri);
+        this.ownsClient = ownsClient;
+    }
+
+    static HttpRangeSource open(URI uri) {
+        return new HttpRangeSource(HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build(), uri, true);
+    }
+
+    @Override
+    public ByteBuffer read(long offset, int length) throws IOException {
+        checkArgument(offset >= 0 && length >= 0, "Invalid range, offset %s and length %s", offset, length);
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        try {
+            return body(client.send(request(offset, length), HttpResponse.BodyHandlers.ofByteArray()), offset, length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted reading " + length + " bytes at " + offset + " from " + uri);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ByteBuffer> readAsync(long offset, int length) {
+        checkArgument(offset >= 0 && length >= 0, "Invalid range, offset %s and length %s", offset, length);
+        if (length == 0) {
+            return CompletableFuture.completedFuture(ByteBuffer.allocate(0));
+        }
+        return client.sendAsync(request(offset, length), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        return body(response, offset, length);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    @Override
+    public long size() throws IOException {
+        long known = size;
+        if (known < 0) {
+            size = known = fetchSize();
+        }
+        return known;
+    }
+
+    @Override
+    public void close() {
+        if (ownsClient) {
+            client.close();
+        }
+    }
+
+    private HttpRequest request(long offset, int length) {
+        return HttpRequest.newBuilder(uri)
+                .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+                .GET()
+                .build();
+    }
+
+    /**
+     * Returns a buffer of exactly {@code length} bytes from the response, reads past the end of the file are zero-padded
+     * consistent with reads of local files.
+     */
+    private ByteBuffer body(HttpResponse<byte[]> response, long offset, int length) throws IOException {
+        byte[] body = response.body();
+        return switch (response.statusCode()) {
+            case 206 -> ByteBuffer.wrap(body.length == length ? body : Arrays.copyOf(body, length));
+            case 200 -> {
+                // range ignored by the server, the body is the full file
+                int start = (int) Math.min(offset, body.length);
+                yield ByteBuffer.wrap(Arrays.copyOfRange(body, start, start + length));
+            }
+            case 416 -> ByteBuffer.allocate(length);
+            default -> throw new IOException(
+                    "Unexpected HTTP status " + response.statusCode() + " reading " + length + " bytes at " + offset + " from " + uri);
+        };
+    }
+
+    private long fetchSize() throws IOException {
+        try {
+            HttpRequest head = HttpRequest.newBuilder(uri).method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+            HttpResponse<Void> response = client.send(head, HttpResponse.BodyHandlers.discarding());
+
+            if (response.statusCode() == 200 && response.headers().firstValueAsLong("Content-Length").isPresent()) {
+                return response.headers().firstValueAsLong("Content-Length").getAsLong();
+            }
+
+            // fall back to the total size in the Content-Range of a single byte read, e.g. "bytes 0-0/1234"
+            HttpResponse<Void> range = client.send(request(0, 1), HttpResponse.BodyHandlers.discarding());
+            String contentRange = range.headers().firstValue("Content-Range")
+                    .orElseThrow(() -> new IOException("Unable to determine the size of " + uri));
+
+            return Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1).trim());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted reading the size of " + uri);
+        } catch (NumberFormatException e) {
+            throw new IOException("Unable to determine the size of " + uri, e);
+        }
+    }
+}
@@ -3,36 +3,119 @@ package io.github.stellarsunset.tiff;
 import io.github.stellarsunset.tiff.baseline.tag.XResolution;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
- * Record representing an Image File Directory (IFD) within a TIFF file.
+ * Representation of an Image File Directory (IFD) within a TIFF file.
  *
  * <p>An Image File Directory (IFD) consists of a 2-byte count of the number of directory entries (i.e., the number of
  * fields), followed by a sequence of 12-byte field entries, followed by a 4-byte offset of the next IFD (or 0 if none).
  *
- * <p>In this implementation we eagerly materialize the value(s) associated with these entries into the {@link #entries()}
- * objects for direct access.
+ * <p>In BigTIFF files the count is 8 bytes, entries are 20 bytes and the offset of the next IFD is 8 bytes, see
+ * {@link TiffHeader#bigTiff()}. Offsets are held as (unsigned) {@code long}s so both can be represented.
+ *
+ * <p>In this implementation the value(s) associated with these entries are materialized into {@link Entry} objects for
+ * direct access. When read from a file, values stored out-of-line which are larger than the configured threshold (see
+ * {@link TiffFileReader#withEagerThreshold(int)}) are only read on the first {@link #findTag(short)} of their tag or
+ * call to {@link #entries()}, so large arrays like {@code TileOffsets} or embedded ICC profiles are only paid for when
+ * they're actually queried.
  *
  * <p>When reading entry values associated with a particular tag clients are expected to switch over the entry by type
  * and handle the appropriate cases for the tag they're querying, e.g. {@code Entry.Short} for compression.
  *
  * <p>There must be at least 1 IFD in a TIFF file and each IFD must have at least one entry.
  *
- * <p>The array of IFD entries in this record is guaranteed to be sorted by the unsigned tag value of the entry.
+ * <p>The array of IFD entries in this class is guaranteed to be sorted by the unsigned tag value of the entry.
  */
-public record Ifd(short entryCount, Entry[] entries, int nextIfdOffset) {
+public final class Ifd {
+
+    private final short entryCount;
+
+    /**
+     * Entries sorted by tag, slots are {@code null} until the corresponding {@link #deferred} entry is loaded.
+     */
+    private final Entry[] entries;
 
-    public Ifd {
+    /**
+     * Entries whose values are yet to be read from the file, by index into the {@link #entries}, {@code null} if none.
+     */
+    private final IfdReader.DeferredEntry[] deferred;
+
+    private final long nextIfdOffset;
+
+    /**
+     * The offset of the IFD in the file it was read from, -1 if it wasn't read from a file.
+     */
+    private final long offset;
+
+    public Ifd(short entryCount, Entry[] entries, long nextIfdOffset) {
         checkArgument(Short.toUnsignedInt(entryCount) == entries.length,
                 "Entry count (%s) should match entries array length (%s)", Short.toUnsignedInt(entryCount), entries.length);
 
         Arrays.sort(entries); // Ensure entries are sorted
+
+        this.entryCount = entryCount;
+        this.entries = entries;
+        this.deferred = null;
+        this.nextIfdOffset = nextIfdOffset;
+        this.offset = -1;
+    }
+
+    /**
+     * Create an IFD where some of the entries are yet to be loaded from the file, for each index exactly one of the
+     * provided {@code entries} or {@code deferred} should be non-null.
+     */
+    Ifd(short entryCount, Entry[] entries, IfdReader.DeferredEntry[] deferred, long nextIfdOffset, long offset) {
+        checkArgument(Short.toUnsignedInt(entryCount) == entries.length && entries.length == deferred.length,
+                "Entry count (%s) should match entries array length (%s)", Short.toUnsignedInt(entryCount), entries.length);
+
+        // Ensure entries are sorted, keeping the deferred entries aligned with them
+        Integer[] order = IntStream.range(0, entries.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingInt(i -> Short.toUnsignedInt(
+                entries[i] != null ? entries[i].tag() : deferred[i].tag())));
+
+        this.entryCount = entryCount;
+        this.entries = Arrays.stream(order).map(i -> entries[i]).toArray(Entry[]::new);
+        this.deferred = Arrays.stream(order).map(i -> deferred[i]).toArray(IfdReader.DeferredEntry[]::new);
+        this.nextIfdOffset = nextIfdOffset;
+        this.offset = offset;
+    }
+
+    public short entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * All the entries in the IFD sorted by tag, this loads the values of any entries which haven't yet been read.
+     */
+    public Entry[] entries() {
+        for (int i = 0; deferred != null && i < entries.length; i++) {
+            entry(i);
+        }
+        return entries;
+    }
+
+    public long nextIfdOffset() {
+        return nextIfdOffset;
     }
 
+    /**
+     * Offsets are stored unsigned by the {@link IfdReader}, kept for compatibility with when they were held as ints.
+     */
     public long unsignedNextIfdOffset() {
-        return Integer.toUnsignedLong(nextIfdOffset);
+        return nextIfdOffset;
+    }
+
+    /**
+     * The offset of the IFD in the file it was read from, -1 for IFDs created directly rather than read from a file.
+     *
+     * <p>Unlike an index into the chain of IFDs this identifies the IFD without needing the rest of the chain.
+     */
+    public long offset() {
+        return offset;
     }
 
     /**
@@ -44,10 +127,62 @@ public record Ifd(short entryCount, Entry[] entries, int nextIfdOffset) {
      */
     public Entry findTag(short tag) {
 
-        Entry searchEntry = Entry.notFound(tag);
-        int index = Arrays.binarySearch(entries, searchEntry);
+        int low = 0;
+        int high = entries.length - 1;
 
-        return index < 0 ? searchEntry : entries[index];
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Short.compareUnsigned(tag(mid), tag);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entry(mid);
+            }
+        }
+
+        return Entry.notFound(tag);
+    }
+
+    private short tag(int i) {
+        Entry entry = entries[i];
+        return entry != null ? entry.tag() : deferred[i].tag();
+    }
+
+    private Entry entry(int i) {
+        Entry entry = entries[i];
+        return entry != null ? entry : load(i);
+    }
+
+    private synchronized Entry load(int i) {
+        if (entries[i] == null) {
+            entries[i] = deferred[i].load();
+        }
+        return entries[i];
+    }
+
+    /**
+     * Consistent with the record this class replaced entries are compared by reference, this also avoids loading any
+     * deferred entries.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Ifd ifd
+                && entryCount == ifd.entryCount
+                && nextIfdOffset == ifd.nextIfdOffset
+                && entries == ifd.entries;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * entryCount + System.identityHashCode(entries)) + Long.hashCode(nextIfdOffset);
+    }
+
+    @Override
+    public String toString() {
+        return "Ifd[entryCount=" + Short.toUnsignedInt(entryCount) + ", nextIfdOffset=" + nextIfdOffset + "]";
     }
 
     public sealed interface Entry extends Comparable<Entry> {
@@ -207,5 +342,37 @@ public record Ifd(short entryCount, Entry[] entries, int nextIfdOffset) {
                 checkArgument(values.length > 0, "Should be at least one value.");
             }
         }
+
+        // Since BigTIFF
+
+        /**
+         * 64-bit (8-byte) unsigned integer.
+         *
+         * <p>To deal with as unsigned use {@link java.lang.Long#toUnsignedString(long)} and friends, values used as
+         * offsets or counts in practice never exceed {@link java.lang.Long#MAX_VALUE}.
+         */
+        record Long8(short tag, long[] values) implements Entry {
+            public Long8 {
+                checkArgument(values.length > 0, "Should be at least one value.");
+            }
+        }
+
+        /**
+         * 64-bit (8-byte) signed (twos-complement) integer.
+         */
+        record SLong8(short tag, long[] values) implements Entry {
+            public SLong8 {
+                checkArgument(values.length > 0, "Should be at least one value.");
+            }
+        }
+
+        /**
+         * 64-bit (8-byte) unsigned offset of a sub-IFD in the file, e.g. for the {@code SubIFDs} tag.
+         */
+        record Ifd8(short tag, long[] values) implements Entry {
+            public Ifd8 {
+                checkArgument(values.length > 0, "Should be at least one value.");
+            }
+        }
     }
 }
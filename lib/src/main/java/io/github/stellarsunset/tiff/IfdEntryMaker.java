@@ -4,118 +4,97 @@ import java.nio.ByteBuffer;
 
 sealed interface IfdEntryMaker {
 
+    BytesReader reader();
+
+    BytesAdapter adapter();
+
     /**
      * Create a new {@link Ifd.Entry} with the provided {@code tag} and with a {@code count} of values located at the
-     * provided {@code rawValueOffsetBytes} in the file.
+     * provided {@code valueField} in the file.
      *
-     * @param tag                 the tag to use for the IFD entry
-     * @param count               the number of values associated with the tag
-     * @param rawValueOffsetBytes either (1) the offset in the file of the value OR (2) the left-justified values if they
-     *                            total less than 4 bytes
+     * @param tag        the tag to use for the IFD entry
+     * @param count      the number of values associated with the tag
+     * @param valueField the (ordered) raw bytes of the value offset field of the entry, 4 bytes in classic TIFF files and
+     *                   8 in BigTIFF files, containing either (1) the offset in the file of the values OR (2) the
+     *                   left-justified values themselves if they fit within the field
+     */
+    Ifd.Entry makeEntry(short tag, int count, ByteBuffer valueField);
+
+    /**
+     * Returns an (ordered) buffer starting with the {@code length} bytes of the values of the entry, either the value
+     * field itself if the values fit within it or the bytes at the offset in the file it points to.
      */
-    Ifd.Entry makeEntry(short tag, int count, int rawValueOffsetBytes);
+    default ByteBuffer readValues(ByteBuffer valueField, int length) {
+
+        if (length <= valueField.remaining()) {
+            return valueField;
+        }
+
+        long offset = valueField.remaining() == 8
+                ? valueField.getLong(0)
+                : Integer.toUnsignedLong(valueField.getInt(0));
+
+        return reader().readBytes(offset, length).order(adapter().order());
+    }
 
     record Byte(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Byte makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Byte makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            byte[] values = count > 4
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : adapter.readAsBytes(rawValueOffsetBytes, count);
+            byte[] values = BufferView.bytes(readValues(valueField, count))
+                    .readBytes(0, count);
 
             return new Ifd.Entry.Byte(tag, values);
         }
-
-        private byte[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count
-            );
-            return BufferView.bytes(buffer.order(adapter.order()))
-                    .readBytes(0, count);
-        }
     }
 
     record Ascii(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Ascii makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Ascii makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            byte[] values = count > 4
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : adapter.readAsBytes(rawValueOffsetBytes, count);
+            byte[] values = BufferView.bytes(readValues(valueField, count))
+                    .readBytes(0, count);
 
             return new Ifd.Entry.Ascii(tag, values);
         }
-
-        private byte[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count
-            );
-            return BufferView.bytes(buffer.order(adapter.order()))
-                    .readBytes(0, count);
-        }
     }
 
     record Short(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Short makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Short makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            short[] values = count > 2
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : adapter.readAsShorts(rawValueOffsetBytes, count);
+            short[] values = BufferView.shorts(readValues(valueField, count * 2))
+                    .readShorts(0, count);
 
             return new Ifd.Entry.Short(tag, values);
         }
-
-        private short[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 2
-            );
-            return BufferView.shorts(buffer.order(adapter.order()))
-                    .readShorts(0, count);
-        }
     }
 
     record Long(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Long makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Long makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            int[] values = count > 1
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : new int[]{adapter.adaptRawInt(rawValueOffsetBytes)};
+            int[] values = BufferView.ints(readValues(valueField, count * 4))
+                    .readInts(0, count);
 
             return new Ifd.Entry.Long(tag, values);
         }
-
-        private int[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 4
-            );
-            return BufferView.ints(buffer.order(adapter.order()))
-                    .readInts(0, count);
-        }
     }
 
     record Rational(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Rational makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Rational makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 8
-            );
+            ByteBuffer buffer = readValues(valueField, count * 8);
 
             int[][] rationals = split(
-                    BufferView.ints(buffer.order(adapter.order())).readInts(0, count * 2)
+                    BufferView.ints(buffer).readInts(0, count * 2)
             );
 
             return new Ifd.Entry.Rational(tag, rationals[0], rationals[1]);
         }
 
-        private static int[][] split(int[] numeratorsAndDenominators) {
+        static int[][] split(int[] numeratorsAndDenominators) {
             int[][] split = new int[2][numeratorsAndDenominators.length / 2];
             for (int i = 0; i < numeratorsAndDenominators.length; i++) {
                 split[i % 2][i / 2] = numeratorsAndDenominators[i];
@@ -126,100 +105,57 @@ sealed interface IfdEntryMaker {
 
     record SByte(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.SByte makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.SByte makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            byte[] values = count > 4
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : adapter.readAsBytes(rawValueOffsetBytes, count);
+            byte[] values = BufferView.bytes(readValues(valueField, count))
+                    .readBytes(0, count);
 
             return new Ifd.Entry.SByte(tag, values);
         }
-
-        private byte[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count
-            );
-            return BufferView.bytes(buffer.order(adapter.order()))
-                    .readBytes(0, count);
-        }
     }
 
     record Undefined(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Undefined makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Undefined makeEntry(short tag, int count, ByteBuffer valueField) {
 
             // This shouldn't modify the underlying bytes, we don't know how to interpret
-            byte[] values = count > 4
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : adapter.readAsBytes(rawValueOffsetBytes, count);
+            byte[] values = BufferView.bytes(readValues(valueField, count))
+                    .readBytes(0, count);
 
             return new Ifd.Entry.Undefined(tag, values);
         }
-
-        private byte[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count
-            );
-            return BufferView.bytes(buffer.order(adapter.order()))
-                    .readBytes(0, count);
-        }
     }
 
     record SShort(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.SShort makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.SShort makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            short[] values = count > 2
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : adapter.readAsShorts(rawValueOffsetBytes, count);
+            short[] values = BufferView.shorts(readValues(valueField, count * 2))
+                    .readShorts(0, count);
 
             return new Ifd.Entry.SShort(tag, values);
         }
-
-        private short[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 2
-            );
-            return BufferView.shorts(buffer.order(adapter.order()))
-                    .readShorts(0, count);
-        }
     }
 
     record SLong(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.SLong makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.SLong makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            int[] values = count > 1
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : new int[]{adapter.adaptRawInt(rawValueOffsetBytes)};
+            int[] values = BufferView.ints(readValues(valueField, count * 4))
+                    .readInts(0, count);
 
             return new Ifd.Entry.SLong(tag, values);
         }
-
-        private int[] readValueAtOffset(int rawValueOffsetBytes, int count) {
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 4
-            );
-            return BufferView.ints(buffer.order(adapter.order()))
-                    .readInts(0, count);
-        }
     }
 
     record SRational(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.SRational makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.SRational makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 8
-            );
+            ByteBuffer buffer = readValues(valueField, count * 8);
 
             int[][] rationals = Rational.split(
-                    BufferView.ints(buffer.order(adapter.order())).readInts(0, count * 2)
+                    BufferView.ints(buffer).readInts(0, count * 2)
             );
 
             return new Ifd.Entry.SRational(tag, rationals[0], rationals[1]);
@@ -228,40 +164,56 @@ sealed interface IfdEntryMaker {
 
     record Float(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Float makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.Float makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            float[] values = count > 1
-                    ? readValueAtOffset(rawValueOffsetBytes, count)
-                    : new float[]{java.lang.Float.intBitsToFloat(rawValueOffsetBytes)};
+            float[] values = BufferView.floats(readValues(valueField, count * 4))
+                    .readFloats(0, count);
 
             return new Ifd.Entry.Float(tag, values);
         }
+    }
+
+    record Double(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
+        @Override
+        public Ifd.Entry.Double makeEntry(short tag, int count, ByteBuffer valueField) {
+
+            double[] values = BufferView.doubles(readValues(valueField, count * 8))
+                    .readDoubles(0, count);
+
+            return new Ifd.Entry.Double(tag, values);
+        }
+    }
 
-        private float[] readValueAtOffset(int rawValueOffsetBytes, int count) {
+    record Long8(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
+        @Override
+        public Ifd.Entry.Long8 makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 4
-            );
+            long[] values = BufferView.longs(readValues(valueField, count * 8))
+                    .readLongs(0, count);
 
-            return BufferView.floats(buffer.order(adapter.order()))
-                    .readFloats(0, count);
+            return new Ifd.Entry.Long8(tag, values);
         }
     }
 
-    record Double(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
+    record SLong8(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
         @Override
-        public Ifd.Entry.Double makeEntry(short tag, int count, int rawValueOffsetBytes) {
+        public Ifd.Entry.SLong8 makeEntry(short tag, int count, ByteBuffer valueField) {
 
-            ByteBuffer buffer = reader.readBytes(
-                    Integer.toUnsignedLong(adapter.adaptRawInt(rawValueOffsetBytes)),
-                    count * 8
-            );
+            long[] values = BufferView.longs(readValues(valueField, count * 8))
+                    .readLongs(0, count);
 
-            return new Ifd.Entry.Double(
-                    tag,
-                    BufferView.doubles(buffer.order(adapter.order())).readDoubles(0, count)
-            );
+            return new Ifd.Entry.SLong8(tag, values);
+        }
+    }
+
+    record Ifd8(BytesReader reader, BytesAdapter adapter) implements IfdEntryMaker {
+        @Override
+        public Ifd.Entry.Ifd8 makeEntry(short tag, int count, ByteBuffer valueField) {
+
+            long[] values = BufferView.longs(readValues(valueField, count * 8))
+                    .readLongs(0, count);
+
+            return new Ifd.Entry.Ifd8(tag, values);
         }
     }
 }
@@ -0,0 +1,419 @@
+package io.github.stellarsunset.tiff;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writer-side counterpart to the {@link IfdEntryMaker}, encodes the type, count and values of an {@link Ifd.Entry} in
+ * the layout expected by the {@link IfdReader}.
+ *
+ * <p>Values totalling 4 bytes or fewer are written left-justified into the value offset field of the entry, larger
+ * values are written elsewhere in the file and the value offset field points to them, see {@link IfdWriter}.
+ */
+sealed interface IfdEntryWriter {
+
+    static IfdEntryWriter of(Ifd.Entry entry) {
+        return switch (entry) {
+            case Ifd.Entry.Byte b -> new Byte(b);
+            case Ifd.Entry.Ascii a -> new Ascii(a);
+            case Ifd.Entry.Short s -> new Short(s);
+            case Ifd.Entry.Long l -> new Long(l);
+            case Ifd.Entry.Rational r -> new Rational(r);
+            case Ifd.Entry.SByte b -> new SByte(b);
+            case Ifd.Entry.Undefined u -> new Undefined(u);
+            case Ifd.Entry.SShort s -> new SShort(s);
+            case Ifd.Entry.SLong l -> new SLong(l);
+            case Ifd.Entry.SRational r -> new SRational(r);
+            case Ifd.Entry.Float f -> new Float(f);
+            case Ifd.Entry.Double d -> new Double(d);
+            case Ifd.Entry.Long8 _, Ifd.Entry.SLong8 _, Ifd.Entry.Ifd8 _ -> throw new IllegalArgumentException(
+                    String.format("Unable to write 64-bit entry for tag %s, only BigTIFF files support them", entry.tag())
+            );
+            case Ifd.Entry.NotFound n -> throw new IllegalArgumentException(
+                    String.format("Unable to write placeholder entry for missing tag %s", n.tag())
+            );
+        };
+    }
+
+    short tag();
+
+    /**
+     * The TIFF field type code of the entry, see {@link IfdReader}.
+     */
+    short type();
+
+    /**
+     * The number of values of the entry's type.
+     */
+    int count();
+
+    /**
+     * The total number of bytes of the values of the entry.
+     */
+    int valueBytes();
+
+    /**
+     * Whether the values fit within the 4-byte value offset field of the entry, rather than being written out-of-line.
+     */
+    default boolean inline() {
+        return valueBytes() <= 4;
+    }
+
+    /**
+     * Write the values of the entry into the (ordered) buffer starting at its current position.
+     */
+    void writeValues(ByteBuffer buffer);
+
+    record Byte(Ifd.Entry.Byte entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 1;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            buffer.put(entry.values());
+        }
+    }
+
+    record Ascii(Ifd.Entry.Ascii entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 2;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            buffer.put(entry.values());
+        }
+    }
+
+    record Short(Ifd.Entry.Short entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 3;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 2;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (short value : entry.values()) {
+                buffer.putShort(value);
+            }
+        }
+    }
+
+    record Long(Ifd.Entry.Long entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 4;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 4;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (int value : entry.values()) {
+                buffer.putInt(value);
+            }
+        }
+    }
+
+    record Rational(Ifd.Entry.Rational entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 5;
+        }
+
+        @Override
+        public int count() {
+            return entry.numerators().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 8;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (int i = 0; i < count(); i++) {
+                buffer.putInt(entry.numerators()[i]);
+                buffer.putInt(entry.denominators()[i]);
+            }
+        }
+    }
+
+    record SByte(Ifd.Entry.SByte entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 6;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            buffer.put(entry.values());
+        }
+    }
+
+    record Undefined(Ifd.Entry.Undefined entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 7;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            buffer.put(entry.values());
+        }
+    }
+
+    record SShort(Ifd.Entry.SShort entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 8;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 2;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (short value : entry.values()) {
+                buffer.putShort(value);
+            }
+        }
+    }
+
+    record SLong(Ifd.Entry.SLong entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 9;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 4;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (int value : entry.values()) {
+                buffer.putInt(value);
+            }
+        }
+    }
+
+    record SRational(Ifd.Entry.SRational entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 10;
+        }
+
+        @Override
+        public int count() {
+            return entry.numerators().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 8;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (int i = 0; i < count(); i++) {
+                buffer.putInt(entry.numerators()[i]);
+                buffer.putInt(entry.denominators()[i]);
+            }
+        }
+    }
+
+    record Float(Ifd.Entry.Float entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 11;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 4;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (float value : entry.values()) {
+                buffer.putFloat(value);
+            }
+        }
+    }
+
+    record Double(Ifd.Entry.Double entry) implements IfdEntryWriter {
+
+        @Override
+        public short tag() {
+            return entry.tag();
+        }
+
+        @Override
+        public short type() {
+            return 12;
+        }
+
+        @Override
+        public int count() {
+            return entry.values().length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return count() * 8;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer) {
+            for (double value : entry.values()) {
+                buffer.putDouble(value);
+            }
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package io.github.stellarsunset.tiff;
 
-
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
- * Reader for an {@link Ifd} in a TIFF file and its constituent entries. This class is not lazy and materializes the
- * tag values.
+ * Reader for an {@link Ifd} in a TIFF file and its constituent entries. Tag values are materialized eagerly unless they
+ * are stored out-of-line and exceed the {@code eagerBytes} threshold, in which case reading them is deferred until the
+ * tag is first queried, see {@link DeferredEntry}.
  *
  * <p>Each 12-byte IFD entry has the following format:
  * <ol>
@@ -27,8 +29,32 @@ import java.nio.channels.SeekableByteChannel;
  * lower numbered bytes. Whether the Value fits within 4 bytes is determined by the Type and Count of the field.
  *
  * <p>Note: entries in a TIFF IFD are sorted by their tag identifier.
+ *
+ * <p>BigTIFF files widen the entry count to 8 bytes and each entry to 20 bytes, the Count and Value Offset fields are
+ * 8 bytes each (and so Values of up to 8 bytes are stored inline) and the offset of the next IFD is 8 bytes.
+ *
+ * @param order      the byte order of the file
+ * @param bigTiff    whether the IFDs in the file use the BigTIFF layout, see {@link TiffHeader#bigTiff()}
+ * @param eagerBytes the maximum size in bytes of out-of-line values to read along with the IFD, larger values are read
+ *                   on first access
  */
-record IfdReader(ByteOrder order) {
+record IfdReader(ByteOrder order, boolean bigTiff, int eagerBytes) {
+
+    IfdReader {
+        checkArgument(eagerBytes >= 0, "Eager threshold should be non-negative, was %s", eagerBytes);
+    }
+
+    IfdReader(ByteOrder order) {
+        this(order, false, Integer.MAX_VALUE);
+    }
+
+    static IfdReader of(TiffHeader header) {
+        return of(header, Integer.MAX_VALUE);
+    }
+
+    static IfdReader of(TiffHeader header, int eagerBytes) {
+        return new IfdReader(header.order(), header.bigTiff(), eagerBytes);
+    }
 
     /**
      * Read the {@link Ifd} in the TIFF file pointed to by the {@code channel} starting at the provided {@code offset}.
@@ -41,38 +67,98 @@ record IfdReader(ByteOrder order) {
         BytesReader reader = new BytesReader(channel);
         BytesAdapter adapter = BytesAdapter.of(order);
 
-        short entryCount = adapter.adaptRawShort(
-                reader.readBytes(position, 2).getShort(0)
-        );
+        int countBytes = bigTiff ? 8 : 2;
+        int entryBytes = bigTiff ? 20 : 12;
+        int fieldBytes = bigTiff ? 8 : 4;
 
-        int unsignedEntryCount = Short.toUnsignedInt(entryCount);
-        int entriesBytes = unsignedEntryCount * 12;
+        int unsignedEntryCount = readEntryCount(reader, adapter, position);
+        int entriesBytes = unsignedEntryCount * entryBytes;
 
-        // Buffer of all the raw bytes of the IFD entries
-        ByteBuffer entriesBuffer = reader.readBytes(position + 2, entriesBytes);
+        // Buffer of all the raw bytes of the IFD entries, followed by the offset of the next IFD
+        ByteBuffer entriesBuffer = reader.readBytes(position + countBytes, entriesBytes + fieldBytes);
 
         Ifd.Entry[] entries = new Ifd.Entry[unsignedEntryCount];
+        DeferredEntry[] deferred = new DeferredEntry[unsignedEntryCount];
         for (int i = 0; i < unsignedEntryCount; i++) {
-            int byteOffset = i * 12;
+            int byteOffset = i * entryBytes;
 
             short tag = adapter.adaptRawShort(entriesBuffer.getShort(byteOffset));
             short type = adapter.adaptRawShort(entriesBuffer.getShort(byteOffset + 2));
 
-            int count = adapter.adaptRawInt(entriesBuffer.getInt(byteOffset + 4));
+            long count = bigTiff
+                    ? adapter.adaptRawLong(entriesBuffer.getLong(byteOffset + 4))
+                    : Integer.toUnsignedLong(adapter.adaptRawInt(entriesBuffer.getInt(byteOffset + 4)));
+
+            checkArgument(count <= Integer.MAX_VALUE,
+                    "Count (%s) of values for tag %s should be less than Integer.MAX_VALUE", count, tag);
 
             // we want the raw bytes of the value offset for handoff, this may be a pointer to a
-            // position in the file OR a left-justified set of values totaling < 4 bytes
-            int valueOffset = entriesBuffer.getInt(byteOffset + 8);
-            entries[i] = entryMaker(reader, type).makeEntry(tag, count, valueOffset);
+            // position in the file OR a left-justified set of values totaling < 4 (or 8) bytes
+            ByteBuffer valueField = entriesBuffer.slice(byteOffset + 4 + fieldBytes, fieldBytes).order(order);
+
+            long valueBytes = count * bytesPerValue(type);
+            if (valueBytes <= fieldBytes || valueBytes <= eagerBytes) {
+                entries[i] = entryMaker(reader, type).makeEntry(tag, (int) count, valueField);
+            } else {
+                // copy the field so the deferred entry doesn't hold onto the buffer of the whole IFD
+                ByteBuffer field = ByteBuffer.allocate(fieldBytes).order(order).put(valueField).flip();
+                deferred[i] = new DeferredEntry(tag, (int) count, field, entryMaker(reader, type));
+            }
         }
 
-        long nextOffsetPosition = position + 2 + entriesBytes;
+        long nextIfdOffset = bigTiff
+                ? adapter.adaptRawLong(entriesBuffer.getLong(entriesBytes))
+                : Integer.toUnsignedLong(adapter.adaptRawInt(entriesBuffer.getInt(entriesBytes)));
+
+        return new Ifd((short) unsignedEntryCount, entries, deferred, nextIfdOffset, position);
+    }
 
-        int nextIfdOffset = adapter.adaptRawInt(
-                reader.readBytes(nextOffsetPosition, 4).getInt(0)
-        );
+    /**
+     * Read only the offset of the next IFD in the file from the IFD starting at the provided {@code position}, skipping
+     * over its entries, returns 0 if this is the last IFD in the file.
+     *
+     * @param channel  byte channel pointing to the underlying TIFF file
+     * @param position the position in the file of the IFD
+     */
+    long readNextIfdOffset(SeekableByteChannel channel, long position) {
+
+        BytesReader reader = new BytesReader(channel);
+        BytesAdapter adapter = BytesAdapter.of(order);
 
-        return new Ifd(entryCount, entries, nextIfdOffset);
+        int countBytes = bigTiff ? 8 : 2;
+        int entryBytes = bigTiff ? 20 : 12;
+
+        long nextOffsetPosition = position + countBytes + (long) readEntryCount(reader, adapter, position) * entryBytes;
+
+        return bigTiff
+                ? adapter.adaptRawLong(reader.readBytes(nextOffsetPosition, 8).getLong(0))
+                : Integer.toUnsignedLong(adapter.adaptRawInt(reader.readBytes(nextOffsetPosition, 4).getInt(0)));
+    }
+
+    private int readEntryCount(BytesReader reader, BytesAdapter adapter, long position) {
+
+        long rawEntryCount = bigTiff
+                ? adapter.adaptRawLong(reader.readBytes(position, 8).getLong(0))
+                : Short.toUnsignedInt(adapter.adaptRawShort(reader.readBytes(position, 2).getShort(0)));
+
+        checkArgument(0 <= rawEntryCount && rawEntryCount <= 0xFFFF,
+                "IFD entry count (%s) at position %s exceeds the supported maximum of 65535", rawEntryCount, position);
+
+        return (int) rawEntryCount;
+    }
+
+    /**
+     * The size in bytes of a single value of the provided field type.
+     */
+    private static int bytesPerValue(short type) {
+        int typeInt = Short.toUnsignedInt(type);
+        return switch (typeInt) {
+            case 1, 2, 6, 7 -> 1;
+            case 3, 8 -> 2;
+            case 4, 9, 11 -> 4;
+            case 5, 10, 12, 16, 17, 18 -> 8;
+            default -> throw new IllegalArgumentException("Unknown IFD entry type: " + typeInt);
+        };
     }
 
     private IfdEntryMaker entryMaker(BytesReader reader, short type) {
@@ -91,7 +177,25 @@ record IfdReader(ByteOrder order) {
             case 10 -> new IfdEntryMaker.SRational(reader, adapter);
             case 11 -> new IfdEntryMaker.Float(reader, adapter);
             case 12 -> new IfdEntryMaker.Double(reader, adapter);
+            case 16 -> new IfdEntryMaker.Long8(reader, adapter);
+            case 17 -> new IfdEntryMaker.SLong8(reader, adapter);
+            case 18 -> new IfdEntryMaker.Ifd8(reader, adapter);
             default -> throw new IllegalArgumentException("Unknown IFD entry type: " + typeInt);
         };
     }
+
+    /**
+     * An IFD entry whose values are stored out-of-line in the file and are only read when first requested.
+     *
+     * @param tag        the tag of the entry
+     * @param count      the number of values associated with the tag
+     * @param valueField the (ordered) raw bytes of the value offset field of the entry
+     * @param maker      the maker for the type of the entry, used to read the values
+     */
+    record DeferredEntry(short tag, int count, ByteBuffer valueField, IfdEntryMaker maker) {
+
+        Ifd.Entry load() {
+            return maker.makeEntry(tag, count, valueField.duplicate().order(valueField.order()));
+        }
+    }
 }
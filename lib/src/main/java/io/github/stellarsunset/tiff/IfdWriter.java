@@ -0,0 +1,92 @@
+package io.github.stellarsunset.tiff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Writer for an {@link Ifd} and its constituent entries, the counterpart to the {@link IfdReader}.
+ *
+ * <p>The IFD is encoded as a single contiguous block: the 2-byte entry count, the 12-byte entries (in tag order), the
+ * 4-byte offset of the next IFD and then the values of any entries too large to fit in their value offset field. Each
+ * out-of-line value begins on a word boundary.
+ *
+ * <p>The encoded IFD should itself be written at a word boundary in the file.
+ */
+record IfdWriter(ByteOrder order) {
+
+    /**
+     * The total number of bytes the provided {@link Ifd} occupies once encoded, including its out-of-line values.
+     */
+    static int length(Ifd ifd) {
+        int length = 2 + ifd.entries().length * 12 + 4;
+        for (Ifd.Entry entry : ifd.entries()) {
+            IfdEntryWriter writer = IfdEntryWriter.of(entry);
+            if (!writer.inline()) {
+                length += wordAligned(writer.valueBytes());
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encode the {@link Ifd} as it should appear in a TIFF file when written at the provided position.
+     *
+     * @param ifd      the IFD to write
+     * @param position the position in the file the IFD will be written to, used to compute offsets of out-of-line values
+     */
+    ByteBuffer write(Ifd ifd, long position) {
+
+        checkArgument(position % 2 == 0, "IFDs should be written on a word boundary, position was %s", position);
+
+        Ifd.Entry[] entries = ifd.entries();
+        ByteBuffer buffer = ByteBuffer.allocate(length(ifd)).order(order);
+
+        buffer.putShort(ifd.entryCount());
+
+        int valueOffset = 2 + entries.length * 12 + 4;
+        for (Ifd.Entry entry : entries) {
+            IfdEntryWriter writer = IfdEntryWriter.of(entry);
+
+            buffer.putShort(writer.tag());
+            buffer.putShort(writer.type());
+            buffer.putInt(writer.count());
+
+            if (writer.inline()) {
+                // left-justified within the 4-byte field, trailing bytes are left as zeros
+                int start = buffer.position();
+                writer.writeValues(buffer);
+                buffer.position(start + 4);
+            } else {
+                buffer.putInt(offset(position + valueOffset));
+
+                int start = buffer.position();
+                writer.writeValues(buffer.position(valueOffset));
+                buffer.position(start);
+
+                valueOffset += wordAligned(writer.valueBytes());
+            }
+        }
+
+        buffer.putInt(offset(ifd.nextIfdOffset()));
+        return buffer.position(0);
+    }
+
+    /**
+     * Offsets in (non-BigTIFF) files are unsigned 32-bit integers.
+     */
+    static int offset(long position) {
+        checkArgument(0 <= position && position <= 0xFFFFFFFFL,
+                "Offset (%s) is too large for a standard TIFF file, files are limited to 4GB.", position);
+        return (int) position;
+    }
+
+    static int wordAligned(int bytes) {
+        return bytes + (bytes & 1);
+    }
+
+    static long wordAligned(long position) {
+        return position + (position & 1);
+    }
+}
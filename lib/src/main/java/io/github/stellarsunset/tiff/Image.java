@@ -1,16 +1,21 @@
 package io.github.stellarsunset.tiff;
 
 import io.github.stellarsunset.tiff.baseline.BaselineImage;
+import io.github.stellarsunset.tiff.baseline.ImageDimensions;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
 import io.github.stellarsunset.tiff.extension.DataImage;
 import io.github.stellarsunset.tiff.extension.ExtensionImage;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
 import static java.util.Objects.requireNonNull;
 
-public sealed interface Image permits Image.Lazy, Image.Unknown, BaselineImage, ExtensionImage {
+public sealed interface Image permits Image.Lazy, Image.Chunked, Image.Cropped, Image.Unknown, BaselineImage, ExtensionImage {
 
     /**
      * Handle for an unknown image type detected in a file.
@@ -35,6 +40,41 @@ public sealed interface Image permits Image.Lazy, Image.Unknown, BaselineImage,
         return new Image.Lazy(supplier);
     }
 
+    /**
+     * Returns a view of the provided {@link Raster.Window} of an {@link Image}, row and column indices of the returned
+     * image are relative to the top-left of the window.
+     */
+    static Image cropped(Image image, Raster.Window window) {
+        return new Image.Cropped(image, window);
+    }
+
+    /**
+     * Returns a new tile-backed handle for the nth image in the file which decodes the image one chunk (strip or tile) at
+     * a time as pixels are requested, holding onto decoded chunks in the provided (shared) {@link ChunkCache}.
+     *
+     * <p>Unlike {@link Image.Lazy} handles this never materializes the full image, making it suitable for serving random
+     * point queries over large images (or many files) within a fixed memory budget. Cached chunks outlive the file, see
+     * {@link ChunkCache#invalidate(Object)} to drop them once it's closed.
+     *
+     * @param file  the open file containing the image
+     * @param n     the index of the image in the file
+     * @param maker the maker used to decode individual chunks, see
+     *              {@link Maker#makeImage(SeekableByteChannel, ByteOrder, Ifd, Raster.Window)}
+     * @param cache the cache to hold decoded chunks in
+     */
+    static Image.Chunked chunked(TiffFile file, int n, Image.Maker maker, ChunkCache cache) {
+        Ifd ifd = file.ifd(n);
+        return new Image.Chunked(
+                cache,
+                file.channel(),
+                file.header().order(),
+                ifd,
+                maker,
+                ChunkLayout.get(ifd),
+                Raster.Window.full(ImageDimensions.get(ifd).asIntInfo())
+        );
+    }
+
     Pixel valueAt(int row, int col);
 
     /**
@@ -73,6 +113,21 @@ public sealed interface Image permits Image.Lazy, Image.Unknown, BaselineImage,
         }
     }
 
+    record Cropped(Image image, Raster.Window window) implements Image {
+
+        public Cropped {
+            requireNonNull(image);
+            requireNonNull(window);
+        }
+
+        @Override
+        public Pixel valueAt(int row, int col) {
+            checkElementIndex(row, window.length(), "row");
+            checkElementIndex(col, window.width(), "col");
+            return image.valueAt(window.row() + row, window.col() + col);
+        }
+    }
+
     final class Lazy implements Image {
 
         private final Supplier<Image> supplier;
@@ -105,6 +160,118 @@ public sealed interface Image permits Image.Lazy, Image.Unknown, BaselineImage,
         }
     }
 
+    /**
+     * Tile-backed {@link Image} which decodes chunks of the underlying image on demand via {@link Image#chunked}.
+     *
+     * <p>Each chunk is decoded as a small windowed image (see {@link Maker#makeImage(SeekableByteChannel, ByteOrder, Ifd,
+     * Raster.Window)}) and cached, pixel lookups are then delegated to the chunk containing the pixel.
+     */
+    final class Chunked implements Image {
+
+        private final ChunkCache cache;
+
+        private final SeekableByteChannel channel;
+
+        private final ByteOrder order;
+
+        private final Ifd ifd;
+
+        private final Image.Maker maker;
+
+        private final ChunkLayout layout;
+
+        /**
+         * The region of the underlying image covered by this handle, the full image unless created via {@link #window}.
+         */
+        private final Raster.Window window;
+
+        /**
+         * Summed over the samples of a pixel, 1 if not present in the IFD (the spec default for bilevel images).
+         */
+        private final int bitsPerPixel;
+
+        /**
+         * Chunks are cached by the channel and the offset of the {@link Ifd} (see {@link ChunkCache.Key}), so handles to
+         * the same image made via {@link Image#chunked} and {@link Maker#chunked} share their chunks.
+         */
+        private Chunked(ChunkCache cache, SeekableByteChannel channel, ByteOrder order, Ifd ifd, Image.Maker maker,
+                        ChunkLayout layout, Raster.Window window) {
+            checkArgument(ifd.offset() >= 0, "Tile-backed images require an IFD read from a file.");
+            this.cache = requireNonNull(cache);
+            this.channel = requireNonNull(channel);
+            this.order = requireNonNull(order);
+            this.ifd = ifd;
+            this.maker = requireNonNull(maker);
+            this.layout = requireNonNull(layout);
+            this.window = window.checkWithin(layout.dimensions());
+            this.bitsPerPixel = BitsPerSample.getIfPresent(ifd)
+                    .map(bits -> IntStream.of(bits).sum())
+                    .orElse(1);
+        }
+
+        /**
+         * The dimensions of the region of the image covered by this handle.
+         */
+        public ImageDimensions dimensions() {
+            return window.dimensions();
+        }
+
+        /**
+         * Returns a handle to a window of this image, sharing the same cache of decoded chunks. Row and column indices of
+         * the returned image are relative to the top-left of the window.
+         */
+        public Chunked window(Raster.Window window) {
+            window.checkWithin(dimensions().asIntInfo());
+            return new Chunked(
+                    cache,
+                    channel,
+                    order,
+                    ifd,
+                    maker,
+                    layout,
+                    new Raster.Window(
+                            this.window.row() + window.row(),
+                            this.window.col() + window.col(),
+                            window.length(),
+                            window.width()
+                    )
+            );
+        }
+
+        @Override
+        public Pixel valueAt(int row, int col) {
+            checkElementIndex(row, window.length(), "row");
+            checkElementIndex(col, window.width(), "col");
+
+            int imageRow = window.row() + row;
+            int imageCol = window.col() + col;
+
+            int chunk = layout.chunkAt(imageRow, imageCol);
+            return chunk(chunk).valueAt(imageRow - layout.row(chunk), imageCol - layout.col(chunk));
+        }
+
+        private Image chunk(int chunk) {
+
+            int rows = layout.rows(chunk);
+            int cols = layout.cols(chunk);
+
+            return cache.get(
+                    new ChunkCache.Key(channel, ifd.offset(), chunk),
+                    weight(rows, cols),
+                    () -> maker.makeImage(channel, order, ifd, new Raster.Window(layout.row(chunk), layout.col(chunk), rows, cols))
+            );
+        }
+
+        /**
+         * The decoded size of a chunk in bytes, with sub-byte samples packed into whole-byte rows (see {@link PackedRows})
+         * and clamped to fit the cache's int weights.
+         */
+        private int weight(int rows, int cols) {
+            long rowBytes = ((long) cols * bitsPerPixel + Byte.SIZE - 1) / Byte.SIZE;
+            return (int) Math.min(Integer.MAX_VALUE, rows * rowBytes);
+        }
+    }
+
     /**
      * Supplier-like interface for generating images from the bytes of a file and the IFD describing the image contents.
      *
@@ -146,6 +313,33 @@ public sealed interface Image permits Image.Lazy, Image.Unknown, BaselineImage,
             return (channel, order, ifd) -> Image.lazy(() -> maker.makeImage(channel, order, ifd));
         }
 
+        /**
+         * Wraps the provided {@link Image.Maker} as one that produces tile-backed {@link Image.Chunked} handles, which only
+         * decode the chunk (strip or tile) containing each requested pixel, see {@link Image#chunked}.
+         *
+         * <p>This suits point queries (e.g. elevation lookups) against large images, where decoding the full raster up
+         * front would dominate the cost of the lookups themselves. Pixels are of the same type as those of the images the
+         * wrapped maker produces. Makers relying on the default (cropping) windowed
+         * {@link #makeImage(SeekableByteChannel, ByteOrder, Ifd, Raster.Window)} still read the full image per chunk.
+         *
+         * @param maker the maker used to decode individual chunks, see
+         *              {@link #makeImage(SeekableByteChannel, ByteOrder, Ifd, Raster.Window)}
+         * @param cache the cache to hold decoded chunks in, may be shared across files
+         */
+        static Maker chunked(Image.Maker maker, ChunkCache cache) {
+            requireNonNull(maker);
+            requireNonNull(cache);
+            return (channel, order, ifd) -> new Image.Chunked(
+                    cache,
+                    channel,
+                    order,
+                    ifd,
+                    maker,
+                    ChunkLayout.get(ifd),
+                    Raster.Window.full(ImageDimensions.get(ifd).asIntInfo())
+            );
+        }
+
         /**
          * Creates a new image based on the contents of the provided {@link Ifd} and the {@link SeekableByteChannel} pointing
          * to the underlying TIFF file.
@@ -155,5 +349,23 @@ public sealed interface Image permits Image.Lazy, Image.Unknown, BaselineImage,
          * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
          */
         Image makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd);
+
+        /**
+         * Creates a new image containing only the contents of the provided {@link Raster.Window} of the image described
+         * by the {@link Ifd}, the returned image has the dimensions of the window.
+         *
+         * <p>By default this crops the image returned by {@link #makeImage(SeekableByteChannel, ByteOrder, Ifd)} (see
+         * {@link Image#cropped}), so still reads the full image. The builtin makers override this to decode only the
+         * strips/tiles overlapping the window, and always materialize windowed images eagerly.
+         *
+         * @param channel the open channel to the bytes of the file
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         * @param window  the region of the image to read, must lie entirely within the image
+         */
+        default Image makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+            window.checkWithin(ImageDimensions.get(ifd).asIntInfo());
+            return Image.cropped(makeImage(channel, order, ifd), window);
+        }
     }
 }
@@ -0,0 +1,142 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Read-only {@link SeekableByteChannel} over a TIFF file which has been memory-mapped in its entirety as a single
+ * {@link MemorySegment}.
+ *
+ * <p>The standard channel methods are supported for compatibility with code expecting a plain channel, but the intended
+ * access path is {@link #slice(long, int)} which the {@link BytesReader} uses to hand out views of the mapping directly
+ * (rather than copying them into freshly allocated heap buffers).
+ *
+ * <p>Unlike a {@link java.nio.MappedByteBuffer} a {@link MemorySegment} is long-indexed, so files larger than 2GB can be
+ * mapped without splitting them into multiple regions.
+ */
+final class MappedByteChannel implements SeekableByteChannel {
+
+    private final FileChannel file;
+
+    private final Arena arena;
+
+    private final MemorySegment segment;
+
+    private long position;
+
+    private MappedByteChannel(FileChannel file, Arena arena, MemorySegment segment) {
+        this.file = file;
+        this.arena = arena;
+        this.segment = segment;
+        this.position = 0;
+    }
+
+    /**
+     * Open and map the entire contents of the file at the provided path.
+     *
+     * <p>The mapping (and the underlying file handle) are released when the channel is closed, any buffers previously
+     * returned from {@link #slice(long, int)} become inaccessible at that point.
+     *
+     * @param path the path to the file to map
+     */
+    static MappedByteChannel open(Path path) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment segment = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size(), arena);
+            return new MappedByteChannel(file, arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a read-only view of {@code length} bytes of the mapping starting at the provided {@code position}.
+     *
+     * <p>This doesn't modify the {@link #position()} of the channel and is safe to call concurrently.
+     */
+    ByteBuffer slice(long position, int length) {
+        checkArgument(position >= 0 && position + length <= segment.byteSize(),
+                "Requested range [%s, %s) outside of mapped file of size %s.", position, position + length, segment.byteSize());
+        return segment.asSlice(position, length).asByteBuffer().asReadOnlyBuffer();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+
+        long remaining = segment.byteSize() - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        int n = (int) Math.min(dst.remaining(), remaining);
+        dst.put(slice(position, n));
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        checkArgument(newPosition >= 0, "Illegal position %s", newPosition);
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return segment.byteSize();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return file.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file.isOpen()) {
+            try {
+                arena.close();
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.stellarsunset.tiff;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Conversion between the rows of sub-byte samples (1, 2 or 4 bits) stored in a TIFF file and one sample per byte.
+ *
+ * <p>Samples are packed into bytes starting from the most significant bit (FillOrder=1) and each row starts on a fresh
+ * byte, so rows of {@code n} samples take {@code ceil(n * bitsPerSample / 8)} bytes with any unused low bits of the final
+ * byte set to zero.
+ *
+ * <p>1-bit samples are converted eight at a time, see {@link #gather(byte[], int)} and {@link #spread(int, byte[], int)}.
+ *
+ * <p>Keep package private to keep off client classpath.
+ */
+final class PackedRows {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * The bits of each byte value as eight bytes of zero or one, most significant bit first when stored big-endian.
+     */
+    private static final long[] SPREAD = new long[256];
+
+    static {
+        for (int b = 0; b < SPREAD.length; b++) {
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                SPREAD[b] |= (long) (b >>> bit & 1) << (bit * Byte.SIZE);
+            }
+        }
+    }
+
+    private PackedRows() {
+    }
+
+    /**
+     * Pack the eight 1-bit samples (one per byte) starting at the offset into the bits of a byte, first sample in the most
+     * significant bit.
+     */
+    static int gather(byte[] src, int offset) {
+        long samples = (long) LONGS.get(src, offset) & 0x0101010101010101L;
+        // each sample lands in a distinct bit of the top byte of the product, without carries between them
+        return (int) ((samples * 0x0102040810204080L) >>> 56);
+    }
+
+    /**
+     * Unpack the bits of the byte into eight 1-bit samples (one per byte) starting at the offset, the inverse of
+     * {@link #gather(byte[], int)}.
+     */
+    static void spread(int b, byte[] dst, int offset) {
+        LONGS.set(dst, offset, SPREAD[b & 0xFF]);
+    }
+
+    /**
+     * The number of bytes in a row of the provided number of samples.
+     */
+    static int rowBytes(int samples, int bitsPerSample) {
+        return Math.toIntExact(((long) samples * bitsPerSample + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    /**
+     * Unpack the {@code length} samples of a row starting at the source offset into the destination, one per byte.
+     */
+    static void unpack(byte[] src, int srcOffset, int bitsPerSample, byte[] dst, int dstOffset, int length) {
+
+        int mask = (1 << bitsPerSample) - 1;
+        int perByte = Byte.SIZE / bitsPerSample;
+
+        int s = srcOffset;
+        int d = dstOffset;
+        int end = dstOffset + length;
+
+        if (bitsPerSample == 1) {
+            for (; end - d >= Byte.SIZE; s++, d += Byte.SIZE) {
+                spread(src[s], dst, d);
+            }
+        } else {
+            for (; end - d >= perByte; s++) {
+                int b = src[s];
+                for (int shift = Byte.SIZE - bitsPerSample; shift >= 0; shift -= bitsPerSample) {
+                    dst[d++] = (byte) (b >>> shift & mask);
+                }
+            }
+        }
+
+        // trailing samples of a partially filled final byte
+        for (int shift = Byte.SIZE - bitsPerSample; d < end; shift -= bitsPerSample) {
+            dst[d++] = (byte) (src[s] >>> shift & mask);
+        }
+    }
+
+    /**
+     * Pack the {@code length} samples (one per byte) starting at the source offset into a row of bytes starting at the
+     * destination offset, the inverse of {@link #unpack(byte[], int, int, byte[], int, int)}.
+     */
+    static void pack(byte[] src, int srcOffset, int length, int bitsPerSample, byte[] dst, int dstOffset) {
+
+        int mask = (1 << bitsPerSample) - 1;
+
+        int s = srcOffset;
+        int d = dstOffset;
+        int end = srcOffset + length;
+
+        if (bitsPerSample == 1) {
+            for (; end - s >= Byte.SIZE; s += Byte.SIZE) {
+                dst[d++] = (byte) gather(src, s);
+            }
+        }
+
+        while (s < end) {
+            int b = 0;
+            for (int shift = Byte.SIZE - bitsPerSample; shift >= 0 && s < end; shift -= bitsPerSample) {
+                b |= (src[s++] & mask) << shift;
+            }
+            dst[d++] = (byte) b;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read-only {@link SeekableByteChannel} which serves reads from an in-memory copy of the first N bytes of the underlying
+ * channel, used by the {@link TiffFileReader} to parse the header and IFDs of a file without a round trip per value.
+ *
+ * <p>The prefetched window starts at the configured size and grows on demand (by at least doubling, up to a maximum)
+ * when a read starts within or just past the end of the window. Reads further out than that are passed straight
+ * through to the underlying channel. This suits cloud-optimized GeoTIFFs and most other writers, which place the IFDs
+ * and their out-of-line values at the start of the file ahead of the image data.
+ *
+ * <p>Like the {@link MappedByteChannel} the intended access path is {@link #readBytes(long, int)} which the
+ * {@link BytesReader} uses to hand out read-only views of the window rather than copies.
+ */
+final class PrefetchedByteChannel implements SeekableByteChannel {
+
+    private final SeekableByteChannel delegate;
+
+    private final int maximumBytes;
+
+    private final long size;
+
+    private byte[] window;
+
+    private long position;
+
+    private PrefetchedByteChannel(SeekableByteChannel delegate, int maximumBytes, long size) {
+        this.delegate = requireNonNull(delegate);
+        this.maximumBytes = maximumBytes;
+        this.size = size;
+        this.window = new byte[0];
+        this.position = 0;
+    }
+
+    /**
+     * Prefetch the first {@code initialBytes} of the provided channel.
+     *
+     * @param delegate     the channel to prefetch from, this is not closed when the returned channel is discarded
+     * @param initialBytes the initial size of the prefetched window
+     * @param maximumBytes the maximum size the window can grow to
+     */
+    static PrefetchedByteChannel prefetch(SeekableByteChannel delegate, int initialBytes, int maximumBytes) throws IOException {
+        checkArgument(0 < initialBytes && initialBytes <= maximumBytes,
+                "Initial prefetch size (%s) should be positive and at most the maximum (%s)", initialBytes, maximumBytes);
+
+        PrefetchedByteChannel channel = new PrefetchedByteChannel(delegate, maximumBytes, delegate.size());
+        channel.grow(initialBytes);
+        return channel;
+    }
+
+    /**
+     * The number of bytes currently held in memory.
+     */
+    int windowSize() {
+        return window.length;
+    }
+
+    /**
+     * Returns {@code length} bytes of the file starting at the provided {@code position}, as a read-only view of the
+     * window if possible (growing it if required) or otherwise as a fresh read from the underlying channel.
+     *
+     * <p>This doesn't modify the {@link #position()} of the channel.
+     */
+    synchronized ByteBuffer readBytes(long position, int length) {
+
+        long end = position + length;
+
+        if (end > window.length && position <= window.length * 2L && window.length < Math.min(size, maximumBytes)) {
+            grow(Math.max(window.length * 2L, end));
+        }
+
+        if (end <= window.length) {
+            return ByteBuffer.wrap(window, (int) position, length).slice().asReadOnlyBuffer();
+        }
+
+        return new BytesReader(delegate).readBytes(position, length);
+    }
+
+    private void grow(long bytes) {
+        int newSize = (int) Math.min(Math.min(bytes, maximumBytes), size);
+        if (newSize > window.length) {
+            // only fetch the newly covered tail of the window, the existing prefix is kept as-is
+            ByteBuffer tail = new BytesReader(delegate).readBytes(window.length, newSize - window.length);
+
+            byte[] grown = Arrays.copyOf(window, newSize);
+            tail.get(tail.position(), grown, window.length, tail.remaining());
+
+            window = grown;
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+
+        long remaining = size - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        int n = (int) Math.min(dst.remaining(), remaining);
+        dst.put(readBytes(position, n));
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        checkArgument(newPosition >= 0, "Illegal position %s", newPosition);
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.stellarsunset.tiff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Plans the reads required to fetch a set of chunks (strips or tiles) from a file, coalescing chunks which are adjacent
+ * (or nearly adjacent) on disk into a handful of larger reads which the {@link ChunkDecoder} then slices per-chunk.
+ *
+ * <p>Most writers lay chunks out contiguously and in order, so a full image (or a window of it) can typically be fetched
+ * with a few large reads instead of one per chunk. This matters most when reads are expensive (e.g. network-attached
+ * storage) but still helps on local disks when images have thousands of small tiles.
+ *
+ * <p>Keep package private to keep off client classpath.
+ *
+ * @param gapBytes        the maximum number of unused bytes between two chunks for them to still be read together, the
+ *                        bytes in the gap are read and discarded
+ * @param maxRequestBytes the maximum size of a single coalesced read, a chunk larger than this is read on its own
+ */
+record RangePlanner(int gapBytes, int maxRequestBytes) {
+
+    /**
+     * Tolerate gaps of up to a typical filesystem page, capping reads so they don't pin too much memory at once.
+     */
+    static final RangePlanner DEFAULT = new RangePlanner(4 * 1024, 8 * 1024 * 1024);
+
+    RangePlanner {
+        checkArgument(gapBytes >= 0, "Gap tolerance should be non-negative, was %s", gapBytes);
+        checkArgument(maxRequestBytes >= 0, "Maximum request size should be non-negative, was %s", maxRequestBytes);
+    }
+
+    /**
+     * Plan the reads for the provided chunks, returning ranges sorted by their offset in the file.
+     *
+     * @param offsets    the offset in the file of every chunk in the image
+     * @param byteCounts the number of bytes in the file of every chunk in the image
+     * @param chunks     the indices of the chunks to read
+     */
+    List<Range> plan(long[] offsets, int[] byteCounts, int[] chunks) {
+
+        int[] sorted = IntStream.range(0, chunks.length).boxed()
+                .sorted(Comparator.comparingLong(i -> offsets[chunks[i]]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        List<Range> ranges = new ArrayList<>();
+
+        int start = 0;
+        long rangeOffset = 0;
+        long rangeEnd = 0;
+
+        for (int i = 0; i < sorted.length; i++) {
+            int chunk = chunks[sorted[i]];
+
+            long offset = offsets[chunk];
+            long end = offset + byteCounts[chunk];
+
+            if (i > 0 && (offset - rangeEnd > gapBytes || Math.max(end, rangeEnd) - rangeOffset > maxRequestBytes)) {
+                ranges.add(new Range(rangeOffset, (int) (rangeEnd - rangeOffset), Arrays.copyOfRange(sorted, start, i)));
+                start = i;
+            }
+
+            if (start == i) {
+                rangeOffset = offset;
+                rangeEnd = end;
+            } else {
+                rangeEnd = Math.max(end, rangeEnd);
+            }
+        }
+
+        if (sorted.length > 0) {
+            ranges.add(new Range(rangeOffset, (int) (rangeEnd - rangeOffset), Arrays.copyOfRange(sorted, start, sorted.length)));
+        }
+
+        return ranges;
+    }
+
+    /**
+     * A single contiguous read from the file covering one or more chunks.
+     *
+     * @param offset  the offset in the file to start reading at
+     * @param length  the number of bytes to read
+     * @param indices the indices (into the array of chunks provided to {@link #plan(long[], int[], int[])}) of the chunks
+     *                covered by the range
+     */
+    record Range(long offset, int length, int[] indices) {
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Source of ranges of bytes from a TIFF file, this is the minimal abstraction required to read a TIFF file and allows
+ * reading them from places other than the local file system (e.g. cloud-optimized GeoTIFFs in object storage) without
+ * first staging a local copy.
+ *
+ * <p>Sources can be read via {@link TiffFileReader#read(RangeSource)}, all reads of the header, IFDs and image data of
+ * the file are then issued against the source. Builtin implementations are provided for:
+ * <ol>
+ *     <li>{@link FileChannel}s - see {@link #of(FileChannel)}</li>
+ *     <li>{@link AsynchronousFileChannel}s - see {@link #openAsync(Path)}</li>
+ *     <li>In-memory byte arrays - see {@link #of(byte[])}</li>
+ *     <li>HTTP(S) servers supporting range requests - see {@link #http(URI)}</li>
+ * </ol>
+ *
+ * <p>Any of which can be wrapped in a block cache via {@link #cached(RangeSource, int, long)}, which is recommended for
+ * remote sources where each read is a round-trip.
+ *
+ * <p>Implementations must be safe to read from concurrently as images may be decoded on multiple threads.
+ */
+public interface RangeSource extends Closeable {
+
+    /**
+     * Source backed by the provided {@link FileChannel}, reads are positional and don't modify the channel position.
+     *
+     * @param channel the channel to read from, closed when the source is closed
+     */
+    static RangeSource of(FileChannel channel) {
+        return new FileRangeSource(channel);
+    }
+
+    /**
+     * Open a source reading the file at the provided path via an {@link AsynchronousFileChannel}.
+     *
+     * <p>Reads of image data from asynchronous sources are pipelined, a bounded number of chunk reads are issued up-front
+     * and each is decoded as soon as its bytes arrive, see {@link #readAsync(long, int)}.
+     *
+     * @param path the path to the file on the local file system
+     */
+    static RangeSource openAsync(Path path) throws IOException {
+        return AsyncFileRangeSource.open(path);
+    }
+
+    /**
+     * Source backed by the provided in-memory bytes, reads return read-only views of the array rather than copies.
+     *
+     * @param bytes the complete contents of the file
+     */
+    static RangeSource of(byte[] bytes) {
+        return new ByteArrayRangeSource(bytes);
+    }
+
+    /**
+     * Source reading from the provided URI via HTTP range requests, using a new default {@link HttpClient}.
+     *
+     * @param uri the location of the file, the server must support {@code Range} requests
+     */
+    static RangeSource http(URI uri) {
+        return HttpRangeSource.open(uri);
+    }
+
+    /**
+     * Source reading from the provided URI via HTTP range requests, using the provided {@link HttpClient}.
+     *
+     * @param client the client to issue requests with, this isn't closed when the source is closed
+     * @param uri    the location of the file, the server must support {@code Range} requests
+     */
+    static RangeSource http(HttpClient client, URI uri) {
+        return new HttpRangeSource(client, uri, false);
+    }
+
+    /**
+     * Wrap the provided source with a cache of fixed-size blocks of the file, reads are served from cached blocks where
+     * possible and missing blocks are fetched from the source together in as few reads as possible.
+     *
+     * <p>This is primarily useful for remote sources, where multiple small reads of metadata and neighbouring tiles are
+     * served from a single request, reads larger than a quarter of the cache bypass it.
+     *
+     * @param source       the source to cache reads from, closed when the returned source is closed
+     * @param blockBytes   the size of the blocks of the file to cache, e.g. 64KB
+     * @param maximumBytes the maximum (approximate) number of bytes to cache
+     */
+    static RangeSource cached(RangeSource source, int blockBytes, long maximumBytes) {
+        return new CachingRangeSource(source, blockBytes, maximumBytes);
+    }
+
+    /**
+     * Read {@code length} bytes from the source starting at the provided {@code offset}.
+     *
+     * <p>The returned buffer should contain the requested bytes between its position and limit, callers should never
+     * write into the returned buffers as they may be views over data shared with other readers.
+     *
+     * @param offset the offset of the first byte to read
+     * @param length the number of bytes to read
+     */
+    ByteBuffer read(long offset, int length) throws IOException;
+
+    /**
+     * Asynchronously read {@code length} bytes from the source starting at the provided {@code offset}, see
+     * {@link #read(long, int)}.
+     *
+     * <p>By default the read is made synchronously on the calling thread, sources with native async support (e.g. HTTP)
+     * should override this.
+     *
+     * <p>When images are decoded with a (non-direct) {@link Executor} the reads of their strips or tiles are issued via
+     * this method, with up to {@link TiffFileReader#withInFlightReads(int)} reads outstanding at once, and the decoding of
+     * each chunk is handed to the executor as soon as its read completes. This overlaps I/O with decompression, which
+     * keeps cores busy when reads have high latency.
+     */
+    default CompletableFuture<ByteBuffer> readAsync(long offset, int length) {
+        try {
+            return CompletableFuture.completedFuture(read(offset, length));
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * The total size of the file in bytes.
+     */
+    long size() throws IOException;
+
+    /**
+     * Adapt this source to a read-only {@link SeekableByteChannel}, reads of which via the {@link BytesReader} are issued
+     * directly against the source.
+     */
+    default SeekableByteChannel asChannel() {
+        return new RangeSourceChannel(this);
+    }
+}
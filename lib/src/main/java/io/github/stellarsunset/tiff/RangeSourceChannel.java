@@ -0,0 +1,117 @@
+package io.github.stellarsunset.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read-only {@link SeekableByteChannel} adapter over a {@link RangeSource}, see {@link RangeSource#asChannel()}.
+ *
+ * <p>Like the {@link MappedByteChannel} the standard channel methods are supported for compatibility with code expecting
+ * a plain channel, but the intended access path is via the {@link BytesReader} which issues reads directly against the
+ * {@link #source()} without touching the channel position.
+ *
+ * <p>The channel also carries the number of reads the {@link ChunkDecoder} may have in-flight against the source at once
+ * when decoding images asynchronously, see {@link TiffFileReader#withInFlightReads(int)}.
+ */
+final class RangeSourceChannel implements SeekableByteChannel {
+
+    static final int DEFAULT_IN_FLIGHT_READS = 16;
+
+    private final RangeSource source;
+
+    private final int inFlightReads;
+
+    private volatile boolean open;
+
+    private long position;
+
+    RangeSourceChannel(RangeSource source) {
+        this(source, DEFAULT_IN_FLIGHT_READS);
+    }
+
+    RangeSourceChannel(RangeSource source, int inFlightReads) {
+        checkArgument(inFlightReads > 0, "In-flight reads should be positive, was %s", inFlightReads);
+        this.source = requireNonNull(source);
+        this.inFlightReads = inFlightReads;
+        this.open = true;
+        this.position = 0;
+    }
+
+    RangeSource source() {
+        return source;
+    }
+
+    int inFlightReads() {
+        return inFlightReads;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+
+        long remaining = source.size() - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        int n = (int) Math.min(dst.remaining(), remaining);
+        dst.put(source.read(position, n));
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        checkArgument(newPosition >= 0, "Illegal position %s", newPosition);
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return source.size();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            open = false;
+            source.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
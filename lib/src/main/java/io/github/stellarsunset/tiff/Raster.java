@@ -2,18 +2,23 @@ package io.github.stellarsunset.tiff;
 
 import io.github.stellarsunset.tiff.baseline.ImageDimensions;
 import io.github.stellarsunset.tiff.baseline.StripInfo;
-import io.github.stellarsunset.tiff.baseline.tag.Compression;
-import io.github.stellarsunset.tiff.compress.Compressor;
-import io.github.stellarsunset.tiff.compress.Compressors;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
 import io.github.stellarsunset.tiff.extension.TileInfo;
-import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
+import io.github.stellarsunset.tiff.extension.tag.PlanarConfiguration;
 
-import java.nio.ByteBuffer;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * A {@link Raster} is a rectangular array of pixels, these are the "data" inside an {@link Image}.
@@ -49,668 +54,960 @@ public sealed interface Raster {
     record Floats(float[][] floats, int componentsPerPixel) implements Raster {
     }
 
-    interface Reader {
+    /**
+     * Represents a {@link Raster} as a single contiguous array of bytes, each row of {@code stride} samples directly follows
+     * the previous row, i.e. component {@code c} of pixel {@code (row, col)} is at
+     * {@code bytes[row * stride + col * componentsPerPixel + c]}.
+     *
+     * <p>Unlike {@link Bytes} the raster is a single object regardless of the number of rows, see
+     * {@link Reader#readFlat(SeekableByteChannel, ByteOrder, Ifd, Window)}.
+     */
+    record FlatBytes(byte[] bytes, int length, int stride, int componentsPerPixel) implements Raster {
 
-        static ByteTilesOrStrips bytes(int componentsPerPixel) {
-            return new ByteTilesOrStrips(componentsPerPixel);
-        }
-
-        static ShortTilesOrStrips shorts(int componentsPerPixel) {
-            return new ShortTilesOrStrips(componentsPerPixel);
+        public FlatBytes {
+            checkFlat(bytes.length, length, stride, componentsPerPixel);
         }
+    }
 
-        static IntTilesOrStrips ints(int componentsPerPixel) {
-            return new IntTilesOrStrips(componentsPerPixel);
-        }
+    /**
+     * Represents a {@link Raster} as a single contiguous array of shorts, see {@link FlatBytes}.
+     */
+    record FlatShorts(short[] shorts, int length, int stride, int componentsPerPixel) implements Raster {
 
-        static FloatTilesOrStrips floats(int componentsPerPixel) {
-            return new FloatTilesOrStrips(componentsPerPixel);
+        public FlatShorts {
+            checkFlat(shorts.length, length, stride, componentsPerPixel);
         }
+    }
 
-        /**
-         * Read the {@link Raster} data associated with the image from the underlying file.
-         *
-         * @param channel the open channel to the bytes of the file
-         * @param order   the byte order to use when interpreting data in the underlying image
-         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
-         */
-        Raster readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd);
-
-        record ByteTilesOrStrips(int componentsPerPixel) implements Reader {
+    /**
+     * Represents a {@link Raster} as a single contiguous array of ints, see {@link FlatBytes}.
+     */
+    record FlatInts(int[] ints, int length, int stride, int componentsPerPixel) implements Raster {
 
-            @Override
-            public Bytes readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-                if (StripInfo.getOptional(ifd).isPresent()) {
-                    return new ByteStrips(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                if (TileInfo.getOptional(ifd).isPresent()) {
-                    return new ByteTiles(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                throw new IllegalArgumentException(
-                        "Unable to read byte contents of file, neither strip or tile layout was found."
-                );
-            }
+        public FlatInts {
+            checkFlat(ints.length, length, stride, componentsPerPixel);
         }
+    }
 
-        record ByteStrips(int componentsPerPixel) implements Reader {
-
-            @Override
-            public Bytes readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-                BytesAdapter adapter = BytesAdapter.of(order);
-                BytesReader reader = new BytesReader(channel);
-
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
-
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                StripInfo stripInfo = StripInfo.getRequired(ifd);
-
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                StripInfo.Int intStripInfo = stripInfo.asIntInfo();
-
-                int imageWidth = intImageDimensions.width();
-                int imageWidthBytes = imageWidth * componentsPerPixel;
-
-                byte[][] bytes = new byte[intImageDimensions.length()][imageWidthBytes];
-
-                int nOffsets = stripInfo.stripOffsets().length;
-                int rowsPerStrip = intStripInfo.rowsPerStrip();
-
-                int widthBytes = imageWidth * componentsPerPixel;
-
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
-
-                for (int i = 0; i < nOffsets; i++) {
-
-                    long stripOffset = stripInfo.stripOffsets()[i];
-                    int stripBytes = intStripInfo.stripByteCounts()[i];
-
-                    ByteBuffer buffer = reader.readBytes(stripOffset, stripBytes);
-                    byte[] uncompressedStrip = compressor.decompress(buffer.array(), adapter);
-
-                    int rowsInStrip = uncompressedStrip.length / widthBytes;
-                    if (i != nOffsets - 1) {
-                        checkArgument(rowsInStrip == rowsPerStrip,
-                                "Incorrect number of rows found (%s) in strip# (%s).", rowsInStrip, i);
-                    }
-
-                    for (int stripRow = 0; stripRow < rowsInStrip; stripRow++) {
-
-                        int imageRow = i * rowsPerStrip + stripRow;
-                        int stripRowStart = stripRow * widthBytes;
+    /**
+     * Represents a {@link Raster} as a single contiguous array of floats, see {@link FlatBytes}.
+     */
+    record FlatFloats(float[] floats, int length, int stride, int componentsPerPixel) implements Raster {
 
-                        bytes[imageRow] = Arrays.copyOfRange(
-                                uncompressedStrip,
-                                stripRowStart,
-                                stripRowStart + widthBytes
-                        );
+        public FlatFloats {
+            checkFlat(floats.length, length, stride, componentsPerPixel);
+        }
+    }
 
-                        predictor.unpack(
-                                BufferView.bytes(
-                                        ByteBuffer.wrap(bytes[imageRow]).order(order)
-                                )
-                        );
-                    }
-                }
+    /**
+     * Represents a {@link Raster} as a contiguous (typically off-heap) {@link MemorySegment} of samples, the samples are
+     * laid out as in a {@link FlatBytes} raster but indexed with longs, so rasters aren't limited to 2^31 samples.
+     *
+     * <p>The layout describes the type and byte order of the samples in the segment and is one of the byte, short, int or
+     * float {@link ValueLayout}s, rasters read by the builtin readers use native byte order so the segment can be handed
+     * directly to native code, see {@link Reader#readSegment(SeekableByteChannel, ByteOrder, Ifd, Window, SegmentAllocator)}.
+     */
+    record Segment(MemorySegment segment, ValueLayout layout, int length, long stride, int componentsPerPixel) implements Raster {
+
+        public Segment {
+            Class<?> carrier = layout.carrier();
+            checkArgument(carrier == byte.class || carrier == short.class || carrier == int.class || carrier == float.class,
+                    "Segment samples should be bytes, shorts, ints or floats, got %s", carrier);
+            checkArgument(length >= 0 && stride >= 0 && componentsPerPixel > 0 && stride % componentsPerPixel == 0,
+                    "Stride (%s) should be a multiple of the components per pixel (%s)", stride, componentsPerPixel);
+            checkArgument(segment.byteSize() >= length * stride * layout.byteSize(),
+                    "Segment of (%s) bytes is too small for (%s) rows of (%s) samples", segment.byteSize(), length, stride);
+        }
+    }
 
-                return new Bytes(bytes, componentsPerPixel);
+    /**
+     * Represents a {@link Raster} of sub-byte samples (e.g. the 1-bit pixels of a bi-level image) packed into the bits of
+     * an array of longs per row. The {@code width * componentsPerPixel} samples of each row are packed starting from the
+     * most significant bit of the first word of the row, i.e. in the same order as in the (FillOrder=1) bytes of a file.
+     *
+     * <p>Packed 1-bit samples take an eighth of the memory of a {@link Bytes} raster, individual samples can be read with
+     * {@link #get(int, int)} and runs of samples unpacked into one byte per sample with
+     * {@link #unpack(int, int, byte[], int, int)}, see {@link Reader#packed(int)}.
+     *
+     * @param words         the packed samples of each row, with {@code ceil(width * componentsPerPixel * bitsPerSample / 64)}
+     *                      words per row
+     * @param width         the number of pixels in each row
+     * @param bitsPerSample the number of bits in each sample, one of 1, 2 or 4
+     */
+    record Packed(long[][] words, int width, int bitsPerSample, int componentsPerPixel) implements Raster {
+
+        public Packed {
+            checkArgument(bitsPerSample == 1 || bitsPerSample == 2 || bitsPerSample == 4,
+                    "Packed samples should be 1, 2 or 4 bits, got %s", bitsPerSample);
+            checkArgument(width >= 0 && componentsPerPixel > 0,
+                    "Width (%s) should be non-negative and components per pixel (%s) positive", width, componentsPerPixel);
+
+            int rowWords = words((long) width * componentsPerPixel, bitsPerSample);
+            for (long[] row : words) {
+                checkArgument(row.length == rowWords,
+                        "Rows of (%s) pixels should have (%s) words, got (%s)", width, rowWords, row.length);
             }
         }
 
-        record ByteTiles(int componentsPerPixel) implements Reader {
-
-            @Override
-            public Bytes readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-
-                BytesAdapter adapter = BytesAdapter.of(order);
-                BytesReader reader = new BytesReader(channel);
-
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
-
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                TileInfo tileInfo = TileInfo.getRequired(ifd);
-
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                TileInfo.Int intTileInfo = tileInfo.asIntInfo();
-
-                int imageWidth = intImageDimensions.width();
-                int imageWidthBytes = imageWidth * componentsPerPixel;
-
-                byte[][] bytes = new byte[intImageDimensions.length()][imageWidthBytes];
+        /**
+         * Returns a raster of zeroed samples with the provided dimensions.
+         */
+        public static Packed allocate(int length, int width, int bitsPerSample, int componentsPerPixel) {
+            long[][] words = new long[length][words((long) width * componentsPerPixel, bitsPerSample)];
+            return new Packed(words, width, bitsPerSample, componentsPerPixel);
+        }
 
-                int nOffsets = tileInfo.offsets().length;
-                int tileWidthBytes = intTileInfo.width() * componentsPerPixel;
+        /**
+         * Pack rows of samples stored one per byte, only the low {@code bitsPerSample} bits of each byte are kept.
+         */
+        public static Packed of(byte[][] samples, int bitsPerSample, int componentsPerPixel) {
+            int width = samples.length == 0 ? 0 : samples[0].length / componentsPerPixel;
+
+            Packed packed = allocate(samples.length, width, bitsPerSample, componentsPerPixel);
+            for (int row = 0; row < samples.length; row++) {
+                checkArgument(samples[row].length == packed.rowSamples(),
+                        "Row (%s) should have (%s) samples, had (%s)", row, packed.rowSamples(), samples[row].length);
+                packed.pack(row, 0, samples[row], 0, samples[row].length);
+            }
+            return packed;
+        }
 
-                int oRow = 0;
-                int oCol = 0;
+        private static int words(long samples, int bitsPerSample) {
+            return Math.toIntExact((samples * bitsPerSample + Long.SIZE - 1) / Long.SIZE);
+        }
 
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
+        /**
+         * The number of rows in the raster.
+         */
+        public int length() {
+            return words.length;
+        }
 
-                for (int i = 0; i < nOffsets; i++) {
+        /**
+         * The number of samples in each row of the raster, {@code width * componentsPerPixel}.
+         */
+        public int rowSamples() {
+            return width * componentsPerPixel;
+        }
 
-                    long tileOffset = tileInfo.offsets()[i];
-                    int tileBytes = intTileInfo.byteCounts()[i];
+        /**
+         * Returns the unsigned value of the sample at the index within the row, e.g. component {@code c} of pixel
+         * {@code (row, col)} is at index {@code col * componentsPerPixel + c}.
+         */
+        public int get(int row, int index) {
+            Objects.checkIndex(index, rowSamples());
+            long bit = (long) index * bitsPerSample;
+            long word = words[row][(int) (bit >>> 6)];
+            return (int) (word >>> (Long.SIZE - bitsPerSample - (bit & 63))) & ((1 << bitsPerSample) - 1);
+        }
 
-                    ByteBuffer buffer = reader.readBytes(tileOffset, tileBytes);
-                    byte[] uncompressedTile = compressor.decompress(buffer.array(), adapter);
+        /**
+         * Set the value of the sample at the index within the row, only the low {@code bitsPerSample} bits of the value are
+         * kept.
+         */
+        public void set(int row, int index, int value) {
+            Objects.checkIndex(index, rowSamples());
+            long bit = (long) index * bitsPerSample;
+            int shift = (int) (Long.SIZE - bitsPerSample - (bit & 63));
+            long mask = ((1L << bitsPerSample) - 1) << shift;
+
+            long[] rowWords = words[row];
+            int word = (int) (bit >>> 6);
+            rowWords[word] = rowWords[word] & ~mask | ((long) value << shift) & mask;
+        }
 
-                    checkArgument(uncompressedTile.length == tileInfo.width() * tileInfo.length() * componentsPerPixel,
-                            "Incorrect number of uncompressed bytes in tile, (%s) for tile w (%s) and l (%s)",
-                            uncompressedTile.length,
-                            tileInfo.width(),
-                            tileInfo.length()
-                    );
+        /**
+         * Unpack {@code length} samples of the row starting at the index into the destination, one sample per byte.
+         */
+        public void unpack(int row, int index, byte[] dst, int dstOffset, int length) {
+            Objects.checkFromIndexSize(index, length, rowSamples());
+            Objects.checkFromIndexSize(dstOffset, length, dst.length);
 
-                    for (int row = 0; row < intTileInfo.length() && oRow + row < intImageDimensions.length(); row++) {
+            long[] rowWords = words[row];
+            int perWord = Long.SIZE / bitsPerSample;
+            int mask = (1 << bitsPerSample) - 1;
 
-                        int numberOfBytes = Math.min(tileWidthBytes, imageWidthBytes - oCol);
-                        byte[] rowBytes = bytes[oRow + row];
+            int d = dstOffset;
+            int end = dstOffset + length;
 
-                        System.arraycopy(
-                                uncompressedTile,
-                                row * tileWidthBytes,
-                                rowBytes,
-                                oCol,
-                                numberOfBytes
-                        );
+            // samples up to the first word boundary
+            for (; d < end && index % perWord != 0; d++) {
+                dst[d] = (byte) get(row, index++);
+            }
 
-                        predictor.unpack(
-                                BufferView.bytes(
-                                        ByteBuffer.wrap(rowBytes, oCol, numberOfBytes).order(order)
-                                )
-                        );
+            // whole words, 1-bit samples are unpacked a byte of the word at a time
+            for (int word = index / perWord; end - d >= perWord; word++) {
+                long value = rowWords[word];
+                if (bitsPerSample == 1) {
+                    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE, d += Byte.SIZE) {
+                        PackedRows.spread((int) (value >>> shift), dst, d);
                     }
-
-                    oCol += tileWidthBytes;
-
-                    if (oCol >= imageWidthBytes) {
-                        oRow += intTileInfo.length();
-                        oCol = 0;
+                } else {
+                    for (int shift = Long.SIZE - bitsPerSample; shift >= 0; shift -= bitsPerSample) {
+                        dst[d++] = (byte) ((int) (value >>> shift) & mask);
                     }
                 }
+                index += perWord;
+            }
 
-                checkArgument(oCol == 0, "Should read last tile and wrap back column. oCol was %s", oCol);
-                checkArgument(oRow > intImageDimensions.length(), "Should increment oRow past the end of the image, %s", oRow);
-
-                return new Bytes(bytes, componentsPerPixel);
+            for (; d < end; d++) {
+                dst[d] = (byte) get(row, index++);
             }
         }
 
-        record ShortTilesOrStrips(int componentsPerPixel) implements Reader {
-
-            @Override
-            public Shorts readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-                if (StripInfo.getOptional(ifd).isPresent()) {
-                    return new ShortStrips(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                if (TileInfo.getOptional(ifd).isPresent()) {
-                    return new ShortTiles(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                throw new IllegalArgumentException(
-                        "Unable to read short (uint16) contents of file, neither strip or tile layout was found."
-                );
+        /**
+         * Returns the {@code count} samples starting at the source offset packed into a word, starting at sample
+         * {@code first} of the word.
+         */
+        private long pack(byte[] src, int srcOffset, int count, int first) {
+            long mask = (1L << bitsPerSample) - 1;
+            long value = 0;
+            for (int i = 0, shift = Long.SIZE - bitsPerSample * (first + 1); i < count; i++, shift -= bitsPerSample) {
+                value |= (src[srcOffset + i] & mask) << shift;
             }
+            return value;
         }
 
-        record ShortStrips(int componentsPerPixel) implements Reader {
-
-            @Override
-            public Shorts readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-
-                BytesAdapter adapter = BytesAdapter.of(order);
-
-                BytesReader reader = new BytesReader(channel);
-
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
-
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                StripInfo stripInfo = StripInfo.getRequired(ifd);
-
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                StripInfo.Int intStripInfo = stripInfo.asIntInfo();
-
-                int imageWidth = intImageDimensions.width();
-                int imageWidthShorts = imageWidth * componentsPerPixel;
-
-                short[][] shorts = new short[intImageDimensions.length()][imageWidthShorts];
-
-                int nOffsets = stripInfo.stripOffsets().length;
-                int rowsPerStrip = intStripInfo.rowsPerStrip();
-
-                int widthBytes = imageWidthShorts * Short.BYTES;
-
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
-
-                for (int i = 0; i < nOffsets; i++) {
-
-                    long stripOffset = stripInfo.stripOffsets()[i];
-                    int stripBytes = intStripInfo.stripByteCounts()[i];
-
-                    ByteBuffer buffer = reader.readBytes(stripOffset, stripBytes);
-                    byte[] uncompressedStrip = compressor.decompress(buffer.array(), adapter);
-
-                    int rowsInStrip = uncompressedStrip.length / widthBytes;
-                    if (i != nOffsets - 1) {
-                        checkArgument(rowsInStrip == rowsPerStrip,
-                                "Incorrect number of rows found (%s) not (%s) in strip# (%s).", rowsInStrip, rowsPerStrip, i);
-                    }
-
-                    for (int stripRow = 0; stripRow < rowsInStrip; stripRow++) {
-
-                        int imageRow = i * rowsPerStrip + stripRow;
-                        int stripRowStart = stripRow * widthBytes;
+        /**
+         * Returns the 64 1-bit samples starting at the source offset packed into a word.
+         */
+        private static long gather(byte[] src, int srcOffset) {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = value << Byte.SIZE | PackedRows.gather(src, srcOffset + i * Byte.SIZE);
+            }
+            return value;
+        }
 
-                        var view = BufferView.shorts(ByteBuffer.wrap(uncompressedStrip, stripRowStart, widthBytes).order(order));
-                        predictor.unpack(view);
+        /**
+         * Returns all the samples of the raster unpacked into rows of one byte per sample.
+         */
+        public byte[][] unpack() {
+            byte[][] bytes = new byte[length()][rowSamples()];
+            for (int row = 0; row < bytes.length; row++) {
+                unpack(row, 0, bytes[row], 0, bytes[row].length);
+            }
+            return bytes;
+        }
 
-                        shorts[imageRow] = view.readShorts(0, imageWidthShorts);
+        /**
+         * Pack {@code length} samples stored one per byte from the source into the row starting at the index, only the low
+         * {@code bitsPerSample} bits of each byte are kept.
+         *
+         * <p>Different threads may concurrently pack disjoint runs of samples into the same row (e.g. when decoding
+         * horizontally adjacent tiles), words shared between runs are updated while holding the lock of the row.
+         */
+        public void pack(int row, int index, byte[] src, int srcOffset, int length) {
+            Objects.checkFromIndexSize(index, length, rowSamples());
+            Objects.checkFromIndexSize(srcOffset, length, src.length);
+
+            long[] rowWords = words[row];
+            int perWord = Long.SIZE / bitsPerSample;
+
+            int s = srcOffset;
+            int end = srcOffset + length;
+
+            while (s < end) {
+                int word = index / perWord;
+                int first = index - word * perWord;
+                int count = Math.min(perWord - first, end - s);
+
+                if (count == perWord) {
+                    rowWords[word] = bitsPerSample == 1 ? gather(src, s) : pack(src, s, perWord, 0);
+                } else {
+                    long value = pack(src, s, count, first);
+                    long covered = (-1L >>> (first * bitsPerSample)) & (-1L << (Long.SIZE - (first + count) * bitsPerSample));
+                    synchronized (rowWords) {
+                        rowWords[word] = rowWords[word] & ~covered | value;
                     }
                 }
 
-                return new Shorts(shorts, componentsPerPixel);
+                s += count;
+                index += count;
             }
         }
+    }
 
-        record ShortTiles(int componentsPerPixel) implements Reader {
-
-            @Override
-            public Shorts readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-
-                BytesAdapter adapter = BytesAdapter.of(order);
-
-                BytesReader reader = new BytesReader(channel);
-
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
+    /**
+     * A rectangular region-of-interest within an image, the top-left pixel of the window is at {@code (row, col)}.
+     *
+     * <p>Windows are used to read a subset of the {@link Raster} of an image without needing to decode the whole image,
+     * see {@link Reader#readRaster(SeekableByteChannel, ByteOrder, Ifd, Window)}.
+     *
+     * @param row    the row of the top-left pixel of the window in the image
+     * @param col    the column of the top-left pixel of the window in the image
+     * @param length the number of rows in the window
+     * @param width  the number of columns in the window
+     */
+    record Window(int row, int col, int length, int width) {
 
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                TileInfo tileInfo = TileInfo.getRequired(ifd);
+        public Window {
+            checkArgument(row >= 0 && col >= 0,
+                    "Window origin should be non-negative, was row (%s) col (%s)", row, col);
+            checkArgument(length > 0 && width > 0,
+                    "Window dimensions should be positive, were l (%s) and w (%s)", length, width);
+        }
 
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                TileInfo.Int intTileInfo = tileInfo.asIntInfo();
+        /**
+         * Returns a window covering the entirety of an image with the provided dimensions.
+         */
+        public static Window full(ImageDimensions.Int dimensions) {
+            return new Window(0, 0, dimensions.length(), dimensions.width());
+        }
 
-                int imageWidthShorts = intImageDimensions.width() * componentsPerPixel;
-                int imageWidthBytes = imageWidthShorts * Short.BYTES;
+        /**
+         * The dimensions of an image containing only the contents of the window.
+         */
+        public ImageDimensions dimensions() {
+            return new ImageDimensions(length, width);
+        }
 
-                short[][] shorts = new short[intImageDimensions.length()][imageWidthShorts];
+        /**
+         * Check the window lies entirely within an image of the provided dimensions.
+         */
+        public Window checkWithin(ImageDimensions.Int dimensions) {
+            checkArgument(row + length <= dimensions.length() && col + width <= dimensions.width(),
+                    "Window %s extends outside of image with dimensions %s", this, dimensions);
+            return this;
+        }
+    }
 
-                int nOffsets = tileInfo.offsets().length;
+    /**
+     * Reads the {@link Raster} data associated with an image out of the underlying file.
+     *
+     * <p>The builtin readers handle both strip ({@link StripInfo}) and tile ({@link TileInfo}) layouts, see
+     * {@link ChunkLayout}, and can optionally decode the individual strips/tiles of the image in parallel on a provided
+     * {@link Executor}. Each strip/tile is fetched, decompressed and un-predicted independently and written into its own
+     * disjoint region of the output raster.
+     *
+     * <p>The builtin readers also support reading a {@link Window} of the image, in which case only the strips/tiles which
+     * intersect the window are read from the file and decoded.
+     *
+     * <p>Reads against the underlying channel are positional (see {@link BytesReader}) so decoding works well with both
+     * platform thread pools and virtual threads, e.g. {@link Executors#newVirtualThreadPerTaskExecutor()}.
+     *
+     * <p>Reads block the calling thread until the strips/tiles have been decoded on the executor, so they shouldn't be made
+     * from a task running on a bounded executor the reader also decodes on, which could leave no threads to decode.
+     */
+    interface Reader {
 
-                // The current x,y coordinate of the upper-left corner of the tile in the overall
-                // image array
-                int oRow = 0;
-                int oCol = 0;
+        static ByteTilesOrStrips bytes(int componentsPerPixel) {
+            return new ByteTilesOrStrips(componentsPerPixel);
+        }
 
-                int tileWidthShorts = intTileInfo.width() * componentsPerPixel;
-                int tileWidthBytes = tileWidthShorts * Short.BYTES;
+        /**
+         * Returns a reader which decodes the strips/tiles of the image concurrently on the provided executor.
+         */
+        static ByteTilesOrStrips bytes(int componentsPerPixel, Executor executor) {
+            return new ByteTilesOrStrips(componentsPerPixel, executor);
+        }
 
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
+        static ShortTilesOrStrips shorts(int componentsPerPixel) {
+            return new ShortTilesOrStrips(componentsPerPixel);
+        }
 
-                for (int i = 0; i < nOffsets; i++) {
+        /**
+         * Returns a reader which decodes the strips/tiles of the image concurrently on the provided executor.
+         */
+        static ShortTilesOrStrips shorts(int componentsPerPixel, Executor executor) {
+            return new ShortTilesOrStrips(componentsPerPixel, executor);
+        }
 
-                    long tileOffset = tileInfo.offsets()[i];
-                    int tileBytes = intTileInfo.byteCounts()[i];
+        static IntTilesOrStrips ints(int componentsPerPixel) {
+            return new IntTilesOrStrips(componentsPerPixel);
+        }
 
-                    ByteBuffer buffer = reader.readBytes(tileOffset, tileBytes);
-                    byte[] uncompressedTile = compressor.decompress(buffer.array(), adapter);
+        /**
+         * Returns a reader which decodes the strips/tiles of the image concurrently on the provided executor.
+         */
+        static IntTilesOrStrips ints(int componentsPerPixel, Executor executor) {
+            return new IntTilesOrStrips(componentsPerPixel, executor);
+        }
 
-                    checkArgument(uncompressedTile.length == tileWidthBytes * intTileInfo.length(),
-                            "Incorrect number of uncompressed bytes in tile, (%s) for tile w (%s) and l (%s)",
-                            uncompressedTile.length,
-                            tileInfo.width(),
-                            tileInfo.length()
-                    );
+        static FloatTilesOrStrips floats(int componentsPerPixel) {
+            return new FloatTilesOrStrips(componentsPerPixel);
+        }
 
-                    for (int row = 0; row < intTileInfo.length() && oRow + row < intImageDimensions.length(); row++) {
+        /**
+         * Returns a reader which decodes the strips/tiles of the image concurrently on the provided executor.
+         */
+        static FloatTilesOrStrips floats(int componentsPerPixel, Executor executor) {
+            return new FloatTilesOrStrips(componentsPerPixel, executor);
+        }
 
-                        int tileRowStart = row * tileWidthBytes;
+        /**
+         * Returns a reader of images with sub-byte samples (e.g. bi-level images), which keeps the samples packed in a
+         * {@link Packed} raster rather than expanding them to one byte per sample.
+         */
+        static PackedTilesOrStrips packed(int componentsPerPixel) {
+            return new PackedTilesOrStrips(componentsPerPixel);
+        }
 
-                        var view = BufferView.shorts(ByteBuffer.wrap(uncompressedTile, tileRowStart, tileWidthBytes).order(order));
-                        predictor.unpack(view);
+        /**
+         * Returns a reader which decodes the strips/tiles of the image concurrently on the provided executor.
+         */
+        static PackedTilesOrStrips packed(int componentsPerPixel, Executor executor) {
+            return new PackedTilesOrStrips(componentsPerPixel, executor);
+        }
 
-                        short[] fRow = view.readShorts(0, tileWidthShorts);
+        /**
+         * Read the {@link Raster} data associated with the image from the underlying file.
+         *
+         * @param channel the open channel to the bytes of the file
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         */
+        Raster readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd);
 
-                        int numberOfShorts = Math.min(tileWidthShorts, imageWidthShorts - oCol);
+        /**
+         * Read the {@link Raster} data within the provided {@link Window} of the image from the underlying file, the
+         * returned raster is sized to the window.
+         *
+         * <p>The default implementation reads the full raster and crops it to the window, the builtin readers override
+         * this to only read and decode the strips/tiles which intersect the window.
+         *
+         * @param channel the open channel to the bytes of the file
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         * @param window  the region of the image to read, must lie entirely within the image
+         */
+        default Raster readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+            window.checkWithin(ImageDimensions.get(ifd).asIntInfo());
+            return crop(RasterStorage.of(readRaster(channel, order, ifd)), window);
+        }
 
-                        System.arraycopy(
-                                fRow,
-                                0,
-                                shorts[oRow + row],
-                                oCol,
-                                numberOfShorts
-                        );
-                    }
+        /**
+         * Read the {@link Raster} data within the provided {@link Window} of the image into a single flat array, e.g. a
+         * {@link FlatFloats} raster, rather than an array per row.
+         *
+         * <p>The default implementation reads the window and copies it into a flat array, the builtin readers override this
+         * to decode the strips/tiles of the image directly into the flat array.
+         *
+         * @param channel the open channel to the bytes of the file
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         * @param window  the region of the image to read, must lie entirely within the image
+         */
+        default Raster readFlat(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+            return flatten(RasterStorage.of(readRaster(channel, order, ifd, window)));
+        }
 
-                    oCol += tileWidthShorts;
+        /**
+         * Read the {@link Raster} data within the provided {@link Window} of the image into a {@link MemorySegment} from the
+         * provided allocator (e.g. an {@link java.lang.foreign.Arena}), the samples are stored in native byte order.
+         *
+         * <p>The default implementation reads the window and copies it into the segment, the builtin readers override this
+         * to decode the strips/tiles of the image directly into the segment. Decoding concurrently writes to the segment
+         * from the threads of the executor, so segments should be allocated from a shared or automatic arena in that case.
+         *
+         * @param channel   the open channel to the bytes of the file
+         * @param order     the byte order to use when interpreting data in the underlying image
+         * @param ifd       the image file directory ({@link Ifd}) with tags describing the contents of the image
+         * @param window    the region of the image to read, must lie entirely within the image
+         * @param allocator the allocator to allocate the segment from
+         */
+        default Segment readSegment(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, SegmentAllocator allocator) {
+            return copy(RasterStorage.of(readRaster(channel, order, ifd, window)), allocator);
+        }
 
-                    if (oCol >= imageWidthShorts) {
-                        oRow += intTileInfo.length();
-                        oCol = 0;
-                    }
-                }
+        /**
+         * Read only the provided bands (components) of each pixel within the {@link Window} of the image, the returned
+         * raster has one component per pixel for each selected band in the order provided, e.g. {@code readBands(..., 3)}
+         * reads just the fourth band of a multispectral image.
+         *
+         * <p>The default implementation reads the window and picks out the bands, the builtin readers override this to only
+         * decode the selected bands. For planar images ({@link PlanarConfiguration}=2) each band is stored
+         * in separate strips/tiles, so only the strips/tiles of the selected bands are read from the file and decompressed.
+         *
+         * @param channel the open channel to the bytes of the file
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         * @param window  the region of the image to read, must lie entirely within the image
+         * @param bands   the (distinct) indices of the bands to read, each within {@code [0, componentsPerPixel)}
+         */
+        default Raster readBands(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, int... bands) {
+            return pickBands(RasterStorage.of(readRaster(channel, order, ifd, window)), bands);
+        }
 
-                return new Shorts(shorts, componentsPerPixel);
-            }
+        /**
+         * Returns a {@link RowCursor} which streams the rows of the image, decoding one strip (or row of tiles) at a time
+         * rather than materializing the full raster in memory.
+         *
+         * <p>The default implementation reads one strip (or row of tiles) of the image at a time as a window, see
+         * {@link #readRaster(SeekableByteChannel, ByteOrder, Ifd, Window)}, the builtin readers override this to decode
+         * each band of rows into a buffer which is re-used for the next.
+         *
+         * @param channel the open channel to the bytes of the file, should remain open while the cursor is in use
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         */
+        default RowCursor<?> readRows(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            ImageDimensions.Int dimensions = ImageDimensions.get(ifd).asIntInfo();
+            int bandLength = ChunkLayout.getIfPresent(ifd).map(ChunkLayout::chunkLength).orElse(1);
+            return new RowCursor<Object>(
+                    window -> rows(RasterStorage.of(readRaster(channel, order, ifd, window))),
+                    dimensions.length(),
+                    dimensions.width(),
+                    Math.max(1, Math.min(bandLength, dimensions.length()))
+            );
         }
 
-        record IntTilesOrStrips(int componentsPerPixel) implements Reader {
+        /**
+         * Sample the pixel at each of the provided (row, col) points of the image, returned as a {@link Raster} with a
+         * single row containing the pixels of each of the points in order.
+         *
+         * <p>The default implementation reads the full raster and picks out the points, the builtin readers override this
+         * to group the points by the strip/tile they fall in and fetch and decode each strip/tile containing a point once
+         * (concurrently on their executor), strips/tiles containing no points are never read.
+         *
+         * @param channel the open channel to the bytes of the file
+         * @param order   the byte order to use when interpreting data in the underlying image
+         * @param ifd     the image file directory ({@link Ifd}) with tags describing the contents of the image
+         * @param rows    the row of each point
+         * @param cols    the column of each point, the same length as the rows
+         */
+        default Raster sample(SeekableByteChannel channel, ByteOrder order, Ifd ifd, int[] rows, int[] cols) {
+            checkArgument(rows.length == cols.length,
+                    "Should be a column for every row, got (%s) rows and (%s) columns", rows.length, cols.length);
+            return pick(RasterStorage.of(readRaster(channel, order, ifd)), rows, cols);
+        }
 
-            @Override
-            public Ints readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-                if (StripInfo.getOptional(ifd).isPresent()) {
-                    return new IntStrips(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                if (TileInfo.getOptional(ifd).isPresent()) {
-                    return new IntTiles(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                throw new IllegalArgumentException(
-                        "Unable to read integer (uint32) contents of file, neither strip or tile layout was found."
-                );
+        private static <A> Raster pick(RasterStorage<A> raster, int[] rows, int[] cols) {
+            int componentsPerPixel = raster.componentsPerPixel();
+            A[] picked = raster.samples().allocate(1, rows.length * componentsPerPixel);
+            for (int i = 0; i < rows.length; i++) {
+                raster.get(rows[i], (long) cols[i] * componentsPerPixel, picked[0], i * componentsPerPixel, componentsPerPixel);
             }
+            return raster.samples().raster(picked, componentsPerPixel);
         }
 
-        record IntStrips(int componentsPerPixel) implements Reader {
+        private static <A> Raster pickBands(RasterStorage<A> raster, int[] bands) {
+            int componentsPerPixel = raster.componentsPerPixel();
+            checkArgument(bands.length > 0 && IntStream.of(bands).allMatch(b -> b >= 0 && b < componentsPerPixel)
+                            && IntStream.of(bands).distinct().count() == bands.length,
+                    "Bands %s should be distinct and within [0, %s)", Arrays.toString(bands), componentsPerPixel);
 
-            @Override
-            public Ints readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-
-                BytesAdapter adapter = BytesAdapter.of(order);
-
-                BytesReader reader = new BytesReader(channel);
-
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
-
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                StripInfo stripInfo = StripInfo.getRequired(ifd);
-
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                StripInfo.Int intStripInfo = stripInfo.asIntInfo();
-
-                int imageWidth = intImageDimensions.width();
-                int imageWidthInts = imageWidth * componentsPerPixel;
-
-                int[][] ints = new int[intImageDimensions.length()][imageWidthInts];
-
-                int nOffsets = stripInfo.stripOffsets().length;
-                int rowsPerStrip = intStripInfo.rowsPerStrip();
-
-                int widthBytes = imageWidthInts * Integer.BYTES;
-
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
-
-                for (int i = 0; i < nOffsets; i++) {
-
-                    long stripOffset = stripInfo.stripOffsets()[i];
-                    int stripBytes = intStripInfo.stripByteCounts()[i];
+            int width = Math.toIntExact(raster.rowSamples() / componentsPerPixel);
 
-                    ByteBuffer buffer = reader.readBytes(stripOffset, stripBytes);
-                    byte[] uncompressedStrip = compressor.decompress(buffer.array(), adapter);
-
-                    int rowsInStrip = uncompressedStrip.length / imageWidth / Integer.BYTES / componentsPerPixel;
-                    if (i != nOffsets - 1) {
-                        checkArgument(rowsInStrip == rowsPerStrip,
-                                "Incorrect number of rows found (%s) not (%s) in strip# (%s).", rowsInStrip, rowsPerStrip, i);
-                    }
-
-                    for (int stripRow = 0; stripRow < rowsInStrip; stripRow++) {
-
-                        int imageRow = i * rowsPerStrip + stripRow;
-                        int stripRowStart = stripRow * widthBytes;
-
-                        var view = BufferView.ints(ByteBuffer.wrap(uncompressedStrip, stripRowStart, widthBytes).order(order));
-                        predictor.unpack(view);
-
-                        ints[imageRow] = view.readInts(0, imageWidthInts);
-                    }
+            A row = raster.samples().allocate(width * componentsPerPixel);
+            A[] picked = raster.samples().allocate(raster.length(), width * bands.length);
+            for (int r = 0; r < raster.length(); r++) {
+                raster.get(r, 0, row, 0, width * componentsPerPixel);
+                for (int b = 0; b < bands.length; b++) {
+                    raster.samples().copyStrided(row, bands[b], componentsPerPixel, picked[r], b, bands.length, width);
                 }
+            }
+            return raster.samples().raster(picked, bands.length);
+        }
 
-                return new Ints(ints, componentsPerPixel);
+        private static <A> A[] rows(RasterStorage<A> raster) {
+            int rowSamples = Math.toIntExact(raster.rowSamples());
+            A[] rows = raster.samples().allocate(raster.length(), rowSamples);
+            for (int row = 0; row < raster.length(); row++) {
+                raster.get(row, 0, rows[row], 0, rowSamples);
             }
+            return rows;
         }
 
-        record IntTiles(int componentsPerPixel) implements Reader {
+        private static <A> Raster crop(RasterStorage<A> raster, Window window) {
+            int componentsPerPixel = raster.componentsPerPixel();
+            A[] cropped = raster.samples().allocate(window.length(), window.width() * componentsPerPixel);
+            for (int row = 0; row < window.length(); row++) {
+                raster.get(window.row() + row, (long) window.col() * componentsPerPixel, cropped[row], 0, window.width() * componentsPerPixel);
+            }
+            return raster.samples().raster(cropped, componentsPerPixel);
+        }
 
-            @Override
-            public Ints readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+        private static <A> Raster flatten(RasterStorage<A> raster) {
+            int stride = Math.toIntExact(raster.rowSamples());
+            A flat = raster.samples().allocate(Math.multiplyExact(raster.length(), stride));
+            for (int row = 0; row < raster.length(); row++) {
+                raster.get(row, 0, flat, row * stride, stride);
+            }
+            return raster.samples().flat(flat, raster.length(), stride, raster.componentsPerPixel());
+        }
 
-                BytesAdapter adapter = BytesAdapter.of(order);
+        private static <A> Segment copy(RasterStorage<A> raster, SegmentAllocator allocator) {
+            int stride = Math.toIntExact(raster.rowSamples());
+            ValueLayout layout = raster.samples().layout();
 
-                BytesReader reader = new BytesReader(channel);
+            MemorySegment segment = allocator.allocate(raster.length() * (long) stride * layout.byteSize(), layout.byteAlignment());
+            RasterStorage<A> copy = RasterStorage.segment(raster.samples(), segment, layout, raster.length(), stride, raster.componentsPerPixel());
 
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
+            A row = raster.samples().allocate(stride);
+            for (int r = 0; r < raster.length(); r++) {
+                raster.get(r, 0, row, 0, stride);
+                copy.put(r, 0, row, 0, stride);
+            }
+            return new Segment(segment, layout, raster.length(), stride, raster.componentsPerPixel());
+        }
 
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                TileInfo tileInfo = TileInfo.getRequired(ifd);
+        /**
+         * How the builtin readers find the {@link ChunkLayout} of an image, either whichever of strips ({@link StripInfo})
+         * or tiles ({@link TileInfo}) the image has or one of them specifically.
+         */
+        enum LayoutPolicy {
+            TILES_OR_STRIPS,
+            STRIPS,
+            TILES;
+
+            /**
+             * Returns the layout of the image, the type of the samples being read (e.g. "float") describes the contents of
+             * the file in the error thrown when no layout is found.
+             */
+            ChunkLayout layout(Ifd ifd, String type) {
+                return switch (this) {
+                    case TILES_OR_STRIPS -> ChunkLayout.getIfPresent(ifd).orElseThrow(() -> new IllegalArgumentException(
+                            "Unable to read " + type + " contents of file, neither strip or tile layout was found."
+                    ));
+                    case STRIPS -> ChunkLayout.getRequiredStrips(ifd);
+                    case TILES -> ChunkLayout.getRequiredTiles(ifd);
+                };
+            }
+        }
 
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                TileInfo.Int intTileInfo = tileInfo.asIntInfo();
+        /**
+         * Reads the samples of images into the typed rasters of a primitive type, e.g. {@link Floats} and {@link FlatFloats}
+         * for {@link #floats(int)}, all the primitive types share the chunk decoding logic of the {@link ChunkDecoder}.
+         *
+         * <p>The builtin {@link Typed} readers (e.g. {@link FloatStrips}) delegate all their reads to one of these.
+         *
+         * @param <A> the primitive array type samples are read into, e.g. {@code float[]}
+         * @param <R> the type of jagged raster returned by the reader, e.g. {@link Floats}
+         * @param <F> the type of flat raster returned by the reader, e.g. {@link FlatFloats}
+         */
+        final class TypedReader<A, R extends Raster, F extends Raster> implements Reader {
 
-                int imageWidthInts = intImageDimensions.width() * componentsPerPixel;
-                int imageWidthBytes = imageWidthInts * Integer.BYTES;
+            private final Samples<A> samples;
 
-                int[][] ints = new int[intImageDimensions.length()][imageWidthInts];
+            private final LayoutPolicy policy;
 
-                int nOffsets = tileInfo.offsets().length;
+            private final int componentsPerPixel;
 
-                // The current x,y coordinate of the upper-left corner of the tile in the overall
-                // image array
-                int oRow = 0;
-                int oCol = 0;
+            private final Executor executor;
 
-                int tileWidthInts = intTileInfo.width() * componentsPerPixel;
-                int tileWidthBytes = tileWidthInts * Integer.BYTES;
+            private TypedReader(Samples<A> samples, LayoutPolicy policy, int componentsPerPixel, Executor executor) {
+                this.samples = Objects.requireNonNull(samples);
+                this.policy = Objects.requireNonNull(policy);
+                this.componentsPerPixel = componentsPerPixel;
+                this.executor = Objects.requireNonNull(executor);
+            }
 
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
+            @Override
+            public R readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                return raster(decoder(channel, order, ifd).readRaster(executor), componentsPerPixel);
+            }
 
-                for (int i = 0; i < nOffsets; i++) {
+            @Override
+            public R readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+                return raster(decoder(channel, order, ifd).readWindow(window, executor), componentsPerPixel);
+            }
 
-                    long tileOffset = tileInfo.offsets()[i];
-                    int tileBytes = intTileInfo.byteCounts()[i];
+            @Override
+            public R readBands(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, int... bands) {
+                ChunkDecoder<A> decoder = new ChunkDecoder<>(samples, channel, order, ifd, layout(ifd), componentsPerPixel, bands);
+                return raster(decoder.readWindow(window, executor), bands.length);
+            }
 
-                    ByteBuffer buffer = reader.readBytes(tileOffset, tileBytes);
-                    byte[] uncompressedTile = compressor.decompress(buffer.array(), adapter);
+            @Override
+            public RowCursor<A> readRows(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                ChunkLayout layout = layout(ifd);
+                ChunkDecoder<A> decoder = new ChunkDecoder<>(samples, channel, order, ifd, layout, componentsPerPixel);
+
+                int length = layout.dimensions().length();
+                int width = layout.dimensions().width();
+                A[] band = samples.allocate(Math.max(1, Math.min(layout.chunkLength(), length)), width * componentsPerPixel);
+
+                return new RowCursor<>(window -> {
+                    decoder.readWindowInto(window, band, executor);
+                    return band;
+                }, length, width, band.length);
+            }
 
-                    checkArgument(uncompressedTile.length == tileWidthBytes * intTileInfo.length(),
-                            "Incorrect number of uncompressed bytes in tile, (%s) for tile w (%s) and l (%s)",
-                            uncompressedTile.length,
-                            tileInfo.width(),
-                            tileInfo.length()
-                    );
+            @Override
+            public R sample(SeekableByteChannel channel, ByteOrder order, Ifd ifd, int[] rows, int[] cols) {
+                A[] points = samples.allocate(1, rows.length * componentsPerPixel);
+                decoder(channel, order, ifd).sampleInto(rows, cols, points[0], executor);
+                return raster(points, componentsPerPixel);
+            }
 
-                    for (int row = 0; row < intTileInfo.length() && oRow + row < intImageDimensions.length(); row++) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public F readFlat(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+                A flat = decoder(channel, order, ifd).readFlat(window, executor);
+                return (F) samples.flat(flat, window.length(), window.width() * componentsPerPixel, componentsPerPixel);
+            }
 
-                        int tileRowStart = row * tileWidthBytes;
+            @Override
+            public Segment readSegment(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, SegmentAllocator allocator) {
+                MemorySegment segment = decoder(channel, order, ifd).readSegment(window, allocator, executor);
+                return new Segment(segment, samples.layout(), window.length(), (long) window.width() * componentsPerPixel, componentsPerPixel);
+            }
 
-                        var view = BufferView.ints(ByteBuffer.wrap(uncompressedTile, tileRowStart, tileWidthBytes).order(order));
-                        predictor.unpack(view);
+            private ChunkDecoder<A> decoder(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                return new ChunkDecoder<>(samples, channel, order, ifd, layout(ifd), componentsPerPixel);
+            }
 
-                        int[] fRow = view.readInts(0, imageWidthInts);
+            private ChunkLayout layout(Ifd ifd) {
+                return policy.layout(ifd, switch (samples) {
+                    case Samples.Bytes _ -> "byte";
+                    case Samples.Shorts _ -> "short (uint16)";
+                    case Samples.Ints _ -> "integer (uint32)";
+                    case Samples.Floats _ -> "float";
+                });
+            }
 
-                        int numberOfInts = Math.min(tileWidthInts, imageWidthInts - oCol);
+            @SuppressWarnings("unchecked")
+            private R raster(A[] rows, int componentsPerPixel) {
+                return (R) samples.raster(rows, componentsPerPixel);
+            }
+        }
 
-                        System.arraycopy(
-                                fRow,
-                                0,
-                                ints[oRow + row],
-                                oCol,
-                                numberOfInts
-                        );
-                    }
+        /**
+         * The builtin readers of each primitive sample type and {@link LayoutPolicy}, e.g. {@link FloatStrips}, which all
+         * delegate their reads to the {@link TypedReader} of the type.
+         *
+         * @param <A> the primitive array type samples are read into, e.g. {@code float[]}
+         * @param <R> the type of jagged raster returned by the reader, e.g. {@link Floats}
+         * @param <F> the type of flat raster returned by the reader, e.g. {@link FlatFloats}
+         */
+        sealed interface Typed<A, R extends Raster, F extends Raster> extends Reader permits
+                ByteTilesOrStrips, ByteStrips, ByteTiles, ShortTilesOrStrips, ShortStrips, ShortTiles,
+                IntTilesOrStrips, IntStrips, IntTiles, FloatTilesOrStrips, FloatStrips, FloatTiles {
 
-                    oCol += tileWidthInts;
+            /**
+             * The reader all reads are delegated to.
+             */
+            TypedReader<A, R, F> delegate();
 
-                    if (oCol >= imageWidthInts) {
-                        oRow += intTileInfo.length();
-                        oCol = 0;
-                    }
-                }
+            @Override
+            default R readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                return delegate().readRaster(channel, order, ifd);
+            }
 
-                return new Ints(ints, componentsPerPixel);
+            @Override
+            default R readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+                return delegate().readRaster(channel, order, ifd, window);
             }
-        }
 
-        record FloatTilesOrStrips(int componentsPerPixel) implements Reader {
+            @Override
+            default R readBands(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, int... bands) {
+                return delegate().readBands(channel, order, ifd, window, bands);
+            }
 
             @Override
-            public Floats readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
-                if (StripInfo.getOptional(ifd).isPresent()) {
-                    return new FloatStrips(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                if (TileInfo.getOptional(ifd).isPresent()) {
-                    return new FloatTiles(componentsPerPixel).readRaster(channel, order, ifd);
-                }
-                throw new IllegalArgumentException(
-                        "Unable to read float contents of file, neither strip or tile layout was found."
-                );
+            default RowCursor<A> readRows(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                return delegate().readRows(channel, order, ifd);
             }
-        }
 
-        record FloatStrips(int componentsPerPixel) implements Reader {
+            @Override
+            default R sample(SeekableByteChannel channel, ByteOrder order, Ifd ifd, int[] rows, int[] cols) {
+                return delegate().sample(channel, order, ifd, rows, cols);
+            }
 
             @Override
-            public Floats readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            default F readFlat(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+                return delegate().readFlat(channel, order, ifd, window);
+            }
 
-                BytesAdapter adapter = BytesAdapter.of(order);
+            @Override
+            default Segment readSegment(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, SegmentAllocator allocator) {
+                return delegate().readSegment(channel, order, ifd, window, allocator);
+            }
+        }
 
-                BytesReader reader = new BytesReader(channel);
+        record ByteTilesOrStrips(int componentsPerPixel, Executor executor) implements Typed<byte[], Bytes, FlatBytes> {
 
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
+            public ByteTilesOrStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                StripInfo stripInfo = StripInfo.getRequired(ifd);
+            @Override
+            public TypedReader<byte[], Bytes, FlatBytes> delegate() {
+                return new TypedReader<>(Samples.BYTES, LayoutPolicy.TILES_OR_STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                StripInfo.Int intStripInfo = stripInfo.asIntInfo();
+        record ByteStrips(int componentsPerPixel, Executor executor) implements Typed<byte[], Bytes, FlatBytes> {
 
-                int imageWidth = intImageDimensions.width();
-                int imageWidthFloats = imageWidth * componentsPerPixel;
+            public ByteStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                float[][] floats = new float[intImageDimensions.length()][imageWidthFloats];
+            @Override
+            public TypedReader<byte[], Bytes, FlatBytes> delegate() {
+                return new TypedReader<>(Samples.BYTES, LayoutPolicy.STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                int nOffsets = stripInfo.stripOffsets().length;
-                int rowsPerStrip = intStripInfo.rowsPerStrip();
+        record ByteTiles(int componentsPerPixel, Executor executor) implements Typed<byte[], Bytes, FlatBytes> {
 
-                int widthBytes = imageWidthFloats * Float.BYTES;
+            public ByteTiles(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
+            @Override
+            public TypedReader<byte[], Bytes, FlatBytes> delegate() {
+                return new TypedReader<>(Samples.BYTES, LayoutPolicy.TILES, componentsPerPixel, executor);
+            }
+        }
 
-                for (int i = 0; i < nOffsets; i++) {
+        record ShortTilesOrStrips(int componentsPerPixel, Executor executor) implements Typed<short[], Shorts, FlatShorts> {
 
-                    long stripOffset = stripInfo.stripOffsets()[i];
-                    int stripBytes = intStripInfo.stripByteCounts()[i];
+            public ShortTilesOrStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                    ByteBuffer buffer = reader.readBytes(stripOffset, stripBytes);
-                    byte[] uncompressedStrip = compressor.decompress(buffer.array(), adapter);
+            @Override
+            public TypedReader<short[], Shorts, FlatShorts> delegate() {
+                return new TypedReader<>(Samples.SHORTS, LayoutPolicy.TILES_OR_STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                    int rowsInStrip = uncompressedStrip.length / imageWidth / Float.BYTES / componentsPerPixel;
-                    if (i != nOffsets - 1) {
-                        checkArgument(rowsInStrip == rowsPerStrip,
-                                "Incorrect number of rows found (%s) not (%s) in strip# (%s).", rowsInStrip, rowsPerStrip, i);
-                    }
+        record ShortStrips(int componentsPerPixel, Executor executor) implements Typed<short[], Shorts, FlatShorts> {
 
-                    for (int stripRow = 0; stripRow < rowsInStrip; stripRow++) {
+            public ShortStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                        int imageRow = i * rowsPerStrip + stripRow;
-                        int stripRowStart = stripRow * widthBytes;
+            @Override
+            public TypedReader<short[], Shorts, FlatShorts> delegate() {
+                return new TypedReader<>(Samples.SHORTS, LayoutPolicy.STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                        var bytes = ByteBuffer.wrap(uncompressedStrip, stripRowStart, widthBytes).order(order);
-                        predictor.unpack(BufferView.bytes(bytes));
+        record ShortTiles(int componentsPerPixel, Executor executor) implements Typed<short[], Shorts, FlatShorts> {
 
-                        floats[imageRow] = BufferView.floats(bytes.order(order))
-                                .readFloats(0, imageWidthFloats);
-                    }
-                }
+            public ShortTiles(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                return new Floats(floats, componentsPerPixel);
+            @Override
+            public TypedReader<short[], Shorts, FlatShorts> delegate() {
+                return new TypedReader<>(Samples.SHORTS, LayoutPolicy.TILES, componentsPerPixel, executor);
             }
         }
 
-        record FloatTiles(int componentsPerPixel) implements Reader {
-
-            @Override
-            public Floats readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+        record IntTilesOrStrips(int componentsPerPixel, Executor executor) implements Typed<int[], Ints, FlatInts> {
 
-                BytesAdapter adapter = BytesAdapter.of(order);
+            public IntTilesOrStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                BytesReader reader = new BytesReader(channel);
+            @Override
+            public TypedReader<int[], Ints, FlatInts> delegate() {
+                return new TypedReader<>(Samples.INTS, LayoutPolicy.TILES_OR_STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                Compressor compressor = Compressors.getInstance()
-                        .compressorFor(Compression.get(ifd));
+        record IntStrips(int componentsPerPixel, Executor executor) implements Typed<int[], Ints, FlatInts> {
 
-                ImageDimensions imageDimensions = ImageDimensions.get(ifd);
-                TileInfo tileInfo = TileInfo.getRequired(ifd);
+            public IntStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                ImageDimensions.Int intImageDimensions = imageDimensions.asIntInfo();
-                TileInfo.Int intTileInfo = tileInfo.asIntInfo();
+            @Override
+            public TypedReader<int[], Ints, FlatInts> delegate() {
+                return new TypedReader<>(Samples.INTS, LayoutPolicy.STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                int imageWidthFloats = intImageDimensions.width() * componentsPerPixel;
-                int imageWidthBytes = imageWidthFloats * Float.BYTES;
+        record IntTiles(int componentsPerPixel, Executor executor) implements Typed<int[], Ints, FlatInts> {
 
-                float[][] floats = new float[intImageDimensions.length()][imageWidthFloats];
+            public IntTiles(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                int nOffsets = tileInfo.offsets().length;
+            @Override
+            public TypedReader<int[], Ints, FlatInts> delegate() {
+                return new TypedReader<>(Samples.INTS, LayoutPolicy.TILES, componentsPerPixel, executor);
+            }
+        }
 
-                // The current x,y coordinate of the upper-left corner of the tile in the overall
-                // image array
-                int oRow = 0;
-                int oCol = 0;
+        record FloatTilesOrStrips(int componentsPerPixel, Executor executor) implements Typed<float[], Floats, FlatFloats> {
 
-                int tileWidthFloats = intTileInfo.width() * componentsPerPixel;
-                int tileWidthBytes = tileWidthFloats * Float.BYTES;
+            public FloatTilesOrStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                DifferencingPredictor predictor = DifferencingPredictor.get(ifd);
+            @Override
+            public TypedReader<float[], Floats, FlatFloats> delegate() {
+                return new TypedReader<>(Samples.FLOATS, LayoutPolicy.TILES_OR_STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                for (int i = 0; i < nOffsets; i++) {
+        record FloatStrips(int componentsPerPixel, Executor executor) implements Typed<float[], Floats, FlatFloats> {
 
-                    long tileOffset = tileInfo.offsets()[i];
-                    int tileBytes = intTileInfo.byteCounts()[i];
+            public FloatStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                    ByteBuffer buffer = reader.readBytes(tileOffset, tileBytes);
-                    byte[] uncompressedTile = compressor.decompress(buffer.array(), adapter);
+            @Override
+            public TypedReader<float[], Floats, FlatFloats> delegate() {
+                return new TypedReader<>(Samples.FLOATS, LayoutPolicy.STRIPS, componentsPerPixel, executor);
+            }
+        }
 
-                    checkArgument(uncompressedTile.length == tileWidthBytes * intTileInfo.length(),
-                            "Incorrect number of uncompressed bytes in tile, (%s) for tile w (%s) and l (%s)",
-                            uncompressedTile.length,
-                            tileInfo.width(),
-                            tileInfo.length()
-                    );
+        record FloatTiles(int componentsPerPixel, Executor executor) implements Typed<float[], Floats, FlatFloats> {
 
-                    for (int row = 0; row < intTileInfo.length() && oRow + row < intImageDimensions.length(); row++) {
+            public FloatTiles(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                        int tileRowStart = row * tileWidthBytes;
+            @Override
+            public TypedReader<float[], Floats, FlatFloats> delegate() {
+                return new TypedReader<>(Samples.FLOATS, LayoutPolicy.TILES, componentsPerPixel, executor);
+            }
+        }
 
-                        var bytes = ByteBuffer.wrap(uncompressedTile, tileRowStart, tileWidthBytes).order(order);
-                        predictor.unpack(BufferView.bytes(bytes));
+        /**
+         * Reads images with sub-byte samples into {@link Packed} rasters, the rows of the file are unpacked one chunk at a
+         * time so only the packed raster is held in memory in full.
+         *
+         * <p>Reads which don't return a full raster (bands, rows and sampled points) are delegated to a {@link ByteTilesOrStrips}
+         * reader and return one byte per sample.
+         */
+        record PackedTilesOrStrips(int componentsPerPixel, Executor executor) implements Reader {
 
-                        float[] fRow = BufferView.floats(bytes.order(order))
-                                .readFloats(0, tileWidthFloats);
+            public PackedTilesOrStrips(int componentsPerPixel) {
+                this(componentsPerPixel, directExecutor());
+            }
 
-                        int numberOfFloats = Math.min(tileWidthFloats, imageWidthFloats - oCol);
+            @Override
+            public Packed readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                return readRaster(channel, order, ifd, Window.full(ImageDimensions.get(ifd).asIntInfo()));
+            }
 
-                        System.arraycopy(
-                                fRow,
-                                0,
-                                floats[oRow + row],
-                                oCol,
-                                numberOfFloats
-                        );
-                    }
+            @Override
+            public Packed readRaster(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window) {
+                ChunkLayout layout = LayoutPolicy.TILES_OR_STRIPS.layout(ifd, "packed");
+                Packed packed = Packed.allocate(window.length(), window.width(), BitsPerSample.get(ifd)[0], componentsPerPixel);
+                new ChunkDecoder<>(Samples.BYTES, channel, order, ifd, layout, componentsPerPixel)
+                        .readWindowInto(window, RasterStorage.packed(packed), executor);
+                return packed;
+            }
 
-                    oCol += tileWidthFloats;
+            @Override
+            public Bytes readBands(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Window window, int... bands) {
+                return Reader.bytes(componentsPerPixel, executor).readBands(channel, order, ifd, window, bands);
+            }
 
-                    if (oCol >= imageWidthFloats) {
-                        oRow += intTileInfo.length();
-                        oCol = 0;
-                    }
-                }
+            @Override
+            public RowCursor<byte[]> readRows(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+                return Reader.bytes(componentsPerPixel, executor).readRows(channel, order, ifd);
+            }
 
-                return new Floats(floats, componentsPerPixel);
+            @Override
+            public Bytes sample(SeekableByteChannel channel, ByteOrder order, Ifd ifd, int[] rows, int[] cols) {
+                return Reader.bytes(componentsPerPixel, executor).sample(channel, order, ifd, rows, cols);
             }
         }
     }
+
+    private static void checkFlat(int samples, int length, int stride, int componentsPerPixel) {
+        checkArgument(length >= 0 && stride >= 0 && componentsPerPixel > 0 && stride % componentsPerPixel == 0,
+                "Stride (%s) should be a multiple of the components per pixel (%s)", stride, componentsPerPixel);
+        checkArgument(samples >= (long) length * stride,
+                "Array of (%s) samples is too small for (%s) rows of (%s) samples", samples, length, stride);
+    }
 }
@@ -0,0 +1,223 @@
+package io.github.stellarsunset.tiff;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Uniform access to the rows of samples of a {@link Raster} regardless of how they're stored, the {@link ChunkDecoder}
+ * writes decoded chunks into storage and the {@link ChunkEncoder} reads chunks back out of it.
+ *
+ * <p>Rows are addressed by index and samples within a row by their offset from the start of the row, so the same decoding
+ * logic can fill jagged {@code A[]} rows, a single flat array with a row stride, an off-heap {@link MemorySegment} or the
+ * bit-packed words of a {@link Raster.Packed} raster.
+ *
+ * <p>Keep package private to keep off client classpath.
+ *
+ * @param <A> the primitive array type samples are copied in and out of, e.g. {@code float[]}
+ */
+sealed interface RasterStorage<A> {
+
+    static <A> RasterStorage<A> jagged(Samples<A> samples, A[] rows, int componentsPerPixel) {
+        return new Jagged<>(samples, rows, componentsPerPixel);
+    }
+
+    static <A> RasterStorage<A> flat(Samples<A> samples, A flat, int length, int stride, int componentsPerPixel) {
+        return new Flat<>(samples, flat, length, stride, componentsPerPixel);
+    }
+
+    static <A> RasterStorage<A> segment(Samples<A> samples, MemorySegment segment, ValueLayout layout, int length,
+                                        long stride, int componentsPerPixel) {
+        return new Segment<>(samples, segment, layout, length, stride, componentsPerPixel);
+    }
+
+    /**
+     * Returns byte storage which packs the samples put into it into the provided raster, see {@link Raster.Packed}.
+     */
+    static RasterStorage<byte[]> packed(Raster.Packed raster) {
+        return new Packed(raster);
+    }
+
+    /**
+     * Returns storage backed by the samples of the provided raster, writes to the storage are visible in the raster.
+     */
+    static RasterStorage<?> of(Raster raster) {
+        return switch (raster) {
+            case Raster.Bytes b -> jagged(Samples.BYTES, b.bytes(), b.componentsPerPixel());
+            case Raster.Shorts s -> jagged(Samples.SHORTS, s.shorts(), s.componentsPerPixel());
+            case Raster.Ints i -> jagged(Samples.INTS, i.ints(), i.componentsPerPixel());
+            case Raster.Floats f -> jagged(Samples.FLOATS, f.floats(), f.componentsPerPixel());
+            case Raster.FlatBytes b -> flat(Samples.BYTES, b.bytes(), b.length(), b.stride(), b.componentsPerPixel());
+            case Raster.FlatShorts s -> flat(Samples.SHORTS, s.shorts(), s.length(), s.stride(), s.componentsPerPixel());
+            case Raster.FlatInts i -> flat(Samples.INTS, i.ints(), i.length(), i.stride(), i.componentsPerPixel());
+            case Raster.FlatFloats f -> flat(Samples.FLOATS, f.floats(), f.length(), f.stride(), f.componentsPerPixel());
+            case Raster.Segment s -> of(s);
+            case Raster.Packed p -> packed(p);
+        };
+    }
+
+    private static RasterStorage<?> of(Raster.Segment s) {
+        Class<?> carrier = s.layout().carrier();
+        if (carrier == byte.class) {
+            return segment(Samples.BYTES, s.segment(), s.layout(), s.length(), s.stride(), s.componentsPerPixel());
+        } else if (carrier == short.class) {
+            return segment(Samples.SHORTS, s.segment(), s.layout(), s.length(), s.stride(), s.componentsPerPixel());
+        } else if (carrier == int.class) {
+            return segment(Samples.INTS, s.segment(), s.layout(), s.length(), s.stride(), s.componentsPerPixel());
+        } else {
+            return segment(Samples.FLOATS, s.segment(), s.layout(), s.length(), s.stride(), s.componentsPerPixel());
+        }
+    }
+
+    Samples<A> samples();
+
+    int componentsPerPixel();
+
+    /**
+     * The number of rows in the raster.
+     */
+    int length();
+
+    /**
+     * The number of samples in each row of the raster, {@code width * componentsPerPixel}.
+     */
+    long rowSamples();
+
+    /**
+     * The number of bits in each stored sample, less than {@code samples().bytes() * 8} for {@link Raster.Packed} rasters.
+     */
+    default int bitsPerSample() {
+        return samples().bytes() * Byte.SIZE;
+    }
+
+    /**
+     * Copy {@code length} samples from the source array into the row starting at the provided offset within the row.
+     */
+    void put(int row, long offset, A src, int srcOffset, int length);
+
+    /**
+     * Copy {@code length} samples out of the row starting at the provided offset within the row into the destination.
+     */
+    void get(int row, long offset, A dst, int dstOffset, int length);
+
+    record Jagged<A>(Samples<A> samples, A[] rows, int componentsPerPixel) implements RasterStorage<A> {
+
+        public Jagged {
+            requireNonNull(samples);
+            requireNonNull(rows);
+        }
+
+        @Override
+        public int length() {
+            return rows.length;
+        }
+
+        @Override
+        public long rowSamples() {
+            return rows.length == 0 ? 0 : java.lang.reflect.Array.getLength(rows[0]);
+        }
+
+        @Override
+        public void put(int row, long offset, A src, int srcOffset, int length) {
+            System.arraycopy(src, srcOffset, rows[row], (int) offset, length);
+        }
+
+        @Override
+        public void get(int row, long offset, A dst, int dstOffset, int length) {
+            System.arraycopy(rows[row], (int) offset, dst, dstOffset, length);
+        }
+    }
+
+    record Flat<A>(Samples<A> samples, A flat, int length, int stride, int componentsPerPixel) implements RasterStorage<A> {
+
+        public Flat {
+            requireNonNull(samples);
+            checkArgument(java.lang.reflect.Array.getLength(flat) >= (long) length * stride,
+                    "Flat array should hold (%s) rows of (%s) samples", length, stride);
+        }
+
+        @Override
+        public long rowSamples() {
+            return stride;
+        }
+
+        @Override
+        public void put(int row, long offset, A src, int srcOffset, int length) {
+            System.arraycopy(src, srcOffset, flat, row * stride + (int) offset, length);
+        }
+
+        @Override
+        public void get(int row, long offset, A dst, int dstOffset, int length) {
+            System.arraycopy(flat, row * stride + (int) offset, dst, dstOffset, length);
+        }
+    }
+
+    record Segment<A>(Samples<A> samples, MemorySegment segment, ValueLayout layout, int length, long stride,
+                      int componentsPerPixel) implements RasterStorage<A> {
+
+        public Segment {
+            requireNonNull(samples);
+            checkArgument(segment.byteSize() >= length * stride * layout.byteSize(),
+                    "Segment should hold (%s) rows of (%s) samples", length, stride);
+        }
+
+        @Override
+        public long rowSamples() {
+            return stride;
+        }
+
+        @Override
+        public void put(int row, long offset, A src, int srcOffset, int length) {
+            MemorySegment.copy(src, srcOffset, segment, layout, (row * stride + offset) * layout.byteSize(), length);
+        }
+
+        @Override
+        public void get(int row, long offset, A dst, int dstOffset, int length) {
+            MemorySegment.copy(segment, layout, (row * stride + offset) * layout.byteSize(), dst, dstOffset, length);
+        }
+    }
+
+    record Packed(Raster.Packed raster) implements RasterStorage<byte[]> {
+
+        public Packed {
+            requireNonNull(raster);
+        }
+
+        @Override
+        public Samples<byte[]> samples() {
+            return Samples.BYTES;
+        }
+
+        @Override
+        public int componentsPerPixel() {
+            return raster.componentsPerPixel();
+        }
+
+        @Override
+        public int length() {
+            return raster.length();
+        }
+
+        @Override
+        public long rowSamples() {
+            return raster.rowSamples();
+        }
+
+        @Override
+        public int bitsPerSample() {
+            return raster.bitsPerSample();
+        }
+
+        @Override
+        public void put(int row, long offset, byte[] src, int srcOffset, int length) {
+            raster.pack(row, (int) offset, src, srcOffset, length);
+        }
+
+        @Override
+        public void get(int row, long offset, byte[] dst, int dstOffset, int length) {
+            raster.unpack(row, (int) offset, dst, dstOffset, length);
+        }
+    }
+}
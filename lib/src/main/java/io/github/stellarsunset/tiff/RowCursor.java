@@ -0,0 +1,118 @@
+package io.github.stellarsunset.tiff;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Streaming, row-at-a-time view of the raster of an image, see {@link Raster.Reader#readRows}.
+ *
+ * <p>Rather than materializing the full raster the cursor decodes a single band of the image at a time (one strip, or
+ * one row of tiles), the builtin readers decode into a buffer which is re-used for every band, so full-image passes
+ * (statistics, re-projection, format conversion, etc.) only need memory proportional to the chunk size rather than the
+ * image size.
+ * <pre>{@code
+ * RowCursor<float[]> rows = Raster.Reader.floats(1).readRows(channel, order, ifd);
+ * while (rows.next()) {
+ *     float[] values = rows.values();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>The array returned by {@link #values()} is owned by the cursor and is overwritten as the cursor advances, callers
+ * should copy out any values they wish to hold on to. Cursors are not thread safe.
+ */
+public final class RowCursor<A> {
+
+    /**
+     * Reads the rows of a band (window) of the image, which may return the same (re-used) array of rows each time.
+     */
+    private final Function<Raster.Window, A[]> bands;
+
+    private final int length;
+
+    private final int width;
+
+    private final int maxBandLength;
+
+    private A[] band;
+
+    private int bandRow;
+
+    private int bandLength;
+
+    private int row = -1;
+
+    /**
+     * @param bands         reads the rows of each band of the image
+     * @param length        the number of rows in the image
+     * @param width         the width of the image in pixels
+     * @param maxBandLength the number of rows read at a time, typically the height of a strip or tile
+     */
+    RowCursor(Function<Raster.Window, A[]> bands, int length, int width, int maxBandLength) {
+        checkArgument(maxBandLength > 0, "Bands should contain at least one row, got %s", maxBandLength);
+        this.bands = requireNonNull(bands);
+        this.length = length;
+        this.width = width;
+        this.maxBandLength = maxBandLength;
+    }
+
+    /**
+     * The total number of rows in the image.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The width of the image in pixels, each row contains {@code width * componentsPerPixel} samples.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * The index of the current row within the image, -1 before the first call to {@link #next()}.
+     */
+    public int row() {
+        return row;
+    }
+
+    /**
+     * Advance the cursor to the next row of the image, decoding the next band of chunks if required.
+     *
+     * @return true if the cursor was advanced, false if there are no more rows in the image
+     */
+    public boolean next() {
+        if (row + 1 >= length) {
+            row = length;
+            return false;
+        }
+
+        row++;
+
+        if (row >= bandRow + bandLength) {
+            bandRow = row;
+            bandLength = Math.min(maxBandLength, length - row);
+            band = bands.apply(new Raster.Window(bandRow, 0, bandLength, width));
+        }
+
+        return true;
+    }
+
+    /**
+     * The samples of the current row, interleaved by pixel as in the rows of a full {@link Raster}.
+     *
+     * <p>The returned array is re-used, its contents are only valid until the next call to {@link #next()}.
+     */
+    public A values() {
+        checkState(row >= 0, "Call next() before accessing the values of the cursor.");
+        if (row >= length) {
+            throw new NoSuchElementException("Cursor is exhausted, image has " + length + " rows.");
+        }
+        return band[row - bandRow];
+    }
+}
@@ -0,0 +1,375 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Describes how decompressed bytes of a chunk are interpreted as the primitive samples of a {@link Raster}.
+ *
+ * <p>This captures the (small) per-type differences between the {@link Raster.Reader}s so the chunk decoding and raster
+ * assembly logic can be shared between all of them.
+ *
+ * <p>Keep package private to keep off client classpath.
+ *
+ * @param <A> the primitive array type samples are read into, e.g. {@code float[]}
+ */
+sealed interface Samples<A> {
+
+    Samples<byte[]> BYTES = new Bytes();
+
+    Samples<short[]> SHORTS = new Shorts();
+
+    Samples<int[]> INTS = new Ints();
+
+    Samples<float[]> FLOATS = new Floats();
+
+    /**
+     * The number of bytes in each sample.
+     */
+    int bytes();
+
+    A allocate(int length);
+
+    A[] allocate(int rows, int rowLength);
+
+    /**
+     * The (native byte order) {@link ValueLayout} of samples stored in a {@link MemorySegment}, see {@link Raster.Segment}.
+     */
+    ValueLayout layout();
+
+    /**
+     * Wrap the rows of samples as the appropriately typed jagged {@link Raster}, e.g. {@link Raster.Floats}.
+     */
+    Raster raster(A[] rows, int componentsPerPixel);
+
+    /**
+     * Wrap the flat array of samples as the appropriately typed flat {@link Raster}, e.g. {@link Raster.FlatFloats}.
+     */
+    Raster flat(A flat, int length, int stride, int componentsPerPixel);
+
+    /**
+     * Returns the {@link BufferView} of a row of (ordered) bytes the differencing predictor should be applied to.
+     */
+    BufferView predictorView(ByteBuffer row);
+
+    /**
+     * Returns the {@link Differencer} when {@link DifferencingPredictor.Planar1Horizontal} differencing applies to the
+     * samples themselves, in which case it's undone on the converted samples rather than on the {@link #predictorView}.
+     */
+    Optional<Differencer<A>> differencer();
+
+    /**
+     * Copy {@code count} samples between the arrays, reading every {@code srcStride}th sample of the source starting at the
+     * source offset and writing every {@code dstStride}th sample of the destination, e.g. to (de-)interleave planes.
+     */
+    void copyStrided(A src, int srcOffset, int srcStride, A dst, int dstOffset, int dstStride, int count);
+
+    /**
+     * Read {@code length} samples from the (ordered) buffer starting at its current position into the destination.
+     */
+    void read(ByteBuffer src, A dst, int dstOffset, int length);
+
+    /**
+     * Write {@code length} samples from the source into the (ordered) buffer starting at its current position, the
+     * inverse of {@link #read(ByteBuffer, Object, int, int)}.
+     */
+    void write(A src, int srcOffset, ByteBuffer dst, int length);
+
+    /**
+     * Applies {@link DifferencingPredictor.Planar1Horizontal} differencing to converted samples with the primitive
+     * kernels of the predictor, see {@link #differencer()}.
+     */
+    sealed interface Differencer<A> permits Bytes, Shorts, Ints {
+
+        /**
+         * Undo horizontal differencing of the {@code length} converted samples starting at the offset in place.
+         */
+        void unpack(DifferencingPredictor.Planar1Horizontal predictor, A samples, int offset, int length);
+
+        /**
+         * Apply horizontal differencing to the {@code length} samples starting at the offset in place, the inverse of
+         * {@link #unpack}.
+         */
+        void pack(DifferencingPredictor.Planar1Horizontal predictor, A samples, int offset, int length);
+    }
+
+    record Bytes() implements Samples<byte[]>, Differencer<byte[]> {
+
+        @Override
+        public int bytes() {
+            return 1;
+        }
+
+        @Override
+        public byte[] allocate(int length) {
+            return new byte[length];
+        }
+
+        @Override
+        public byte[][] allocate(int rows, int rowLength) {
+            return new byte[rows][rowLength];
+        }
+
+        @Override
+        public ValueLayout layout() {
+            return ValueLayout.JAVA_BYTE;
+        }
+
+        @Override
+        public Raster.Bytes raster(byte[][] rows, int componentsPerPixel) {
+            return new Raster.Bytes(rows, componentsPerPixel);
+        }
+
+        @Override
+        public Raster.FlatBytes flat(byte[] flat, int length, int stride, int componentsPerPixel) {
+            return new Raster.FlatBytes(flat, length, stride, componentsPerPixel);
+        }
+
+        @Override
+        public BufferView predictorView(ByteBuffer row) {
+            return BufferView.bytes(row);
+        }
+
+        @Override
+        public Optional<Differencer<byte[]>> differencer() {
+            return Optional.of(this);
+        }
+
+        @Override
+        public void unpack(DifferencingPredictor.Planar1Horizontal predictor, byte[] samples, int offset, int length) {
+            predictor.unpack(samples, offset, length);
+        }
+
+        @Override
+        public void pack(DifferencingPredictor.Planar1Horizontal predictor, byte[] samples, int offset, int length) {
+            predictor.pack(samples, offset, length);
+        }
+
+        @Override
+        public void copyStrided(byte[] src, int srcOffset, int srcStride, byte[] dst, int dstOffset, int dstStride, int count) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i * dstStride] = src[srcOffset + i * srcStride];
+            }
+        }
+
+        @Override
+        public void read(ByteBuffer src, byte[] dst, int dstOffset, int length) {
+            src.get(src.position(), dst, dstOffset, length);
+        }
+
+        @Override
+        public void write(byte[] src, int srcOffset, ByteBuffer dst, int length) {
+            dst.put(dst.position(), src, srcOffset, length);
+        }
+    }
+
+    record Shorts() implements Samples<short[]>, Differencer<short[]> {
+
+        @Override
+        public int bytes() {
+            return Short.BYTES;
+        }
+
+        @Override
+        public short[] allocate(int length) {
+            return new short[length];
+        }
+
+        @Override
+        public short[][] allocate(int rows, int rowLength) {
+            return new short[rows][rowLength];
+        }
+
+        @Override
+        public ValueLayout layout() {
+            return ValueLayout.JAVA_SHORT;
+        }
+
+        @Override
+        public Raster.Shorts raster(short[][] rows, int componentsPerPixel) {
+            return new Raster.Shorts(rows, componentsPerPixel);
+        }
+
+        @Override
+        public Raster.FlatShorts flat(short[] flat, int length, int stride, int componentsPerPixel) {
+            return new Raster.FlatShorts(flat, length, stride, componentsPerPixel);
+        }
+
+        @Override
+        public BufferView predictorView(ByteBuffer row) {
+            return BufferView.shorts(row);
+        }
+
+        @Override
+        public Optional<Differencer<short[]>> differencer() {
+            return Optional.of(this);
+        }
+
+        @Override
+        public void unpack(DifferencingPredictor.Planar1Horizontal predictor, short[] samples, int offset, int length) {
+            predictor.unpack(samples, offset, length);
+        }
+
+        @Override
+        public void pack(DifferencingPredictor.Planar1Horizontal predictor, short[] samples, int offset, int length) {
+            predictor.pack(samples, offset, length);
+        }
+
+        @Override
+        public void copyStrided(short[] src, int srcOffset, int srcStride, short[] dst, int dstOffset, int dstStride, int count) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i * dstStride] = src[srcOffset + i * srcStride];
+            }
+        }
+
+        @Override
+        public void read(ByteBuffer src, short[] dst, int dstOffset, int length) {
+            BufferView.shorts(src).readShorts(0, dst, dstOffset, length);
+        }
+
+        @Override
+        public void write(short[] src, int srcOffset, ByteBuffer dst, int length) {
+            BufferView.shorts(dst).writeShorts(0, src, srcOffset, length);
+        }
+    }
+
+    record Ints() implements Samples<int[]>, Differencer<int[]> {
+
+        @Override
+        public int bytes() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public int[] allocate(int length) {
+            return new int[length];
+        }
+
+        @Override
+        public int[][] allocate(int rows, int rowLength) {
+            return new int[rows][rowLength];
+        }
+
+        @Override
+        public ValueLayout layout() {
+            return ValueLayout.JAVA_INT;
+        }
+
+        @Override
+        public Raster.Ints raster(int[][] rows, int componentsPerPixel) {
+            return new Raster.Ints(rows, componentsPerPixel);
+        }
+
+        @Override
+        public Raster.FlatInts flat(int[] flat, int length, int stride, int componentsPerPixel) {
+            return new Raster.FlatInts(flat, length, stride, componentsPerPixel);
+        }
+
+        @Override
+        public BufferView predictorView(ByteBuffer row) {
+            return BufferView.ints(row);
+        }
+
+        @Override
+        public Optional<Differencer<int[]>> differencer() {
+            return Optional.of(this);
+        }
+
+        @Override
+        public void unpack(DifferencingPredictor.Planar1Horizontal predictor, int[] samples, int offset, int length) {
+            predictor.unpack(samples, offset, length);
+        }
+
+        @Override
+        public void pack(DifferencingPredictor.Planar1Horizontal predictor, int[] samples, int offset, int length) {
+            predictor.pack(samples, offset, length);
+        }
+
+        @Override
+        public void copyStrided(int[] src, int srcOffset, int srcStride, int[] dst, int dstOffset, int dstStride, int count) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i * dstStride] = src[srcOffset + i * srcStride];
+            }
+        }
+
+        @Override
+        public void read(ByteBuffer src, int[] dst, int dstOffset, int length) {
+            BufferView.ints(src).readInts(0, dst, dstOffset, length);
+        }
+
+        @Override
+        public void write(int[] src, int srcOffset, ByteBuffer dst, int length) {
+            BufferView.ints(dst).writeInts(0, src, srcOffset, length);
+        }
+    }
+
+    /**
+     * The floating-point predictor operates on the raw re-ordered bytes of the row, not the float values themselves.
+     */
+    record Floats() implements Samples<float[]> {
+
+        @Override
+        public int bytes() {
+            return Float.BYTES;
+        }
+
+        @Override
+        public float[] allocate(int length) {
+            return new float[length];
+        }
+
+        @Override
+        public float[][] allocate(int rows, int rowLength) {
+            return new float[rows][rowLength];
+        }
+
+        @Override
+        public ValueLayout layout() {
+            return ValueLayout.JAVA_FLOAT;
+        }
+
+        @Override
+        public Raster.Floats raster(float[][] rows, int componentsPerPixel) {
+            return new Raster.Floats(rows, componentsPerPixel);
+        }
+
+        @Override
+        public Raster.FlatFloats flat(float[] flat, int length, int stride, int componentsPerPixel) {
+            return new Raster.FlatFloats(flat, length, stride, componentsPerPixel);
+        }
+
+        @Override
+        public BufferView predictorView(ByteBuffer row) {
+            return BufferView.bytes(row);
+        }
+
+        /**
+         * Horizontal differencing of floats is (as in other readers) applied to the bytes of the samples.
+         */
+        @Override
+        public Optional<Differencer<float[]>> differencer() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void copyStrided(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride, int count) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i * dstStride] = src[srcOffset + i * srcStride];
+            }
+        }
+
+        @Override
+        public void read(ByteBuffer src, float[] dst, int dstOffset, int length) {
+            BufferView.floats(src).readFloats(0, dst, dstOffset, length);
+        }
+
+        @Override
+        public void write(float[] src, int srcOffset, ByteBuffer dst, int length) {
+            BufferView.floats(dst).writeFloats(0, src, srcOffset, length);
+        }
+    }
+}
@@ -51,7 +51,8 @@ public record Tag(short id, String name) {
                 case Entry.Ascii d -> Optional.of(d.values());
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Short _, Entry.Long _, Entry.Rational _, Entry.SByte _, Entry.Undefined _,
-                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _ ->
+                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForTagException(tag, entry.getClass());
             };
         }
@@ -80,7 +81,8 @@ public record Tag(short id, String name) {
                 case Entry.Short s -> Optional.of(Arrays.toUnsignedIntArray(s.values()));
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Long _, Entry.Rational _, Entry.SByte _, Entry.Undefined _,
-                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _ ->
+                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForTagException(tag, entry.getClass());
             };
         }
@@ -100,6 +102,8 @@ public record Tag(short id, String name) {
          * Convenience, optionally returns the value of the provided tag as an array of unsigned integers, in a {@code long[]}
          * as all Java primitives are implicitly signed.
          *
+         * <p>BigTIFF files may also store offset and count tags (e.g. {@code StripOffsets}) as 64-bit {@link Entry.Long8}s.
+         *
          * @param tag the tag value to access
          * @param ifd the {@link Ifd} to locate the tag in
          */
@@ -108,10 +112,12 @@ public record Tag(short id, String name) {
             return switch (entry) {
                 case Entry.Short s -> Optional.of(Arrays.toUnsignedLongArray(s.values()));
                 case Entry.Long l -> Optional.of(Arrays.toUnsignedLongArray(l.values()));
+                case Entry.Long8 l -> Optional.of(l.values().clone());
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Rational _, Entry.SByte _, Entry.Undefined _, Entry.SShort _,
                      Entry.SLong _, Entry.SRational _,
-                     Entry.Float _, Entry.Double _ -> throw new UnsupportedTypeForTagException(tag, entry.getClass());
+                     Entry.Float _, Entry.Double _,
+                     Entry.SLong8 _, Entry.Ifd8 _ -> throw new UnsupportedTypeForTagException(tag, entry.getClass());
             };
         }
 
@@ -128,7 +134,8 @@ public record Tag(short id, String name) {
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Short _, Entry.Long _, Entry.SByte _, Entry.Undefined _,
                      Entry.SShort _, Entry.SLong _, Entry.SRational _,
-                     Entry.Float _, Entry.Double _ -> throw new UnsupportedTypeForTagException(tag, entry.getClass());
+                     Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ -> throw new UnsupportedTypeForTagException(tag, entry.getClass());
             };
         }
 
@@ -144,7 +151,8 @@ public record Tag(short id, String name) {
                 case Entry.Double d -> Optional.of(d.values());
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Short _, Entry.Long _, Entry.Rational _, Entry.SByte _,
-                     Entry.Undefined _, Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _ ->
+                     Entry.Undefined _, Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForTagException(tag, entry.getClass());
             };
         }
@@ -1,48 +1,219 @@
 package io.github.stellarsunset.tiff;
 
+import java.io.IOException;
 import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Handle for a TIFF file, created via the {@link TiffFileReader}.
  *
  * <p>{@link TiffFile}s are {@link AutoCloseable} because they may hold onto an open file pointer to lazily read bytes
  * from the underlying file.
+ *
+ * <p>Channel reads are positional (see {@link BytesReader}) so a single {@link TiffFile} can be safely shared between
+ * threads, e.g. to decode different images concurrently, without opening a separate channel per thread.
+ *
+ * <p>There are two implementations:
+ * <ol>
+ *     <li>{@link Eager} - all IFDs in the file are parsed (and their images made) up-front, see {@link TiffFileReader#read(SeekableByteChannel)}</li>
+ *     <li>{@link Lazy} - IFDs are parsed (and images made) on first request, see {@link TiffFileReader#readLazy(SeekableByteChannel)}</li>
+ * </ol>
  */
-public record TiffFile(SeekableByteChannel channel, TiffHeader header, Ifd[] ifds,
-                       Image[] images) implements AutoCloseable {
+public sealed interface TiffFile extends AutoCloseable permits TiffFile.Eager, TiffFile.Lazy {
 
-    public TiffFile {
-        checkArgument(ifds.length == images.length, "Should be as many IFDs as Images.");
-        checkArgument(ifds.length > 0, "Should be at least one IFD/Image in the file.");
-    }
+    /**
+     * The open channel to the bytes of the file.
+     */
+    SeekableByteChannel channel();
+
+    TiffHeader header();
 
     /**
      * Convenience, returns the nth {@link Ifd} in the file, there is always at least one.
      */
-    public Ifd ifd(int n) {
-        return ifds[n];
-    }
+    Ifd ifd(int n);
 
     /**
      * Convenience, returns the image associated with the nth {@link Ifd} in the file, there is always at least one.
      */
-    public Image image(int n) {
-        return images[n];
-    }
+    Image image(int n);
 
     /**
      * Convenience, returns the total number of {@link Image}s/{@link Ifd}s in the TIFF file.
      *
      * <p>When querying specific images via {@link #image(int)}, the allowed values are {@code [0, numberOfImages-1]}.
      */
-    public int numberOfImages() {
-        return ifds.length;
-    }
+    int numberOfImages();
 
     @Override
-    public void close() throws Exception {
-        channel.close();
+    default void close() throws Exception {
+        channel().close();
+    }
+
+    record Eager(SeekableByteChannel channel, TiffHeader header, Ifd[] ifds, Image[] images) implements TiffFile {
+
+        public Eager {
+            checkArgument(ifds.length == images.length, "Should be as many IFDs as Images.");
+            checkArgument(ifds.length > 0, "Should be at least one IFD/Image in the file.");
+        }
+
+        @Override
+        public Ifd ifd(int n) {
+            return ifds[n];
+        }
+
+        @Override
+        public Image image(int n) {
+            return images[n];
+        }
+
+        @Override
+        public int numberOfImages() {
+            return ifds.length;
+        }
+    }
+
+    /**
+     * Handle which walks the chain of IFDs in the file only as far as is requested, parsing IFDs and making their images
+     * on first access and memoizing them (and the offsets of all IFDs discovered along the way) for later calls.
+     *
+     * <p>This makes opening files with many pages (e.g. scanned documents) cheap when only the first few are of interest,
+     * {@link #numberOfImages()} only follows the next IFD offsets of the chain rather than parsing each IFD.
+     */
+    final class Lazy implements TiffFile {
+
+        private final SeekableByteChannel channel;
+
+        private final SeekableByteChannel metadata;
+
+        private final TiffHeader header;
+
+        private final IfdReader ifdReader;
+
+        private final Image.Maker imageMaker;
+
+        /**
+         * Offsets of the IFDs discovered so far, always non-empty as the first offset comes from the header.
+         */
+        private final List<Long> offsets = new ArrayList<>();
+
+        private final Set<Long> seen = new HashSet<>();
+
+        private final List<Ifd> ifds = new ArrayList<>();
+
+        private final List<Image> images = new ArrayList<>();
+
+        /**
+         * Whether the final IFD in the chain (the one with a next offset of 0) has been found.
+         */
+        private boolean complete;
+
+        /**
+         * @param channel    the channel to read image data from
+         * @param metadata   the channel to read IFDs from, may be the same as the {@code channel}
+         * @param header     the already-parsed header of the file
+         * @param ifdReader  the reader to use on each IFD in the file
+         * @param imageMaker the maker to use on the image data of each IFD
+         */
+        Lazy(SeekableByteChannel channel, SeekableByteChannel metadata, TiffHeader header, IfdReader ifdReader, Image.Maker imageMaker) {
+            this.channel = requireNonNull(channel);
+            this.metadata = requireNonNull(metadata);
+            this.header = requireNonNull(header);
+            this.ifdReader = requireNonNull(ifdReader);
+            this.imageMaker = requireNonNull(imageMaker);
+            discover(header.unsignedFirstIfdOffset());
+        }
+
+        @Override
+        public SeekableByteChannel channel() {
+            return channel;
+        }
+
+        @Override
+        public TiffHeader header() {
+            return header;
+        }
+
+        @Override
+        public synchronized Ifd ifd(int n) {
+            checkElementIndex(n, walkTo(n), "IFD");
+            while (ifds.size() <= n) {
+                ifds.add(read(offsets.get(ifds.size())));
+            }
+            return ifds.get(n);
+        }
+
+        /**
+         * Images are made outside the lock so pages can be read concurrently, if two threads race to make the same image
+         * the first one published wins and is returned to both.
+         */
+        @Override
+        public Image image(int n) {
+            Ifd ifd;
+            synchronized (this) {
+                ifd = ifd(n);
+                if (n < images.size() && images.get(n) != null) {
+                    return images.get(n);
+                }
+            }
+            Image made = imageMaker.makeImage(channel, header.order(), ifd);
+            synchronized (this) {
+                while (images.size() <= n) {
+                    images.add(null);
+                }
+                Image image = images.get(n);
+                if (image == null) {
+                    images.set(n, image = made);
+                }
+                return image;
+            }
+        }
+
+        @Override
+        public synchronized int numberOfImages() {
+            return walkTo(Integer.MAX_VALUE);
+        }
+
+        /**
+         * Follow the next IFD offsets in the chain until at least {@code n + 1} IFD offsets are known (or the end of the
+         * chain is reached), returning the number of IFD offsets known.
+         */
+        private int walkTo(int n) {
+            while (!complete && offsets.size() <= n) {
+
+                int last = offsets.size() - 1;
+
+                long next = last < ifds.size()
+                        ? ifds.get(last).unsignedNextIfdOffset()
+                        : ifdReader.readNextIfdOffset(metadata, offsets.get(last));
+
+                discover(next);
+            }
+            return offsets.size();
+        }
+
+        private void discover(long offset) {
+            if (offset == 0) {
+                complete = true;
+            } else {
+                checkArgument(seen.add(offset), "Cycle detected in IFD chain, offset %s was already visited.", offset);
+                offsets.add(offset);
+            }
+        }
+
+        private Ifd read(long offset) {
+            try {
+                return ifdReader.read(metadata, offset);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read the contents of the IFD at offset " + offset + ".", e);
+            }
+        }
     }
 }
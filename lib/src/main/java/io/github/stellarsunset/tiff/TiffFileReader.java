@@ -7,6 +7,7 @@ import io.github.stellarsunset.tiff.extension.TileInfo;
 import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
 
 import java.io.IOException;
+import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
@@ -16,6 +17,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public final class TiffFileReader {
@@ -24,10 +26,29 @@ public final class TiffFileReader {
 
     private static final short BE = 0x4D4D;
 
+    /**
+     * Upper bound on how far the prefetched metadata window can grow, see {@link #withPrefetch(int)}.
+     */
+    private static final int MAXIMUM_PREFETCH_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Out-of-line tag values up to this size are read along with their IFD, see {@link #withEagerThreshold(int)}.
+     */
+    private static final int DEFAULT_EAGER_BYTES = 4096;
+
     private final Image.Maker imageMaker;
 
-    private TiffFileReader(Image.Maker imageMaker) {
+    private final int prefetchBytes;
+
+    private final int eagerBytes;
+
+    private final int inFlightReads;
+
+    private TiffFileReader(Image.Maker imageMaker, int prefetchBytes, int eagerBytes, int inFlightReads) {
         this.imageMaker = requireNonNull(imageMaker);
+        this.prefetchBytes = prefetchBytes;
+        this.eagerBytes = eagerBytes;
+        this.inFlightReads = inFlightReads;
     }
 
     /**
@@ -38,12 +59,13 @@ public final class TiffFileReader {
      *     <li>LZW compression, see {@link Compressor#lzw()}</li>
      *     <li>Differencing predictors, {@link DifferencingPredictor}s</li>
      *     <li>Tiled images, see{@link TileInfo}</li>
+     *     <li>BigTIFF files, see {@link TiffHeader#bigTiff()}</li>
      * </ol>
      *
      * <p>This means the baseline image maker should be suitable for reading most TIFF images.
      */
     public static TiffFileReader baseline() {
-        return new TiffFileReader(Image.Maker.baseline());
+        return new TiffFileReader(Image.Maker.baseline(), 0, DEFAULT_EAGER_BYTES, RangeSourceChannel.DEFAULT_IN_FLIGHT_READS);
     }
 
     /**
@@ -54,7 +76,58 @@ public final class TiffFileReader {
      * @param maker the maker instance to use on the underlying image data
      */
     public static TiffFileReader withMaker(Image.Maker maker) {
-        return new TiffFileReader(maker);
+        return new TiffFileReader(maker, 0, DEFAULT_EAGER_BYTES, RangeSourceChannel.DEFAULT_IN_FLIGHT_READS);
+    }
+
+    /**
+     * Returns a copy of this reader which prefetches the first {@code bytes} of the file in a single read and parses the
+     * header, IFDs and out-of-line tag values from that in-memory window rather than issuing a read per value.
+     *
+     * <p>The window grows on demand (up to 16MB) if the metadata extends past it, reads of metadata located well past the
+     * end of the window fall back to reading the channel directly. Image data is always read from the channel itself.
+     *
+     * <p>This is primarily useful when reads against the channel are expensive (e.g. network-attached storage) and the
+     * metadata is located at the start of the file, as it is in cloud-optimized GeoTIFFs. A few tens of KB is typically
+     * enough to cover all the metadata in such files.
+     *
+     * @param bytes the initial number of bytes to prefetch, or 0 to disable prefetching
+     */
+    public TiffFileReader withPrefetch(int bytes) {
+        checkArgument(0 <= bytes && bytes <= MAXIMUM_PREFETCH_BYTES,
+                "Prefetch size should be between 0 and %s bytes, was %s", MAXIMUM_PREFETCH_BYTES, bytes);
+        return new TiffFileReader(imageMaker, bytes, eagerBytes, inFlightReads);
+    }
+
+    /**
+     * Returns a copy of this reader which reads out-of-line tag values of up to {@code bytes} in size along with their
+     * IFD, larger values (e.g. the {@code TileOffsets} of large images, or embedded XMP or ICC profiles) are only read
+     * from the channel when their tag is first queried, see {@link Ifd#findTag(short)}.
+     *
+     * <p>Values stored inline in the IFD entry are always read eagerly. The default threshold is 4KB, use
+     * {@link Integer#MAX_VALUE} to read all values up-front.
+     *
+     * <p>Deferred values are read from the channel the file was opened with, so they must be queried before the
+     * {@link TiffFile} is closed.
+     *
+     * @param bytes the size in bytes at which to start deferring reading tag values
+     */
+    public TiffFileReader withEagerThreshold(int bytes) {
+        checkArgument(bytes >= 0, "Eager threshold should be non-negative, was %s", bytes);
+        return new TiffFileReader(imageMaker, prefetchBytes, bytes, inFlightReads);
+    }
+
+    /**
+     * Returns a copy of this reader which allows up to {@code reads} reads of image data to be in-flight at once against
+     * files read from a {@link RangeSource}, see {@link RangeSource#readAsync(long, int)}.
+     *
+     * <p>Higher values help hide the latency of remote sources, at the cost of holding more compressed chunks in memory
+     * while they wait to be decoded. The default is 16.
+     *
+     * @param reads the maximum number of outstanding reads when decoding an image
+     */
+    public TiffFileReader withInFlightReads(int reads) {
+        checkArgument(reads > 0, "In-flight reads should be positive, was %s", reads);
+        return new TiffFileReader(imageMaker, prefetchBytes, eagerBytes, reads);
     }
 
     /**
@@ -65,17 +138,23 @@ public final class TiffFileReader {
      * <p>This byte channel will be used to lazily load image data associated with the TIFF file, so clients should think
      * carefully about how they provision this channel before handing it off (e.g. memory mapped).
      *
+     * <p>All reads against the channel are positional (see {@link BytesReader}), so the returned {@link TiffFile} can be
+     * shared and decoded from multiple threads. {@link FileChannel}s support this without any locking, other channel
+     * types are locked for the duration of each individual read.
+     *
      * @param channel the {@link SeekableByteChannel} pointing to the contents of the TIFF file
      */
     public TiffFile read(SeekableByteChannel channel) {
         try {
 
-            TiffHeader header = readHeader(channel);
+            SeekableByteChannel metadata = metadataChannel(channel);
+
+            TiffHeader header = readHeader(metadata);
 
-            IfdReader ifdReader = new IfdReader(header.order());
+            IfdReader ifdReader = IfdReader.of(header, eagerBytes);
 
             Ifd first = ifdReader
-                    .read(channel, header.unsignedFirstIfdOffset());
+                    .read(metadata, header.unsignedFirstIfdOffset());
 
             List<Ifd> ifds = new ArrayList<>();
             List<Image> images = new ArrayList<>();
@@ -85,13 +164,13 @@ public final class TiffFileReader {
                 ifds.add(ifd);
                 images.add(imageMaker.makeImage(channel, header.order(), ifd));
 
-                ifd = ifdReader.read(channel, ifd.unsignedNextIfdOffset());
+                ifd = ifdReader.read(metadata, ifd.unsignedNextIfdOffset());
             }
 
             ifds.add(ifd);
             images.add(imageMaker.makeImage(channel, header.order(), ifd));
 
-            return new TiffFile(
+            return new TiffFile.Eager(
                     channel,
                     header,
                     ifds.toArray(new Ifd[0]),
@@ -104,11 +183,91 @@ public final class TiffFileReader {
         }
     }
 
-    private static TiffHeader readHeader(SeekableByteChannel channel) throws IOException {
-        channel.position(0);
+    /**
+     * Read the contents of the provided {@link RangeSource} as a TIFF file, see {@link #read(SeekableByteChannel)}.
+     *
+     * <p>All reads of the header, IFDs and image data are issued against the source, which allows reading files from
+     * remote locations (e.g. {@link RangeSource#http(URI)}) without staging a local copy. The source is closed when the
+     * returned {@link TiffFile} is closed.
+     *
+     * <p>For remote sources consider combining a {@link RangeSource#cached(RangeSource, int, long)} source with
+     * {@link #withPrefetch(int)} so the metadata is fetched in a handful of requests.
+     *
+     * @param source the source of the bytes of the TIFF file
+     */
+    public TiffFile read(RangeSource source) {
+        return read(new RangeSourceChannel(source, inFlightReads));
+    }
 
-        ByteBuffer buffer = ByteBuffer.allocate(8);
-        channel.read(buffer);
+    /**
+     * Read the header of the provided {@link RangeSource} as a TIFF file, see {@link #readLazy(SeekableByteChannel)}.
+     *
+     * @param source the source of the bytes of the TIFF file
+     */
+    public TiffFile.Lazy readLazy(RangeSource source) {
+        return readLazy(new RangeSourceChannel(source, inFlightReads));
+    }
+
+    /**
+     * Read the header of the provided {@link SeekableByteChannel} as a TIFF file, deferring reading each IFD (and making
+     * its image) until it is first requested from the returned {@link TiffFile.Lazy}.
+     *
+     * <p>Unlike {@link #read(SeekableByteChannel)} the chain of IFDs is only walked as far as is requested, which makes
+     * opening multi-page files (e.g. scanned documents or image pyramids) cheap when only a few pages are accessed. The
+     * same channel considerations apply as for {@link #read(SeekableByteChannel)}.
+     *
+     * @param channel the {@link SeekableByteChannel} pointing to the contents of the TIFF file
+     */
+    public TiffFile.Lazy readLazy(SeekableByteChannel channel) {
+        try {
+            SeekableByteChannel metadata = metadataChannel(channel);
+            TiffHeader header = readHeader(metadata);
+            return new TiffFile.Lazy(channel, metadata, header, IfdReader.of(header, eagerBytes), imageMaker);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Unable to open connection to or read the contents of the provided TIFF file.", e
+            );
+        }
+    }
+
+    /**
+     * Memory-map the TIFF file at the provided path and read its contents, see {@link #read(SeekableByteChannel)}.
+     *
+     * <p>The whole file is mapped once up-front and strip, tile, and out-of-line IFD values are then handed to the
+     * {@link Compressor}s and {@link Raster.Reader}s as read-only views of the mapping instead of being copied into new
+     * heap buffers on every read. This is typically the fastest way to bulk decode large local files.
+     *
+     * <p>The mapping is released when the returned {@link TiffFile} is closed.
+     *
+     * @param path the path to the TIFF file on the local file system
+     */
+    public TiffFile readMapped(Path path) {
+        try {
+            MappedByteChannel channel = MappedByteChannel.open(path);
+            try {
+                return read(channel);
+            } catch (RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to memory-map the contents of the provided TIFF file.", e);
+        }
+    }
+
+    /**
+     * The channel to read the header and IFDs from, mapped channels are already in memory so aren't prefetched.
+     */
+    private SeekableByteChannel metadataChannel(SeekableByteChannel channel) throws IOException {
+        return prefetchBytes > 0 && !(channel instanceof MappedByteChannel)
+                ? PrefetchedByteChannel.prefetch(channel, prefetchBytes, MAXIMUM_PREFETCH_BYTES)
+                : channel;
+    }
+
+    private static TiffHeader readHeader(SeekableByteChannel channel) {
+
+        BytesReader reader = new BytesReader(channel);
+        ByteBuffer buffer = reader.readBytes(0, 8);
 
         short orderBytes = buffer.getShort(0);
 
@@ -120,10 +279,24 @@ public final class TiffFileReader {
 
         buffer.order(order);
 
-        return new TiffHeader(
-                order,
-                buffer.getShort(2),
-                buffer.getInt(4)
-        );
+        short arbitraryNumber = buffer.getShort(2);
+
+        return switch (arbitraryNumber) {
+            case TiffHeader.CLASSIC -> new TiffHeader(
+                    order,
+                    arbitraryNumber,
+                    Integer.toUnsignedLong(buffer.getInt(4))
+            );
+            case TiffHeader.BIG_TIFF -> {
+                short offsetBytes = buffer.getShort(4);
+                checkArgument(offsetBytes == 8, "BigTIFF offsets should be 8 bytes, header declared %s", offsetBytes);
+                yield new TiffHeader(
+                        order,
+                        arbitraryNumber,
+                        reader.readBytes(8, 8).order(order).getLong(0)
+                );
+            }
+            default -> throw new IllegalArgumentException("Unknown TIFF version (arbitrary number): " + arbitraryNumber);
+        };
     }
 }
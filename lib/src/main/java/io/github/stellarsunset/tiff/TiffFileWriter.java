@@ -0,0 +1,508 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.baseline.BaselineImage;
+import io.github.stellarsunset.tiff.baseline.BiLevelImage;
+import io.github.stellarsunset.tiff.baseline.GrayscaleImage;
+import io.github.stellarsunset.tiff.baseline.ImageDimensions;
+import io.github.stellarsunset.tiff.baseline.PaletteColorImage;
+import io.github.stellarsunset.tiff.baseline.RgbImage;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
+import io.github.stellarsunset.tiff.baseline.tag.ColorMap;
+import io.github.stellarsunset.tiff.baseline.tag.Compression;
+import io.github.stellarsunset.tiff.baseline.tag.ImageLength;
+import io.github.stellarsunset.tiff.baseline.tag.ImageWidth;
+import io.github.stellarsunset.tiff.baseline.tag.PhotometricInterpretation;
+import io.github.stellarsunset.tiff.baseline.tag.RowsPerStrip;
+import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
+import io.github.stellarsunset.tiff.baseline.tag.StripByteCounts;
+import io.github.stellarsunset.tiff.baseline.tag.StripOffsets;
+import io.github.stellarsunset.tiff.baseline.tag.XResolution;
+import io.github.stellarsunset.tiff.baseline.tag.YResolution;
+import io.github.stellarsunset.tiff.compress.Compressor;
+import io.github.stellarsunset.tiff.compress.Compressors;
+import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
+import io.github.stellarsunset.tiff.extension.tag.PlanarConfiguration;
+import io.github.stellarsunset.tiff.extension.tag.SampleFormat;
+import io.github.stellarsunset.tiff.extension.tag.TileByteCounts;
+import io.github.stellarsunset.tiff.extension.tag.TileLength;
+import io.github.stellarsunset.tiff.extension.tag.TileOffsets;
+import io.github.stellarsunset.tiff.extension.tag.TileWidth;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes {@link Raster}s (and {@link BaselineImage}s) out as TIFF files, the counterpart to the {@link TiffFileReader}.
+ *
+ * <p>Images are written in either a strip ({@link #strips(int)}) or tile ({@link #tiles(int, int)}) layout, compressed
+ * with any {@link Compressor.Encoder} registered with {@link Compressors} (Uncompressed, PackBits, LZW and Deflate by
+ * default) and optionally with a {@link DifferencingPredictor} applied prior to compression.
+ *
+ * <p>The writer derives the structural tags of each image ({@link ImageWidth}, {@link BitsPerSample}, the strip/tile
+ * offsets, etc.) from the raster and its own configuration, any other tags (e.g. GeoTIFF tags) can be supplied alongside
+ * the raster in a {@link Page}.
+ *
+ * <p>The image data of every page is written first, followed by the {@link Ifd}s of every page, so the whole file can be
+ * written in a single pass with only the header patched at the end.
+ *
+ * <p>Writers are immutable and can be shared between threads.
+ */
+public final class TiffFileWriter {
+
+    private static final short LE = 0x4949;
+
+    private static final short BE = 0x4D4D;
+
+    private static final short MAGIC_NUMBER = 42;
+
+    /**
+     * Tags derived by the writer itself, which clients shouldn't supply in a {@link Page}.
+     */
+    private static final Set<Tag> STRUCTURAL_TAGS = Set.of(
+            ImageWidth.TAG, ImageLength.TAG, BitsPerSample.TAG, Compression.TAG, SamplesPerPixel.TAG,
+            PlanarConfiguration.TAG, SampleFormat.TAG, DifferencingPredictor.TAG,
+            RowsPerStrip.TAG, StripOffsets.TAG, StripByteCounts.TAG,
+            TileWidth.TAG, TileLength.TAG, TileOffsets.TAG, TileByteCounts.TAG
+    );
+
+    private final ByteOrder order;
+
+    private final Layout layout;
+
+    private final int compression;
+
+    private final int predictor;
+
+    private final int planarConfiguration;
+
+    private final Executor executor;
+
+    private TiffFileWriter(ByteOrder order, Layout layout, int compression, int predictor, int planarConfiguration,
+                           Executor executor) {
+        this.order = requireNonNull(order);
+        this.layout = requireNonNull(layout);
+        this.compression = compression;
+        this.predictor = predictor;
+        this.planarConfiguration = planarConfiguration;
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * Returns a writer which lays images out in strips of the provided number of rows, uncompressed and in big-endian
+     * byte order by default.
+     *
+     * @param rowsPerStrip the number of rows in each strip, the final strip of each image may contain fewer rows
+     */
+    public static TiffFileWriter strips(int rowsPerStrip) {
+        return new TiffFileWriter(ByteOrder.BIG_ENDIAN, new Strips(rowsPerStrip), 1, 1, 1, directExecutor());
+    }
+
+    /**
+     * Returns a writer which lays images out in tiles of the provided dimensions, uncompressed and in big-endian byte order
+     * by default.
+     *
+     * <p>Tiles on the right and bottom edges of the image are padded out to the full tile size with zeros.
+     *
+     * @param tileWidth  the number of columns in each tile, must be a multiple of 16
+     * @param tileLength the number of rows in each tile, must be a multiple of 16
+     */
+    public static TiffFileWriter tiles(int tileWidth, int tileLength) {
+        return new TiffFileWriter(ByteOrder.BIG_ENDIAN, new Tiles(tileWidth, tileLength), 1, 1, 1, directExecutor());
+    }
+
+    /**
+     * Returns a copy of this writer which writes files in the provided byte order.
+     */
+    public TiffFileWriter withOrder(ByteOrder order) {
+        return new TiffFileWriter(order, layout, compression, predictor, planarConfiguration, executor);
+    }
+
+    /**
+     * Returns a copy of this writer which compresses strips/tiles with the {@link Compressor.Encoder} registered for the
+     * code, see {@link Compressors#encoderFor(int)}.
+     *
+     * @param compression the value of the {@link Compression} tag, e.g. 5 for LZW or 8 for Deflate
+     */
+    public TiffFileWriter withCompression(int compression) {
+        Compressors.getInstance().encoderFor(compression);
+        return new TiffFileWriter(order, layout, compression, predictor, planarConfiguration, executor);
+    }
+
+    /**
+     * Returns a copy of this writer which applies the provided {@link DifferencingPredictor} prior to compression.
+     *
+     * @param predictor the value of the predictor tag, 1 (none), 2 (horizontal, integer rasters) or 3 (floating-point,
+     *                  float rasters)
+     */
+    public TiffFileWriter withPredictor(int predictor) {
+        checkArgument(1 <= predictor && predictor <= 3, "Predictor should be 1, 2, or 3, was %s", predictor);
+        return new TiffFileWriter(order, layout, compression, predictor, planarConfiguration, executor);
+    }
+
+    /**
+     * Returns a copy of this writer which stores the components of each pixel with the provided {@link PlanarConfiguration}.
+     *
+     * <p>Planar images (2) store each component (band) in its own set of strips/tiles, which lets readers decode a subset of
+     * the bands without reading the others, see {@link Raster.Reader#readBands}. Images with a single component per pixel
+     * are the same in either configuration.
+     *
+     * @param planarConfiguration 1 (chunky, the default) or 2 (planar)
+     */
+    public TiffFileWriter withPlanarConfiguration(int planarConfiguration) {
+        checkArgument(planarConfiguration == 1 || planarConfiguration == 2,
+                "Planar configuration should be 1 or 2, was %s", planarConfiguration);
+        return new TiffFileWriter(order, layout, compression, predictor, planarConfiguration, executor);
+    }
+
+    /**
+     * Returns a copy of this writer which compresses the strips/tiles of each image concurrently on the provided executor.
+     */
+    public TiffFileWriter withExecutor(Executor executor) {
+        return new TiffFileWriter(order, layout, compression, predictor, planarConfiguration, executor);
+    }
+
+    /**
+     * Write the pages to a new TIFF file at the provided path, replacing any existing file.
+     *
+     * @param path  the path to write the file to
+     * @param pages the images to write, in order, there must be at least one
+     */
+    public void write(Path path, List<Page> pages) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, pages);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open the provided path for writing.", e);
+        }
+    }
+
+    public void write(SeekableByteChannel channel, Page... pages) {
+        write(channel, List.of(pages));
+    }
+
+    /**
+     * Write the pages to the provided channel as a TIFF file, starting from the beginning of the channel.
+     *
+     * <p>The channel isn't truncated, callers re-using a channel to an existing file are responsible for that.
+     *
+     * @param channel the channel to write the file to
+     * @param pages   the images to write, in order, there must be at least one
+     */
+    public void write(SeekableByteChannel channel, List<Page> pages) {
+        checkArgument(!pages.isEmpty(), "Should be at least one page to write to the file.");
+        try {
+
+            long position = 8;
+
+            List<Ifd.Entry[]> entries = new ArrayList<>();
+            for (Page page : pages) {
+                Written written = writePage(channel, position, page);
+                entries.add(written.entries());
+                position = written.end();
+            }
+
+            position = pad(channel, position);
+            long firstIfdOffset = position;
+
+            for (int i = 0; i < entries.size(); i++) {
+
+                Ifd.Entry[] ifdEntries = entries.get(i);
+                long next = i + 1 < entries.size()
+                        ? IfdWriter.wordAligned(position + IfdWriter.length(new Ifd((short) ifdEntries.length, ifdEntries, 0)))
+                        : 0;
+
+                Ifd ifd = new Ifd((short) ifdEntries.length, ifdEntries, next);
+                position = pad(channel, write(channel, position, new IfdWriter(order).write(ifd, position)));
+            }
+
+            write(channel, 0, header(firstIfdOffset));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write the contents of the TIFF file to the provided channel.", e);
+        }
+    }
+
+    private Written writePage(SeekableByteChannel channel, long position, Page page) throws IOException {
+        return writeRaster(channel, position, page, RasterStorage.of(page.raster()));
+    }
+
+    private <A> Written writeRaster(SeekableByteChannel channel, long position, Page page, RasterStorage<A> raster) throws IOException {
+
+        Samples<A> samples = raster.samples();
+        int componentsPerPixel = raster.componentsPerPixel();
+        int sampleFormat = samples instanceof Samples.Floats ? 3 : 1;
+        int bitsPerSample = raster.bitsPerSample();
+
+        checkArgument(raster.length() > 0, "Raster should have at least one row.");
+        checkArgument(predictor != 2 || sampleFormat != 3, "Horizontal predictor isn't supported for floating-point rasters.");
+        checkArgument(predictor != 3 || sampleFormat == 3, "Floating-point predictor is only supported for floating-point rasters.");
+        checkArgument(predictor == 1 || bitsPerSample >= Byte.SIZE, "Predictors aren't supported for sub-byte rasters.");
+
+        long rowLength = raster.rowSamples();
+        checkArgument(componentsPerPixel > 0 && rowLength > 0 && rowLength % componentsPerPixel == 0,
+                "Row length (%s) should be a positive multiple of the components per pixel (%s)", rowLength, componentsPerPixel);
+
+        ImageDimensions.Int dimensions = new ImageDimensions.Int(raster.length(), Math.toIntExact(rowLength / componentsPerPixel));
+        ChunkLayout chunks = layout.chunkLayout(dimensions);
+
+        // planar images are written as one single-component plane per band, one after the other
+        int planes = planarConfiguration == 2 ? componentsPerPixel : 1;
+        int planeComponents = componentsPerPixel / planes;
+
+        checkArgument(planes == 1 || bitsPerSample >= Byte.SIZE, "Sub-byte rasters should be written chunky, not planar.");
+
+        int[] offsets = new int[chunks.numberOfChunks() * planes];
+        int[] byteCounts = new int[chunks.numberOfChunks() * planes];
+
+        for (int plane = 0; plane < planes; plane++) {
+
+            ChunkEncoder<A> encoder = new ChunkEncoder<>(
+                    samples,
+                    planes == 1 ? raster : band(raster, plane),
+                    order,
+                    Compressors.getInstance().encoderFor(compression),
+                    DifferencingPredictor.of(predictor, planeComponents),
+                    chunks,
+                    planeComponents,
+                    layout instanceof Tiles
+            );
+
+            byte[][] encoded = new byte[chunks.numberOfChunks()][];
+            ChunkDecoder.forEachChunk(IntStream.range(0, encoded.length).toArray(), executor, chunk -> encoded[chunk] = encoder.encode(chunk));
+
+            for (int chunk = 0; chunk < encoded.length; chunk++) {
+                offsets[plane * encoded.length + chunk] = IfdWriter.offset(position);
+                byteCounts[plane * encoded.length + chunk] = encoded[chunk].length;
+                position = write(channel, position, ByteBuffer.wrap(encoded[chunk]));
+            }
+        }
+
+        List<Ifd.Entry> entries = new ArrayList<>();
+        entries.add(longEntry(ImageWidth.TAG, dimensions.width()));
+        entries.add(longEntry(ImageLength.TAG, dimensions.length()));
+        entries.add(shortEntry(BitsPerSample.TAG, repeat(bitsPerSample, componentsPerPixel)));
+        entries.add(shortEntry(Compression.TAG, compression));
+        entries.add(shortEntry(SamplesPerPixel.TAG, componentsPerPixel));
+        entries.add(shortEntry(PlanarConfiguration.TAG, planes == 1 ? 1 : 2));
+        entries.add(shortEntry(SampleFormat.TAG, repeat(sampleFormat, componentsPerPixel)));
+
+        if (predictor != 1) {
+            entries.add(shortEntry(DifferencingPredictor.TAG, predictor));
+        }
+
+        entries.addAll(layout.entries(offsets, byteCounts));
+
+        if (Arrays.stream(page.entries()).noneMatch(e -> e.tag() == PhotometricInterpretation.TAG.id())) {
+            entries.add(shortEntry(PhotometricInterpretation.TAG, 1));
+        }
+
+        entries.addAll(List.of(page.entries()));
+
+        return new Written(entries.toArray(new Ifd.Entry[0]), position);
+    }
+
+    /**
+     * Copy a single band of the raster out into its own single-component raster.
+     */
+    private static <A> RasterStorage<A> band(RasterStorage<A> raster, int band) {
+
+        Samples<A> samples = raster.samples();
+        int rowSamples = Math.toIntExact(raster.rowSamples());
+        int width = rowSamples / raster.componentsPerPixel();
+
+        A row = samples.allocate(rowSamples);
+        A flat = samples.allocate(Math.multiplyExact(raster.length(), width));
+
+        for (int r = 0; r < raster.length(); r++) {
+            raster.get(r, 0, row, 0, rowSamples);
+            samples.copyStrided(row, band, raster.componentsPerPixel(), flat, r * width, 1, width);
+        }
+        return RasterStorage.flat(samples, flat, raster.length(), width, 1);
+    }
+
+    private ByteBuffer header(long firstIfdOffset) {
+        return ByteBuffer.allocate(8).order(order)
+                .putShort(ByteOrder.LITTLE_ENDIAN.equals(order) ? LE : BE)
+                .putShort(MAGIC_NUMBER)
+                .putInt(IfdWriter.offset(firstIfdOffset))
+                .position(0);
+    }
+
+    /**
+     * Pad the file out to the next word boundary.
+     */
+    private static long pad(SeekableByteChannel channel, long position) throws IOException {
+        return position % 2 == 0 ? position : write(channel, position, ByteBuffer.allocate(1));
+    }
+
+    private static long write(SeekableByteChannel channel, long position, ByteBuffer buffer) throws IOException {
+        long end = position + buffer.remaining();
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return end;
+    }
+
+    private static Ifd.Entry longEntry(Tag tag, int value) {
+        return new Ifd.Entry.Long(tag.id(), new int[]{value});
+    }
+
+    private static Ifd.Entry shortEntry(Tag tag, int... values) {
+        short[] shorts = new short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            shorts[i] = (short) values[i];
+        }
+        return new Ifd.Entry.Short(tag.id(), shorts);
+    }
+
+    private static int[] repeat(int value, int count) {
+        int[] values = new int[count];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    /**
+     * A single image to write to a TIFF file.
+     *
+     * <p>The writer derives the structural tags of the image from the raster and its own configuration, clients can supply
+     * any additional descriptive tags, e.g. {@link PhotometricInterpretation} (which defaults to BlackIsZero) or the tags
+     * of a GeoTIFF.
+     *
+     * @param raster  the raster data of the image, the dimensions of the image are those of the raster
+     * @param entries additional entries to write into the {@link Ifd} of the image
+     */
+    public record Page(Raster raster, Ifd.Entry... entries) {
+
+        public Page {
+            requireNonNull(raster);
+            for (Ifd.Entry entry : entries) {
+                checkArgument(STRUCTURAL_TAGS.stream().noneMatch(t -> t.id() == entry.tag()),
+                        "Tag %s is derived by the writer and shouldn't be supplied.", Short.toUnsignedInt(entry.tag()));
+            }
+        }
+
+        public static Page of(Raster raster, Ifd.Entry... entries) {
+            return new Page(raster, entries);
+        }
+
+        /**
+         * Create a page from a baseline image, carrying over its photometric interpretation, resolution and color map.
+         *
+         * <p>Sub-byte (bi-level and 4-bit grayscale) images are written with their packed samples, so can't be written with
+         * a predictor or planar configuration.
+         */
+        public static Page of(BaselineImage image) {
+            return switch (image) {
+                case BiLevelImage b -> new Page(
+                        b.raster(),
+                        shortEntry(PhotometricInterpretation.TAG, b.type().whiteIsZero() ? 0 : 1),
+                        rationalEntry(XResolution.TAG, b.resolution().xResolution()),
+                        rationalEntry(YResolution.TAG, b.resolution().yResolution())
+                );
+                case GrayscaleImage.FourBit g -> new Page(
+                        g.raster(),
+                        shortEntry(PhotometricInterpretation.TAG, g.type().whiteIsZero() ? 0 : 1),
+                        rationalEntry(XResolution.TAG, g.resolution().xResolution()),
+                        rationalEntry(YResolution.TAG, g.resolution().yResolution())
+                );
+                case GrayscaleImage.EightBit g -> new Page(
+                        new Raster.Bytes(g.data(), 1),
+                        shortEntry(PhotometricInterpretation.TAG, g.type().whiteIsZero() ? 0 : 1),
+                        rationalEntry(XResolution.TAG, g.resolution().xResolution()),
+                        rationalEntry(YResolution.TAG, g.resolution().yResolution())
+                );
+                case RgbImage r -> new Page(
+                        new Raster.Bytes(r.data(), 3),
+                        shortEntry(PhotometricInterpretation.TAG, 2),
+                        rationalEntry(XResolution.TAG, r.resolution().xResolution()),
+                        rationalEntry(YResolution.TAG, r.resolution().yResolution())
+                );
+                case PaletteColorImage p -> new Page(
+                        new Raster.Bytes(p.data(), 1),
+                        shortEntry(PhotometricInterpretation.TAG, 3),
+                        new Ifd.Entry.Short(ColorMap.TAG.id(), p.colorMap().flatten()),
+                        rationalEntry(XResolution.TAG, p.resolution().xResolution()),
+                        rationalEntry(YResolution.TAG, p.resolution().yResolution())
+                );
+            };
+        }
+
+        private static Ifd.Entry rationalEntry(Tag tag, Rational rational) {
+            return new Ifd.Entry.Rational(tag.id(), new int[]{rational.numerator()}, new int[]{rational.denominator()});
+        }
+    }
+
+    private record Written(Ifd.Entry[] entries, long end) {
+    }
+
+    /**
+     * How the raster of each image is broken up into chunks in the written file.
+     */
+    private sealed interface Layout {
+
+        ChunkLayout chunkLayout(ImageDimensions.Int dimensions);
+
+        List<Ifd.Entry> entries(int[] offsets, int[] byteCounts);
+    }
+
+    private record Strips(int rowsPerStrip) implements Layout {
+
+        Strips {
+            checkArgument(rowsPerStrip > 0, "Rows per strip should be positive, was %s", rowsPerStrip);
+        }
+
+        @Override
+        public ChunkLayout chunkLayout(ImageDimensions.Int dimensions) {
+            int chunkLength = Math.min(rowsPerStrip, dimensions.length());
+            int chunks = (dimensions.length() + chunkLength - 1) / chunkLength;
+            return new ChunkLayout(dimensions, chunkLength, dimensions.width(), new long[chunks], new int[chunks]);
+        }
+
+        @Override
+        public List<Ifd.Entry> entries(int[] offsets, int[] byteCounts) {
+            return List.of(
+                    longEntry(RowsPerStrip.TAG, rowsPerStrip),
+                    new Ifd.Entry.Long(StripOffsets.TAG.id(), offsets),
+                    new Ifd.Entry.Long(StripByteCounts.TAG.id(), byteCounts)
+            );
+        }
+    }
+
+    private record Tiles(int width, int length) implements Layout {
+
+        Tiles {
+            checkArgument(width > 0 && width % 16 == 0 && length > 0 && length % 16 == 0,
+                    "Tile dimensions should be positive multiples of 16, were w (%s) and l (%s)", width, length);
+        }
+
+        @Override
+        public ChunkLayout chunkLayout(ImageDimensions.Int dimensions) {
+            int chunks = ((dimensions.width() + width - 1) / width) * ((dimensions.length() + length - 1) / length);
+            return new ChunkLayout(dimensions, length, width, new long[chunks], new int[chunks]);
+        }
+
+        @Override
+        public List<Ifd.Entry> entries(int[] offsets, int[] byteCounts) {
+            return List.of(
+                    longEntry(TileWidth.TAG, width),
+                    longEntry(TileLength.TAG, length),
+                    new Ifd.Entry.Long(TileOffsets.TAG.id(), offsets),
+                    new Ifd.Entry.Long(TileByteCounts.TAG.id(), byteCounts)
+            );
+        }
+    }
+}
@@ -5,10 +5,33 @@ import java.nio.ByteOrder;
 /**
  * Models the 8-byte TIFF file header as a byte order, a two byte arbitrary number, and a 4-byte pointer to the offset of
  * the first IFD in the file.
+ *
+ * <p>BigTIFF files use the arbitrary number 43 (rather than 42) and a 16-byte header, the arbitrary number is followed by
+ * the 2-byte size of offsets in the file (always 8), 2 bytes of padding and an 8-byte pointer to the first IFD.
  */
-public record TiffHeader(ByteOrder order, short arbitraryNumber, int firstIfdOffset) {
+public record TiffHeader(ByteOrder order, short arbitraryNumber, long firstIfdOffset) {
 
+    /**
+     * The arbitrary number identifying a classic TIFF file.
+     */
+    public static final short CLASSIC = 42;
+
+    /**
+     * The arbitrary number identifying a BigTIFF file.
+     */
+    public static final short BIG_TIFF = 43;
+
+    /**
+     * Whether the file is a BigTIFF, i.e. uses 8-byte offsets and counts throughout, see {@link IfdReader}.
+     */
+    public boolean bigTiff() {
+        return arbitraryNumber == BIG_TIFF;
+    }
+
+    /**
+     * Offsets are stored unsigned by the {@link TiffFileReader}, kept for compatibility with when they were held as ints.
+     */
     public long unsignedFirstIfdOffset() {
-        return Integer.toUnsignedLong(firstIfdOffset);
+        return firstIfdOffset;
     }
 }
@@ -2,6 +2,8 @@ package io.github.stellarsunset.tiff.baseline;
 
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Image;
+import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.TiffFile;
 import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
 import io.github.stellarsunset.tiff.baseline.tag.PhotometricInterpretation;
 import io.github.stellarsunset.tiff.extension.DataImage;
@@ -9,7 +11,9 @@ import io.github.stellarsunset.tiff.extension.ExtensionImage;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
-import java.util.function.Supplier;
+import java.util.concurrent.Executor;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * Seals image types defined as "baseline" in the TIFF 6.0 specification, these are the image types <em>all</em> TIFF
@@ -24,6 +28,22 @@ public sealed interface BaselineImage extends Image permits BiLevelImage, Graysc
         return new Maker();
     }
 
+    /**
+     * Returns a maker which decodes the strips or tiles of each image concurrently on the provided executor, see
+     * {@link io.github.stellarsunset.tiff.Raster.Reader}.
+     */
+    static Image.Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
+    /**
+     * Reads only the provided {@link Raster.Window} of the nth image in the file as a {@link BaselineImage}, decoding
+     * just the strips/tiles of the image which intersect the window.
+     */
+    static Image readWindow(TiffFile file, int n, Raster.Window window) {
+        return new Maker().makeImage(file.channel(), file.header().order(), file.ifd(n), window);
+    }
+
     @Override
     Pixel valueAt(int row, int col);
 
@@ -40,35 +60,46 @@ public sealed interface BaselineImage extends Image permits BiLevelImage, Graysc
                  Image.Maker palette) implements Image.Maker {
 
         public Maker() {
+            this(directExecutor());
+        }
+
+        public Maker(Executor executor) {
             this(
-                    BiLevelImage.maker(),
-                    GrayscaleImage.maker(),
-                    RgbImage.maker(),
-                    PaletteColorImage.maker()
+                    BiLevelImage.maker(executor),
+                    GrayscaleImage.maker(executor),
+                    RgbImage.maker(executor),
+                    PaletteColorImage.maker(executor)
             );
         }
 
         @Override
         public Image makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            Image.Maker maker = makerFor(ifd);
+            return Image.lazy(() -> maker.makeImage(channel, order, ifd));
+        }
+
+        @Override
+        public Image makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+            return makerFor(ifd).makeImage(channel, order, ifd, window);
+        }
+
+        private Image.Maker makerFor(Ifd ifd) {
 
             int photometricCode = PhotometricInterpretation.get(ifd);
 
-            Supplier<Image> supplier = () -> switch (photometricCode) {
-                case 0, 1 -> grayscaleOrBiLevel(channel, order, ifd);
-                case 2 -> fullColor.makeImage(channel, order, ifd);
-                case 3 -> palette.makeImage(channel, order, ifd);
-                default -> new Image.Unknown(channel, ifd);
+            return switch (photometricCode) {
+                case 0, 1 -> grayscaleOrBiLevel(ifd);
+                case 2 -> fullColor;
+                case 3 -> palette;
+                default -> (channel, order, _) -> Image.unknown(channel, ifd);
             };
-
-            return Image.lazy(supplier);
         }
 
-        private Image grayscaleOrBiLevel(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+        private Image.Maker grayscaleOrBiLevel(Ifd ifd) {
             return BitsPerSample.getIfPresent(ifd)
                     .filter(bps -> bps.length == 1 && (bps[0] == 4 || bps[0] == 8))
-                    .map(_ -> grayscale.makeImage(channel, order, ifd))
-                    .orElseGet(() -> biLevel.makeImage(channel, order, ifd));
+                    .map(_ -> grayscale)
+                    .orElse(biLevel);
         }
     }
 }
-
@@ -7,8 +7,10 @@ import io.github.stellarsunset.tiff.baseline.tag.PhotometricInterpretation;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * Standard bi-level black and white image.
@@ -17,21 +19,44 @@ import static com.google.common.base.Preconditions.checkArgument;
  *
  * <p>Bi-level images are almost always either uncompressed or compressed with PackBits, which is particularly effective
  * on them.
+ *
+ * <p>Pixels are kept packed eight to a byte as they are in the file (see {@link Raster.Packed}), use {@link #data()} to
+ * unpack them into one byte per pixel.
  */
 public record BiLevelImage(Interpretation type, ImageDimensions dimensions, Resolution resolution,
-                           byte[][] data) implements BaselineImage {
+                           Raster.Packed raster) implements BaselineImage {
 
     public BiLevelImage {
-        dimensions.checkBounds(data, 1);
+        checkArgument(raster.bitsPerSample() == 1 && raster.componentsPerPixel() == 1,
+                "Bi-level images should have a single 1-bit sample per pixel.");
+        dimensions.checkBounds(raster);
+    }
+
+    /**
+     * Create a bi-level image from pixel values stored one per byte.
+     */
+    public BiLevelImage(Interpretation type, ImageDimensions dimensions, Resolution resolution, byte[][] data) {
+        this(type, dimensions, resolution, Raster.Packed.of(data, 1, 1));
     }
 
     static Maker maker() {
         return new Maker();
     }
 
+    static Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
+    /**
+     * Returns the pixel values of the image unpacked into one byte per pixel.
+     */
+    public byte[][] data() {
+        return raster.unpack();
+    }
+
     @Override
     public Pixel valueAt(int row, int col) {
-        return new Pixel(data[row][col], type.whiteIsZero());
+        return new Pixel((byte) raster.get(row, col), type.whiteIsZero());
     }
 
     /**
@@ -95,22 +120,32 @@ public record BiLevelImage(Interpretation type, ImageDimensions dimensions, Reso
         }
     }
 
-    record Maker() implements Image.Maker {
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public BiLevelImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public BiLevelImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
 
-            Raster.Bytes bytes = Raster.Reader.bytes(1).readRaster(
+            Raster.Packed packed = Raster.Reader.packed(1, executor).readRaster(
                     channel,
                     order,
-                    ifd
+                    ifd,
+                    window
             );
 
             return new BiLevelImage(
                     Interpretation.from(ifd),
-                    ImageDimensions.get(ifd),
+                    window.dimensions(),
                     Resolution.from(ifd),
-                    bytes.bytes()
+                    packed
             );
         }
     }
@@ -8,15 +8,17 @@ import io.github.stellarsunset.tiff.baseline.tag.PhotometricInterpretation;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * Grayscale images are a generalization of bi-level images. Bi-level images can store only black and white image data,
  * but grayscale images can also store shades of gray.
  *
- * <p>Baseline grayscale images allow for 4 or 8-bit shades of gray, i.e. 16 shades of gray or 256 shades of gray, each
- * pixel is only one byte.
+ * <p>Baseline grayscale images allow for 4 or 8-bit shades of gray, i.e. 16 shades of gray or 256 shades of gray, 4-bit
+ * pixels are kept packed two to a byte as they are in the file (see {@link Raster.Packed}).
  *
  * <p>Grayscale images are almost always uncompressed or PackBits compressed, usually PackBits performs poorly on them,
  * and so they are left uncompressed.
@@ -27,19 +29,39 @@ public sealed interface GrayscaleImage extends BaselineImage {
         return new Maker();
     }
 
+    static Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
     /**
      * A grayscale image with 4-bit grayscale tones.
      */
     record FourBit(Interpretation type, ImageDimensions dimensions, Resolution resolution,
-                   byte[][] data) implements GrayscaleImage {
+                   Raster.Packed raster) implements GrayscaleImage {
 
         public FourBit {
-            dimensions.checkBounds(data, 1);
+            checkArgument(raster.bitsPerSample() == 4 && raster.componentsPerPixel() == 1,
+                    "4-bit grayscale images should have a single 4-bit sample per pixel.");
+            dimensions.checkBounds(raster);
+        }
+
+        /**
+         * Create a 4-bit grayscale image from pixel values stored one per byte.
+         */
+        public FourBit(Interpretation type, ImageDimensions dimensions, Resolution resolution, byte[][] data) {
+            this(type, dimensions, resolution, Raster.Packed.of(data, 4, 1));
+        }
+
+        /**
+         * Returns the pixel values of the image unpacked into one byte per pixel.
+         */
+        public byte[][] data() {
+            return raster.unpack();
         }
 
         @Override
         public Pixel valueAt(int row, int col) {
-            return new Pixel(data[row][col], type.whiteIsZero());
+            return new Pixel((byte) raster.get(row, col), type.whiteIsZero());
         }
 
         /**
@@ -149,29 +171,32 @@ public sealed interface GrayscaleImage extends BaselineImage {
         }
     }
 
-    record Maker() implements Image.Maker {
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public GrayscaleImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
 
-            Raster.Bytes bytes = Raster.Reader.bytes(1).readRaster(
-                    channel,
-                    order,
-                    ifd
-            );
+        @Override
+        public GrayscaleImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
 
             return switch (ShadesOfGray.from(ifd)) {
                 case N16 -> new FourBit(
                         Interpretation.from(ifd),
-                        ImageDimensions.get(ifd),
+                        window.dimensions(),
                         Resolution.from(ifd),
-                        bytes.bytes()
+                        Raster.Reader.packed(1, executor).readRaster(channel, order, ifd, window)
                 );
                 case N256 -> new EightBit(
                         Interpretation.from(ifd),
-                        ImageDimensions.get(ifd),
+                        window.dimensions(),
                         Resolution.from(ifd),
-                        bytes.bytes()
+                        Raster.Reader.bytes(1, executor).readRaster(channel, order, ifd, window).bytes()
                 );
             };
         }
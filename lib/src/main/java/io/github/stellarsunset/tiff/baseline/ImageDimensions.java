@@ -1,6 +1,7 @@
 package io.github.stellarsunset.tiff.baseline;
 
 import io.github.stellarsunset.tiff.Ifd;
+import io.github.stellarsunset.tiff.Raster;
 import io.github.stellarsunset.tiff.baseline.tag.ImageLength;
 import io.github.stellarsunset.tiff.baseline.tag.ImageWidth;
 
@@ -44,6 +45,19 @@ public record ImageDimensions(long length, long width) {
                 "Expected %s * %s columns, found %s", width(), bytesPerPixel, data[0].length);
     }
 
+    /**
+     * Shorthand to check the bounds of a packed raster of sub-byte samples against the expected image dimensions.
+     *
+     * @param raster the packed image samples
+     */
+    public void checkBounds(Raster.Packed raster) {
+        checkArgument(raster.length() == length(),
+                "Expected %s rows, found %s", length(), raster.length());
+
+        checkArgument(raster.width() == width(),
+                "Expected %s columns, found %s", width(), raster.width());
+    }
+
     /**
      * Shorthand to check the bounds materialized image data against the expected short image dimensions.
      *
@@ -86,6 +100,22 @@ public record ImageDimensions(long length, long width) {
                 "Expected %s * %s columns, found %s", width(), floatsPerPixel, data[0].length);
     }
 
+    /**
+     * Shorthand to check the bounds of flat image data (e.g. {@link io.github.stellarsunset.tiff.Raster.FlatFloats}) against
+     * the expected image dimensions.
+     *
+     * @param length             the number of rows of samples
+     * @param stride             the number of samples in each row
+     * @param componentsPerPixel the number of samples per pixel of the image
+     */
+    public void checkBounds(long length, long stride, int componentsPerPixel) {
+        checkArgument(length == length(),
+                "Expected %s rows, found %s", length(), length);
+
+        checkArgument(stride == width() * componentsPerPixel,
+                "Expected %s * %s columns, found %s", width(), componentsPerPixel, stride);
+    }
+
     /**
      * See {@link StripInfo.Int} for reasoning behind this truncation.
      */
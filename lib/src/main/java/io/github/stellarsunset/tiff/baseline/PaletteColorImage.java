@@ -7,6 +7,9 @@ import io.github.stellarsunset.tiff.baseline.tag.ColorMap;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.Executor;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * Palette-color images are similar to grayscale images. They still have one component per pixel, but the component value
@@ -25,6 +28,10 @@ public record PaletteColorImage(ImageDimensions dimensions, Resolution resolutio
         return new Maker();
     }
 
+    static Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
     @Override
     public Pixel valueAt(int row, int col) {
 
@@ -73,19 +80,29 @@ public record PaletteColorImage(ImageDimensions dimensions, Resolution resolutio
         }
     }
 
-    record Maker() implements Image.Maker {
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public PaletteColorImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public PaletteColorImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
 
-            Raster.Bytes bytes = Raster.Reader.bytes(1).readRaster(
+            Raster.Bytes bytes = Raster.Reader.bytes(1, executor).readRaster(
                     channel,
                     order,
-                    ifd
+                    ifd,
+                    window
             );
 
             return new PaletteColorImage(
-                    ImageDimensions.get(ifd),
+                    window.dimensions(),
                     Resolution.from(ifd),
                     ColorMap.get(ifd),
                     bytes.bytes()
@@ -3,10 +3,16 @@ package io.github.stellarsunset.tiff.baseline;
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Image;
 import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
 import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * Represents a baseline RGB full-color image.
@@ -31,6 +37,10 @@ public record RgbImage(ImageDimensions dimensions, Resolution resolution, byte[]
         return new Maker();
     }
 
+    static Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
     @Override
     public Pixel valueAt(int row, int col) {
         int offset = col * SAMPLES_PER_PIXEL;
@@ -65,18 +75,32 @@ public record RgbImage(ImageDimensions dimensions, Resolution resolution, byte[]
         }
     }
 
-    record Maker() implements Image.Maker {
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public RgbImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public RgbImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+
+            int[] bitsPerSample = BitsPerSample.get(ifd);
+            checkArgument(Arrays.equals(bitsPerSample, new int[]{8, 8, 8}),
+                    "Non-baseline BitsPerSample for RGB image: %s", Arrays.toString(bitsPerSample));
 
-            Raster.Bytes bytes = Raster.Reader.bytes(SAMPLES_PER_PIXEL).readRaster(
+            Raster.Bytes bytes = Raster.Reader.bytes(SAMPLES_PER_PIXEL, executor).readRaster(
                     channel,
                     order,
-                    ifd
+                    ifd,
+                    window
             );
 
-            return new RgbImage(ImageDimensions.get(ifd), Resolution.from(ifd), bytes.bytes());
+            return new RgbImage(window.dimensions(), Resolution.from(ifd), bytes.bytes());
         }
     }
 }
@@ -10,7 +10,7 @@ import java.util.Optional;
  * For each strip, the byte offset of that strip.
  *
  * <p>N = StripsPerImage for PlanarConfiguration equal to 1 | SamplesPerPixel * StripsPerImage for PlanarConfiguration
- * equal to 2. Type = {@link Entry.Short} | {@link Entry.Long}.
+ * equal to 2. Type = {@link Entry.Short} | {@link Entry.Long} | {@link Entry.Long8} (BigTIFF).
  */
 public final class StripOffsets implements Tag.Accessor {
 
@@ -2,6 +2,8 @@ package io.github.stellarsunset.tiff.compress;
 
 import io.github.stellarsunset.tiff.BytesAdapter;
 
+import java.nio.ByteBuffer;
+
 @FunctionalInterface
 public interface Compressor {
 
@@ -13,7 +15,7 @@ public interface Compressor {
      *
      * <p>The component values are stored as an array of type BYTE. Each scan line (row) is padded to the next BYTE boundary.
      */
-    static Compressor uncompressed() {
+    static Compressor.Encoder uncompressed() {
         return new Uncompressed();
     }
 
@@ -29,7 +31,7 @@ public interface Compressor {
     /**
      * PackBits compression, a simple byte-oriented run-length scheme. See Section 9 for details.
      */
-    static Compressor packBits() {
+    static Compressor.Encoder packBits() {
         return new PackBits();
     }
 
@@ -37,12 +39,87 @@ public interface Compressor {
      * LZW compression, a lossless dictionary encoding scheme that sees high compression ratios for images with repeated
      * subsequences of bytes.
      */
-    static Compressor lzw() {
+    static Compressor.Encoder lzw() {
         return new Lzw();
     }
 
+    /**
+     * Deflate (zlib) compression, used under both the official code (8) and the obsolete Adobe code (32946).
+     */
+    static Compressor.Encoder deflate() {
+        return new Deflate();
+    }
+
     /**
      * Decompresses the provided {@code byte[]} from its compressed form to its uncompressed one.
      */
     byte[] decompress(byte[] bytes, BytesAdapter adapter);
+
+    /**
+     * Decompresses the remaining bytes of the provided {@link ByteBuffer} from their compressed form to their uncompressed
+     * one.
+     *
+     * <p>The buffer may be a read-only view directly over a memory-mapped file, implementations should read from it in
+     * place where possible and must never write into it. The default implementation copies the bytes out of the buffer
+     * (unless it's backed by an exactly-sized array) and delegates to {@link #decompress(byte[], BytesAdapter)}.
+     */
+    default byte[] decompress(ByteBuffer bytes, BytesAdapter adapter) {
+        return decompress(toArray(bytes), adapter);
+    }
+
+    /**
+     * Decompresses the remaining bytes of the source buffer directly into the destination buffer, starting at its current
+     * position, returning the number of decompressed bytes written.
+     *
+     * <p>The remaining space in the destination is the expected length of the decompressed data, typically computed from
+     * the dimensions of the strip or tile being decoded. Decompression stops once the destination is full, any further
+     * data is dropped. Fewer bytes than expected may be written if the compressed data runs out early, callers should
+     * check the returned count.
+     *
+     * <p>On return the position of the destination has been advanced past the written bytes and the source is untouched.
+     * The default implementation delegates to {@link #decompress(ByteBuffer, BytesAdapter)} and copies the result into
+     * the destination.
+     *
+     * @param src     the compressed bytes, may be a read-only view directly over a memory-mapped file
+     * @param dst     the buffer to write decompressed bytes into
+     * @param adapter the adapter for the byte order of the file
+     */
+    default int decompress(ByteBuffer src, ByteBuffer dst, BytesAdapter adapter) {
+        byte[] decompressed = decompress(src, adapter);
+        int length = Math.min(decompressed.length, dst.remaining());
+        dst.put(decompressed, 0, length);
+        return length;
+    }
+
+    /**
+     * Returns the remaining contents of the buffer as an array, avoiding a copy if the buffer is a writable heap buffer
+     * whose backing array holds exactly its remaining contents.
+     */
+    private static byte[] toArray(ByteBuffer bytes) {
+        if (bytes.hasArray() && bytes.arrayOffset() == 0 && bytes.position() == 0 && bytes.limit() == bytes.array().length) {
+            return bytes.array();
+        }
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(bytes.position(), array);
+        return array;
+    }
+
+    /**
+     * A {@link Compressor} which can also encode data, only these can be used when writing files.
+     *
+     * <p>Uncompressed, PackBits, LZW and Deflate support encoding by default, see {@link Compressors#encoderFor(int)}.
+     */
+    interface Encoder extends Compressor {
+
+        /**
+         * Compresses the provided {@code byte[]} from its uncompressed form to its compressed one, the inverse of
+         * {@link #decompress(byte[], BytesAdapter)}.
+         *
+         * <p>Callers are expected to compress each strip or tile of an image separately.
+         *
+         * @param bytes   the uncompressed bytes, already in the byte order of the file
+         * @param adapter the adapter for the byte order of the file
+         */
+        byte[] compress(byte[] bytes, BytesAdapter adapter);
+    }
 }
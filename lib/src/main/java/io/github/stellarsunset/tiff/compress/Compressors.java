@@ -39,6 +39,30 @@ public final class Compressors {
         return compressor;
     }
 
+    /**
+     * Returns the {@link Compressor.Encoder} instance registered with the given int code (unsigned short), for use when
+     * writing files.
+     *
+     * @param code the int id of the compressor instance to return
+     * @throws IllegalArgumentException if no compressor is registered for the code or it doesn't support encoding
+     */
+    public Compressor.Encoder encoderFor(int code) {
+        if (compressorFor(code) instanceof Compressor.Encoder encoder) {
+            return encoder;
+        }
+
+        String known = registry.entrySet().stream()
+                .filter(e -> e.getValue() instanceof Compressor.Encoder)
+                .map(e -> Integer.toString(e.getKey())).collect(joining(","));
+
+        String message = String.format("Compressor for code: %s doesn't support encoding. Known encoding codes are: %s.",
+                code,
+                known
+        );
+
+        throw new IllegalArgumentException(message);
+    }
+
     /**
      * Register a new compressor for a given short code, clients should use this if a compression type not supported by
      * default is encountered.
@@ -57,7 +81,9 @@ public final class Compressors {
                 1, Compressor.uncompressed(),
                 2, Compressor.modifiedHuffman(),
                 5, Compressor.lzw(),
-                32773, Compressor.packBits()
+                8, Compressor.deflate(),
+                32773, Compressor.packBits(),
+                32946, Compressor.deflate()
         );
 
         return new ConcurrentHashMap<>(baseline);
@@ -0,0 +1,152 @@
+package io.github.stellarsunset.tiff.compress;
+
+import io.github.stellarsunset.tiff.BytesAdapter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate (zlib) compression, registered under both the official code (8) and the obsolete Adobe code (32946) which
+ * is still emitted by many writers, e.g. GDAL's {@code COMPRESS=DEFLATE}.
+ *
+ * <p>See the <a href="https://www.adobe.io/content/dam/udp/en/open/standards/tiff/TIFFphotoshop.pdf">Adobe Photoshop
+ * TIFF Technical Notes</a> for details.
+ *
+ * <p>{@link Inflater}s hold native memory so rather than creating one per chunk they're borrowed from a small shared
+ * pool and reset between uses.
+ */
+record Deflate() implements Compressor.Encoder {
+
+    private static final InflaterPool POOL = new InflaterPool(Runtime.getRuntime().availableProcessors() * 2);
+
+    @Override
+    public byte[] decompress(byte[] bytes, BytesAdapter adapter) {
+        return decompress(ByteBuffer.wrap(bytes), adapter);
+    }
+
+    /**
+     * Without a known output size inflate into a guessed capacity, growing it as required.
+     */
+    @Override
+    public byte[] decompress(ByteBuffer bytes, BytesAdapter adapter) {
+        Inflater inflater = POOL.borrow();
+        try {
+            inflater.setInput(bytes.duplicate());
+
+            byte[] output = new byte[Math.max(1024, bytes.remaining() * 4)];
+            int length = 0;
+
+            while (!inflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                int inflated = inflater.inflate(output, length, output.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+
+            return Arrays.copyOf(output, length);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflate-compressed data.", e);
+        } finally {
+            POOL.release(inflater);
+        }
+    }
+
+    @Override
+    public int decompress(ByteBuffer src, ByteBuffer dst, BytesAdapter adapter) {
+        Inflater inflater = POOL.borrow();
+        try {
+            inflater.setInput(src.duplicate());
+
+            int start = dst.position();
+            while (!inflater.finished() && dst.hasRemaining()) {
+                if (inflater.inflate(dst) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+
+            return dst.position() - start;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflate-compressed data.", e);
+        } finally {
+            POOL.release(inflater);
+        }
+    }
+
+    /**
+     * Compression is much less common than decompression, so deflaters are created per call and released immediately.
+     */
+    @Override
+    public byte[] compress(byte[] bytes, BytesAdapter adapter) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            byte[] output = new byte[Math.max(1024, bytes.length / 2)];
+            int length = 0;
+
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+
+            return Arrays.copyOf(output, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Bounded pool of {@link Inflater}s, inflaters returned to a full pool are released immediately.
+     *
+     * <p>A pool is used rather than a thread-local so decoding on short-lived (e.g. virtual) threads doesn't leave native
+     * memory waiting on the garbage collector.
+     */
+    static final class InflaterPool {
+
+        private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final int maximumSize;
+
+        InflaterPool(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        Inflater borrow() {
+            Inflater inflater = inflaters.poll();
+            if (inflater == null) {
+                return new Inflater();
+            }
+            size.decrementAndGet();
+            return inflater;
+        }
+
+        void release(Inflater inflater) {
+            inflater.reset();
+            if (size.incrementAndGet() <= maximumSize) {
+                inflaters.offer(inflater);
+            } else {
+                size.decrementAndGet();
+                inflater.end();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+}
@@ -2,18 +2,23 @@ package io.github.stellarsunset.tiff.compress;
 
 import io.github.stellarsunset.tiff.BytesAdapter;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 /**
- * This implementation is taken almost verbatim from the LZW Decoding appending of the TIFF 6.0 specification.
+ * This implementation follows the LZW Decoding appendix of the TIFF 6.0 specification.
  *
  * <p>See <a href="https://www.itu.int/itudoc/itu-t/com16/tiff-fx/docs/tiff6.pdf">here</a>.
+ *
+ * <p>Rather than storing the full byte sequence for each code the {@link CodeTable} records where in the output the
+ * sequence for each code was previously written, every code's sequence is a previously decoded sequence plus the first
+ * byte decoded after it. Decoding a code is then a single copy from earlier in the output and tables are reused across
+ * calls (one per thread), so decoding into a caller-provided buffer allocates nothing.
  */
-record Lzw() implements Compressor {
+record Lzw() implements Compressor.Encoder {
 
     /**
      * Clear code - i.e. reset and wipe the dictionary.
@@ -25,152 +30,421 @@ record Lzw() implements Compressor {
      */
     private static final short EOI_CODE = 257;
 
+    /**
+     * Code tables are mutable, but expensive enough to allocate that we don't want one per call.
+     */
+    private static final ThreadLocal<CodeTable> TABLES = ThreadLocal.withInitial(CodeTable::new);
+
+    /**
+     * Encoding equivalent of {@link #TABLES}.
+     */
+    private static final ThreadLocal<StringTable> STRING_TABLES = ThreadLocal.withInitial(StringTable::new);
+
     @Override
     public byte[] decompress(byte[] bytes, BytesAdapter adapter) {
-        try {
-            return decompressSafely(bytes);
-        } catch (IOException e) {
-            throw new IllegalArgumentException();
+        return decompress(ByteBuffer.wrap(bytes), adapter);
+    }
+
+    /**
+     * Without a known output size decode into a guessed capacity, retrying with a larger buffer if it's too small.
+     */
+    @Override
+    public byte[] decompress(ByteBuffer bytes, BytesAdapter adapter) {
+
+        CodeTable table = TABLES.get();
+
+        byte[] output = new byte[initialCapacity(bytes.remaining())];
+        int length;
+
+        while ((length = decompress(bytes, table, output, 0, output.length)) == output.length) {
+            output = new byte[output.length * 2];
         }
+
+        return Arrays.copyOf(output, length);
     }
 
-    private byte[] decompressSafely(byte[] bytes) throws IOException {
-        ByteArrayOutputStream decodedStream = new ByteArrayOutputStream();
+    @Override
+    public int decompress(ByteBuffer src, ByteBuffer dst, BytesAdapter adapter) {
+
+        int length;
+        if (dst.hasArray()) {
+            length = decompress(src, TABLES.get(), dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+        } else {
+            byte[] output = new byte[dst.remaining()];
+            length = decompress(src, TABLES.get(), output, 0, output.length);
+            dst.put(dst.position(), output, 0, length);
+        }
+
+        dst.position(dst.position() + length);
+        return length;
+    }
 
-        CodeTable table = new CodeTable();
+    /**
+     * Decompress the bytes into the provided region of the output array, returning the number of bytes written.
+     *
+     * <p>Decoding stops once the region is full, a sequence which would overrun the region is truncated.
+     *
+     * @param bytes  the compressed bytes
+     * @param table  the (reusable) code table to use while decoding
+     * @param output the array to write decompressed bytes into
+     * @param offset the offset of the first byte of the region in the output
+     * @param limit  the maximum number of bytes to write
+     */
+    static int decompress(ByteBuffer bytes, CodeTable table, byte[] output, int offset, int limit) {
+
+        table.reset();
         BitsInStream in = new BitsInStream(bytes);
 
-        short previousCode = 0;
-        short code = in.readBitsAsShort(table.codeBits());
+        int position = offset;
+        int end = offset + limit;
 
-        while (code != EOI_CODE) {
-            if (code == CLEAR_CODE) {
-                table = new CodeTable();
+        int previousCode = -1;
+        int previousOffset = 0;
+        int previousLength = 0;
 
-                code = in.readBitsAsShort(table.codeBits());
-                if (code == EOI_CODE) {
-                    break;
-                }
+        while (position < end && in.bitsRemaining() >= table.codeBits()) {
 
-                decodedStream.write(table.bytesForCode(code));
+            int code = in.readBitsAsShort(table.codeBits());
+
+            if (code == EOI_CODE) {
+                break;
+            }
+
+            if (code == CLEAR_CODE) {
+                table.reset();
+                previousCode = -1;
+                continue;
+            }
+
+            int length;
+            if (code < CLEAR_CODE) {
+                length = 1;
+                output[position] = (byte) code;
+            } else if (table.containsCode(code)) {
+                length = table.length(code);
+                System.arraycopy(output, table.offset(code), output, position, Math.min(length, end - position));
             } else {
-                if (table.containsCode(code)) {
-                    byte[] seq = table.bytesForCode(code);
-                    decodedStream.write(seq);
-
-                    byte[] newSeq = appendByte(table.bytesForCode(previousCode), seq[0]);
-                    table.addNextCode(newSeq);
-                } else {
-                    byte[] seq = table.bytesForCode(previousCode);
-                    byte[] newSeq = appendByte(seq, seq[0]);
-
-                    decodedStream.write(newSeq);
-                    table.addNextCode(newSeq);
+                checkArgument(previousCode != -1 && code == table.nextCode(),
+                        "Invalid LZW code %s, next code in table is %s", code, table.nextCode());
+
+                // the previous sequence plus its own first byte, the sequence immediately precedes the output position
+                length = previousLength + 1;
+                System.arraycopy(output, previousOffset, output, position, Math.min(previousLength, end - position));
+                if (position + previousLength < end) {
+                    output[position + previousLength] = output[previousOffset];
                 }
             }
+
+            // the new code is the previous sequence plus the first byte of this one, which directly follows it
+            if (previousCode != -1) {
+                table.addNextCode(previousOffset, previousLength + 1);
+            }
+
             previousCode = code;
-            code = in.readBitsAsShort(table.codeBits());
+            previousOffset = position;
+            previousLength = length;
+
+            position = Math.min(position + length, end);
         }
 
-        return decodedStream.toByteArray();
+        return position - offset;
     }
 
-    static byte[] appendByte(byte[] bytes, byte b) {
-        byte[] a = new byte[bytes.length + 1];
-        System.arraycopy(bytes, 0, a, 0, bytes.length);
-        a[a.length - 1] = b;
-        return a;
+    /**
+     * Encode the bytes following the same conventions as the decoder, i.e. the code width changes one code "early" and
+     * the table is cleared before it overflows.
+     */
+    @Override
+    public byte[] compress(byte[] bytes, BytesAdapter adapter) {
+
+        StringTable table = STRING_TABLES.get().reset();
+        BitsOutStream out = new BitsOutStream(bytes.length / 2 + 16);
+
+        out.writeBits(CLEAR_CODE, table.codeBits());
+
+        if (bytes.length > 0) {
+
+            int prefix = Byte.toUnsignedInt(bytes[0]);
+
+            for (int i = 1; i < bytes.length; i++) {
+                int next = Byte.toUnsignedInt(bytes[i]);
+
+                int code = table.find(prefix, next);
+                if (code != -1) {
+                    prefix = code;
+                    continue;
+                }
+
+                out.writeBits(prefix, table.codeBits());
+                table.addNextCode(prefix, next);
+
+                if (table.isFull()) {
+                    out.writeBits(CLEAR_CODE, table.codeBits());
+                    table.reset();
+                }
+
+                prefix = next;
+            }
+
+            out.writeBits(prefix, table.codeBits());
+            // the decoder adds a code on reading the final one, which may bump the width of the end of information code
+            table.skipNextCode();
+        }
+
+        out.writeBits(EOI_CODE, table.codeBits());
+        return out.toByteArray();
     }
 
+    /**
+     * Without any other information LZW compression ratios on TIFF image data tend to be in the 2-4x range.
+     */
+    private static int initialCapacity(int compressedLength) {
+        return Math.max(1024, compressedLength * 4);
+    }
+
+    /**
+     * The LZW code table, each code past the literal codes maps to a sequence of bytes earlier in the decoded output.
+     *
+     * <p>Codes are stored as the (offset, length) of a previous occurrence of their sequence in the output.
+     */
     static final class CodeTable {
 
-        /**
-         * The base prefix table to start with in LZW decoding.
-         */
-        private static final byte[][] BASE = baseTable();
+        private static final int MAX_CODES = 4096;
+
+        private final int[] offsets = new int[MAX_CODES];
+
+        private final int[] lengths = new int[MAX_CODES];
 
         /**
-         * Mapping from a short, containing the 9-12 bit code
-         */
-        private final byte[][] table;
-        /**
-         * The current highest code value in the table.
+         * The next code to be added to the table.
          */
-        private short currentMaxCode;
+        private int nextCode;
+
         /**
          * The number of bits required to represent the maximum code value.
          */
         private int codeBits;
 
         CodeTable() {
-            this.table = initializeCodeTable();
-            this.currentMaxCode = 257;
+            reset();
+        }
+
+        /**
+         * Wipe the dictionary back to only the literal codes, the tables themselves are left in place and overwritten.
+         */
+        CodeTable reset() {
+            this.nextCode = EOI_CODE + 1;
             this.codeBits = 9;
+            return this;
+        }
+
+        int codeBits() {
+            return codeBits;
+        }
+
+        int nextCode() {
+            return nextCode;
+        }
+
+        boolean containsCode(int code) {
+            return code < CLEAR_CODE || (EOI_CODE < code && code < nextCode);
+        }
+
+        int offset(int code) {
+            return offsets[code];
+        }
+
+        int length(int code) {
+            return code < CLEAR_CODE ? 1 : lengths[code];
         }
 
-        private static byte[][] initializeCodeTable() {
-            return new byte[4096][0];
+        /**
+         * Add a new code for the sequence at the given offset in the output, once the table is full further codes are
+         * dropped until the encoder emits a {@link #CLEAR_CODE}.
+         */
+        CodeTable addNextCode(int offset, int length) {
+            if (nextCode < MAX_CODES) {
+                offsets[nextCode] = offset;
+                lengths[nextCode] = length;
+                incrementNextCode();
+            }
+            return this;
         }
 
-        private static byte[][] baseTable() {
-            byte[][] bytes = new byte[258][0];
-            for (int i = 0; i <= 257; i++) {
-                bytes[i] = new byte[]{(byte) i};
+        /**
+         * Increment the next code + check and update the current code bits.
+         */
+        private void incrementNextCode() {
+            nextCode++;
+            if (nextCode >= 511) {
+                codeBits = 10;
+            }
+            if (nextCode >= 1023) {
+                codeBits = 11;
+            }
+            if (nextCode >= 2047) {
+                codeBits = 12;
             }
-            return bytes;
         }
+    }
+
+    /**
+     * The encoder-side string table, maps a (prefix code, next byte) pair to the code for the combined sequence.
+     *
+     * <p>Pairs are stored in a small open-addressed hash table which is cleared along with the codes.
+     */
+    static final class StringTable {
 
-        public int codeBits() {
+        /**
+         * Encoders clear the table before the decoder would run out of codes.
+         */
+        private static final int MAX_CODE = 4093;
+
+        private static final int SLOTS = 8192;
+
+        /**
+         * The {@code (prefix << 8 | next) + 1} key in each slot, zero for empty slots.
+         */
+        private final int[] keys = new int[SLOTS];
+
+        private final short[] codes = new short[SLOTS];
+
+        private int nextCode;
+
+        private int codeBits;
+
+        StringTable() {
+            reset();
+        }
+
+        StringTable reset() {
+            Arrays.fill(keys, 0);
+            this.nextCode = EOI_CODE + 1;
+            this.codeBits = 9;
+            return this;
+        }
+
+        int codeBits() {
             return codeBits;
         }
 
-        public boolean containsCode(short code) {
-            return code <= currentMaxCode;
+        boolean isFull() {
+            return nextCode > MAX_CODE;
         }
 
-        public byte[] bytesForCode(short code) {
-            return code <= 257 ? BASE[code] : table[code];
+        /**
+         * Returns the code for the prefix sequence followed by the byte, or -1 if there isn't one.
+         */
+        int find(int prefix, int next) {
+            int key = (prefix << 8 | next) + 1;
+            for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & (SLOTS - 1)) {
+                if (keys[slot] == key) {
+                    return codes[slot];
+                }
+            }
+            return -1;
         }
 
-        public CodeTable addNextCode(byte[] bytes) {
-            table[incrementMaxCode()] = bytes;
-            return this;
+        StringTable addNextCode(int prefix, int next) {
+            int key = (prefix << 8 | next) + 1;
+            int slot = slot(key);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & (SLOTS - 1);
+            }
+            keys[slot] = key;
+            codes[slot] = (short) nextCode;
+            return skipNextCode();
         }
 
         /**
-         * Increment and return the new maximum code in the code table + check and update the current code bits.
+         * Increment the next code without adding a sequence to the table, the decoder lags the encoder by one code so
+         * code widths change once the next code reaches 512/1024/2048 rather than 511/1023/2047 (see {@link CodeTable}).
          */
-        private short incrementMaxCode() {
-            currentMaxCode++;
-            if (currentMaxCode >= 510) {
+        StringTable skipNextCode() {
+            nextCode++;
+            if (nextCode >= 512) {
                 codeBits = 10;
             }
-            if (currentMaxCode >= 1022) {
+            if (nextCode >= 1024) {
                 codeBits = 11;
             }
-            if (currentMaxCode >= 2046) {
+            if (nextCode >= 2048) {
                 codeBits = 12;
             }
-            return currentMaxCode;
+            return this;
+        }
+
+        private static int slot(int key) {
+            return (key * 0x9E3779B1) >>> 19;
+        }
+    }
+
+    static final class BitsOutStream {
+
+        private byte[] bytes;
+
+        private int length;
+
+        private long bits;
+
+        private int bitCount;
+
+        BitsOutStream(int initialCapacity) {
+            this.bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        BitsOutStream writeBits(int value, int bitsToWrite) {
+            bits = (bits << bitsToWrite) | value;
+            bitCount += bitsToWrite;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                writeByte((int) (bits >>> bitCount));
+            }
+            return this;
+        }
+
+        /**
+         * Returns the written bytes, any trailing partial byte is padded out with zeros.
+         */
+        byte[] toByteArray() {
+            if (bitCount > 0) {
+                writeByte((int) (bits << (8 - bitCount)));
+                bitCount = 0;
+            }
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void writeByte(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) value;
         }
     }
 
     static final class BitsInStream {
 
-        private final byte[] bytes;
+        private final ByteBuffer bytes;
 
-        private int totalBits;
+        private final int start;
+
+        private final int length;
 
         private int bitOffset;
 
         BitsInStream(byte[] bytes) {
+            this(ByteBuffer.wrap(bytes));
+        }
+
+        BitsInStream(ByteBuffer bytes) {
             this.bytes = requireNonNull(bytes);
-            this.totalBits = bytes.length * 8;
+            this.start = bytes.position();
+            this.length = bytes.remaining();
             this.bitOffset = 0;
         }
 
         int bitsRemaining() {
-            return totalBits - bitOffset;
+            return length * 8 - bitOffset;
         }
 
         BitsInStream bitOffset(int newOffset) {
@@ -181,42 +455,24 @@ record Lzw() implements Compressor {
         /**
          * A short is long enough to safely contain the 9-12 bit codes used to alias byte sequences in the file.
          *
-         * <p>Force {@code [8, 16]} as the range to make the logic simpler.
+         * <p>Force {@code [8, 16]} as the range to make the logic simpler, the requested bits always lie within the three
+         * bytes starting at the current byte offset. Bytes past the end of the stream are treated as zeros.
          */
         short readBitsAsShort(int bitsToRead) {
             checkArgument(8 <= bitsToRead && bitsToRead <= 16);
 
-            int i = Math.floorDiv(bitOffset, 8);
-            int r = bitOffset - (i * 8);
-
-            int lo = Byte.toUnsignedInt(bytes[i]);
-            int mi = Byte.toUnsignedInt(bytes[i + 1]);
-
-            // need to shift low left to make room to its right for the rest of bitsToRead
-            int bitsFromLo = (8 - r);
-            int loShift = bitsToRead - bitsFromLo;
-
-            int bits = trimBitsLeftOf(lo, r) << loShift;
-
-            if (loShift > 8) {
+            int i = bitOffset >>> 3;
+            int r = bitOffset & 7;
 
-                int miShift = loShift - 8;
-                bits = bits | (mi << miShift);
-
-                int hi = Byte.toUnsignedInt(bytes[i + 2]);
-                bits = bits | (hi >>> (8 - miShift));
-
-            } else {
-                bits = bits | (mi >>> (8 - loShift));
-            }
+            int window = (byteAt(i) << 16) | (byteAt(i + 1) << 8) | byteAt(i + 2);
+            int bits = (window >>> (24 - r - bitsToRead)) & ((1 << bitsToRead) - 1);
 
             bitOffset += bitsToRead;
             return (short) bits;
         }
 
-        static int trimBitsLeftOf(int value, int pos) {
-            int shift = 24 + pos;
-            return (value << shift) >>> shift;
+        private int byteAt(int i) {
+            return i < length ? Byte.toUnsignedInt(bytes.get(start + i)) : 0;
         }
     }
 }
@@ -3,6 +3,7 @@ package io.github.stellarsunset.tiff.compress;
 import io.github.stellarsunset.tiff.BytesAdapter;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 
 import static java.util.Objects.requireNonNull;
 
@@ -10,9 +11,14 @@ import static java.util.Objects.requireNonNull;
  * See <a href="https://www.itu.int/itudoc/itu-t/com16/tiff-fx/docs/tiff6.pdf">Section 9</a> for a description of the PackBits
  * compression algorithm.
  */
-record PackBits() implements Compressor {
+record PackBits() implements Compressor.Encoder {
     @Override
     public byte[] decompress(byte[] bytes, BytesAdapter adapter) {
+        return decompress(ByteBuffer.wrap(bytes), adapter);
+    }
+
+    @Override
+    public byte[] decompress(ByteBuffer bytes, BytesAdapter adapter) {
 
         Reader reader = new Reader(bytes, adapter);
         ByteArrayOutputStream decodedStream = new ByteArrayOutputStream();
@@ -36,25 +42,88 @@ record PackBits() implements Compressor {
         return decodedStream.toByteArray();
     }
 
+    @Override
+    public int decompress(ByteBuffer src, ByteBuffer dst, BytesAdapter adapter) {
+
+        Reader reader = new Reader(src, adapter);
+        int start = dst.position();
+
+        while (reader.hasByte() && dst.hasRemaining()) {
+            int header = reader.readByte();
+            if (header != -128) {
+                if (0 <= header) {
+                    for (int i = 0; i <= header && reader.hasByte() && dst.hasRemaining(); i++) {
+                        dst.put(reader.readByte());
+                    }
+                } else {
+                    byte next = reader.readByte();
+                    for (int i = 0; i <= -header && dst.hasRemaining(); i++) {
+                        dst.put(next);
+                    }
+                }
+            }
+        }
+
+        return dst.position() - start;
+    }
+
+    /**
+     * Encode runs of two or more identical bytes as replicate runs and everything else as literal runs, both are capped at
+     * the maximum of 128 bytes per run.
+     */
+    @Override
+    public byte[] compress(byte[] bytes, BytesAdapter adapter) {
+
+        ByteArrayOutputStream encodedStream = new ByteArrayOutputStream(bytes.length + bytes.length / 128 + 1);
+
+        int i = 0;
+        while (i < bytes.length) {
+
+            int run = 1;
+            while (i + run < bytes.length && run < 128 && bytes[i + run] == bytes[i]) {
+                run++;
+            }
+
+            if (run > 1) {
+                encodedStream.write(1 - run);
+                encodedStream.write(adapter.adaptRawByte(bytes[i]));
+                i += run;
+            } else {
+                int end = i + 1;
+                while (end < bytes.length && end - i < 128 && (end + 1 == bytes.length || bytes[end] != bytes[end + 1])) {
+                    end++;
+                }
+                encodedStream.write(end - i - 1);
+                for (int j = i; j < end; j++) {
+                    encodedStream.write(adapter.adaptRawByte(bytes[j]));
+                }
+                i = end;
+            }
+        }
+
+        return encodedStream.toByteArray();
+    }
+
     private static final class Reader {
 
-        private final byte[] bytes;
+        private final ByteBuffer bytes;
 
         private final BytesAdapter adapter;
 
-        private int offset = 0;
+        private int offset;
 
-        private Reader(byte[] bytes, BytesAdapter adapter) {
+        private Reader(ByteBuffer bytes, BytesAdapter adapter) {
             this.bytes = requireNonNull(bytes);
             this.adapter = requireNonNull(adapter);
+            this.offset = bytes.position();
         }
 
         boolean hasByte() {
-            return offset < bytes.length;
+            return offset < bytes.limit();
         }
 
         byte readByte() {
-            byte b = adapter.adaptRawByte(bytes[offset]);
+            byte b = adapter.adaptRawByte(bytes.get(offset));
             offset++;
             return b;
         }
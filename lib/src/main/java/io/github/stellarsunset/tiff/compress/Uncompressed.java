@@ -2,9 +2,24 @@ package io.github.stellarsunset.tiff.compress;
 
 import io.github.stellarsunset.tiff.BytesAdapter;
 
-record Uncompressed() implements Compressor {
+import java.nio.ByteBuffer;
+
+record Uncompressed() implements Compressor.Encoder {
     @Override
     public byte[] decompress(byte[] bytes, BytesAdapter adapter) {
         return bytes;
     }
+
+    @Override
+    public byte[] compress(byte[] bytes, BytesAdapter adapter) {
+        return bytes;
+    }
+
+    @Override
+    public int decompress(ByteBuffer src, ByteBuffer dst, BytesAdapter adapter) {
+        int length = Math.min(src.remaining(), dst.remaining());
+        dst.put(dst.position(), src, src.position(), length);
+        dst.position(dst.position() + length);
+        return length;
+    }
 }
@@ -3,6 +3,7 @@ package io.github.stellarsunset.tiff.extension;
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Image;
 import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.TiffFile;
 import io.github.stellarsunset.tiff.baseline.BaselineImage;
 import io.github.stellarsunset.tiff.baseline.ImageDimensions;
 import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
@@ -10,6 +11,11 @@ import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * An image containing 8-bit byte data.
@@ -28,6 +34,53 @@ public sealed interface ByteImage extends DataImage {
         return new Maker();
     }
 
+    static Image.Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
+    /**
+     * Returns a maker which decodes each image directly into a single flat array of samples rather than an array per row,
+     * see {@link FlatByteImage}.
+     */
+    static Image.Maker flatMaker() {
+        return new FlatMaker();
+    }
+
+    static Image.Maker flatMaker(Executor executor) {
+        return new FlatMaker(executor);
+    }
+
+    /**
+     * Sample the pixel at each of the provided (row, col) points of the nth image in the file into the output array, the
+     * samples of the ith point are written starting at {@code out[i * componentsPerPixel]}.
+     *
+     * <p>Unlike repeated calls to {@link #valueAt(int, int)} the full raster is never materialized, the points are grouped
+     * by the strip/tile they fall in and only strips/tiles containing at least one point are read and decoded (once each),
+     * see {@link Raster.Reader#sample(SeekableByteChannel, ByteOrder, Ifd, int[], int[])}.
+     */
+    static void sample(TiffFile file, int n, int[] rows, int[] cols, byte[] out) {
+        sample(file, n, rows, cols, out, directExecutor());
+    }
+
+    /**
+     * Sample the pixel at each of the provided points of the nth image in the file, decoding the strips/tiles containing
+     * the points concurrently on the provided executor, see {@link #sample(TiffFile, int, int[], int[], byte[])}.
+     */
+    static void sample(TiffFile file, int n, int[] rows, int[] cols, byte[] out, Executor executor) {
+
+        Ifd ifd = file.ifd(n);
+        int componentsPerPixel = SamplesPerPixel.get(ifd);
+
+        checkArgument(out.length >= rows.length * componentsPerPixel,
+                "Output should hold (%s) samples for (%s) points, was (%s)", rows.length * componentsPerPixel, rows.length, out.length);
+
+        byte[] samples = Raster.Reader.bytes(componentsPerPixel, executor)
+                .sample(file.channel(), file.header().order(), ifd, rows, cols)
+                .bytes()[0];
+
+        System.arraycopy(samples, 0, out, 0, samples.length);
+    }
+
     @Override
     Pixel valueAt(int row, int col);
 
@@ -118,20 +171,59 @@ public sealed interface ByteImage extends DataImage {
         }
     }
 
-    record Maker() implements Image.Maker {
+    /**
+     * A {@link ByteImage} backed by a single flat array of samples (see {@link Raster.FlatBytes}) rather than an array
+     * per row, which keeps the number of objects per image constant for tall images.
+     *
+     * <p>Pixels are the same types as those of the {@link Byte1Image}, {@link Byte3Image} and {@link ByteNImage} with
+     * the same number of components.
+     */
+    record FlatByteImage(ImageDimensions dimensions, Raster.FlatBytes raster) implements ByteImage {
+
+        public FlatByteImage {
+            dimensions.checkBounds(raster.length(), raster.stride(), raster.componentsPerPixel());
+        }
+
+        @Override
+        public ByteImage.Pixel valueAt(int row, int col) {
+            Objects.checkIndex(col, (int) dimensions.width());
+
+            byte[] bytes = raster.bytes();
+            int componentsPerPixel = raster.componentsPerPixel();
+            int offset = row * raster.stride() + col * componentsPerPixel;
+
+            return switch (componentsPerPixel) {
+                case 1 -> new Byte1Image.Pixel(bytes[offset]);
+                case 3 -> new Byte3Image.Pixel(bytes[offset], bytes[offset + 1], bytes[offset + 2]);
+                default -> new ByteNImage.Pixel(Arrays.copyOfRange(bytes, offset, offset + componentsPerPixel));
+            };
+        }
+    }
+
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public ByteImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public ByteImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
 
             int componentsPerPixel = SamplesPerPixel.get(ifd);
 
-            Raster.Bytes bytes = Raster.Reader.bytes(componentsPerPixel).readRaster(
+            Raster.Bytes bytes = Raster.Reader.bytes(componentsPerPixel, executor).readRaster(
                     channel,
                     order,
-                    ifd
+                    ifd,
+                    window
             );
 
-            ImageDimensions dimensions = ImageDimensions.get(ifd);
+            ImageDimensions dimensions = window.dimensions();
 
             return switch (componentsPerPixel) {
                 case 1 -> new Byte1Image(dimensions, bytes.bytes());
@@ -140,4 +232,22 @@ public sealed interface ByteImage extends DataImage {
             };
         }
     }
+
+    record FlatMaker(Executor executor) implements Image.Maker {
+
+        public FlatMaker() {
+            this(directExecutor());
+        }
+
+        @Override
+        public FlatByteImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public FlatByteImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+            Raster.FlatBytes bytes = Raster.Reader.bytes(SamplesPerPixel.get(ifd), executor).readFlat(channel, order, ifd, window);
+            return new FlatByteImage(window.dimensions(), bytes);
+        }
+    }
 }
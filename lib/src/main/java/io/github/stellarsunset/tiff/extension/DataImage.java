@@ -2,6 +2,8 @@ package io.github.stellarsunset.tiff.extension;
 
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Image;
+import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.TiffFile;
 import io.github.stellarsunset.tiff.baseline.BaselineImage;
 import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
 import io.github.stellarsunset.tiff.extension.tag.SampleFormat;
@@ -9,9 +11,11 @@ import io.github.stellarsunset.tiff.extension.tag.SampleFormat;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.stream.Collectors.toSet;
 
 /**
@@ -29,6 +33,39 @@ public sealed interface DataImage extends ExtensionImage permits ByteImage, Shor
         return new Maker();
     }
 
+    /**
+     * Returns a maker which decodes the strips or tiles of each image concurrently on the provided executor, see
+     * {@link io.github.stellarsunset.tiff.Raster.Reader}.
+     */
+    static Image.Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
+    /**
+     * Returns a maker which decodes each image directly into a single flat array of samples rather than an array per row,
+     * e.g. a {@link FloatImage.FlatFloatImage}.
+     */
+    static Image.Maker flatMaker() {
+        return flatMaker(directExecutor());
+    }
+
+    static Image.Maker flatMaker(Executor executor) {
+        return new Maker(
+                ByteImage.flatMaker(executor),
+                ShortImage.flatMaker(executor),
+                IntImage.flatMaker(executor),
+                FloatImage.flatMaker(executor)
+        );
+    }
+
+    /**
+     * Reads only the provided {@link Raster.Window} of the nth image in the file as a {@link DataImage}, decoding just the
+     * strips/tiles of the image which intersect the window.
+     */
+    static Image readWindow(TiffFile file, int n, Raster.Window window) {
+        return new Maker().makeImage(file.channel(), file.header().order(), file.ifd(n), window);
+    }
+
     @Override
     Pixel valueAt(int row, int column);
 
@@ -38,16 +75,30 @@ public sealed interface DataImage extends ExtensionImage permits ByteImage, Shor
     record Maker(Image.Maker bytes, Image.Maker shorts, Image.Maker ints, Image.Maker floats) implements Image.Maker {
 
         public Maker() {
+            this(directExecutor());
+        }
+
+        public Maker(Executor executor) {
             this(
-                    ByteImage.maker(),
-                    ShortImage.maker(),
-                    IntImage.maker(),
-                    FloatImage.maker()
+                    ByteImage.maker(executor),
+                    ShortImage.maker(executor),
+                    IntImage.maker(executor),
+                    FloatImage.maker(executor)
             );
         }
 
         @Override
         public Image makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            Image.Maker maker = makerFor(ifd);
+            return Image.lazy(() -> maker.makeImage(channel, order, ifd));
+        }
+
+        @Override
+        public Image makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+            return makerFor(ifd).makeImage(channel, order, ifd, window);
+        }
+
+        private Image.Maker makerFor(Ifd ifd) {
 
             int[] samples = BitsPerSample.get(ifd);
             checkAllEqual(samples, "Should be exactly one component pixel width in the array, instead got %s");
@@ -58,16 +109,14 @@ public sealed interface DataImage extends ExtensionImage permits ByteImage, Shor
             int bitsPerSample = samples[0];
             int format = formats[0];
 
-            Image.Maker maker = switch (bitsPerSample) {
-                case 8 -> bytes;
+            return switch (bitsPerSample) {
+                case 1, 2, 4, 8 -> bytes;
                 case 16 -> shorts;
                 case 32 -> format == 3 ? floats : ints;
                 default -> throw new IllegalArgumentException(
-                        String.format("Unable to handle odd bits-per-sample count %s, should be 8, 16, or 32.", bitsPerSample)
+                        String.format("Unable to handle odd bits-per-sample count %s, should be 1, 2, 4, 8, 16, or 32.", bitsPerSample)
                 );
             };
-
-            return Image.lazy(() -> maker.makeImage(channel, order, ifd));
         }
 
         static void checkAllEqual(int[] samples, String messageFormat) {
@@ -3,12 +3,18 @@ package io.github.stellarsunset.tiff.extension;
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Image;
 import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.TiffFile;
 import io.github.stellarsunset.tiff.baseline.ImageDimensions;
 import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * An image containing 32-bit floating-point data.
@@ -27,6 +33,53 @@ public sealed interface FloatImage extends DataImage {
         return new Maker();
     }
 
+    static Image.Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
+    /**
+     * Returns a maker which decodes each image directly into a single flat array of samples rather than an array per row,
+     * see {@link FlatFloatImage}.
+     */
+    static Image.Maker flatMaker() {
+        return new FlatMaker();
+    }
+
+    static Image.Maker flatMaker(Executor executor) {
+        return new FlatMaker(executor);
+    }
+
+    /**
+     * Sample the pixel at each of the provided (row, col) points of the nth image in the file into the output array, the
+     * samples of the ith point are written starting at {@code out[i * componentsPerPixel]}.
+     *
+     * <p>Unlike repeated calls to {@link #valueAt(int, int)} the full raster is never materialized, the points are grouped
+     * by the strip/tile they fall in and only strips/tiles containing at least one point are read and decoded (once each),
+     * see {@link Raster.Reader#sample(SeekableByteChannel, ByteOrder, Ifd, int[], int[])}.
+     */
+    static void sample(TiffFile file, int n, int[] rows, int[] cols, float[] out) {
+        sample(file, n, rows, cols, out, directExecutor());
+    }
+
+    /**
+     * Sample the pixel at each of the provided points of the nth image in the file, decoding the strips/tiles containing
+     * the points concurrently on the provided executor, see {@link #sample(TiffFile, int, int[], int[], float[])}.
+     */
+    static void sample(TiffFile file, int n, int[] rows, int[] cols, float[] out, Executor executor) {
+
+        Ifd ifd = file.ifd(n);
+        int componentsPerPixel = SamplesPerPixel.get(ifd);
+
+        checkArgument(out.length >= rows.length * componentsPerPixel,
+                "Output should hold (%s) samples for (%s) points, was (%s)", rows.length * componentsPerPixel, rows.length, out.length);
+
+        float[] samples = Raster.Reader.floats(componentsPerPixel, executor)
+                .sample(file.channel(), file.header().order(), ifd, rows, cols)
+                .floats()[0];
+
+        System.arraycopy(samples, 0, out, 0, samples.length);
+    }
+
     @Override
     Pixel valueAt(int row, int col);
 
@@ -100,20 +153,59 @@ public sealed interface FloatImage extends DataImage {
         }
     }
 
-    record Maker() implements Image.Maker {
+    /**
+     * A {@link FloatImage} backed by a single flat array of samples (see {@link Raster.FlatFloats}) rather than an array
+     * per row, which keeps the number of objects per image constant for tall images.
+     *
+     * <p>Pixels are the same types as those of the {@link Float1Image}, {@link Float3Image} and {@link FloatNImage} with
+     * the same number of components.
+     */
+    record FlatFloatImage(ImageDimensions dimensions, Raster.FlatFloats raster) implements FloatImage {
+
+        public FlatFloatImage {
+            dimensions.checkBounds(raster.length(), raster.stride(), raster.componentsPerPixel());
+        }
+
+        @Override
+        public FloatImage.Pixel valueAt(int row, int col) {
+            Objects.checkIndex(col, (int) dimensions.width());
+
+            float[] floats = raster.floats();
+            int componentsPerPixel = raster.componentsPerPixel();
+            int offset = row * raster.stride() + col * componentsPerPixel;
+
+            return switch (componentsPerPixel) {
+                case 1 -> new Float1Image.Pixel(floats[offset]);
+                case 3 -> new Float3Image.Pixel(floats[offset], floats[offset + 1], floats[offset + 2]);
+                default -> new FloatNImage.Pixel(Arrays.copyOfRange(floats, offset, offset + componentsPerPixel));
+            };
+        }
+    }
+
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public FloatImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public FloatImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
 
             int componentsPerPixel = SamplesPerPixel.get(ifd);
 
-            Raster.Floats floats = Raster.Reader.floats(componentsPerPixel).readRaster(
+            Raster.Floats floats = Raster.Reader.floats(componentsPerPixel, executor).readRaster(
                     channel,
                     order,
-                    ifd
+                    ifd,
+                    window
             );
 
-            ImageDimensions dimensions = ImageDimensions.get(ifd);
+            ImageDimensions dimensions = window.dimensions();
 
             return switch (componentsPerPixel) {
                 case 1 -> new Float1Image(dimensions, floats.floats());
@@ -122,4 +214,22 @@ public sealed interface FloatImage extends DataImage {
             };
         }
     }
+
+    record FlatMaker(Executor executor) implements Image.Maker {
+
+        public FlatMaker() {
+            this(directExecutor());
+        }
+
+        @Override
+        public FlatFloatImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public FlatFloatImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+            Raster.FlatFloats floats = Raster.Reader.floats(SamplesPerPixel.get(ifd), executor).readFlat(channel, order, ifd, window);
+            return new FlatFloatImage(window.dimensions(), floats);
+        }
+    }
 }
@@ -3,12 +3,18 @@ package io.github.stellarsunset.tiff.extension;
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Image;
 import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.TiffFile;
 import io.github.stellarsunset.tiff.baseline.ImageDimensions;
 import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
 
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 /**
  * An image containing 32-bit integer data.
@@ -27,6 +33,53 @@ public sealed interface IntImage extends DataImage {
         return new Maker();
     }
 
+    static Image.Maker maker(Executor executor) {
+        return new Maker(executor);
+    }
+
+    /**
+     * Returns a maker which decodes each image directly into a single flat array of samples rather than an array per row,
+     * see {@link FlatIntImage}.
+     */
+    static Image.Maker flatMaker() {
+        return new FlatMaker();
+    }
+
+    static Image.Maker flatMaker(Executor executor) {
+        return new FlatMaker(executor);
+    }
+
+    /**
+     * Sample the pixel at each of the provided (row, col) points of the nth image in the file into the output array, the
+     * samples of the ith point are written starting at {@code out[i * componentsPerPixel]}.
+     *
+     * <p>Unlike repeated calls to {@link #valueAt(int, int)} the full raster is never materialized, the points are grouped
+     * by the strip/tile they fall in and only strips/tiles containing at least one point are read and decoded (once each),
+     * see {@link Raster.Reader#sample(SeekableByteChannel, ByteOrder, Ifd, int[], int[])}.
+     */
+    static void sample(TiffFile file, int n, int[] rows, int[] cols, int[] out) {
+        sample(file, n, rows, cols, out, directExecutor());
+    }
+
+    /**
+     * Sample the pixel at each of the provided points of the nth image in the file, decoding the strips/tiles containing
+     * the points concurrently on the provided executor, see {@link #sample(TiffFile, int, int[], int[], int[])}.
+     */
+    static void sample(TiffFile file, int n, int[] rows, int[] cols, int[] out, Executor executor) {
+
+        Ifd ifd = file.ifd(n);
+        int componentsPerPixel = SamplesPerPixel.get(ifd);
+
+        checkArgument(out.length >= rows.length * componentsPerPixel,
+                "Output should hold (%s) samples for (%s) points, was (%s)", rows.length * componentsPerPixel, rows.length, out.length);
+
+        int[] samples = Raster.Reader.ints(componentsPerPixel, executor)
+                .sample(file.channel(), file.header().order(), ifd, rows, cols)
+                .ints()[0];
+
+        System.arraycopy(samples, 0, out, 0, samples.length);
+    }
+
     @Override
     Pixel valueAt(int row, int col);
 
@@ -116,20 +169,59 @@ public sealed interface IntImage extends DataImage {
         }
     }
 
-    record Maker() implements Image.Maker {
+    /**
+     * A {@link IntImage} backed by a single flat array of samples (see {@link Raster.FlatInts}) rather than an array
+     * per row, which keeps the number of objects per image constant for tall images.
+     *
+     * <p>Pixels are the same types as those of the {@link Int1Image}, {@link Int3Image} and {@link IntNImage} with
+     * the same number of components.
+     */
+    record FlatIntImage(ImageDimensions dimensions, Raster.FlatInts raster) implements IntImage {
+
+        public FlatIntImage {
+            dimensions.checkBounds(raster.length(), raster.stride(), raster.componentsPerPixel());
+        }
+
+        @Override
+        public IntImage.Pixel valueAt(int row, int col) {
+            Objects.checkIndex(col, (int) dimensions.width());
+
+            int[] ints = raster.ints();
+            int componentsPerPixel = raster.componentsPerPixel();
+            int offset = row * raster.stride() + col * componentsPerPixel;
+
+            return switch (componentsPerPixel) {
+                case 1 -> new Int1Image.Pixel(ints[offset]);
+                case 3 -> new Int3Image.Pixel(ints[offset], ints[offset + 1], ints[offset + 2]);
+                default -> new IntNImage.Pixel(Arrays.copyOfRange(ints, offset, offset + componentsPerPixel));
+            };
+        }
+    }
+
+    record Maker(Executor executor) implements Image.Maker {
+
+        public Maker() {
+            this(directExecutor());
+        }
 
         @Override
         public IntImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public IntImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
 
             int componentsPerPixel = SamplesPerPixel.get(ifd);
 
-            Raster.Ints ints = Raster.Reader.ints(componentsPerPixel).readRaster(
+            Raster.Ints ints = Raster.Reader.ints(componentsPerPixel, executor).readRaster(
                     channel,
                     order,
-                    ifd
+                    ifd,
+                    window
             );
 
-            ImageDimensions dimensions = ImageDimensions.get(ifd);
+            ImageDimensions dimensions = window.dimensions();
 
             return switch (componentsPerPixel) {
                 case 1 -> new Int1Image(dimensions, ints.ints());
@@ -138,4 +230,22 @@ public sealed interface IntImage extends DataImage {
             };
         }
     }
+
+    record FlatMaker(Executor executor) implements Image.Maker {
+
+        public FlatMaker() {
+            this(directExecutor());
+        }
+
+        @Override
+        public FlatIntImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd) {
+            return makeImage(channel, order, ifd, Raster.Window.full(ImageDimensions.get(ifd).asIntInfo()));
+        }
+
+        @Override
+        public FlatIntImage makeImage(SeekableByteChannel channel, ByteOrder order, Ifd ifd, Raster.Window window) {
+            Raster.FlatInts ints = Raster.Reader.ints(SamplesPerPixel.get(ifd), executor).readFlat(channel, order, ifd, window);
+            return new FlatIntImage(window.dimensions(), ints);
+        }
+    }
 }
@@ -31,7 +31,8 @@ public record GeoKey(short id, String name) {
                 case Entry.Ascii d -> Optional.of(d.values());
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Short _, Entry.Long _, Entry.Rational _, Entry.SByte _, Entry.Undefined _,
-                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _ ->
+                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForGeoKeyException(key, entry.getClass());
             };
         }
@@ -60,7 +61,8 @@ public record GeoKey(short id, String name) {
                 case Entry.Short s -> Optional.of(Arrays.toUnsignedIntArray(s.values()));
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Long _, Entry.Rational _, Entry.SByte _, Entry.Undefined _,
-                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _ ->
+                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForGeoKeyException(key, entry.getClass());
             };
         }
@@ -90,7 +92,8 @@ public record GeoKey(short id, String name) {
                 case Entry.Long l -> Optional.of(Arrays.toUnsignedLongArray(l.values()));
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Rational _, Entry.SByte _, Entry.Undefined _, Entry.SShort _,
-                     Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _ ->
+                     Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForGeoKeyException(key, entry.getClass());
             };
         }
@@ -107,7 +110,8 @@ public record GeoKey(short id, String name) {
                 case Entry.Rational r -> Optional.of(r.rational(0));
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Short _, Entry.Long _, Entry.SByte _, Entry.Undefined _,
-                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _ ->
+                     Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _, Entry.Double _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForGeoKeyException(key, entry.getClass());
             };
         }
@@ -124,7 +128,8 @@ public record GeoKey(short id, String name) {
                 case Entry.Double d -> Optional.of(d.values());
                 case Entry.NotFound _ -> Optional.empty();
                 case Entry.Byte _, Entry.Ascii _, Entry.Short _, Entry.Long _, Entry.Rational _, Entry.SByte _,
-                     Entry.Undefined _, Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _ ->
+                     Entry.Undefined _, Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _,
+                     Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ ->
                         throw new UnsupportedTypeForGeoKeyException(key, entry.getClass());
             };
         }
@@ -3,10 +3,10 @@ package io.github.stellarsunset.tiff.extension.tag;
 import io.github.stellarsunset.tiff.BufferView;
 import io.github.stellarsunset.tiff.Ifd;
 import io.github.stellarsunset.tiff.Tag;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
 import io.github.stellarsunset.tiff.baseline.tag.Compression;
 import io.github.stellarsunset.tiff.baseline.tag.SamplesPerPixel;
 
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -49,28 +49,51 @@ public interface DifferencingPredictor extends Tag.Accessor {
      * @param componentsPerPixel the number of components per pixel
      */
     static DifferencingPredictor floatingPoint(int componentsPerPixel) {
-        return new Planar1FloatingPoint(new Planar1Horizontal(componentsPerPixel));
+        return floatingPoint(componentsPerPixel, Float.BYTES);
+    }
+
+    /**
+     * {@link DifferencingPredictor} for floating-point data with the provided number of bytes per sample, see
+     * {@link #floatingPoint(int)}.
+     *
+     * @param componentsPerPixel the number of components per pixel
+     * @param bytesPerSample     the number of bytes in each sample, 2 (half), 4 (float) or 8 (double)
+     */
+    static DifferencingPredictor floatingPoint(int componentsPerPixel, int bytesPerSample) {
+        return new Planar1FloatingPoint(new Planar1Horizontal(componentsPerPixel), bytesPerSample);
     }
 
     /**
      * Return the {@link DifferencingPredictor} which should be applied ot the image data post decompression but prior
      * to interpretation as pixel values (if applicable).
      *
-     * <p>{@link DifferencingPredictor}s are only supported for images where each component is one byte, though there may
-     * be an arbitrary number of components per pixel. This covers most grayscale and RGB images.
+     * <p>For planar images ({@link PlanarConfiguration}=2) each plane stores a single component of every pixel, so the
+     * returned predictor differences single samples and should be applied to the rows of each plane separately.
      *
      * @param ifd the {@link Ifd} to extract the required parameters from to create the predictor
      */
     static DifferencingPredictor get(Ifd ifd) {
 
-        int planarConfiguration = PlanarConfiguration.get(ifd);
+        int planarConfiguration = PlanarConfiguration.getIfPresent(ifd).orElse(1);
 
-        checkArgument(planarConfiguration == 1,
-                "Predictors only supported on PlanarConfiguration 1, was %s", planarConfiguration);
+        checkArgument(planarConfiguration == 1 || planarConfiguration == 2,
+                "PlanarConfiguration should be 1 or 2, was %s", planarConfiguration);
 
         int type = Tag.Accessor.optionalUShort(TAG, ifd).orElse(1);
-        int componentsPerPixel = SamplesPerPixel.get(ifd);
+        int componentsPerPixel = planarConfiguration == 2 ? 1 : SamplesPerPixel.get(ifd);
 
+        return type == 3
+                ? floatingPoint(componentsPerPixel, BitsPerSample.get(ifd)[0] / 8)
+                : of(type, componentsPerPixel);
+    }
+
+    /**
+     * Return the {@link DifferencingPredictor} for the provided predictor tag value.
+     *
+     * @param type               the value of the predictor tag, 1 (none), 2 (horizontal) or 3 (floating-point)
+     * @param componentsPerPixel the number of components per pixel
+     */
+    static DifferencingPredictor of(int type, int componentsPerPixel) {
         return switch (type) {
             case 1 -> new Noop();
             case 2 -> horizontal(componentsPerPixel);
@@ -111,43 +134,45 @@ public interface DifferencingPredictor extends Tag.Accessor {
         }
     }
 
+    /**
+     * Horizontal differencing, each sample is stored as the difference from the same component of the previous pixel.
+     *
+     * <p>Undoing the differencing is a running sum per component, the primitive array kernels keep the running sums of up
+     * to four components in locals and avoid the per-sample buffer accesses of the {@link BufferView} methods, the
+     * {@link BufferView} methods delegate to them (in place for array-backed byte buffers).
+     *
+     * <p>Only one component per pixel must be within the view for the methods to be well-defined, they're no-ops otherwise.
+     */
     record Planar1Horizontal(int componentsPerPixel) implements DifferencingPredictor {
+
         @Override
         public void unpack(BufferView buffer) {
-            for (int component = 0; component < componentsPerPixel; component++) {
-                int begin = component + componentsPerPixel;
-                for (int c = begin; c < buffer.len(); c += componentsPerPixel) {
-                    sum(buffer, c);
-                }
+            if (buffer.len() <= componentsPerPixel) {
+                return;
             }
-        }
-
-        private void sum(BufferView buffer, int loc) {
             switch (buffer) {
-                case BufferView.Byte bBuffer -> {
-                    byte b = bBuffer.getByte(loc);
-                    b += bBuffer.getByte(loc - componentsPerPixel);
-                    bBuffer.putByte(loc, b);
-                }
-                case BufferView.Char cBuffer -> {
-                    char c = cBuffer.getChar(loc);
-                    c += cBuffer.getChar(loc - componentsPerPixel);
-                    cBuffer.putChar(loc, c);
-                }
-                case BufferView.Short sBuffer -> {
-                    short s = sBuffer.getShort(loc);
-                    s += sBuffer.getShort(loc - componentsPerPixel);
-                    sBuffer.putShort(loc, s);
-                }
-                case BufferView.Int iBuffer -> {
-                    int i = iBuffer.getInt(loc);
-                    i += iBuffer.getInt(loc - componentsPerPixel);
-                    iBuffer.putInt(loc, i);
-                }
-                case BufferView.Long lBuffer -> {
-                    long l = lBuffer.getLong(loc);
-                    l += lBuffer.getLong(loc - componentsPerPixel);
-                    lBuffer.putLong(loc, l);
+                case BufferView.Byte b when b.delegate().hasArray() && !b.delegate().isReadOnly() ->
+                        unpack(b.delegate().array(), b.delegate().arrayOffset() + b.startByte(), b.len());
+                case BufferView.Byte b -> {
+                    byte[] samples = b.readBytes(0, b.len());
+                    unpack(samples, 0, samples.length);
+                    b.writeBytes(0, samples, 0, samples.length);
+                }
+                case BufferView.Char c -> unpack(new BufferView.Short(c.delegate(), c.startByte(), c.lengthBytes()));
+                case BufferView.Short s -> {
+                    short[] samples = s.readShorts(0, s.len());
+                    unpack(samples, 0, samples.length);
+                    s.writeShorts(0, samples, 0, samples.length);
+                }
+                case BufferView.Int i -> {
+                    int[] samples = i.readInts(0, i.len());
+                    unpack(samples, 0, samples.length);
+                    i.writeInts(0, samples, 0, samples.length);
+                }
+                case BufferView.Long l -> {
+                    long[] samples = l.readLongs(0, l.len());
+                    unpack(samples, 0, samples.length);
+                    l.writeLongs(0, samples, 0, samples.length);
                 }
                 case BufferView.Float _, BufferView.Double _ -> throw new IllegalArgumentException(
                         "Standard horizontal differencing not supported for floating-point types."
@@ -157,98 +182,639 @@ public interface DifferencingPredictor extends Tag.Accessor {
 
         @Override
         public void pack(BufferView buffer) {
-            for (int component = 0; component < componentsPerPixel; component++) {
-                int begin = (buffer.len() - componentsPerPixel) + component;
-                for (int c = begin; c > component; c -= componentsPerPixel) {
-                    difference(buffer, c);
-                }
+            if (buffer.len() <= componentsPerPixel) {
+                return;
             }
-        }
-
-        private void difference(BufferView buffer, int loc) {
             switch (buffer) {
-                case BufferView.Byte bBuffer -> {
-                    byte b = bBuffer.getByte(loc);
-                    b -= bBuffer.getByte(loc - componentsPerPixel);
-                    bBuffer.putByte(loc, b);
-                }
-                case BufferView.Char cBuffer -> {
-                    char c = cBuffer.getChar(loc);
-                    c -= cBuffer.getChar(loc - componentsPerPixel);
-                    cBuffer.putChar(loc, c);
-                }
-                case BufferView.Short sBuffer -> {
-                    short s = sBuffer.getShort(loc);
-                    s -= sBuffer.getShort(loc - componentsPerPixel);
-                    sBuffer.putShort(loc, s);
-                }
-                case BufferView.Int iBuffer -> {
-                    int i = iBuffer.getInt(loc);
-                    i -= iBuffer.getInt(loc - componentsPerPixel);
-                    iBuffer.putInt(loc, i);
-                }
-                case BufferView.Long lBuffer -> {
-                    long l = lBuffer.getLong(loc);
-                    l -= lBuffer.getLong(loc - componentsPerPixel);
-                    lBuffer.putLong(loc, l);
+                case BufferView.Byte b when b.delegate().hasArray() && !b.delegate().isReadOnly() ->
+                        pack(b.delegate().array(), b.delegate().arrayOffset() + b.startByte(), b.len());
+                case BufferView.Byte b -> {
+                    byte[] samples = b.readBytes(0, b.len());
+                    pack(samples, 0, samples.length);
+                    b.writeBytes(0, samples, 0, samples.length);
+                }
+                case BufferView.Char c -> pack(new BufferView.Short(c.delegate(), c.startByte(), c.lengthBytes()));
+                case BufferView.Short s -> {
+                    short[] samples = s.readShorts(0, s.len());
+                    pack(samples, 0, samples.length);
+                    s.writeShorts(0, samples, 0, samples.length);
+                }
+                case BufferView.Int i -> {
+                    int[] samples = i.readInts(0, i.len());
+                    pack(samples, 0, samples.length);
+                    i.writeInts(0, samples, 0, samples.length);
+                }
+                case BufferView.Long l -> {
+                    long[] samples = l.readLongs(0, l.len());
+                    pack(samples, 0, samples.length);
+                    l.writeLongs(0, samples, 0, samples.length);
                 }
                 case BufferView.Float _, BufferView.Double _ -> throw new IllegalArgumentException(
                         "Standard horizontal differencing not supported for floating-point types."
                 );
             }
         }
-    }
 
-    record Planar1FloatingPoint(Planar1Horizontal horizontal) implements DifferencingPredictor {
+        /**
+         * Undo the differencing of the {@code length} byte samples starting at the offset in place, see
+         * {@link #unpack(BufferView)}.
+         */
+        public void unpack(byte[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    byte p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        samples[i] = p0 += samples[i];
+                    }
+                }
+                case 2 -> {
+                    byte p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                    }
+                }
+                case 3 -> {
+                    byte p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                    }
+                }
+                case 4 -> {
+                    byte p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                        samples[i + 3] = p3 += samples[i + 3];
+                    }
+                }
+                default -> {
+                    for (int i = offset + componentsPerPixel; i < full; i++) {
+                        samples[i] += samples[i - componentsPerPixel];
+                    }
+                }
+            }
+            // trailing partial pixel
+            for (int i = full; i < end; i++) {
+                samples[i] += samples[i - componentsPerPixel];
+            }
+        }
 
-        @Override
-        public void unpack(BufferView buffer) {
-            if (buffer instanceof BufferView.Byte bBuffer) {
-                horizontal.unpack(bBuffer);
+        /**
+         * Difference the {@code length} byte samples starting at the offset in place, the inverse of
+         * {@link #unpack(byte[], int, int)}.
+         */
+        public void pack(byte[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            // trailing partial pixel first, while the last whole pixel hasn't been differenced
+            for (int i = end - 1; i >= full; i--) {
+                samples[i] -= samples[i - componentsPerPixel];
+            }
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    byte p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        byte c0 = samples[i];
+                        samples[i] = (byte) (c0 - p0);
+                        p0 = c0;
+                    }
+                }
+                case 2 -> {
+                    byte p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        byte c0 = samples[i], c1 = samples[i + 1];
+                        samples[i] = (byte) (c0 - p0);
+                        samples[i + 1] = (byte) (c1 - p1);
+                        p0 = c0;
+                        p1 = c1;
+                    }
+                }
+                case 3 -> {
+                    byte p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        byte c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2];
+                        samples[i] = (byte) (c0 - p0);
+                        samples[i + 1] = (byte) (c1 - p1);
+                        samples[i + 2] = (byte) (c2 - p2);
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                    }
+                }
+                case 4 -> {
+                    byte p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        byte c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2], c3 = samples[i + 3];
+                        samples[i] = (byte) (c0 - p0);
+                        samples[i + 1] = (byte) (c1 - p1);
+                        samples[i + 2] = (byte) (c2 - p2);
+                        samples[i + 3] = (byte) (c3 - p3);
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                        p3 = c3;
+                    }
+                }
+                default -> {
+                    for (int i = full - 1; i >= offset + componentsPerPixel; i--) {
+                        samples[i] -= samples[i - componentsPerPixel];
+                    }
+                }
+            }
+        }
 
-                int len = bBuffer.lengthBytes();
-                int quadrantSize = len / 4;
+        /**
+         * Undo the differencing of the {@code length} short samples starting at the offset in place, see
+         * {@link #unpack(BufferView)}.
+         */
+        public void unpack(short[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    short p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        samples[i] = p0 += samples[i];
+                    }
+                }
+                case 2 -> {
+                    short p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                    }
+                }
+                case 3 -> {
+                    short p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                    }
+                }
+                case 4 -> {
+                    short p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                        samples[i + 3] = p3 += samples[i + 3];
+                    }
+                }
+                default -> {
+                    for (int i = offset + componentsPerPixel; i < full; i++) {
+                        samples[i] += samples[i - componentsPerPixel];
+                    }
+                }
+            }
+            // trailing partial pixel
+            for (int i = full; i < end; i++) {
+                samples[i] += samples[i - componentsPerPixel];
+            }
+        }
 
-                int expHi = 0;
-                int expLo = quadrantSize;
-                int mantissaHi = 2 * quadrantSize;
-                int mantissaLo = 3 * quadrantSize;
+        /**
+         * Difference the {@code length} short samples starting at the offset in place, the inverse of
+         * {@link #unpack(short[], int, int)}.
+         */
+        public void pack(short[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            // trailing partial pixel first, while the last whole pixel hasn't been differenced
+            for (int i = end - 1; i >= full; i--) {
+                samples[i] -= samples[i - componentsPerPixel];
+            }
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    short p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        short c0 = samples[i];
+                        samples[i] = (short) (c0 - p0);
+                        p0 = c0;
+                    }
+                }
+                case 2 -> {
+                    short p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        short c0 = samples[i], c1 = samples[i + 1];
+                        samples[i] = (short) (c0 - p0);
+                        samples[i + 1] = (short) (c1 - p1);
+                        p0 = c0;
+                        p1 = c1;
+                    }
+                }
+                case 3 -> {
+                    short p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        short c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2];
+                        samples[i] = (short) (c0 - p0);
+                        samples[i + 1] = (short) (c1 - p1);
+                        samples[i + 2] = (short) (c2 - p2);
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                    }
+                }
+                case 4 -> {
+                    short p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        short c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2], c3 = samples[i + 3];
+                        samples[i] = (short) (c0 - p0);
+                        samples[i + 1] = (short) (c1 - p1);
+                        samples[i + 2] = (short) (c2 - p2);
+                        samples[i + 3] = (short) (c3 - p3);
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                        p3 = c3;
+                    }
+                }
+                default -> {
+                    for (int i = full - 1; i >= offset + componentsPerPixel; i--) {
+                        samples[i] -= samples[i - componentsPerPixel];
+                    }
+                }
+            }
+        }
 
-                ByteBuffer temp = ByteBuffer.allocate(len);
-                for (int i = 0; i < quadrantSize; i++) {
+        /**
+         * Undo the differencing of the {@code length} int samples starting at the offset in place, see
+         * {@link #unpack(BufferView)}.
+         */
+        public void unpack(int[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    int p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        samples[i] = p0 += samples[i];
+                    }
+                }
+                case 2 -> {
+                    int p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                    }
+                }
+                case 3 -> {
+                    int p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                    }
+                }
+                case 4 -> {
+                    int p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                        samples[i + 3] = p3 += samples[i + 3];
+                    }
+                }
+                default -> {
+                    for (int i = offset + componentsPerPixel; i < full; i++) {
+                        samples[i] += samples[i - componentsPerPixel];
+                    }
+                }
+            }
+            // trailing partial pixel
+            for (int i = full; i < end; i++) {
+                samples[i] += samples[i - componentsPerPixel];
+            }
+        }
 
-                    byte expHiI = bBuffer.getByte(expHi + i);
-                    byte expLoI = bBuffer.getByte(expLo + i);
-                    byte mantissaHiI = bBuffer.getByte(mantissaHi + i);
-                    byte mantissaLoI = bBuffer.getByte(mantissaLo + i);
+        /**
+         * Difference the {@code length} int samples starting at the offset in place, the inverse of
+         * {@link #unpack(int[], int, int)}.
+         */
+        public void pack(int[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            // trailing partial pixel first, while the last whole pixel hasn't been differenced
+            for (int i = end - 1; i >= full; i--) {
+                samples[i] -= samples[i - componentsPerPixel];
+            }
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    int p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        int c0 = samples[i];
+                        samples[i] = c0 - p0;
+                        p0 = c0;
+                    }
+                }
+                case 2 -> {
+                    int p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        int c0 = samples[i], c1 = samples[i + 1];
+                        samples[i] = c0 - p0;
+                        samples[i + 1] = c1 - p1;
+                        p0 = c0;
+                        p1 = c1;
+                    }
+                }
+                case 3 -> {
+                    int p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        int c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2];
+                        samples[i] = c0 - p0;
+                        samples[i + 1] = c1 - p1;
+                        samples[i + 2] = c2 - p2;
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                    }
+                }
+                case 4 -> {
+                    int p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        int c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2], c3 = samples[i + 3];
+                        samples[i] = c0 - p0;
+                        samples[i + 1] = c1 - p1;
+                        samples[i + 2] = c2 - p2;
+                        samples[i + 3] = c3 - p3;
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                        p3 = c3;
+                    }
+                }
+                default -> {
+                    for (int i = full - 1; i >= offset + componentsPerPixel; i--) {
+                        samples[i] -= samples[i - componentsPerPixel];
+                    }
+                }
+            }
+        }
 
-                    int offset = i * 4;
-                    if (bBuffer.delegate().order().equals(ByteOrder.LITTLE_ENDIAN)) {
-                        temp.put(offset, mantissaLoI);
-                        temp.put(offset + 1, mantissaHiI);
-                        temp.put(offset + 2, expLoI);
-                        temp.put(offset + 3, expHiI);
-                    } else {
-                        temp.put(offset, expHiI);
-                        temp.put(offset + 1, expLoI);
-                        temp.put(offset + 2, mantissaHiI);
-                        temp.put(offset + 3, mantissaLoI);
+        /**
+         * Undo the differencing of the {@code length} long samples starting at the offset in place, see
+         * {@link #unpack(BufferView)}.
+         */
+        public void unpack(long[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    long p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        samples[i] = p0 += samples[i];
+                    }
+                }
+                case 2 -> {
+                    long p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                    }
+                }
+                case 3 -> {
+                    long p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                    }
+                }
+                case 4 -> {
+                    long p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        samples[i] = p0 += samples[i];
+                        samples[i + 1] = p1 += samples[i + 1];
+                        samples[i + 2] = p2 += samples[i + 2];
+                        samples[i + 3] = p3 += samples[i + 3];
+                    }
+                }
+                default -> {
+                    for (int i = offset + componentsPerPixel; i < full; i++) {
+                        samples[i] += samples[i - componentsPerPixel];
                     }
                 }
+            }
+            // trailing partial pixel
+            for (int i = full; i < end; i++) {
+                samples[i] += samples[i - componentsPerPixel];
+            }
+        }
 
-                for (int i = 0; i < len; i++) {
-                    bBuffer.putByte(i, temp.get(i));
+        /**
+         * Difference the {@code length} long samples starting at the offset in place, the inverse of
+         * {@link #unpack(long[], int, int)}.
+         */
+        public void pack(long[] samples, int offset, int length) {
+            if (length <= componentsPerPixel) {
+                return;
+            }
+            int end = offset + length;
+            int full = end - length % componentsPerPixel;
+            // trailing partial pixel first, while the last whole pixel hasn't been differenced
+            for (int i = end - 1; i >= full; i--) {
+                samples[i] -= samples[i - componentsPerPixel];
+            }
+            switch (componentsPerPixel) {
+                case 1 -> {
+                    long p0 = samples[offset];
+                    for (int i = offset + 1; i < end; i++) {
+                        long c0 = samples[i];
+                        samples[i] = c0 - p0;
+                        p0 = c0;
+                    }
+                }
+                case 2 -> {
+                    long p0 = samples[offset], p1 = samples[offset + 1];
+                    for (int i = offset + 2; i < full; i += 2) {
+                        long c0 = samples[i], c1 = samples[i + 1];
+                        samples[i] = c0 - p0;
+                        samples[i + 1] = c1 - p1;
+                        p0 = c0;
+                        p1 = c1;
+                    }
+                }
+                case 3 -> {
+                    long p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2];
+                    for (int i = offset + 3; i < full; i += 3) {
+                        long c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2];
+                        samples[i] = c0 - p0;
+                        samples[i + 1] = c1 - p1;
+                        samples[i + 2] = c2 - p2;
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                    }
+                }
+                case 4 -> {
+                    long p0 = samples[offset], p1 = samples[offset + 1], p2 = samples[offset + 2], p3 = samples[offset + 3];
+                    for (int i = offset + 4; i < full; i += 4) {
+                        long c0 = samples[i], c1 = samples[i + 1], c2 = samples[i + 2], c3 = samples[i + 3];
+                        samples[i] = c0 - p0;
+                        samples[i + 1] = c1 - p1;
+                        samples[i + 2] = c2 - p2;
+                        samples[i + 3] = c3 - p3;
+                        p0 = c0;
+                        p1 = c1;
+                        p2 = c2;
+                        p3 = c3;
+                    }
+                }
+                default -> {
+                    for (int i = full - 1; i >= offset + componentsPerPixel; i--) {
+                        samples[i] -= samples[i - componentsPerPixel];
+                    }
                 }
+            }
+        }
+    }
+
+    /**
+     * Floating-point differencing, the bytes of each row of samples are re-ordered into planes by significance (e.g. all
+     * the exponent bytes, then all the high mantissa bytes, etc.) before they're horizontally differenced.
+     *
+     * <p>Rows are re-ordered through a per-thread scratch array and the order of the planes within each sample is fixed up
+     * front from the byte order, so the inner loops are plain strided copies.
+     *
+     * @param horizontal     the horizontal differencing of the re-ordered bytes
+     * @param bytesPerSample the number of bytes in each sample, 2 (half), 4 (float) or 8 (double)
+     */
+    record Planar1FloatingPoint(Planar1Horizontal horizontal, int bytesPerSample) implements DifferencingPredictor {
+
+        private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[0]);
+
+        public Planar1FloatingPoint {
+            checkArgument(bytesPerSample == 2 || bytesPerSample == 4 || bytesPerSample == 8,
+                    "Floating-point predictor requires 2, 4 or 8 bytes per sample, was %s", bytesPerSample);
+        }
+
+        public Planar1FloatingPoint(Planar1Horizontal horizontal) {
+            this(horizontal, Float.BYTES);
+        }
+
+        @Override
+        public void unpack(BufferView buffer) {
+            BufferView.Byte bBuffer = checkBytes(buffer);
+
+            if (bBuffer.delegate().hasArray() && !bBuffer.delegate().isReadOnly()) {
+                unpack(bBuffer.delegate().array(), bBuffer.delegate().arrayOffset() + bBuffer.startByte(), bBuffer.len(), bBuffer.delegate().order());
             } else {
-                throw new IllegalArgumentException(
-                        String.format("The floating-point predictor MUST be run on the raw re-ordered bytes, got %s", buffer.getClass().getSimpleName())
-                );
+                byte[] bytes = bBuffer.readBytes(0, bBuffer.len());
+                unpack(bytes, 0, bytes.length, bBuffer.delegate().order());
+                bBuffer.writeBytes(0, bytes, 0, bytes.length);
             }
         }
 
         @Override
         public void pack(BufferView buffer) {
-            throw new UnsupportedOperationException("Not yet implemented.");
+            BufferView.Byte bBuffer = checkBytes(buffer);
+
+            if (bBuffer.delegate().hasArray() && !bBuffer.delegate().isReadOnly()) {
+                pack(bBuffer.delegate().array(), bBuffer.delegate().arrayOffset() + bBuffer.startByte(), bBuffer.len(), bBuffer.delegate().order());
+            } else {
+                byte[] bytes = bBuffer.readBytes(0, bBuffer.len());
+                pack(bytes, 0, bytes.length, bBuffer.delegate().order());
+                bBuffer.writeBytes(0, bytes, 0, bytes.length);
+            }
+        }
+
+        /**
+         * Undo the differencing of the {@code length} bytes of samples (in the provided byte order) starting at the offset
+         * in place.
+         */
+        public void unpack(byte[] bytes, int offset, int length, ByteOrder order) {
+            checkLength(length);
+            horizontal.unpack(bytes, offset, length);
+
+            int samples = length / bytesPerSample;
+            byte[] planes = scratch(length);
+            System.arraycopy(bytes, offset, planes, 0, length);
+
+            for (int plane = 0; plane < bytesPerSample; plane++) {
+                int src = plane * samples;
+                int dst = offset + byteWithinSample(plane, order);
+                for (int i = 0; i < samples; i++) {
+                    bytes[dst + i * bytesPerSample] = planes[src + i];
+                }
+            }
+        }
+
+        /**
+         * Difference the {@code length} bytes of samples (in the provided byte order) starting at the offset in place, the
+         * inverse of {@link #unpack(byte[], int, int, ByteOrder)}.
+         */
+        public void pack(byte[] bytes, int offset, int length, ByteOrder order) {
+            checkLength(length);
+
+            int samples = length / bytesPerSample;
+            byte[] planes = scratch(length);
+
+            for (int plane = 0; plane < bytesPerSample; plane++) {
+                int src = offset + byteWithinSample(plane, order);
+                int dst = plane * samples;
+                for (int i = 0; i < samples; i++) {
+                    planes[dst + i] = bytes[src + i * bytesPerSample];
+                }
+            }
+
+            System.arraycopy(planes, 0, bytes, offset, length);
+            horizontal.pack(bytes, offset, length);
+        }
+
+        /**
+         * Planes are ordered most-significant byte first, returns the index of the plane's byte within a sample.
+         */
+        private int byteWithinSample(int plane, ByteOrder order) {
+            return order == ByteOrder.LITTLE_ENDIAN ? bytesPerSample - 1 - plane : plane;
+        }
+
+        private void checkLength(int length) {
+            checkArgument(length % bytesPerSample == 0,
+                    "Row of (%s) bytes isn't a whole number of (%s) byte samples", length, bytesPerSample);
+        }
+
+        private static BufferView.Byte checkBytes(BufferView buffer) {
+            if (buffer instanceof BufferView.Byte bBuffer) {
+                return bBuffer;
+            }
+            throw new IllegalArgumentException(
+                    String.format("The floating-point predictor MUST be run on the raw re-ordered bytes, got %s", buffer.getClass().getSimpleName())
+            );
+        }
+
+        private static byte[] scratch(int length) {
+            byte[] scratch = SCRATCH.get();
+            if (scratch.length < length) {
+                SCRATCH.set(scratch = new byte[length]);
+            }
+            return scratch;
         }
     }
 }
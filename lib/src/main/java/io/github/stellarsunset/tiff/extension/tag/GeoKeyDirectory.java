@@ -75,7 +75,8 @@ public record GeoKeyDirectory(short keyDirectoryVersion,
             case Entry.NotFound _ -> Optional.empty();
             case Entry.Byte _, Entry.Ascii _, Entry.Long _, Entry.Rational _, Entry.SByte _,
                  Entry.Undefined _, Entry.SShort _, Entry.SLong _, Entry.SRational _, Entry.Float _,
-                 Entry.Double _ -> throw new UnsupportedTypeForTagException(TAG, entry.getClass());
+                 Entry.Double _,
+                 Entry.Long8 _, Entry.SLong8 _, Entry.Ifd8 _ -> throw new UnsupportedTypeForTagException(TAG, entry.getClass());
         };
     }
 
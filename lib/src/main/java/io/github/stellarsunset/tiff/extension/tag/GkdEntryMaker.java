@@ -109,6 +109,18 @@ record GkdEntryMaker(Ifd ifd) {
                     key,
                     Arrays.copyOfRange(undefined.values(), from, to)
             );
+            case Ifd.Entry.Long8 long8 -> new Ifd.Entry.Long8(
+                    key,
+                    Arrays.copyOfRange(long8.values(), from, to)
+            );
+            case Ifd.Entry.SLong8 sLong8 -> new Ifd.Entry.SLong8(
+                    key,
+                    Arrays.copyOfRange(sLong8.values(), from, to)
+            );
+            case Ifd.Entry.Ifd8 ifd8 -> new Ifd.Entry.Ifd8(
+                    key,
+                    Arrays.copyOfRange(ifd8.values(), from, to)
+            );
         };
     }
 }
@@ -1,6 +1,7 @@
 module tiff.lib.main {
     requires com.google.common;
     requires java.desktop;
+    requires transitive java.net.http;
     requires java.smartcardio;
 
     exports io.github.stellarsunset.tiff;
@@ -1,11 +1,21 @@
 package io.github.stellarsunset.tiff;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class BytesReaderTest {
 
@@ -22,4 +32,46 @@ class BytesReaderTest {
                 () -> assertEquals(4, buffer.capacity(), "Capacity")
         );
     }
+
+    @Test
+    void testConcurrentReads_Locked() throws Exception {
+        checkConcurrentReads(ByteArrayChannel.fromByteArray(sequentialBytes()));
+    }
+
+    @Test
+    void testConcurrentReads_Positional(@TempDir Path dir) throws Exception {
+        Path path = Files.write(dir.resolve("bytes"), sequentialBytes());
+        try (FileChannel channel = FileChannel.open(path)) {
+            checkConcurrentReads(channel);
+            assertEquals(0, channel.position(), "Positional reads shouldn't move the channel");
+        }
+    }
+
+    private void checkConcurrentReads(SeekableByteChannel channel) throws Exception {
+
+        BytesReader reader = new BytesReader(channel);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+
+            List<Future<Boolean>> results = IntStream.range(0, 1_000)
+                    .mapToObj(i -> executor.submit(() -> {
+                        int position = i % 200;
+                        ByteBuffer buffer = reader.readBytes(position, 50);
+                        return IntStream.range(0, 50).allMatch(j -> buffer.get(j) == (byte) (position + j));
+                    }))
+                    .toList();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Should read the expected bytes for the requested position");
+            }
+        }
+    }
+
+    private static byte[] sequentialBytes() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
 }
@@ -0,0 +1,116 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.extension.DataImage;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkCacheTest {
+
+    private static final File FILE = tiffFile("extension/float-predictor-tiled.tif");
+
+    @Test
+    void testHitsAndMisses() {
+
+        ChunkCache cache = ChunkCache.create(1_000_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        ChunkCache.Key key = new ChunkCache.Key("file", 0, 0);
+
+        byte[] first = cache.get(key, 10, () -> new byte[loads.incrementAndGet()]);
+        byte[] second = cache.get(key, 10, () -> new byte[loads.incrementAndGet()]);
+
+        assertAll(
+                () -> assertSame(first, second, "Should return the cached chunk"),
+                () -> assertEquals(1, loads.get(), "Should only load once"),
+                () -> assertEquals(new ChunkCache.Stats(1, 1, 0), cache.stats(), "Stats")
+        );
+    }
+
+    @Test
+    void testKeyedByFileImageAndChunk() {
+
+        ChunkCache cache = ChunkCache.create(1_000_000);
+
+        cache.get(new ChunkCache.Key("file", 0, 0), 10, () -> "a");
+        cache.get(new ChunkCache.Key("file", 1, 0), 10, () -> "b");
+        cache.get(new ChunkCache.Key("other", 0, 0), 10, () -> "c");
+
+        assertAll(
+                () -> assertEquals(3, cache.size(), "Size"),
+                () -> assertEquals("b", cache.get(new ChunkCache.Key("file", 1, 0), 10, () -> "x"), "Cached Value")
+        );
+    }
+
+    @Test
+    void testInvalidateFile() {
+
+        ChunkCache cache = ChunkCache.create(1_000_000);
+
+        cache.get(new ChunkCache.Key("file", 0, 0), 10, () -> "a");
+        cache.get(new ChunkCache.Key("file", 1, 0), 10, () -> "b");
+        cache.get(new ChunkCache.Key("other", 0, 0), 10, () -> "c");
+
+        cache.invalidate("file");
+
+        assertAll(
+                () -> assertEquals(1, cache.size(), "Size"),
+                () -> assertEquals("c", cache.get(new ChunkCache.Key("other", 0, 0), 10, () -> "x"), "Cached Value")
+        );
+    }
+
+    @Test
+    void testSharedAcrossChunkedHandles() {
+
+        ChunkCache cache = ChunkCache.create(100_000_000);
+
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.chunked(DataImage.maker(), cache)).read(FileChannel.open(FILE.toPath()))) {
+
+            Image.Pixel viaMaker = file.image(0).valueAt(10, 20);
+            Image.Pixel viaFile = Image.chunked(file, 0, DataImage.maker(), cache).valueAt(10, 20);
+
+            assertAll(
+                    "Check both handles share the decoded chunk.",
+                    () -> assertEquals(viaMaker, viaFile, "Pixel"),
+                    () -> assertEquals(new ChunkCache.Stats(1, 1, 0), cache.stats(), "Stats")
+            );
+
+            cache.invalidate(file.channel());
+            assertEquals(0, cache.size(), "Should drop the chunks of the file");
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testEvictsOverBudget() {
+
+        ChunkCache cache = ChunkCache.create(1_000);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(new ChunkCache.Key("file", 0, i), 100, () -> new byte[100]);
+        }
+
+        assertAll(
+                () -> assertTrue(cache.size() <= 10, "Should stay within the byte budget, size was " + cache.size()),
+                () -> assertTrue(cache.stats().evictionCount() >= 90, "Should have evicted chunks")
+        );
+    }
+
+    @Test
+    void testLoaderExceptionsPropagate() {
+        ChunkCache cache = ChunkCache.create(1_000);
+        ChunkCache.Key key = new ChunkCache.Key("file", 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> cache.get(key, 10, () -> {
+            throw new IllegalArgumentException("bad chunk");
+        }));
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.baseline.ImageDimensions;
+import io.github.stellarsunset.tiff.baseline.StripInfo;
+import io.github.stellarsunset.tiff.extension.TileInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkLayoutTest {
+
+    @Test
+    void testStrips() {
+
+        ChunkLayout layout = ChunkLayout.strips(
+                new ImageDimensions.Int(10, 7),
+                new StripInfo(4, new long[]{8, 36, 64}, new long[]{28, 28, 14})
+        );
+
+        assertAll(
+                () -> assertEquals(1, layout.chunksAcross(), "Chunks Across"),
+                () -> assertEquals(3, layout.chunksDown(), "Chunks Down"),
+                () -> assertEquals(7, layout.chunkWidth(), "Chunk Width"),
+                () -> assertEquals(2, layout.chunkAt(9, 6), "Chunk At (9, 6)"),
+                () -> assertEquals(8, layout.row(2), "Row of Chunk (2)"),
+                () -> assertEquals(2, layout.rows(2), "Rows of Final Strip"),
+                () -> assertEquals(7, layout.cols(2), "Cols of Final Strip")
+        );
+    }
+
+    @Test
+    void testStrips_DefaultRowsPerStrip() {
+
+        ChunkLayout layout = ChunkLayout.strips(
+                new ImageDimensions.Int(10, 7),
+                new StripInfo(4294967295L, new long[]{8}, new long[]{70})
+        );
+
+        assertAll(
+                () -> assertEquals(10, layout.chunkLength(), "Should clamp to image length"),
+                () -> assertEquals(1, layout.numberOfChunks(), "Number of Chunks")
+        );
+    }
+
+    @Test
+    void testTiles() {
+
+        ChunkLayout layout = ChunkLayout.tiles(
+                new ImageDimensions.Int(72, 128),
+                new TileInfo(32, 48, new long[9], new long[9])
+        );
+
+        assertAll(
+                () -> assertEquals(3, layout.chunksAcross(), "Chunks Across"),
+                () -> assertEquals(3, layout.chunksDown(), "Chunks Down"),
+                () -> assertEquals(5, layout.chunkAt(40, 100), "Chunk At (40, 100)"),
+                () -> assertEquals(32, layout.row(5), "Row of Chunk (5)"),
+                () -> assertEquals(96, layout.col(5), "Col of Chunk (5)"),
+                () -> assertEquals(32, layout.rows(5), "Rows of Chunk (5)"),
+                () -> assertEquals(32, layout.cols(5), "Cols of Right Edge Chunk (5)"),
+                () -> assertEquals(8, layout.rows(8), "Rows of Bottom Edge Chunk (8)")
+        );
+    }
+
+    @Test
+    void testChunksIntersecting() {
+
+        ChunkLayout layout = ChunkLayout.tiles(
+                new ImageDimensions.Int(72, 128),
+                new TileInfo(32, 32, new long[12], new long[12])
+        );
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{0}, layout.chunksIntersecting(new Raster.Window(0, 0, 32, 32)), "Single Tile"),
+                () -> assertArrayEquals(new int[]{5, 6, 9, 10}, layout.chunksIntersecting(new Raster.Window(40, 40, 30, 40)), "Straddling Tiles"),
+                () -> assertArrayEquals(new int[]{11}, layout.chunksIntersecting(new Raster.Window(71, 127, 1, 1)), "Bottom Right Pixel")
+        );
+    }
+
+    @Test
+    void testTooFewChunks() {
+        assertThrows(IllegalArgumentException.class, () -> ChunkLayout.tiles(
+                new ImageDimensions.Int(72, 128),
+                new TileInfo(32, 32, new long[4], new long[4])
+        ));
+    }
+}
@@ -2,6 +2,7 @@ package io.github.stellarsunset.tiff;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 
@@ -24,7 +25,7 @@ class DoubleEntryMakerTest {
                 BytesAdapter.of(ByteOrder.BIG_ENDIAN)
         );
 
-        double[] values = maker.makeEntry((short) 0, 3, 0)
+        double[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(new double[]{0.1d, 1.0d, 10.0d}, values);
@@ -42,7 +43,7 @@ class DoubleEntryMakerTest {
                 BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
         );
 
-        double[] values = maker.makeEntry((short) 0, 3, 0)
+        double[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(new double[]{0.1d, 1.0d, 10.0d}, values);
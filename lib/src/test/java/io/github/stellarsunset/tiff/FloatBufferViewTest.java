@@ -3,9 +3,9 @@ package io.github.stellarsunset.tiff;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class FloatBufferViewTest {
 
@@ -31,4 +31,21 @@ class FloatBufferViewTest {
         float[] a2 = buffer.readFloats(1, 1);
         assertArrayEquals(new float[]{Float.intBitsToFloat(0x010FF0FC)}, a2);
     }
+
+    @Test
+    void testBulkLittleEndian() {
+
+        var buffer = BufferView.floats(ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN).position(8));
+        buffer.writeFloats(1, new float[]{9f, 1.5f, -2.25f}, 1, 2);
+
+        assertAll(
+                () -> assertEquals(1.5f, buffer.getFloat(1), "Element 1"),
+                () -> assertEquals(-2.25f, buffer.getFloat(2), "Element 2"),
+                () -> assertEquals(Float.floatToIntBits(1.5f), buffer.delegate().order(ByteOrder.LITTLE_ENDIAN).getInt(12), "Little Endian Bytes")
+        );
+
+        float[] dst = new float[4];
+        buffer.readFloats(1, dst, 2, 2);
+        assertArrayEquals(new float[]{0f, 0f, 1.5f, -2.25f}, dst);
+    }
 }
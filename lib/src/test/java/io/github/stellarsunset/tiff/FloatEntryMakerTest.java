@@ -2,6 +2,7 @@ package io.github.stellarsunset.tiff;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 
@@ -24,7 +25,7 @@ class FloatEntryMakerTest {
                 BytesAdapter.of(ByteOrder.BIG_ENDIAN)
         );
 
-        float[] values = maker.makeEntry((short) 0, 3, 0)
+        float[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(new float[]{0.1f, 1.0f, 10.0f}, values);
@@ -42,7 +43,7 @@ class FloatEntryMakerTest {
                 BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
         );
 
-        float[] values = maker.makeEntry((short) 0, 3, 0)
+        float[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(new float[]{0.1f, 1.0f, 10.0f}, values);
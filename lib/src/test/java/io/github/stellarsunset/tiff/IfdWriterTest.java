@@ -0,0 +1,66 @@
+package io.github.stellarsunset.tiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IfdWriterTest {
+
+    private static final Ifd IFD = new Ifd(
+            (short) 6,
+            new Ifd.Entry[]{
+                    new Ifd.Entry.Short((short) 0x100, new short[]{7}),
+                    new Ifd.Entry.Short((short) 0x102, new short[]{8, 8, 8}),
+                    new Ifd.Entry.Long((short) 0x111, new int[]{10, 20, 30}),
+                    new Ifd.Entry.Ascii((short) 0x10E, new byte[]{'a', 'b', 'c', 0}),
+                    new Ifd.Entry.Rational((short) 0x11A, new int[]{72}, new int[]{1}),
+                    new Ifd.Entry.Double((short) 0x830E, new double[]{0.5, 0.25, 0.})
+            },
+            0
+    );
+
+    @Test
+    void testLength() {
+        // header + entries + next offset, then out-of-line shorts (6), longs (12), rational (8) and doubles (24)
+        assertEquals(2 + 6 * 12 + 4 + 6 + 12 + 8 + 24, IfdWriter.length(IFD));
+    }
+
+    @Test
+    void testRoundTrip_BE() throws Exception {
+        roundTrip(ByteOrder.BIG_ENDIAN);
+    }
+
+    @Test
+    void testRoundTrip_LE() throws Exception {
+        roundTrip(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    void testOddPosition() {
+        assertThrows(IllegalArgumentException.class, () -> new IfdWriter(ByteOrder.BIG_ENDIAN).write(IFD, 11));
+    }
+
+    private void roundTrip(ByteOrder order) throws Exception {
+
+        ByteBuffer encoded = new IfdWriter(order).write(IFD, 8);
+
+        byte[] file = new byte[8 + encoded.remaining()];
+        encoded.get(file, 8, encoded.remaining());
+
+        Ifd ifd = new IfdReader(order).read(ByteArrayChannel.fromByteArray(file), 8);
+
+        assertAll(
+                () -> assertEquals(6, ifd.entryCount(), "Entry Count"),
+                () -> assertEquals(0, ifd.nextIfdOffset(), "Next IFD Offset"),
+                () -> assertArrayEquals(new short[]{7}, ((Ifd.Entry.Short) ifd.findTag((short) 0x100)).values(), "Inline Short"),
+                () -> assertArrayEquals(new short[]{8, 8, 8}, ((Ifd.Entry.Short) ifd.findTag((short) 0x102)).values(), "Shorts"),
+                () -> assertArrayEquals(new int[]{10, 20, 30}, ((Ifd.Entry.Long) ifd.findTag((short) 0x111)).values(), "Longs"),
+                () -> assertArrayEquals(new byte[]{'a', 'b', 'c', 0}, ((Ifd.Entry.Ascii) ifd.findTag((short) 0x10E)).values(), "Inline Ascii"),
+                () -> assertEquals(new Rational(72, 1), ((Ifd.Entry.Rational) ifd.findTag((short) 0x11A)).rational(0), "Rational"),
+                () -> assertArrayEquals(new double[]{0.5, 0.25, 0.}, ((Ifd.Entry.Double) ifd.findTag((short) 0x830E)).values(), "Doubles")
+        );
+    }
+}
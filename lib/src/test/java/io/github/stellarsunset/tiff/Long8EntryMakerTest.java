@@ -0,0 +1,64 @@
+package io.github.stellarsunset.tiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class Long8EntryMakerTest {
+
+    @Test
+    void testReader_ValueAtOffset_BE() {
+
+        SeekableByteChannel channel = ByteArrayChannel.fromLongArray(
+                new long[]{0x0F, 0xF0, 0x1_0000_0012L}
+        );
+
+        IfdEntryMaker.Long8 maker = new IfdEntryMaker.Long8(
+                new BytesReader(channel),
+                BytesAdapter.of(ByteOrder.BIG_ENDIAN)
+        );
+
+        long[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(8))
+                .values();
+
+        assertArrayEquals(new long[]{0x0F, 0xF0, 0x1_0000_0012L}, values);
+    }
+
+    @Test
+    void testReader_ValueAtOffset_LE() {
+
+        SeekableByteChannel channel = ByteArrayChannel.fromLongArray(
+                new long[]{0x0F, 0xF0, 0x12}
+        );
+
+        IfdEntryMaker.Long8 maker = new IfdEntryMaker.Long8(
+                new BytesReader(channel),
+                BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
+        );
+
+        long[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN))
+                .values();
+
+        assertArrayEquals(new long[]{0x0F00000000000000L, 0xF000000000000000L, 0x1200000000000000L}, values);
+    }
+
+    @Test
+    void testReader_Inline_LE() {
+
+        IfdEntryMaker.Long8 maker = new IfdEntryMaker.Long8(
+                new BytesReader(ByteArrayChannel.empty()),
+                BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
+        );
+
+        ByteBuffer valueField = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 0x1_0000_0012L);
+
+        long[] values = maker.makeEntry((short) 0, 1, valueField)
+                .values();
+
+        assertArrayEquals(new long[]{0x1_0000_0012L}, values);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.extension.DataImage;
+import io.github.stellarsunset.tiff.extension.FloatImage.Float1Image;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedByteChannelTest {
+
+    private static final File FILE = tiffFile("extension/float-predictor-tiled.tif");
+
+    @Test
+    void testSlice(@TempDir Path dir) throws IOException {
+
+        Path path = Files.write(dir.resolve("bytes"), new byte[]{1, 2, 3, 4, 5, 6});
+
+        try (MappedByteChannel channel = MappedByteChannel.open(path)) {
+
+            ByteBuffer slice = channel.slice(2, 3);
+
+            assertAll(
+                    () -> assertEquals(6, channel.size(), "Size"),
+                    () -> assertEquals(3, slice.remaining(), "Remaining"),
+                    () -> assertEquals(3, slice.get(0), "First"),
+                    () -> assertEquals(5, slice.get(2), "Last"),
+                    () -> assertTrue(slice.isReadOnly(), "ReadOnly"),
+                    () -> assertEquals(0, channel.position(), "Slice shouldn't move position"),
+                    () -> assertThrows(IllegalArgumentException.class, () -> channel.slice(4, 3), "Out of bounds")
+            );
+        }
+    }
+
+    @Test
+    void testRead(@TempDir Path dir) throws IOException {
+
+        Path path = Files.write(dir.resolve("bytes"), new byte[]{1, 2, 3, 4, 5, 6});
+
+        try (MappedByteChannel channel = MappedByteChannel.open(path)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.position(4);
+
+            assertAll(
+                    () -> assertEquals(2, channel.read(buffer), "Bytes read"),
+                    () -> assertEquals(6, channel.position(), "Position"),
+                    () -> assertEquals(5, buffer.get(0), "First"),
+                    () -> assertEquals(-1, channel.read(buffer), "EOF")
+            );
+        }
+    }
+
+    @Test
+    void testReadMapped() {
+        try (TiffFile mapped = TiffFileReader.withMaker(DataImage.maker()).readMapped(FILE.toPath());
+             TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            if (unwrap(mapped.image(0)) instanceof Float1Image m && unwrap(file.image(0)) instanceof Float1Image f) {
+                assertArrayEquals(f.data(), m.data(), "Raster Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(mapped.image(0)).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private Image unwrap(Image image) {
+        return image instanceof Image.Lazy l ? l.delegate() : image;
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
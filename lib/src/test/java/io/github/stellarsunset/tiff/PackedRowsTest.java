@@ -0,0 +1,64 @@
+package io.github.stellarsunset.tiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedRowsTest {
+
+    @Test
+    void testRowBytes() {
+        assertAll(
+                () -> assertEquals(0, PackedRows.rowBytes(0, 1), "Empty"),
+                () -> assertEquals(1, PackedRows.rowBytes(8, 1), "8 x 1-bit"),
+                () -> assertEquals(2, PackedRows.rowBytes(9, 1), "9 x 1-bit, padded"),
+                () -> assertEquals(3, PackedRows.rowBytes(5, 4), "5 x 4-bit, padded"),
+                () -> assertEquals(3, PackedRows.rowBytes(10, 2), "10 x 2-bit, padded")
+        );
+    }
+
+    @Test
+    void testUnpackOneBit() {
+
+        byte[] packed = new byte[]{(byte) 0b1010_0001, (byte) 0b1100_0000};
+        byte[] unpacked = new byte[12];
+
+        PackedRows.unpack(packed, 0, 1, unpacked, 1, 10);
+        assertArrayEquals(new byte[]{0, 1, 0, 1, 0, 0, 0, 0, 1, 1, 1, 0}, unpacked);
+    }
+
+    @Test
+    void testPackFourBits() {
+
+        byte[] packed = new byte[4];
+
+        PackedRows.pack(new byte[]{0x1, 0x2, 0xF, 0x4, 0x5}, 0, 5, 4, packed, 1);
+        assertArrayEquals(new byte[]{0, 0x12, (byte) 0xF4, 0x50}, packed, "Final byte should be zero padded");
+    }
+
+    @Test
+    void testRoundTrip() {
+
+        Random random = new Random(5);
+
+        for (int bitsPerSample : new int[]{1, 2, 4}) {
+            for (int length : new int[]{1, 7, 8, 9, 63, 64, 65, 200}) {
+
+                byte[] samples = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    samples[i] = (byte) random.nextInt(1 << bitsPerSample);
+                }
+
+                byte[] packed = new byte[PackedRows.rowBytes(length, bitsPerSample)];
+                PackedRows.pack(samples, 0, length, bitsPerSample, packed, 0);
+
+                byte[] unpacked = new byte[length];
+                PackedRows.unpack(packed, 0, bitsPerSample, unpacked, 0, length);
+
+                assertArrayEquals(samples, unpacked, bitsPerSample + " bits, " + length + " samples");
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.extension.DataImage;
+import io.github.stellarsunset.tiff.extension.FloatImage.Float1Image;
+import io.github.stellarsunset.tiff.extension.TileInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefetchedByteChannelTest {
+
+    private static final File FILE = tiffFile("extension/float-predictor-tiled.tif");
+
+    @Test
+    void testReadBytes() throws IOException {
+
+        ByteArrayChannel delegate = ByteArrayChannel.fromByteArray(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+        PrefetchedByteChannel channel = PrefetchedByteChannel.prefetch(delegate, 4, 8);
+        ByteBuffer prefetched = channel.readBytes(1, 3);
+
+        assertAll(
+                () -> assertEquals(4, channel.windowSize(), "Initial Window"),
+                () -> assertEquals(3, prefetched.remaining(), "Remaining"),
+                () -> assertEquals(2, prefetched.get(0), "First"),
+                () -> assertEquals(4, prefetched.get(2), "Last"),
+                () -> assertTrue(prefetched.isReadOnly(), "ReadOnly"),
+                () -> assertEquals(0, channel.position(), "Reads shouldn't move position")
+        );
+    }
+
+    @Test
+    void testReadBytes_Grow() throws IOException {
+
+        ByteArrayChannel delegate = ByteArrayChannel.fromByteArray(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+        PrefetchedByteChannel channel = PrefetchedByteChannel.prefetch(delegate, 4, 8);
+        ByteBuffer grown = channel.readBytes(3, 3);
+
+        assertAll(
+                () -> assertEquals(8, channel.windowSize(), "Grown Window"),
+                () -> assertEquals(4, grown.get(0), "First"),
+                () -> assertEquals(6, grown.get(2), "Last"),
+                () -> assertTrue(grown.isReadOnly(), "ReadOnly")
+        );
+    }
+
+    @Test
+    void testReadBytes_PassThrough() throws IOException {
+
+        ByteArrayChannel delegate = ByteArrayChannel.fromByteArray(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+        PrefetchedByteChannel channel = PrefetchedByteChannel.prefetch(delegate, 4, 8);
+        ByteBuffer direct = channel.readBytes(7, 3);
+
+        assertAll(
+                () -> assertEquals(8, channel.windowSize(), "Window capped at maximum"),
+                () -> assertEquals(8, direct.get(0), "First"),
+                () -> assertEquals(10, direct.get(2), "Last")
+        );
+    }
+
+    @Test
+    void testRead() throws IOException {
+
+        ByteArrayChannel delegate = ByteArrayChannel.fromByteArray(new byte[]{1, 2, 3, 4, 5, 6});
+
+        PrefetchedByteChannel channel = PrefetchedByteChannel.prefetch(delegate, 4, 4);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        channel.position(4);
+
+        assertAll(
+                () -> assertEquals(2, channel.read(buffer), "Bytes read"),
+                () -> assertEquals(6, channel.position(), "Position"),
+                () -> assertEquals(5, buffer.get(0), "First"),
+                () -> assertEquals(-1, channel.read(buffer), "EOF")
+        );
+    }
+
+    @Test
+    void testReadPrefetched() {
+        try (TiffFile prefetched = TiffFileReader.withMaker(DataImage.maker()).withPrefetch(1024).read(FileChannel.open(FILE.toPath()));
+             TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            assertAll(
+                    "Check prefetched file contents.",
+                    () -> assertEquals(file.header(), prefetched.header(), "Header"),
+                    () -> assertEquals(file.numberOfImages(), prefetched.numberOfImages(), "Number of Images"),
+                    () -> assertInstanceOf(FileChannel.class, prefetched.channel(), "Image data read from the file channel")
+            );
+
+            for (int i = 0; i < file.numberOfImages(); i++) {
+                assertEquals(file.ifd(i).entryCount(), prefetched.ifd(i).entryCount(), "IFD " + i + " Entry Count");
+                assertArrayEquals(TileInfo.getRequired(file.ifd(i)).offsets(), TileInfo.getRequired(prefetched.ifd(i)).offsets(), "IFD " + i + " Tile Offsets");
+            }
+
+            if (unwrap(prefetched.image(0)) instanceof Float1Image p && unwrap(file.image(0)) instanceof Float1Image f) {
+                assertArrayEquals(f.data(), p.data(), "Raster Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(prefetched.image(0)).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private Image unwrap(Image image) {
+        return image instanceof Image.Lazy l ? l.delegate() : image;
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.stellarsunset.tiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangePlannerTest {
+
+    private static final long[] OFFSETS = new long[]{100, 0, 50, 1000};
+
+    private static final int[] BYTE_COUNTS = new int[]{50, 50, 40, 10};
+
+    @Test
+    void testPlan() {
+
+        List<RangePlanner.Range> ranges = new RangePlanner(10, 1024).plan(OFFSETS, BYTE_COUNTS, new int[]{0, 1, 2, 3});
+
+        assertAll(
+                () -> assertEquals(2, ranges.size(), "Ranges"),
+                () -> assertEquals(0, ranges.get(0).offset(), "First Offset"),
+                () -> assertEquals(150, ranges.get(0).length(), "First Length"),
+                () -> assertArrayEquals(new int[]{1, 2, 0}, ranges.get(0).indices(), "First Indices (sorted by offset)"),
+                () -> assertEquals(1000, ranges.get(1).offset(), "Second Offset"),
+                () -> assertEquals(10, ranges.get(1).length(), "Second Length"),
+                () -> assertArrayEquals(new int[]{3}, ranges.get(1).indices(), "Second Indices")
+        );
+    }
+
+    @Test
+    void testPlan_NoGapTolerance() {
+
+        List<RangePlanner.Range> ranges = new RangePlanner(0, 1024).plan(OFFSETS, BYTE_COUNTS, new int[]{0, 1, 2});
+
+        assertAll(
+                () -> assertEquals(2, ranges.size(), "Ranges"),
+                () -> assertEquals(90, ranges.get(0).length(), "Adjacent chunks should still merge"),
+                () -> assertEquals(100, ranges.get(1).offset(), "Second Offset")
+        );
+    }
+
+    @Test
+    void testPlan_MaxRequestBytes() {
+
+        List<RangePlanner.Range> ranges = new RangePlanner(10, 60).plan(OFFSETS, BYTE_COUNTS, new int[]{0, 1, 2});
+
+        assertAll(
+                () -> assertEquals(3, ranges.size(), "Ranges"),
+                () -> assertArrayEquals(new int[]{1}, ranges.get(0).indices(), "First Indices")
+        );
+    }
+
+    @Test
+    void testPlan_Subset() {
+
+        List<RangePlanner.Range> ranges = RangePlanner.DEFAULT.plan(OFFSETS, BYTE_COUNTS, new int[]{3, 0});
+
+        assertAll(
+                () -> assertEquals(1, ranges.size(), "Ranges"),
+                () -> assertEquals(100, ranges.get(0).offset(), "Offset"),
+                () -> assertEquals(910, ranges.get(0).length(), "Length"),
+                () -> assertArrayEquals(new int[]{1, 0}, ranges.get(0).indices(), "Indices into the requested chunks")
+        );
+    }
+}
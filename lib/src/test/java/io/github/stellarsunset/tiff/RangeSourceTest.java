@@ -0,0 +1,227 @@
+package io.github.stellarsunset.tiff;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.stellarsunset.tiff.extension.DataImage;
+import io.github.stellarsunset.tiff.extension.FloatImage.Float1Image;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeSourceTest {
+
+    private static final File FILE = tiffFile("extension/float-predictor-tiled.tif");
+
+    private static HttpServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        byte[] bytes = Files.readAllBytes(FILE.toPath());
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/file.tif", exchange -> {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().add("Content-Length", Integer.toString(bytes.length));
+                exchange.sendResponseHeaders(200, -1);
+            } else if (range != null) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(bounds[0]);
+                int end = Math.min(Integer.parseInt(bounds[1]), bytes.length - 1);
+
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + bytes.length);
+                exchange.sendResponseHeaders(206, end - start + 1);
+                exchange.getResponseBody().write(bytes, start, end - start + 1);
+            } else {
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testByteArray() throws IOException {
+
+        RangeSource source = RangeSource.of(new byte[]{1, 2, 3, 4, 5});
+        ByteBuffer bytes = source.read(1, 3);
+
+        assertAll(
+                () -> assertEquals(5, source.size(), "Size"),
+                () -> assertEquals(3, bytes.remaining(), "Remaining"),
+                () -> assertEquals(2, bytes.get(0), "First"),
+                () -> assertEquals(4, bytes.get(2), "Last"),
+                () -> assertTrue(bytes.isReadOnly(), "ReadOnly")
+        );
+    }
+
+    @Test
+    void testCached() throws IOException {
+
+        AtomicInteger reads = new AtomicInteger();
+        RangeSource counting = new CountingSource(RangeSource.of(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}), reads);
+
+        RangeSource source = RangeSource.cached(counting, 4, 64);
+
+        ByteBuffer first = source.read(2, 5);
+        ByteBuffer second = source.read(5, 4);
+
+        assertAll(
+                () -> assertEquals(3, first.get(0), "First Read, First Byte"),
+                () -> assertEquals(7, first.get(4), "First Read, Last Byte"),
+                () -> assertEquals(6, second.get(0), "Second Read, First Byte"),
+                () -> assertEquals(9, second.get(3), "Second Read, Last Byte"),
+                () -> assertEquals(2, reads.get(), "Blocks [0, 1] in one read, then only block 2")
+        );
+    }
+
+    @Test
+    void testHttp() throws IOException {
+
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/file.tif");
+
+        try (RangeSource source = RangeSource.http(uri)) {
+            ByteBuffer header = source.read(0, 4);
+            assertAll(
+                    () -> assertEquals(FILE.length(), source.size(), "Size"),
+                    () -> assertEquals(4, header.remaining(), "Remaining"),
+                    () -> assertEquals(header, source.readAsync(0, 4).join(), "Async")
+            );
+        }
+    }
+
+    @Test
+    void testReadHttp() {
+
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/file.tif");
+
+        try (TiffFile remote = TiffFileReader.withMaker(DataImage.maker()).withPrefetch(4096).read(RangeSource.cached(RangeSource.http(uri), 16 * 1024, 1024 * 1024));
+             TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            assertAll(
+                    "Check remote file contents.",
+                    () -> assertEquals(file.header(), remote.header(), "Header"),
+                    () -> assertEquals(file.numberOfImages(), remote.numberOfImages(), "Number of Images")
+            );
+
+            if (unwrap(remote.image(0)) instanceof Float1Image r && unwrap(file.image(0)) instanceof Float1Image f) {
+                assertArrayEquals(f.data(), r.data(), "Raster Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(remote.image(0)).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testReadAsyncFile() {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (TiffFile async = TiffFileReader.withMaker(DataImage.maker(executor)).withInFlightReads(2).read(RangeSource.openAsync(FILE.toPath()));
+             TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            for (int i = 0; i < file.numberOfImages(); i++) {
+                if (unwrap(async.image(i)) instanceof Float1Image a && unwrap(file.image(i)) instanceof Float1Image f) {
+                    assertArrayEquals(f.data(), a.data(), "Raster Data " + i);
+                } else {
+                    fail("Image not of the correct type, image type was: " + unwrap(async.image(i)).getClass().getSimpleName());
+                }
+            }
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testReadAsyncThrows() {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker(executor)).withInFlightReads(1)
+                .read(new FailingAsyncSource(RangeSource.of(Files.readAllBytes(FILE.toPath()))))) {
+
+            assertThrows(IllegalStateException.class, () -> unwrap(file.image(0)), "Should re-throw the synchronous failure");
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Image unwrap(Image image) {
+        return image instanceof Image.Lazy l ? l.delegate() : image;
+    }
+
+    private record CountingSource(RangeSource delegate, AtomicInteger reads) implements RangeSource {
+
+        @Override
+        public ByteBuffer read(long offset, int length) throws IOException {
+            reads.incrementAndGet();
+            return delegate.read(offset, length);
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Throws synchronously (e.g. as a closed source would) from asynchronous reads, reads of metadata still succeed.
+     */
+    private record FailingAsyncSource(RangeSource delegate) implements RangeSource {
+
+        @Override
+        public ByteBuffer read(long offset, int length) throws IOException {
+            return delegate.read(offset, length);
+        }
+
+        @Override
+        public CompletableFuture<ByteBuffer> readAsync(long offset, int length) {
+            throw new IllegalStateException("Source closed");
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
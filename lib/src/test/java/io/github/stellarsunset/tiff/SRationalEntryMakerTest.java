@@ -2,6 +2,7 @@ package io.github.stellarsunset.tiff;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 
@@ -22,7 +23,7 @@ class SRationalEntryMakerTest {
                 BytesAdapter.of(ByteOrder.BIG_ENDIAN)
         );
 
-        var entry = maker.makeEntry((short) 0, 2, 0);
+        var entry = maker.makeEntry((short) 0, 2, ByteBuffer.allocate(4));
 
         assertAll(
                 () -> assertArrayEquals(new int[]{0x0F, 0x12}, entry.numerators(), "Numerators"),
@@ -42,7 +43,7 @@ class SRationalEntryMakerTest {
                 BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
         );
 
-        var entry = maker.makeEntry((short) 0, 2, 0);
+        var entry = maker.makeEntry((short) 0, 2, ByteBuffer.allocate(4));
 
         assertAll(
                 () -> assertArrayEquals(new int[]{0x0F000000, 0x12000000}, entry.numerators(), "Numerators"),
@@ -2,6 +2,7 @@ package io.github.stellarsunset.tiff;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 
@@ -21,7 +22,7 @@ class SShortEntryMakerTest {
                 BytesAdapter.of(ByteOrder.BIG_ENDIAN)
         );
 
-        short[] values = maker.makeEntry((short) 0, 3, 0)
+        short[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(new short[]{0x0F, 0xF0, 0x12}, values);
@@ -39,7 +40,7 @@ class SShortEntryMakerTest {
                 BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
         );
 
-        short[] values = maker.makeEntry((short) 0, 3, 0)
+        short[] values = maker.makeEntry((short) 0, 3, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(new short[]{0x0F00, (short) 0xF000, 0x1200}, values);
@@ -18,6 +18,10 @@ class SanityCheckTest {
         switch (image) {
             case Image.Lazy lazy -> {
             }
+            case Image.Chunked chunked -> {
+            }
+            case Image.Cropped cropped -> {
+            }
             case Image.Unknown unknown -> {
             }
             case BaselineImage baselineImage -> {
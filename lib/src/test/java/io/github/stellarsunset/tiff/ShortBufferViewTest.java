@@ -29,4 +29,17 @@ class ShortBufferViewTest {
         short[] a2 = buffer.readShorts(1, 1);
         assertArrayEquals(new short[]{(short) 0xF0FF}, a2);
     }
+
+    @Test
+    void testBulk() {
+
+        var buffer = BufferView.shorts(ByteBuffer.allocate(8).position(2));
+        buffer.writeShorts(0, new short[]{0x010F, (short) 0xF0FF, 0x0A0B}, 0, 3);
+
+        assertArrayEquals(new byte[]{0, 0, 0x01, 0x0F, (byte) 0xF0, (byte) 0xFF, 0x0A, 0x0B}, buffer.delegate().array());
+
+        short[] dst = new short[2];
+        buffer.readShorts(1, dst, 0, 2);
+        assertArrayEquals(new short[]{(short) 0xF0FF, 0x0A0B}, dst);
+    }
 }
@@ -0,0 +1,109 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.extension.DataImage;
+import io.github.stellarsunset.tiff.extension.TileInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkState;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TiffFileTest {
+
+    private static final File FILE = tiffFile("extension/float-predictor-tiled.tif");
+
+    @Test
+    void testLazy() {
+        try (TiffFile.Lazy lazy = TiffFileReader.withMaker(DataImage.maker()).readLazy(FileChannel.open(FILE.toPath()));
+             TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            assertAll(
+                    "Check lazy file contents.",
+                    () -> assertEquals(file.header(), lazy.header(), "Header"),
+                    () -> assertEquals(6, lazy.numberOfImages(), "Number of Images"),
+                    () -> assertSame(lazy.image(2), lazy.image(2), "Images should be memoized")
+            );
+
+            // walk backwards so the later IFDs are read before the earlier ones
+            for (int i = file.numberOfImages() - 1; i >= 0; i--) {
+                assertEquals(file.ifd(i).entryCount(), lazy.ifd(i).entryCount(), "IFD " + i + " Entry Count");
+                assertEquals(file.ifd(i).nextIfdOffset(), lazy.ifd(i).nextIfdOffset(), "IFD " + i + " Next Offset");
+                assertArrayEquals(TileInfo.getRequired(file.ifd(i)).offsets(), TileInfo.getRequired(lazy.ifd(i)).offsets(), "IFD " + i + " Tile Offsets");
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testLazy_OutOfRange() {
+        try (TiffFile.Lazy lazy = TiffFileReader.withMaker(DataImage.maker()).readLazy(FileChannel.open(FILE.toPath()))) {
+            assertAll(
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> lazy.ifd(6), "Past the end of the chain"),
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> lazy.image(-1), "Negative")
+            );
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testLazy_ConcurrentImages() {
+
+        // each image is only made once both are being made, which deadlocks if making images is serialized
+        CountDownLatch making = new CountDownLatch(2);
+        Image.Maker maker = (channel, order, ifd) -> {
+            making.countDown();
+            try {
+                checkState(making.await(5, TimeUnit.SECONDS), "Images should be made concurrently");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return Image.unknown(channel, ifd);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (TiffFile.Lazy lazy = TiffFileReader.withMaker(maker).readLazy(FileChannel.open(FILE.toPath()))) {
+
+            Future<Image> first = executor.submit(() -> lazy.image(0));
+            Future<Image> second = executor.submit(() -> lazy.image(1));
+
+            assertAll(
+                    "Check images made concurrently.",
+                    () -> assertSame(first.get(10, TimeUnit.SECONDS), lazy.image(0), "Image 0"),
+                    () -> assertSame(second.get(10, TimeUnit.SECONDS), lazy.image(1), "Image 1")
+            );
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEagerThreshold() {
+        try (TiffFile deferred = TiffFileReader.withMaker(DataImage.maker()).withEagerThreshold(0).read(FileChannel.open(FILE.toPath()));
+             TiffFile file = TiffFileReader.withMaker(DataImage.maker()).withEagerThreshold(Integer.MAX_VALUE).read(FileChannel.open(FILE.toPath()))) {
+
+            for (int i = 0; i < file.numberOfImages(); i++) {
+                assertEquals(file.ifd(i).entryCount(), deferred.ifd(i).entryCount(), "IFD " + i + " Entry Count");
+                assertArrayEquals(TileInfo.getRequired(file.ifd(i)).offsets(), TileInfo.getRequired(deferred.ifd(i)).offsets(), "IFD " + i + " Tile Offsets");
+                assertArrayEquals(TileInfo.getRequired(file.ifd(i)).byteCounts(), TileInfo.getRequired(deferred.ifd(i)).byteCounts(), "IFD " + i + " Tile Byte Counts");
+                assertEquals(file.ifd(i).entries().length, deferred.ifd(i).entries().length, "IFD " + i + " Entries");
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
@@ -0,0 +1,353 @@
+package io.github.stellarsunset.tiff;
+
+import io.github.stellarsunset.tiff.baseline.BaselineImage;
+import io.github.stellarsunset.tiff.baseline.BiLevelImage;
+import io.github.stellarsunset.tiff.baseline.ImageDimensions;
+import io.github.stellarsunset.tiff.baseline.Resolution;
+import io.github.stellarsunset.tiff.baseline.RgbImage;
+import io.github.stellarsunset.tiff.baseline.StripInfo;
+import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
+import io.github.stellarsunset.tiff.extension.DataImage;
+import io.github.stellarsunset.tiff.extension.FloatImage;
+import io.github.stellarsunset.tiff.extension.ShortImage;
+import io.github.stellarsunset.tiff.extension.TileInfo;
+import io.github.stellarsunset.tiff.extension.tag.DifferencingPredictor;
+import io.github.stellarsunset.tiff.extension.tag.GeoAsciiParams;
+import io.github.stellarsunset.tiff.extension.tag.PlanarConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.foreign.Arena;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TiffFileWriterTest {
+
+    @Test
+    void testStrips(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("strips.tif");
+        short[][] data = shorts(37, 29);
+
+        TiffFileWriter.strips(8)
+                .withOrder(ByteOrder.LITTLE_ENDIAN)
+                .withCompression(5)
+                .withPredictor(2)
+                .write(path, List.of(TiffFileWriter.Page.of(new Raster.Shorts(data, 1))));
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(path))) {
+
+            StripInfo stripInfo = StripInfo.getRequired(file.ifd(0));
+
+            assertAll(
+                    () -> assertEquals(ByteOrder.LITTLE_ENDIAN, file.header().order(), "ByteOrder"),
+                    () -> assertEquals(1, file.numberOfImages(), "Number of Images"),
+                    () -> assertEquals(8, stripInfo.rowsPerStrip(), "Rows Per Strip"),
+                    () -> assertEquals(5, stripInfo.stripOffsets().length, "Number of Strips"),
+                    () -> assertInstanceOf(DifferencingPredictor.Planar1Horizontal.class, DifferencingPredictor.get(file.ifd(0)), "Predictor")
+            );
+
+            if (unwrap(file.image(0)) instanceof ShortImage.Short1Image image) {
+                assertArrayEquals(data, image.data(), "Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void testTiles(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("tiles.tif");
+        float[][] data = floats(50, 40 * 3);
+
+        TiffFileWriter.tiles(32, 16)
+                .withCompression(8)
+                .withPredictor(3)
+                .withExecutor(Executors.newVirtualThreadPerTaskExecutor())
+                .write(path, List.of(TiffFileWriter.Page.of(new Raster.Floats(data, 3))));
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(path))) {
+
+            TileInfo tileInfo = TileInfo.getRequired(file.ifd(0));
+
+            assertAll(
+                    () -> assertEquals(ByteOrder.BIG_ENDIAN, file.header().order(), "ByteOrder"),
+                    () -> assertEquals(32, tileInfo.width(), "Tile Width"),
+                    () -> assertEquals(16, tileInfo.length(), "Tile Length"),
+                    () -> assertEquals(2 * 4, tileInfo.offsets().length, "Number of Tiles")
+            );
+
+            if (unwrap(file.image(0)) instanceof FloatImage.Float3Image image) {
+                assertArrayEquals(data, image.data(), "Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void testMultiplePages(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("pages.tif");
+
+        short[][] first = shorts(20, 20);
+        short[][] second = shorts(10, 30);
+
+        Ifd.Entry params = new Ifd.Entry.Ascii(GeoAsciiParams.TAG.id(), new byte[]{'W', 'G', 'S', '8', '4', '|', 0});
+
+        TiffFileWriter.strips(3)
+                .withCompression(32773)
+                .write(path, List.of(
+                        TiffFileWriter.Page.of(new Raster.Shorts(first, 1)),
+                        TiffFileWriter.Page.of(new Raster.Shorts(second, 1), params)
+                ));
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(path))) {
+            assertAll(
+                    () -> assertEquals(2, file.numberOfImages(), "Number of Images"),
+                    () -> assertArrayEquals(first, ((ShortImage.Short1Image) unwrap(file.image(0))).data(), "First Image"),
+                    () -> assertArrayEquals(second, ((ShortImage.Short1Image) unwrap(file.image(1))).data(), "Second Image"),
+                    () -> assertInstanceOf(Ifd.Entry.NotFound.class, file.ifd(0).findTag(GeoAsciiParams.TAG.id()), "First Params"),
+                    () -> assertArrayEquals(((Ifd.Entry.Ascii) params).values(),
+                            ((Ifd.Entry.Ascii) file.ifd(1).findTag(GeoAsciiParams.TAG.id())).values(), "Second Params")
+            );
+        }
+    }
+
+    @Test
+    void testBaselineImage(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("rgb.tif");
+
+        try (TiffFile original = TiffFileReader.baseline().read(FileChannel.open(tiffFile("baseline/rgb.tif").toPath()))) {
+
+            RgbImage expected = (RgbImage) unwrap(original.image(0));
+
+            TiffFileWriter.tiles(64, 64)
+                    .withCompression(5)
+                    .withPredictor(2)
+                    .write(path, List.of(TiffFileWriter.Page.of((BaselineImage) expected)));
+
+            try (TiffFile file = TiffFileReader.baseline().read(FileChannel.open(path))) {
+                if (unwrap(file.image(0)) instanceof RgbImage actual) {
+                    assertAll(
+                            () -> assertEquals(expected.dimensions(), actual.dimensions(), "Dimensions"),
+                            () -> assertEquals(expected.resolution(), actual.resolution(), "Resolution"),
+                            () -> assertArrayEquals(expected.data(), actual.data(), "Data")
+                    );
+                } else {
+                    fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBiLevelImage(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("bilevel.tif");
+
+        byte[][] data = new byte[45][37];
+        for (int row = 0; row < data.length; row++) {
+            for (int col = 0; col < data[row].length; col++) {
+                data[row][col] = (byte) ((row / 4 + col / 5) % 2);
+            }
+        }
+
+        Resolution resolution = new Resolution(new Rational(300, 1), new Rational(300, 1));
+        BiLevelImage expected = new BiLevelImage(BiLevelImage.Interpretation.WHITE_IS_ZERO, new ImageDimensions(45, 37), resolution, data);
+
+        TiffFileWriter.tiles(16, 16)
+                .withCompression(32773)
+                .withExecutor(Executors.newFixedThreadPool(4))
+                .write(path, List.of(TiffFileWriter.Page.of((BaselineImage) expected)));
+
+        try (TiffFile file = TiffFileReader.withMaker(BaselineImage.maker(Executors.newFixedThreadPool(4))).read(FileChannel.open(path))) {
+
+            assertArrayEquals(new int[]{1}, BitsPerSample.get(file.ifd(0)), "Bits Per Sample");
+
+            if (unwrap(file.image(0)) instanceof BiLevelImage actual) {
+                assertAll(
+                        () -> assertEquals(expected.type(), actual.type(), "Interpretation"),
+                        () -> assertEquals(expected.dimensions(), actual.dimensions(), "Dimensions"),
+                        () -> assertArrayEquals(expected.raster().words(), actual.raster().words(), "Packed Words"),
+                        () -> assertArrayEquals(data, actual.data(), "Data")
+                );
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+
+            Raster.Window window = new Raster.Window(10, 3, 20, 30);
+            Raster.Packed packed = Raster.Reader.packed(1).readRaster(file.channel(), file.header().order(), file.ifd(0), window);
+
+            for (int row = 0; row < window.length(); row++) {
+                for (int col = 0; col < window.width(); col++) {
+                    assertEquals(data[window.row() + row][window.col() + col], packed.get(row, col), "Pixel at " + row + ", " + col);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFlat(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("flat.tif");
+        float[][] data = floats(50, 40 * 3);
+
+        float[] flat = new float[50 * 40 * 3];
+        for (int row = 0; row < data.length; row++) {
+            System.arraycopy(data[row], 0, flat, row * 40 * 3, 40 * 3);
+        }
+
+        TiffFileWriter.tiles(32, 16)
+                .withCompression(8)
+                .write(path, List.of(TiffFileWriter.Page.of(new Raster.FlatFloats(flat, 50, 40 * 3, 3))));
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.flatMaker()).read(FileChannel.open(path))) {
+
+            if (unwrap(file.image(0)) instanceof FloatImage.FlatFloatImage image) {
+                assertAll(
+                        () -> assertArrayEquals(flat, image.raster().floats(), "Data"),
+                        () -> assertEquals(new FloatImage.Float3Image.Pixel(data[7][9], data[7][10], data[7][11]), image.valueAt(7, 3), "Pixel")
+                );
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+
+            Raster.Window window = new Raster.Window(10, 5, 20, 30);
+            try (Arena arena = Arena.ofConfined()) {
+
+                Raster.Segment segment = Raster.Reader.floats(3).readSegment(file.channel(), file.header().order(), file.ifd(0), window, arena);
+
+                assertAll(
+                        () -> assertEquals(20, segment.length(), "Segment Length"),
+                        () -> assertEquals(30 * 3, segment.stride(), "Segment Stride"),
+                        () -> assertEquals(data[10][15], segment.segment().getAtIndex(ValueLayout.JAVA_FLOAT, 0), "First Sample"),
+                        () -> assertEquals(data[29][5 * 3 + 89], segment.segment().getAtIndex(ValueLayout.JAVA_FLOAT, 19 * 90 + 89), "Last Sample")
+                );
+            }
+        }
+    }
+
+    @Test
+    void testPlanar(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("planar.tif");
+        short[][] data = shorts(37, 29 * 4);
+
+        TiffFileWriter.strips(8)
+                .withCompression(5)
+                .withPredictor(2)
+                .withPlanarConfiguration(2)
+                .write(path, List.of(TiffFileWriter.Page.of(new Raster.Shorts(data, 4))));
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(path))) {
+
+            Ifd ifd = file.ifd(0);
+
+            assertAll(
+                    () -> assertEquals(2, PlanarConfiguration.get(ifd), "Planar Configuration"),
+                    () -> assertEquals(5 * 4, StripInfo.getRequired(ifd).stripOffsets().length, "Number of Strips")
+            );
+
+            if (unwrap(file.image(0)) instanceof ShortImage.ShortNImage image) {
+                assertArrayEquals(data, image.data(), "Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+
+            Raster.Window window = new Raster.Window(3, 5, 30, 20);
+            Raster.Shorts bands = Raster.Reader.shorts(4).readBands(file.channel(), file.header().order(), ifd, window, 3, 1);
+
+            assertEquals(2, bands.componentsPerPixel(), "Components Per Pixel");
+            for (int row = 0; row < window.length(); row++) {
+                for (int col = 0; col < window.width(); col++) {
+                    short[] expected = data[window.row() + row];
+                    int pixel = (window.col() + col) * 4;
+                    assertEquals(expected[pixel + 3], bands.shorts()[row][col * 2], "Band 3 at " + row + ", " + col);
+                    assertEquals(expected[pixel + 1], bands.shorts()[row][col * 2 + 1], "Band 1 at " + row + ", " + col);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDefaultRows(@TempDir Path dir) throws Exception {
+
+        Path path = dir.resolve("rows.tif");
+        short[][] data = shorts(37, 29);
+
+        TiffFileWriter.strips(8).write(path, List.of(TiffFileWriter.Page.of(new Raster.Shorts(data, 1))));
+
+        // only implements full reads, so rows are streamed through the default windowed reads
+        Raster.Reader reader = (channel, order, ifd) -> Raster.Reader.shorts(1).readRaster(channel, order, ifd);
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(path))) {
+
+            RowCursor<?> rows = reader.readRows(file.channel(), file.header().order(), file.ifd(0));
+
+            short[][] actual = new short[data.length][];
+            while (rows.next()) {
+                actual[rows.row()] = ((short[]) rows.values()).clone();
+            }
+            assertArrayEquals(data, actual, "Rows");
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+
+        Raster shorts = new Raster.Shorts(shorts(10, 10), 1);
+        Raster floats = new Raster.Floats(floats(10, 10), 1);
+        Raster bits = Raster.Packed.allocate(10, 10, 1, 1);
+
+        ByteArrayChannel channel = ByteArrayChannel.empty();
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.tiles(20, 16), "Tile width not a multiple of 16"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.strips(1).withCompression(-1), "Unknown compression"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.strips(1).withCompression(2), "Decode-only compression"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.strips(1).withPlanarConfiguration(3), "Unknown planar configuration"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.strips(1).withPredictor(3).write(channel, TiffFileWriter.Page.of(shorts)), "Floating-point predictor"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.strips(1).withPredictor(2).write(channel, TiffFileWriter.Page.of(floats)), "Horizontal predictor"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.strips(1).withPredictor(2).write(channel, TiffFileWriter.Page.of(bits)), "Sub-byte predictor"),
+                () -> assertThrows(IllegalArgumentException.class, () -> TiffFileWriter.Page.of(shorts, new Ifd.Entry.Short((short) 0x100, new short[]{1})), "Structural tag")
+        );
+    }
+
+    private static short[][] shorts(int rows, int columns) {
+        short[][] array = new short[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                array[row][col] = (short) (row * 100 + col);
+            }
+        }
+        return array;
+    }
+
+    private static float[][] floats(int rows, int columns) {
+        float[][] array = new float[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                array[row][col] = row * 0.5f - col * 1.25f;
+            }
+        }
+        return array;
+    }
+
+    private static Image unwrap(Image image) {
+        return image instanceof Image.Lazy l ? l.delegate() : image;
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
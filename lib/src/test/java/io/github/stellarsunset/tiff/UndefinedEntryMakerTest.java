@@ -2,6 +2,7 @@ package io.github.stellarsunset.tiff;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
 
@@ -21,7 +22,7 @@ class UndefinedEntryMakerTest {
                 BytesAdapter.of(ByteOrder.BIG_ENDIAN)
         );
 
-        byte[] values = maker.makeEntry((short) 0, 5, 0)
+        byte[] values = maker.makeEntry((short) 0, 5, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(theArray, values);
@@ -39,7 +40,7 @@ class UndefinedEntryMakerTest {
                 BytesAdapter.of(ByteOrder.LITTLE_ENDIAN)
         );
 
-        byte[] values = maker.makeEntry((short) 0, 5, 0)
+        byte[] values = maker.makeEntry((short) 0, 5, ByteBuffer.allocate(4))
                 .values();
 
         assertArrayEquals(theArray, values);
@@ -1,5 +1,7 @@
 package io.github.stellarsunset.tiff.baseline;
 
+import io.github.stellarsunset.tiff.Raster;
+import io.github.stellarsunset.tiff.Rational;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,4 +27,52 @@ class BiLevelImageTest {
                 () -> assertTrue(new BiLevelImage.Pixel((byte) 1, false).isWhite(), "IsWhite 1")
         );
     }
+
+    @Test
+    void testPackedData() {
+
+        byte[][] data = new byte[3][70];
+        for (int row = 0; row < data.length; row++) {
+            for (int col = 0; col < data[row].length; col++) {
+                data[row][col] = (byte) ((row + col) % 3 == 0 ? 1 : 0);
+            }
+        }
+
+        Resolution resolution = new Resolution(new Rational(300, 1), new Rational(300, 1));
+        BiLevelImage image = new BiLevelImage(BiLevelImage.Interpretation.WHITE_IS_ZERO, new ImageDimensions(3, 70), resolution, data);
+
+        Raster.Packed raster = image.raster();
+
+        assertAll(
+                () -> assertEquals(2, raster.words()[0].length, "Words Per Row"),
+                () -> assertEquals(0x9249249249249249L, raster.words()[0][0], "First Word"),
+                () -> assertEquals(1, image.valueAt(1, 2).value(), "Value At (1, 2)"),
+                () -> assertEquals(0, image.valueAt(1, 3).value(), "Value At (1, 3)"),
+                () -> assertTrue(image.valueAt(2, 67).isBlack(), "Is Black At (2, 67)"),
+                () -> assertArrayEquals(data, image.data(), "Data")
+        );
+    }
+
+    @Test
+    void testPackedAccessors() {
+
+        Raster.Packed raster = Raster.Packed.allocate(2, 40, 4, 1);
+
+        raster.set(1, 15, 0xA);
+        raster.set(1, 16, 0x1F);
+        raster.pack(1, 30, new byte[]{7, 8, 9}, 0, 3);
+
+        byte[] unpacked = new byte[6];
+        raster.unpack(1, 14, unpacked, 0, 3);
+        raster.unpack(1, 30, unpacked, 3, 3);
+
+        assertAll(
+                () -> assertEquals(0xA, raster.get(1, 15), "Sample 15"),
+                () -> assertEquals(0xF, raster.get(1, 16), "Sample 16 keeps the low bits"),
+                () -> assertEquals(0, raster.get(0, 15), "Other rows untouched"),
+                () -> assertArrayEquals(new byte[]{0, 0xA, 0xF, 7, 8, 9}, unpacked, "Unpacked"),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> raster.get(0, 40), "Out of bounds"),
+                () -> assertThrows(IllegalArgumentException.class, () -> Raster.Packed.allocate(1, 1, 3, 1), "3-bit samples")
+        );
+    }
 }
@@ -0,0 +1,136 @@
+package io.github.stellarsunset.tiff.compress;
+
+import io.github.stellarsunset.tiff.BytesAdapter;
+import mil.nga.tiff.compression.DeflateCompression;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeflateTest {
+
+    private static final DeflateCompression REFERENCE = new DeflateCompression();
+
+    private static final Deflate DECODER = new Deflate();
+
+    private static final BytesAdapter ADAPTER = BytesAdapter.of(ByteOrder.BIG_ENDIAN);
+
+    @Test
+    void test() {
+        byte[] expected = sampleBytes();
+        assertArrayEquals(expected, DECODER.decompress(deflate(expected), ADAPTER));
+    }
+
+    @Test
+    void regressionTest() {
+
+        byte[] bytes = deflate(sampleBytes());
+
+        byte[] expected = REFERENCE.decode(bytes, ByteOrder.BIG_ENDIAN);
+        byte[] actual = DECODER.decompress(bytes, ADAPTER);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testIntoBuffer() {
+
+        byte[] expected = sampleBytes();
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(expected.length);
+        int length = DECODER.decompress(ByteBuffer.wrap(deflate(expected)).asReadOnlyBuffer(), dst, ADAPTER);
+
+        byte[] actual = new byte[expected.length];
+        dst.get(0, actual);
+
+        assertAll(
+                () -> assertEquals(expected.length, length, "Length"),
+                () -> assertEquals(expected.length, dst.position(), "Position"),
+                () -> assertArrayEquals(expected, actual, "Contents")
+        );
+    }
+
+    @Test
+    void testIntoBuffer_Truncated() {
+
+        byte[] expected = sampleBytes();
+
+        ByteBuffer dst = ByteBuffer.allocate(100);
+        int length = DECODER.decompress(ByteBuffer.wrap(deflate(expected)), dst, ADAPTER);
+
+        assertAll(
+                () -> assertEquals(100, length, "Length"),
+                () -> assertArrayEquals(Arrays.copyOf(expected, 100), dst.array(), "Contents")
+        );
+    }
+
+    @Test
+    void testCompress() {
+
+        byte[] expected = sampleBytes();
+        byte[] compressed = DECODER.compress(expected, ADAPTER);
+
+        assertAll(
+                () -> assertArrayEquals(expected, REFERENCE.decode(compressed, ByteOrder.BIG_ENDIAN), "Reference"),
+                () -> assertArrayEquals(expected, DECODER.decompress(compressed, ADAPTER), "Decoder")
+        );
+    }
+
+    @Test
+    void testInvalidData() {
+        assertThrows(IllegalArgumentException.class, () -> DECODER.decompress(new byte[]{1, 2, 3, 4}, ADAPTER));
+    }
+
+    @Test
+    void testRegistered() {
+        assertAll(
+                () -> assertInstanceOf(Deflate.class, Compressors.getInstance().compressorFor(8), "Deflate"),
+                () -> assertInstanceOf(Deflate.class, Compressors.getInstance().compressorFor(32946), "Adobe Deflate")
+        );
+    }
+
+    @Test
+    void testInflaterPool() {
+
+        Deflate.InflaterPool pool = new Deflate.InflaterPool(1);
+
+        var first = pool.borrow();
+        var second = pool.borrow();
+
+        pool.release(first);
+        pool.release(second);
+
+        assertAll(
+                () -> assertEquals(1, pool.size(), "Pool should be bounded"),
+                () -> assertSame(first, pool.borrow(), "Should re-use pooled inflaters")
+        );
+    }
+
+    private static byte[] sampleBytes() {
+        Random random = new Random(0);
+        byte[] bytes = new byte[50_000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 64 == 0 ? random.nextInt() : i / 64);
+        }
+        return bytes;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            byte[] buffer = new byte[bytes.length + 64];
+            int length = deflater.deflate(buffer);
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -14,9 +14,11 @@ import mil.nga.tiff.compression.LZWCompression;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,15 +29,6 @@ class LzwTest {
 
     private static final Lzw DECODER = new Lzw();
 
-    @Test
-    void testBitsInStream_TrimBitsLeftOf() {
-        assertAll(
-                () -> assertEquals(0b00011000, Lzw.BitsInStream.trimBitsLeftOf((byte) 0b00011000, 0)),
-                () -> assertEquals(0b00001000, Lzw.BitsInStream.trimBitsLeftOf((byte) 0b00011000, 4)),
-                () -> assertEquals(0b00000010, Lzw.BitsInStream.trimBitsLeftOf((byte) 0b00011010, 6))
-        );
-    }
-
     @Test
     void testBitsInStream_Simple() {
 
@@ -81,6 +74,18 @@ class LzwTest {
         assertArrayEquals(expected, actual, "Should produce identical decompressed byte sequence.");
     }
 
+    @Test
+    void testBitsInStream_PastEnd() {
+
+        Lzw.BitsInStream bis = new Lzw.BitsInStream(new byte[]{(byte) 0b11111111, (byte) 0b10000000});
+
+        assertAll(
+                () -> assertEquals((short) 0b111111111, bis.readBitsAsShort(9), "First 9 bits"),
+                () -> assertEquals(7, bis.bitsRemaining(), "Bits Remaining"),
+                () -> assertEquals((short) 0, bis.readBitsAsShort(9), "Bits past the end should read as zeros")
+        );
+    }
+
     @Test
     void testCodeTable() {
 
@@ -88,23 +93,97 @@ class LzwTest {
 
         assertAll(
                 "Check initialization",
-                () -> assertTrue(table.containsCode((short) 1), "Should contain value <= 256"),
-                () -> assertFalse(table.containsCode((short) 500), "Should not contain value > 256"),
-                () -> assertArrayEquals(new byte[]{(byte) 1}, table.bytesForCode((short) 1),
-                        "Table should contain byte value 1 for code 1"),
+                () -> assertTrue(table.containsCode(1), "Should contain value < 256"),
+                () -> assertFalse(table.containsCode(258), "Should not contain value > 257"),
+                () -> assertEquals(1, table.length(1), "Literal codes should have length 1"),
                 () -> assertEquals(9, table.codeBits(), "Initial code bits should be 9")
         );
 
-        for (int i = 0; i < 512; i++) {
-            table.addNextCode(new byte[0]);
+        table.addNextCode(10, 2);
+
+        assertAll(
+                "Check added code",
+                () -> assertTrue(table.containsCode(258), "Should contain added code"),
+                () -> assertEquals(10, table.offset(258), "Offset"),
+                () -> assertEquals(2, table.length(258), "Length")
+        );
+
+        for (int i = 0; i < 511; i++) {
+            table.addNextCode(0, 1);
         }
 
         assertEquals(10, table.codeBits(), "Code bits should be 10 after 512 iterations.");
+
+        table.reset();
+        assertAll(
+                "Check reset",
+                () -> assertFalse(table.containsCode(258), "Should not contain value > 257 after reset"),
+                () -> assertEquals(9, table.codeBits(), "Code bits should be 9 after reset")
+        );
+    }
+
+    /**
+     * Codes {@code CLEAR, 'A', 258, EOI}, the third code is the one currently being defined so should decode as the
+     * previous sequence plus its first byte.
+     */
+    @Test
+    void testDecompress_CodeNotYetInTable() {
+        byte[] bytes = new byte[]{(byte) 0x80, 0x10, 0x60, 0x50, 0x10};
+        assertArrayEquals("AAA".getBytes(), DECODER.decompress(bytes, BytesAdapter.of(ByteOrder.BIG_ENDIAN)));
+    }
+
+    @Test
+    void testDecompress_IntoBuffer() {
+        byte[] bytes = new byte[]{(byte) 0x80, 0x10, 0x60, 0x50, 0x10};
+
+        ByteBuffer dst = ByteBuffer.allocate(4);
+        int length = DECODER.decompress(ByteBuffer.wrap(bytes), dst, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        assertAll(
+                () -> assertEquals(3, length, "Length"),
+                () -> assertEquals(3, dst.position(), "Position"),
+                () -> assertArrayEquals(new byte[]{'A', 'A', 'A', 0}, dst.array(), "Contents")
+        );
+    }
+
+    @Test
+    void testDecompress_IntoBuffer_Truncated() {
+        byte[] bytes = new byte[]{(byte) 0x80, 0x10, 0x60, 0x50, 0x10};
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(2);
+        int length = DECODER.decompress(ByteBuffer.wrap(bytes), dst, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        assertAll(
+                () -> assertEquals(2, length, "Length"),
+                () -> assertEquals('A', dst.get(1), "Contents")
+        );
     }
 
     @Test
-    void testAppendByte() {
-        assertArrayEquals(new byte[]{1, 2, 3}, Lzw.appendByte(new byte[]{1, 2}, (byte) 3));
+    void testCompress() {
+        byte[] expected = new byte[]{(byte) 0x80, 0x10, 0x60, 0x50, 0x10};
+        assertArrayEquals(expected, DECODER.compress("AAA".getBytes(), BytesAdapter.of(ByteOrder.BIG_ENDIAN)));
+    }
+
+    /**
+     * Enough distinct sequences to fill the code table several times over, exercising each code width and table clears.
+     */
+    @Test
+    void regressionTest_Compress() {
+
+        Random random = new Random(0);
+
+        byte[] bytes = new byte[200_000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) random.nextInt(16);
+        }
+
+        byte[] compressed = DECODER.compress(bytes, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        assertAll(
+                () -> assertArrayEquals(bytes, REFERENCE.decode(compressed, ByteOrder.BIG_ENDIAN), "Reference"),
+                () -> assertArrayEquals(bytes, DECODER.decompress(compressed, BytesAdapter.of(ByteOrder.BIG_ENDIAN)), "Decoder")
+        );
     }
 
     private static final File FILE = tiffFile("compress/lzw.tif");
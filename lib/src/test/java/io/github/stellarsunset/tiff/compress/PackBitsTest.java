@@ -4,9 +4,10 @@ import io.github.stellarsunset.tiff.BytesAdapter;
 import mil.nga.tiff.compression.PackbitsCompression;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class PackBitsTest {
 
@@ -34,4 +35,53 @@ class PackBitsTest {
 
         assertArrayEquals(expected, actual);
     }
+
+    @Test
+    void testIntoBuffer() {
+        byte[] bytes = new byte[]{-128, -3, 4, 3, 0, 1, 2, 3};
+
+        ByteBuffer dst = ByteBuffer.allocate(10).position(1);
+        int length = DECODER.decompress(ByteBuffer.wrap(bytes), dst, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        assertAll(
+                () -> assertEquals(8, length, "Length"),
+                () -> assertEquals(9, dst.position(), "Position"),
+                () -> assertArrayEquals(new byte[]{0, 4, 4, 4, 4, 0, 1, 2, 3, 0}, dst.array(), "Contents")
+        );
+    }
+
+    @Test
+    void testIntoBuffer_Truncated() {
+        byte[] bytes = new byte[]{-128, -3, 4, 3, 0, 1, 2, 3};
+
+        ByteBuffer dst = ByteBuffer.allocate(6);
+        int length = DECODER.decompress(ByteBuffer.wrap(bytes), dst, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        assertAll(
+                () -> assertEquals(6, length, "Length"),
+                () -> assertArrayEquals(new byte[]{4, 4, 4, 4, 0, 1}, dst.array(), "Contents")
+        );
+    }
+
+    @Test
+    void testCompress() {
+        byte[] bytes = new byte[]{4, 4, 4, 4, 0, 1, 2, 3};
+
+        byte[] expected = new byte[]{-3, 4, 3, 0, 1, 2, 3};
+        byte[] actual = DECODER.compress(bytes, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void regressionTest_Compress() {
+
+        byte[] bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 300 < 150 ? i / 50 : i);
+        }
+
+        byte[] compressed = DECODER.compress(bytes, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+        assertArrayEquals(bytes, REFERENCE.decode(compressed, ByteOrder.BIG_ENDIAN));
+    }
 }
@@ -4,9 +4,10 @@ import io.github.stellarsunset.tiff.BytesAdapter;
 import mil.nga.tiff.compression.RawCompression;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class UncompressedTest {
 
@@ -31,4 +32,21 @@ class UncompressedTest {
 
         assertArrayEquals(expected, actual);
     }
+
+    @Test
+    void testIntoBuffer() {
+        byte[] bytes = new byte[]{4, 4, 4, 4, 0, 1, 2, 3};
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(6);
+        int length = DECODER.decompress(ByteBuffer.wrap(bytes).position(2), dst, BytesAdapter.of(ByteOrder.BIG_ENDIAN));
+
+        byte[] actual = new byte[6];
+        dst.get(0, actual);
+
+        assertAll(
+                () -> assertEquals(6, length, "Length"),
+                () -> assertEquals(6, dst.position(), "Position"),
+                () -> assertArrayEquals(new byte[]{4, 4, 0, 1, 2, 3}, actual, "Contents")
+        );
+    }
 }
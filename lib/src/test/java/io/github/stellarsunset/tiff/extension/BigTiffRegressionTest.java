@@ -0,0 +1,103 @@
+package io.github.stellarsunset.tiff.extension;
+
+import io.github.stellarsunset.tiff.*;
+import io.github.stellarsunset.tiff.baseline.RasterHelpers;
+import io.github.stellarsunset.tiff.baseline.RgbImage;
+import io.github.stellarsunset.tiff.baseline.StripInfo;
+import io.github.stellarsunset.tiff.extension.FloatImage.Float3Image;
+import mil.nga.tiff.Rasters;
+import mil.nga.tiff.TiffReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The BigTIFF files are re-encodings of the classic {@code tiled-rgb.tif} and {@code float-predictor-strips.tif} files
+ * with 8-byte offsets and {@link Ifd.Entry.Long8} strip/tile offsets and byte counts, so are regression tested against
+ * NGA's reading of the classic originals.
+ */
+class BigTiffRegressionTest {
+
+    @Test
+    void testTiles() {
+
+        File big = tiffFile("extension/bigtiff-tiled-rgb.tif");
+
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.baseline()).read(FileChannel.open(big.toPath()))) {
+
+            TiffHeader header = file.header();
+            Ifd ifd = file.ifd(0);
+
+            assertAll(
+                    "Check the top-level file contents.",
+                    () -> assertEquals(ByteOrder.LITTLE_ENDIAN, header.order(), "ByteOrder"),
+                    () -> assertTrue(header.bigTiff(), "BigTIFF"),
+                    () -> assertEquals(1, file.numberOfImages(), "Number of Images"),
+                    () -> assertEquals(23, ifd.entryCount(), "IFD Entry Count"),
+                    () -> assertInstanceOf(Ifd.Entry.Long8.class, ifd.findTag((short) 0x144), "Tile Offsets Type")
+            );
+
+            TileInfo tileInfo = TileInfo.getRequired(ifd);
+
+            assertAll(
+                    "Check tile layout.",
+                    () -> assertEquals(32, tileInfo.length(), "Tile Length (32)"),
+                    () -> assertEquals(32, tileInfo.width(), "Tile Width (32)"),
+                    () -> assertEquals(12, tileInfo.offsets().length, "Tile Count (12)")
+            );
+
+            if (unwrap(file.image(0)) instanceof RgbImage r) {
+                assertArrayEquals(RasterHelpers.toByteRaster(readRasters("extension/tiled-rgb.tif")), r.data(), "Raster Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testStrips() {
+
+        File big = tiffFile("extension/bigtiff-float-predictor-strips.tif");
+
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(big.toPath()))) {
+
+            Ifd ifd = file.ifd(0);
+            StripInfo stripInfo = StripInfo.getRequired(ifd);
+
+            assertAll(
+                    "Check the top-level file contents.",
+                    () -> assertTrue(file.header().bigTiff(), "BigTIFF"),
+                    () -> assertEquals(25, ifd.entryCount(), "IFD Entry Count"),
+                    () -> assertEquals(72, stripInfo.rowsPerStrip(), "Rows Per Strip"),
+                    () -> assertArrayEquals(new long[]{16}, stripInfo.stripOffsets(), "Strip Offsets")
+            );
+
+            if (unwrap(file.image(0)) instanceof Float3Image f) {
+                assertArrayEquals(RasterHelpers.toFloatRaster(readRasters("extension/float-predictor-strips.tif")), f.data(), "Raster Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private Rasters readRasters(String classic) throws IOException {
+        return TiffReader.readTiff(tiffFile(classic)).getFileDirectory().readRasters();
+    }
+
+    private Image unwrap(Image image) {
+        return image instanceof Image.Lazy l ? unwrap(l.delegate()) : image;
+    }
+
+    private static File tiffFile(String name) {
+        return new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+    }
+}
@@ -16,6 +16,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +78,57 @@ class FloatPredictorRegressionTest {
         }
     }
 
+    @Test
+    void testRows() {
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                RowCursor<float[]> cursor = Raster.Reader.floats(3, executor).readRows(file.channel(), file.header().order(), file.ifd(0));
+                float[][] expected = RasterHelpers.toFloatRaster(readRasters());
+
+                int rows = 0;
+                while (cursor.next()) {
+                    assertArrayEquals(expected[rows], cursor.values(), "Raster Data Row " + rows);
+                    rows++;
+                }
+                assertEquals(72, rows, "Rows Visited");
+            } finally {
+                executor.shutdown();
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testSample() {
+        try (TiffFile file = TiffFileReader.withMaker(DataImage.maker()).read(FileChannel.open(FILE.toPath()))) {
+
+            int[] rows = {71, 0, 35, 0, 71};
+            int[] cols = {127, 0, 64, 0, 3};
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                float[] samples = new float[rows.length * 3];
+                FloatImage.sample(file, 0, rows, cols, samples, executor);
+
+                float[][] expected = RasterHelpers.toFloatRaster(readRasters());
+                for (int i = 0; i < rows.length; i++) {
+                    assertArrayEquals(
+                            Arrays.copyOfRange(expected[rows[i]], cols[i] * 3, cols[i] * 3 + 3),
+                            Arrays.copyOfRange(samples, i * 3, i * 3 + 3),
+                            "Sample " + i
+                    );
+                }
+            } finally {
+                executor.shutdown();
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
     private Rasters readRasters() throws IOException {
         return TiffReader.readTiff(FILE).getFileDirectory().readRasters();
     }
@@ -1,6 +1,7 @@
 package io.github.stellarsunset.tiff.extension;
 
 import io.github.stellarsunset.tiff.*;
+import io.github.stellarsunset.tiff.baseline.BaselineImage;
 import io.github.stellarsunset.tiff.baseline.RasterHelpers;
 import io.github.stellarsunset.tiff.baseline.RgbImage;
 import io.github.stellarsunset.tiff.baseline.tag.BitsPerSample;
@@ -16,6 +17,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -81,6 +85,148 @@ class TiledImageRegressionTest {
         }
     }
 
+    @Test
+    void testParallel() {
+        try (ExecutorService executor = Executors.newFixedThreadPool(4);
+             TiffFile file = TiffFileReader.withMaker(BaselineImage.maker(executor)).read(FileChannel.open(FILE.toPath()))) {
+
+            if (unwrap(file.image(0)) instanceof RgbImage r) {
+                assertArrayEquals(RasterHelpers.toByteRaster(readRasters()), r.data(), "Raster Data");
+            } else {
+                fail("Image not of the correct type, image type was: " + unwrap(file.image(0)).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testWindow() {
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.baseline()).read(FileChannel.open(FILE.toPath()))) {
+
+            Raster.Window window = new Raster.Window(20, 30, 40, 90);
+            byte[][] expected = RasterHelpers.toByteRaster(readRasters());
+
+            if (BaselineImage.readWindow(file, 0, window) instanceof RgbImage r) {
+
+                assertAll(
+                        "Check windowed Image(0) contents.",
+                        () -> assertEquals(40, r.dimensions().length(), "Window Length (40)"),
+                        () -> assertEquals(90, r.dimensions().width(), "Window Width (90)")
+                );
+
+                for (int row = 0; row < window.length(); row++) {
+                    byte[] expectedRow = Arrays.copyOfRange(expected[window.row() + row], window.col() * 3, (window.col() + window.width()) * 3);
+                    assertArrayEquals(expectedRow, r.data()[row], "Raster Data Row " + row);
+                }
+            } else {
+                fail("Windowed image not of the correct type.");
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testChunked() {
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.baseline()).read(FileChannel.open(FILE.toPath()))) {
+
+            ChunkCache cache = ChunkCache.create(1_000_000);
+            Image.Chunked image = Image.chunked(file, 0, Image.Maker.baseline(), cache);
+
+            byte[][] expected = RasterHelpers.toByteRaster(readRasters());
+
+            for (int row = 0; row < 72; row++) {
+                for (int col = 0; col < 128; col++) {
+                    RgbImage.Pixel pixel = (RgbImage.Pixel) image.valueAt(row, col);
+                    byte[] actual = {pixel.r(), pixel.g(), pixel.b()};
+                    assertArrayEquals(Arrays.copyOfRange(expected[row], col * 3, col * 3 + 3), actual, "Pixel " + row + "," + col);
+                }
+            }
+
+            assertAll(
+                    "Check chunk cache usage.",
+                    () -> assertEquals(12, cache.size(), "Should decode each of the 12 tiles once"),
+                    () -> assertEquals(12, cache.stats().missCount(), "Misses")
+            );
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testChunkedMaker() {
+
+        ChunkCache cache = ChunkCache.create(1_000_000);
+
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.chunked(Image.Maker.baseline(), cache)).read(FileChannel.open(FILE.toPath()))) {
+
+            byte[][] expected = RasterHelpers.toByteRaster(readRasters());
+
+            if (file.image(0) instanceof Image.Chunked image) {
+
+                RgbImage.Pixel pixel = (RgbImage.Pixel) image.valueAt(40, 100);
+
+                assertAll(
+                        "Check single pixel lookup.",
+                        () -> assertArrayEquals(Arrays.copyOfRange(expected[40], 300, 303), new byte[]{pixel.r(), pixel.g(), pixel.b()}, "Pixel 40,100"),
+                        () -> assertEquals(1, cache.size(), "Should only decode the tile containing the pixel")
+                );
+            } else {
+                fail("Image not of the correct type, image type was: " + file.image(0).getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testChunkedCroppingMaker() {
+
+        ChunkCache cache = ChunkCache.create(1_000_000);
+
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.chunked(Image.Maker.lazy(Image.Maker.baseline()), cache)).read(FileChannel.open(FILE.toPath()))) {
+
+            byte[][] expected = RasterHelpers.toByteRaster(readRasters());
+
+            RgbImage.Pixel pixel = (RgbImage.Pixel) file.image(0).valueAt(40, 100);
+
+            assertAll(
+                    "Check lookups through a maker without windowed reads of its own.",
+                    () -> assertArrayEquals(Arrays.copyOfRange(expected[40], 300, 303), new byte[]{pixel.r(), pixel.g(), pixel.b()}, "Pixel 40,100"),
+                    () -> assertEquals(1, cache.size(), "Should only cache the tile containing the pixel")
+            );
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void testRows() {
+        try (TiffFile file = TiffFileReader.withMaker(Image.Maker.baseline()).read(FileChannel.open(FILE.toPath()))) {
+
+            RowCursor<byte[]> cursor = Raster.Reader.bytes(3).readRows(file.channel(), file.header().order(), file.ifd(0));
+            byte[][] expected = RasterHelpers.toByteRaster(readRasters());
+
+            int rows = 0;
+            while (cursor.next()) {
+                assertEquals(rows, cursor.row(), "Cursor Row");
+                assertArrayEquals(expected[rows], cursor.values(), "Raster Data Row " + rows);
+                rows++;
+            }
+
+            assertAll(
+                    "Check cursor was exhausted.",
+                    () -> assertEquals(72, cursor.length(), "Cursor Length (72)"),
+                    () -> assertEquals(128, cursor.width(), "Cursor Width (128)"),
+                    () -> assertFalse(cursor.next(), "No further rows")
+            );
+            assertEquals(72, rows, "Rows Visited");
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
     private Rasters readRasters() throws IOException {
         return TiffReader.readTiff(FILE).getFileDirectory().readRasters();
     }
@@ -1,15 +1,14 @@
 package io.github.stellarsunset.tiff.extension.tag;
 
 import io.github.stellarsunset.tiff.BufferView;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
-@Disabled("Not fully supported yet")
 class FloatingPointDifferencingPredictorTest {
 
     @Test
@@ -22,11 +21,12 @@ class FloatingPointDifferencingPredictorTest {
                 }
         );
 
+        // planes 01 89 | 23 AB | 45 CD | 67 EF, then differenced bytewise
         byte[] expected = new byte[]{
-                0x01, (byte) 0x89, // exp hi
-                0x23, (byte) 0xAB, // exp lo
-                0x45, (byte) 0xCD, // mantissa hi
-                0x67, (byte) 0xEF  // mantissa lo
+                0x01, (byte) 0x88, // exp hi
+                (byte) 0x9A, (byte) 0x88, // exp lo
+                (byte) 0x9A, (byte) 0x88, // mantissa hi
+                (byte) 0x9A, (byte) 0x88  // mantissa lo
         };
 
         BufferView.Byte view = BufferView.bytes(
@@ -43,10 +43,10 @@ class FloatingPointDifferencingPredictorTest {
     void testUnpack() {
 
         byte[] floats = new byte[]{
-                0x01, (byte) 0x89, // exp hi
-                0x23, (byte) 0xAB, // exp lo
-                0x45, (byte) 0xCD, // mantissa hi
-                0x67, (byte) 0xEF  // mantissa lo
+                0x01, (byte) 0x88, // exp hi
+                (byte) 0x9A, (byte) 0x88, // exp lo
+                (byte) 0x9A, (byte) 0x88, // mantissa hi
+                (byte) 0x9A, (byte) 0x88  // mantissa lo
         };
 
         byte[] expected = toByteArray(
@@ -84,6 +84,62 @@ class FloatingPointDifferencingPredictorTest {
         assertArrayEquals(expected, floats);
     }
 
+    @Test
+    void testDoubleArrayIdempotent() {
+
+        byte[] doubles = toByteArray(new double[]{1.0, -2.5, 3.25, 1e300, Double.MIN_VALUE, 0.0});
+        byte[] expected = Arrays.copyOf(doubles, doubles.length);
+
+        var predictor = DifferencingPredictor.floatingPoint(2, Double.BYTES);
+
+        BufferView.Byte view = BufferView.bytes(
+                ByteBuffer.wrap(doubles)
+        );
+
+        predictor.pack(view);
+        assertEquals(0x3F, doubles[0], "Most significant plane first");
+
+        predictor.unpack(view);
+        assertArrayEquals(expected, doubles);
+    }
+
+    @Test
+    void testHalfLittleEndian() {
+
+        byte[] halves = new byte[]{
+                0x01, 0x3C, // 0x3C01
+                0x02, 0x40  // 0x4002
+        };
+
+        // planes 3C 40 | 01 02, then differenced bytewise
+        byte[] expected = new byte[]{0x3C, 0x04, (byte) 0xC1, 0x01};
+
+        BufferView.Byte view = BufferView.bytes(
+                ByteBuffer.wrap(halves).order(ByteOrder.LITTLE_ENDIAN)
+        );
+
+        var predictor = DifferencingPredictor.floatingPoint(1, 2);
+
+        predictor.pack(view);
+        assertArrayEquals(expected, halves);
+
+        predictor.unpack(view);
+        assertArrayEquals(new byte[]{0x01, 0x3C, 0x02, 0x40}, halves);
+    }
+
+    @Test
+    void testInvalidBytesPerSample() {
+        assertThrows(IllegalArgumentException.class, () -> DifferencingPredictor.floatingPoint(1, 3));
+    }
+
+    private byte[] toByteArray(double[] doubles) {
+        ByteBuffer bb = ByteBuffer.allocate(doubles.length * Double.BYTES);
+        for (double d : doubles) {
+            bb.putDouble(d);
+        }
+        return bb.array();
+    }
+
     private byte[] toByteArray(float[] floats) {
         ByteBuffer bb = ByteBuffer.allocate(floats.length * Float.BYTES);
         for (float f : floats) {
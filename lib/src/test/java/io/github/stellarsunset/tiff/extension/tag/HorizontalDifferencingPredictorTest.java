@@ -208,4 +208,47 @@ class HorizontalDifferencingPredictorTest {
         }
         return bb.array();
     }
+
+    @Test
+    void testShortsFourComponents() {
+        short[] shorts = new short[]{0, 1, 2, 3, 10, 11, 12, 13, 5, 5, 5, 5, -1, -2, -3, -4};
+        short[] differences = new short[]{0, 1, 2, 3, 10, 10, 10, 10, -5, -6, -7, -8, -6, -7, -8, -9};
+
+        var predictor = new DifferencingPredictor.Planar1Horizontal(4);
+
+        short[] packed = Arrays.copyOf(shorts, shorts.length);
+        predictor.pack(packed, 0, packed.length);
+        assertArrayEquals(differences, packed);
+
+        predictor.unpack(packed, 0, packed.length);
+        assertArrayEquals(shorts, packed);
+    }
+
+    @Test
+    void testIntsOffsetAndPartialPixel() {
+        int[] ints = new int[]{7, 1, 2, 1, 2, 1, 2, 1, 7};
+        int[] expected = new int[]{7, 1, 2, 2, 4, 3, 6, 4, 7};
+
+        var predictor = new DifferencingPredictor.Planar1Horizontal(2);
+
+        predictor.unpack(ints, 1, 7);
+        assertArrayEquals(expected, ints);
+
+        predictor.pack(ints, 1, 7);
+        assertArrayEquals(new int[]{7, 1, 2, 1, 2, 1, 2, 1, 7}, ints);
+    }
+
+    @Test
+    void testLongsManyComponents() {
+        long[] longs = new long[]{1, 2, 3, 4, 5, 10, 20, 30, 40, 50, 11, 22, 33, 44, 55};
+        long[] expected = Arrays.copyOf(longs, longs.length);
+
+        var predictor = new DifferencingPredictor.Planar1Horizontal(5);
+
+        predictor.pack(longs, 0, longs.length);
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5, 9, 18, 27, 36, 45, 1, 2, 3, 4, 5}, longs);
+
+        predictor.unpack(longs, 0, longs.length);
+        assertArrayEquals(expected, longs);
+    }
 }